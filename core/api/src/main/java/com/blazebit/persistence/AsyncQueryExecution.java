@@ -0,0 +1,161 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Executes queries on an executor. Since an entity manager must not be used concurrently,
+ * every query is built and executed through a dedicated entity manager that is created from the given entity manager factory
+ * on the executing thread and closed after the execution. This means that a query only sees committed data
+ * and that entities contained in the results are detached.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public final class AsyncQueryExecution {
+
+    private AsyncQueryExecution() {
+    }
+
+    /**
+     * A factory for the query builder that is executed asynchronously.
+     *
+     * @param <Q> The query builder type
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    public static interface QueryBuilderFactory<Q> {
+
+        /**
+         * Creates the query builder for the given entity manager.
+         * This is invoked on the thread that executes the query, so the query builder must be created for the given entity manager.
+         *
+         * @param entityManager The entity manager dedicated to the execution
+         * @return The query builder
+         */
+        public Q create(EntityManager entityManager);
+    }
+
+    /**
+     * Executes the query of the created query builder on the executor and returns the result list.
+     *
+     * @param executor The executor on which to execute the query
+     * @param entityManagerFactory The entity manager factory from which to create the entity manager for the execution
+     * @param queryBuilderFactory The factory for the query builder
+     * @param <T> The query result type
+     * @return The future for the list of the results
+     */
+    public static <T> Future<List<T>> getResultList(Executor executor, EntityManagerFactory entityManagerFactory, final QueryBuilderFactory<? extends Queryable<T, ?>> queryBuilderFactory) {
+        return submit(executor, new QueryExecution<List<T>>(entityManagerFactory) {
+            @Override
+            protected List<T> execute(EntityManager entityManager) {
+                return queryBuilderFactory.create(entityManager).getResultList();
+            }
+        });
+    }
+
+    /**
+     * Executes the query of the created query builder on the executor expecting a single result.
+     *
+     * @param executor The executor on which to execute the query
+     * @param entityManagerFactory The entity manager factory from which to create the entity manager for the execution
+     * @param queryBuilderFactory The factory for the query builder
+     * @param <T> The query result type
+     * @return The future for the single result
+     */
+    public static <T> Future<T> getSingleResult(Executor executor, EntityManagerFactory entityManagerFactory, final QueryBuilderFactory<? extends Queryable<T, ?>> queryBuilderFactory) {
+        return submit(executor, new QueryExecution<T>(entityManagerFactory) {
+            @Override
+            protected T execute(EntityManager entityManager) {
+                return queryBuilderFactory.create(entityManager).getSingleResult();
+            }
+        });
+    }
+
+    /**
+     * Executes the query of the created query builder on the executor expecting a single result or null.
+     *
+     * @param executor The executor on which to execute the query
+     * @param entityManagerFactory The entity manager factory from which to create the entity manager for the execution
+     * @param queryBuilderFactory The factory for the query builder
+     * @param <T> The query result type
+     * @return The future for the single result or null
+     */
+    public static <T> Future<T> getSingleResultOrNull(Executor executor, EntityManagerFactory entityManagerFactory, final QueryBuilderFactory<? extends Queryable<T, ?>> queryBuilderFactory) {
+        return submit(executor, new QueryExecution<T>(entityManagerFactory) {
+            @Override
+            protected T execute(EntityManager entityManager) {
+                return queryBuilderFactory.create(entityManager).getSingleResultOrNull();
+            }
+        });
+    }
+
+    /**
+     * Executes the queries of the created paginated query builder on the executor and returns the paged list.
+     * A count query executor configured via {@link PaginatedCriteriaBuilder#withCountQueryExecutor(Executor)} is still honored.
+     *
+     * @param executor The executor on which to execute the queries
+     * @param entityManagerFactory The entity manager factory from which to create the entity manager for the execution
+     * @param queryBuilderFactory The factory for the paginated query builder
+     * @param <T> The query result type
+     * @return The future for the paged list of the results
+     */
+    public static <T> Future<PagedList<T>> getPagedResultList(Executor executor, EntityManagerFactory entityManagerFactory, final QueryBuilderFactory<? extends PaginatedCriteriaBuilder<T>> queryBuilderFactory) {
+        return submit(executor, new QueryExecution<PagedList<T>>(entityManagerFactory) {
+            @Override
+            protected PagedList<T> execute(EntityManager entityManager) {
+                return queryBuilderFactory.create(entityManager).getResultList();
+            }
+        });
+    }
+
+    private static <T> Future<T> submit(Executor executor, QueryExecution<T> execution) {
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        FutureTask<T> task = new FutureTask<>(execution);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * A query execution that runs with a dedicated entity manager.
+     *
+     * @param <T> The result type
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private abstract static class QueryExecution<T> implements Callable<T> {
+
+        private final EntityManagerFactory entityManagerFactory;
+
+        public QueryExecution(EntityManagerFactory entityManagerFactory) {
+            if (entityManagerFactory == null) {
+                throw new NullPointerException("entityManagerFactory");
+            }
+            this.entityManagerFactory = entityManagerFactory;
+        }
+
+        @Override
+        public T call() {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                return execute(entityManager);
+            } finally {
+                entityManager.close();
+            }
+        }
+
+        protected abstract T execute(EntityManager entityManager);
+    }
+}
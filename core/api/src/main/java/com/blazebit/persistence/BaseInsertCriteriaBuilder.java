@@ -31,5 +31,30 @@ public interface BaseInsertCriteriaBuilder<T, X extends BaseInsertCriteriaBuilde
      * @return The query builder for chaining calls
      */
     public SelectBuilder<X> bind(String attribute);
+
+    /**
+     * Turns the insert into an upsert that skips rows which conflict with an existing row on the unique key formed by the given attributes.
+     * Depending on the DBMS, this is rendered as <code>ON CONFLICT DO NOTHING</code>, <code>ON DUPLICATE KEY UPDATE</code> or as <code>MERGE</code> statement.
+     * The given attributes must be bound. Note that MySQL and MariaDB consider all unique keys of the table for conflicts.
+     *
+     * @param conflictAttributes The attributes that form the unique key
+     * @return The query builder for chaining calls
+     * @throws IllegalStateException If the DBMS does not support upserts
+     * @since 1.6.21
+     */
+    public X onConflictDoNothing(String... conflictAttributes);
+
+    /**
+     * Turns the insert into an upsert that updates the remaining bound attributes of an existing row with the values that would have been inserted,
+     * if the row conflicts with the existing row on the unique key formed by the given attributes.
+     * Depending on the DBMS, this is rendered as <code>ON CONFLICT DO UPDATE</code>, <code>ON DUPLICATE KEY UPDATE</code> or as <code>MERGE</code> statement.
+     * The given attributes must be bound. Note that MySQL and MariaDB consider all unique keys of the table for conflicts.
+     *
+     * @param conflictAttributes The attributes that form the unique key
+     * @return The query builder for chaining calls
+     * @throws IllegalStateException If the DBMS does not support upserts
+     * @since 1.6.21
+     */
+    public X onConflictDoUpdate(String... conflictAttributes);
     
 }
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.List;
+
+/**
+ * An object builder that is capable of caching the tuples it builds objects from.
+ *
+ * When the result list of a query builder that uses such an object builder is requested, the object builder is asked for cached tuples first.
+ * The query key passed to the object builder covers the structure or query string of the query, the parameter values as well as the first and max results.
+ * On a cache hit, the objects are built from copies of the cached tuples, without preparing, rendering or executing the query if possible.
+ * Since the objects are built anew for every execution, callers never share built objects.
+ * If no cached tuples are available, the query is executed and copies of the tuples are passed to the object builder for caching.
+ * Only the result list and single result methods of query builders and prepared criteria make use of the cache,
+ * queries that are exposed via e.g. <code>getQuery()</code> and result streams are never cached.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface CachingObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns the cached tuples for the given query key or <code>null</code> if there are none.
+     * The returned tuples must not be altered.
+     *
+     * @param queryKey The query key
+     * @return The cached tuples or <code>null</code>
+     */
+    public List<Object[]> getCachedTuples(Object queryKey);
+
+    /**
+     * Offers the given tuples that were the result of the query with the given query key for caching.
+     * Implementations should only cache tuples that consist of immutable values, since the values are shared between executions.
+     *
+     * @param queryKey The query key
+     * @param tuples The tuples
+     */
+    public void putCachedTuples(Object queryKey, List<Object[]> tuples);
+}
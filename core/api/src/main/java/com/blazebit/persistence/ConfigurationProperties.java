@@ -92,11 +92,57 @@ public final class ConfigurationProperties {
 
     /**
      * The fully qualified expression cache implementation class name.
+     * The class must either have a public constructor accepting the configuration properties as <code>Map</code> or a public no-arg constructor.
+     * The bounded <code>com.blazebit.persistence.parser.expression.BoundedExpressionCache</code> can be used to limit the memory consumption.
      *
      * @since 1.2.0
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of entries per expression cache name for bounded expression caches.
+     * The maximum for a specific cache can be configured by appending a dot and the (simple) cache name e.g.
+     * <code>com.blazebit.persistence.expression.cache_maximum_size.PathExpression</code>.
+     * Valid values for this property are positive integers.
+     * Default is <code>10000</code>
+     *
+     * @since 1.6.21
+     */
+    public static final String EXPRESSION_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.expression.cache_maximum_size";
+
+    /**
+     * The maximum accumulated weight per expression cache name for bounded expression caches.
+     * The weight of an expression is the number of nodes of the expression tree.
+     * The maximum for a specific cache can be configured by appending a dot and the (simple) cache name e.g.
+     * <code>com.blazebit.persistence.expression.cache_maximum_weight.PathExpression</code>.
+     * Valid values for this property are positive integers.
+     * By default, the weight is unbounded.
+     *
+     * @since 1.6.21
+     */
+    public static final String EXPRESSION_CACHE_MAXIMUM_WEIGHT = "com.blazebit.persistence.expression.cache_maximum_weight";
+
+    /**
+     * If set to true, the default unbounded expression cache records hit and miss counts as well as the accumulated weight of its entries.
+     * Bounded expression caches always record statistics.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * @since 1.6.21
+     */
+    public static final String EXPRESSION_CACHE_STATISTICS = "com.blazebit.persistence.expression.cache_statistics";
+
+    /**
+     * If set to true, a corpus of representative expressions, registered functions and configured macros is parsed when building the criteria builder factory.
+     * This warms up the DFA cache of the expression parser so that the first parses at runtime aren't slowed down by DFA construction.
+     * Integrations like entity views additionally parse their mapping expressions.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * @since 1.6.21
+     */
+    public static final String EXPRESSION_PARSER_WARM_UP = "com.blazebit.persistence.expression.parser_warm_up";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -181,6 +227,46 @@ public final class ConfigurationProperties {
      */
     public static final String QUERY_PLAN_CACHE_ENABLED = "com.blazebit.persistence.query_plan_cache_enabled";
 
+    /**
+     * The maximum number of query plans that are cached per criteria builder factory.
+     * Valid values for this property are positive integers.
+     * Default is <code>2048</code>.
+     * This configuration option only takes effect if the eviction policy configured via {@link #QUERY_PLAN_CACHE_EVICTION_POLICY} is <code>SLRU</code> or <code>LRU</code>
+     * and currently only when Hibernate 4.2 - 5.6 is used as JPA provider.
+     *
+     * @since 1.6.21
+     * @see com.blazebit.persistence.spi.QueryPlanCache
+     */
+    public static final String QUERY_PLAN_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.query_plan_cache_maximum_size";
+
+    /**
+     * The eviction policy of the query plan cache of a criteria builder factory.
+     * Valid values for this property are <code>LIRS</code>, <code>SLRU</code> for a segmented LRU and <code>LRU</code>.
+     * Default is <code>LIRS</code>, which uses the LIRS cache of Hibernate with its default size per session factory.
+     * The other values use a {@link com.blazebit.persistence.spi.QueryPlanCache} that is owned by the criteria builder factory.
+     * This configuration option currently only takes effect when Hibernate 4.2 - 5.6 is used as JPA provider.
+     *
+     * @since 1.6.21
+     * @see com.blazebit.persistence.spi.QueryPlanCache
+     */
+    public static final String QUERY_PLAN_CACHE_EVICTION_POLICY = "com.blazebit.persistence.query_plan_cache_eviction_policy";
+
+    /**
+     * If set to true, the rendered query strings of criteria builders are cached on the criteria builder factory level
+     * and are reused for criteria builders with the same structure.
+     * A cache hit for <code>getQueryString()</code> skips the preparation and the rendering of the query builder.
+     * When a query is created, the query builder still has to be prepared because the query depends on e.g. the implicit joins,
+     * so a cache hit only skips the rendering of the JPQL query string.
+     * Collection valued parameters are part of the cache key without their size, so IN list padding doesn't influence the cache.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.6.21
+     */
+    public static final String QUERY_STRING_CACHE_ENABLED = "com.blazebit.persistence.query_string_cache_enabled";
+
     /**
      * If set to true, JPA Criteria predicates are wrapped in a negation predicate instead of copied with negation being propagated.
      * Valid values for this property are <code>true</code> and <code>false</code>.
@@ -200,6 +286,31 @@ public final class ConfigurationProperties {
      */
     public static final String CRITERIA_VALUE_AS_PARAMETER = "com.blazebit.persistence.criteria_value_as_parameter";
 
+    /**
+     * If set to true, the values of collection-valued parameters are padded to the next power of two by repeating the last element
+     * when binding them to a query. Since JPA providers expand a collection-valued parameter to one SQL parameter per element,
+     * this bounds the number of distinct SQL strings, and thus query plan cache entries, for <code>IN</code> predicates with varying element counts.
+     * Collections are not padded beyond the size configured via {@link #IN_LIST_MAXIMUM_SIZE}.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.6.21
+     */
+    public static final String IN_LIST_PADDING = "com.blazebit.persistence.in_list_padding";
+
+    /**
+     * The maximum number of elements that should be bound to a single collection-valued parameter.
+     * Integrations that look up entities by a collection of ids, like <code>findAll(Iterable)</code> of Spring Data repositories,
+     * split larger collections into chunks of this size that are queried separately. The padding of {@link #IN_LIST_PADDING} stays within this size.
+     * Valid values for this property are positive integers.
+     * Default is <code>1000</code>, the maximum number of elements in an <code>IN</code> list on Oracle.
+     *
+     * @since 1.6.21
+     */
+    public static final String IN_LIST_MAXIMUM_SIZE = "com.blazebit.persistence.in_list_maximum_size";
+
     private ConfigurationProperties() {
     }
 }
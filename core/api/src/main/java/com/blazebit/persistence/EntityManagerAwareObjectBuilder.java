@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * An object builder that knows whether it holds state which is bound to the entity manager of the query builder it was applied to.
+ *
+ * Since the object builder of a {@link PreparedCriteria} is shared between executions with different entity managers,
+ * a query builder that uses an object builder which is bound to an entity manager can't be prepared via {@link FullQueryBuilder#prepare()}.
+ * Object builders that don't implement this interface are assumed not to be bound to an entity manager.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface EntityManagerAwareObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns whether this object builder holds state that is bound to the entity manager of the query builder it was applied to.
+     *
+     * @return whether this object builder is bound to an entity manager
+     */
+    public boolean isEntityManagerBound();
+}
@@ -74,6 +74,18 @@ public interface FullQueryBuilder<T, X extends FullQueryBuilder<T, X>> extends Q
      */
     public String getCountQueryString(long maximumCount);
 
+    /**
+     * Freezes the current state of this query builder into an immutable template that can be executed with any entity manager
+     * and different parameter values, without building and rendering the query again. Changes to this query builder
+     * after preparing it are not reflected in the template.
+     *
+     * @return The prepared criteria
+     * @throws IllegalStateException If the query builder can't be prepared because it doesn't render to a plain JPQL query or its object builder is bound to the entity manager
+     * @since 1.6.21
+     * @see PreparedCriteria
+     */
+    public PreparedCriteria<T> prepare();
+
     /**
      * Invokes {@link FullQueryBuilder#pageBy(int, int, String, String...)} with the identifiers of the query root entity.
      *
@@ -0,0 +1,786 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A compact, versioned binary codec for keyset cursors i.e. the offset, page size and the lowest and highest keyset of a {@link KeysetPage}.
+ * Every keyset element is encoded with a one byte type tag followed by a variable length encoding of the value.
+ *
+ * Besides the built-in types i.e. primitive wrappers, {@link String}, {@link BigInteger}, {@link BigDecimal}, {@link UUID},
+ * {@link java.util.Date} and its JDBC subtypes as well as the <code>java.time</code> types, the codec supports enums and types
+ * that can be parsed from their string representation through a static <code>valueOf(String)</code> or <code>parse(CharSequence)</code> method
+ * or a constructor accepting a {@link String}. Such types are only decoded if they are part of the allowed type names of the codec
+ * or if they match the keyset element type passed to {@link #decode(byte[], Class[])}.
+ *
+ * If a HMAC key is configured, encoded cursors are signed with a truncated HMAC-SHA256 and only signed cursors are accepted for decoding.
+ * Instances are thread safe.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class KeysetCursorCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_SIGNED = 1;
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_BYTE = 3;
+    private static final int TAG_SHORT = 4;
+    private static final int TAG_INTEGER = 5;
+    private static final int TAG_LONG = 6;
+    private static final int TAG_FLOAT = 7;
+    private static final int TAG_DOUBLE = 8;
+    private static final int TAG_CHARACTER = 9;
+    private static final int TAG_STRING = 10;
+    private static final int TAG_BIG_INTEGER = 11;
+    private static final int TAG_BIG_DECIMAL = 12;
+    private static final int TAG_UUID = 13;
+    private static final int TAG_DATE = 14;
+    private static final int TAG_SQL_DATE = 15;
+    private static final int TAG_SQL_TIME = 16;
+    private static final int TAG_SQL_TIMESTAMP = 17;
+    private static final int TAG_JAVA_TIME = 18;
+    private static final int TAG_OBJECT = 19;
+
+    // The index into this array is part of the format, so new types must only be appended
+    private static final String[] JAVA_TIME_TYPES = {
+        "java.time.Instant",
+        "java.time.LocalDate",
+        "java.time.LocalDateTime",
+        "java.time.LocalTime",
+        "java.time.OffsetDateTime",
+        "java.time.OffsetTime",
+        "java.time.ZonedDateTime",
+        "java.time.Year",
+        "java.time.YearMonth",
+        "java.time.MonthDay",
+        "java.time.Duration",
+        "java.time.Period"
+    };
+
+    private static final char[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final int[] BASE64_INDEX = new int[128];
+
+    static {
+        Arrays.fill(BASE64_INDEX, -1);
+        for (int i = 0; i < BASE64_ALPHABET.length; i++) {
+            BASE64_INDEX[BASE64_ALPHABET[i]] = i;
+        }
+    }
+
+    private final Set<String> allowedTypeNames;
+    private final SecretKeySpec hmacKey;
+    private final ThreadLocal<Mac> macThreadLocal;
+    private final ConcurrentMap<Class<?>, ValueParser> parsers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new codec without a HMAC key that only supports the built-in types.
+     */
+    public KeysetCursorCodec() {
+        this(Collections.<String>emptySet(), null);
+    }
+
+    /**
+     * Creates a new codec that decodes values of the given non built-in types and signs cursors with the given HMAC key.
+     *
+     * @param allowedTypeNames The fully qualified class names of non built-in types that may be decoded
+     * @param hmacKey The key for signing cursors or <code>null</code> if cursors should not be signed
+     */
+    public KeysetCursorCodec(Collection<String> allowedTypeNames, byte[] hmacKey) {
+        this.allowedTypeNames = allowedTypeNames == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(new HashSet<>(allowedTypeNames));
+        if (hmacKey == null) {
+            this.hmacKey = null;
+            this.macThreadLocal = null;
+        } else {
+            if (hmacKey.length == 0) {
+                throw new IllegalArgumentException("The HMAC key must not be empty!");
+            }
+            this.hmacKey = new SecretKeySpec(hmacKey, HMAC_ALGORITHM);
+            // Validate the key eagerly so that misconfiguration is detected on boot
+            createMac(this.hmacKey);
+            this.macThreadLocal = new ThreadLocal<Mac>() {
+                @Override
+                protected Mac initialValue() {
+                    return createMac(KeysetCursorCodec.this.hmacKey);
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns whether this codec signs cursors.
+     *
+     * @return whether this codec signs cursors
+     */
+    public boolean isSigned() {
+        return hmacKey != null;
+    }
+
+    /**
+     * Encodes the given keyset page to a URL safe Base64 string.
+     *
+     * @param keysetPage The keyset page
+     * @return the encoded cursor
+     */
+    public String encodeToString(KeysetPage keysetPage) {
+        return toBase64(encode(keysetPage));
+    }
+
+    /**
+     * Encodes the given cursor components to a URL safe Base64 string.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param lowest The lowest keyset tuple or <code>null</code>
+     * @param highest The highest keyset tuple or <code>null</code>
+     * @return the encoded cursor
+     */
+    public String encodeToString(int offset, int pageSize, Serializable[] lowest, Serializable[] highest) {
+        return toBase64(encode(offset, pageSize, lowest, highest));
+    }
+
+    /**
+     * Encodes the given keyset page.
+     *
+     * @param keysetPage The keyset page
+     * @return the encoded cursor
+     */
+    public byte[] encode(KeysetPage keysetPage) {
+        Keyset lowest = keysetPage.getLowest();
+        Keyset highest = keysetPage.getHighest();
+        return encode(keysetPage.getFirstResult(), keysetPage.getMaxResults(), lowest == null ? null : lowest.getTuple(), highest == null ? null : highest.getTuple());
+    }
+
+    /**
+     * Encodes the given cursor components.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param lowest The lowest keyset tuple or <code>null</code>
+     * @param highest The highest keyset tuple or <code>null</code>
+     * @return the encoded cursor
+     */
+    public byte[] encode(int offset, int pageSize, Serializable[] lowest, Serializable[] highest) {
+        ByteWriter writer = new ByteWriter(estimateSize(lowest) + estimateSize(highest));
+        writer.writeByte(FORMAT_VERSION << 4 | (hmacKey == null ? 0 : FLAG_SIGNED));
+        writer.writeVarInt(offset);
+        writer.writeVarInt(pageSize);
+        writeTuple(writer, lowest);
+        writeTuple(writer, highest);
+        if (hmacKey != null) {
+            Mac mac = macThreadLocal.get();
+            mac.update(writer.buffer, 0, writer.length);
+            writer.writeBytes(mac.doFinal(), SIGNATURE_LENGTH);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes the given URL safe Base64 cursor to a keyset page.
+     *
+     * @param cursor The encoded cursor
+     * @return the keyset page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public KeysetPage decode(String cursor) {
+        return decode(fromBase64(cursor), null);
+    }
+
+    /**
+     * Decodes the given URL safe Base64 cursor to a keyset page, allowing non built-in values of the given keyset element types.
+     *
+     * @param cursor The encoded cursor
+     * @param keysetTypes The keyset element types or <code>null</code>
+     * @return the keyset page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public KeysetPage decode(String cursor, Class<?>[] keysetTypes) {
+        return decode(fromBase64(cursor), keysetTypes);
+    }
+
+    /**
+     * Decodes the given cursor to a keyset page.
+     *
+     * @param cursor The encoded cursor
+     * @return the keyset page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public KeysetPage decode(byte[] cursor) {
+        return decode(cursor, null);
+    }
+
+    /**
+     * Decodes the given cursor to a keyset page, allowing non built-in values of the given keyset element types.
+     *
+     * @param cursor The encoded cursor
+     * @param keysetTypes The keyset element types or <code>null</code>
+     * @return the keyset page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public KeysetPage decode(byte[] cursor, Class<?>[] keysetTypes) {
+        if (cursor.length == 0) {
+            throw new IllegalArgumentException("Invalid keyset cursor: empty cursor");
+        }
+        int header = cursor[0] & 0xFF;
+        if (header >>> 4 != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Invalid keyset cursor: unsupported format version " + (header >>> 4));
+        }
+        boolean signed = (header & FLAG_SIGNED) != 0;
+        int length = cursor.length;
+        if (hmacKey != null) {
+            if (!signed || length <= SIGNATURE_LENGTH) {
+                throw new IllegalArgumentException("Invalid keyset cursor: missing signature");
+            }
+            length -= SIGNATURE_LENGTH;
+            Mac mac = macThreadLocal.get();
+            mac.update(cursor, 0, length);
+            byte[] expected = Arrays.copyOf(mac.doFinal(), SIGNATURE_LENGTH);
+            if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(cursor, length, cursor.length))) {
+                throw new IllegalArgumentException("Invalid keyset cursor: signature mismatch");
+            }
+        } else if (signed) {
+            throw new IllegalArgumentException("Invalid keyset cursor: signed cursors require a HMAC key");
+        }
+
+        ByteReader reader = new ByteReader(cursor, 1, length);
+        int offset = reader.readVarInt();
+        int pageSize = reader.readVarInt();
+        Serializable[] lowest = readTuple(reader, keysetTypes);
+        Serializable[] highest = readTuple(reader, keysetTypes);
+        if (reader.position != length) {
+            throw new IllegalArgumentException("Invalid keyset cursor: trailing data");
+        }
+        return new DefaultKeysetPage(offset, pageSize, lowest == null ? null : new DefaultKeyset(lowest), highest == null ? null : new DefaultKeyset(highest));
+    }
+
+    private static int estimateSize(Serializable[] tuple) {
+        return tuple == null ? 8 : 8 + tuple.length * 9;
+    }
+
+    private void writeTuple(ByteWriter writer, Serializable[] tuple) {
+        if (tuple == null) {
+            writer.writeVarInt(0);
+            return;
+        }
+        writer.writeVarInt(tuple.length + 1);
+        for (int i = 0; i < tuple.length; i++) {
+            writeValue(writer, tuple[i]);
+        }
+    }
+
+    private void writeValue(ByteWriter writer, Serializable value) {
+        if (value == null) {
+            writer.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            writer.writeByte(TAG_STRING);
+            writer.writeString((String) value);
+        } else if (value instanceof Integer) {
+            writer.writeByte(TAG_INTEGER);
+            writer.writeVarLong(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            writer.writeByte(TAG_LONG);
+            writer.writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Boolean) {
+            writer.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Short) {
+            writer.writeByte(TAG_SHORT);
+            writer.writeVarLong(zigZag((Short) value));
+        } else if (value instanceof Byte) {
+            writer.writeByte(TAG_BYTE);
+            writer.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            writer.writeByte(TAG_CHARACTER);
+            writer.writeVarInt((Character) value);
+        } else if (value instanceof Float) {
+            writer.writeByte(TAG_FLOAT);
+            writer.writeFixed(Float.floatToIntBits((Float) value), 4);
+        } else if (value instanceof Double) {
+            writer.writeByte(TAG_DOUBLE);
+            writer.writeFixed(Double.doubleToLongBits((Double) value), 8);
+        } else if (value instanceof BigInteger) {
+            writer.writeByte(TAG_BIG_INTEGER);
+            byte[] bytes = ((BigInteger) value).toByteArray();
+            writer.writeVarInt(bytes.length);
+            writer.writeBytes(bytes, bytes.length);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal bigDecimal = (BigDecimal) value;
+            writer.writeByte(TAG_BIG_DECIMAL);
+            writer.writeVarLong(zigZag(bigDecimal.scale()));
+            byte[] bytes = bigDecimal.unscaledValue().toByteArray();
+            writer.writeVarInt(bytes.length);
+            writer.writeBytes(bytes, bytes.length);
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            writer.writeByte(TAG_UUID);
+            writer.writeFixed(uuid.getMostSignificantBits(), 8);
+            writer.writeFixed(uuid.getLeastSignificantBits(), 8);
+        } else if (value.getClass() == java.sql.Timestamp.class) {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            writer.writeByte(TAG_SQL_TIMESTAMP);
+            // The nanos contain the millis, so only encode the epoch seconds
+            long millis = timestamp.getTime();
+            long seconds = millis / 1000L;
+            if (millis % 1000L < 0) {
+                seconds--;
+            }
+            writer.writeVarLong(zigZag(seconds));
+            writer.writeVarInt(timestamp.getNanos());
+        } else if (value.getClass() == java.sql.Date.class) {
+            writer.writeByte(TAG_SQL_DATE);
+            writer.writeVarLong(zigZag(((java.util.Date) value).getTime()));
+        } else if (value.getClass() == java.sql.Time.class) {
+            writer.writeByte(TAG_SQL_TIME);
+            writer.writeVarLong(zigZag(((java.util.Date) value).getTime()));
+        } else if (value.getClass() == java.util.Date.class) {
+            writer.writeByte(TAG_DATE);
+            writer.writeVarLong(zigZag(((java.util.Date) value).getTime()));
+        } else {
+            Class<?> valueClass = value.getClass();
+            int javaTimeIndex = indexOfJavaTimeType(valueClass.getName());
+            if (javaTimeIndex != -1) {
+                writer.writeByte(TAG_JAVA_TIME);
+                writer.writeByte(javaTimeIndex);
+                writer.writeString(value.toString());
+            } else {
+                if (value instanceof Enum<?>) {
+                    valueClass = ((Enum<?>) value).getDeclaringClass();
+                    writer.writeByte(TAG_OBJECT);
+                    writer.writeString(valueClass.getName());
+                    writer.writeString(((Enum<?>) value).name());
+                } else {
+                    // Fail early if the value can't be decoded
+                    getParser(valueClass);
+                    writer.writeByte(TAG_OBJECT);
+                    writer.writeString(valueClass.getName());
+                    writer.writeString(value.toString());
+                }
+            }
+        }
+    }
+
+    private Serializable[] readTuple(ByteReader reader, Class<?>[] keysetTypes) {
+        int size = reader.readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        size--;
+        if (size > reader.limit - reader.position) {
+            throw new IllegalArgumentException("Invalid keyset cursor: tuple size " + size + " exceeds the cursor size");
+        }
+        Serializable[] tuple = new Serializable[size];
+        for (int i = 0; i < size; i++) {
+            tuple[i] = readValue(reader, keysetTypes == null || i >= keysetTypes.length ? null : keysetTypes[i]);
+        }
+        return tuple;
+    }
+
+    private Serializable readValue(ByteReader reader, Class<?> keysetType) {
+        int tag = reader.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_BYTE:
+                return (byte) reader.readByte();
+            case TAG_SHORT:
+                return (short) unZigZag(reader.readVarLong());
+            case TAG_INTEGER:
+                return (int) unZigZag(reader.readVarLong());
+            case TAG_LONG:
+                return unZigZag(reader.readVarLong());
+            case TAG_FLOAT:
+                return Float.intBitsToFloat((int) reader.readFixed(4));
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(reader.readFixed(8));
+            case TAG_CHARACTER:
+                return (char) reader.readVarInt();
+            case TAG_STRING:
+                return reader.readString();
+            case TAG_BIG_INTEGER:
+                return new BigInteger(reader.readBytes(reader.readVarInt()));
+            case TAG_BIG_DECIMAL:
+                int scale = (int) unZigZag(reader.readVarLong());
+                return new BigDecimal(new BigInteger(reader.readBytes(reader.readVarInt())), scale);
+            case TAG_UUID:
+                return new UUID(reader.readFixed(8), reader.readFixed(8));
+            case TAG_DATE:
+                return new java.util.Date(unZigZag(reader.readVarLong()));
+            case TAG_SQL_DATE:
+                return new java.sql.Date(unZigZag(reader.readVarLong()));
+            case TAG_SQL_TIME:
+                return new java.sql.Time(unZigZag(reader.readVarLong()));
+            case TAG_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(unZigZag(reader.readVarLong()) * 1000L);
+                timestamp.setNanos(reader.readVarInt());
+                return timestamp;
+            case TAG_JAVA_TIME:
+                int javaTimeIndex = reader.readByte();
+                if (javaTimeIndex >= JAVA_TIME_TYPES.length) {
+                    throw new IllegalArgumentException("Invalid keyset cursor: unknown java.time type index " + javaTimeIndex);
+                }
+                return parse(loadClass(JAVA_TIME_TYPES[javaTimeIndex]), reader.readString());
+            case TAG_OBJECT:
+                String typeName = reader.readString();
+                String text = reader.readString();
+                Class<?> type;
+                if (keysetType != null && typeName.equals(keysetType.getName())) {
+                    type = keysetType;
+                } else if (allowedTypeNames.contains(typeName)) {
+                    type = loadClass(typeName);
+                } else {
+                    throw new IllegalArgumentException("Invalid keyset cursor: illegal attempt to decode disallowed type: " + typeName);
+                }
+                return parse(type, text);
+            default:
+                throw new IllegalArgumentException("Invalid keyset cursor: unknown type tag " + tag);
+        }
+    }
+
+    private static int indexOfJavaTimeType(String typeName) {
+        if (!typeName.startsWith("java.time.")) {
+            return -1;
+        }
+        for (int i = 0; i < JAVA_TIME_TYPES.length; i++) {
+            if (JAVA_TIME_TYPES[i].equals(typeName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Class<?> loadClass(String typeName) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader != null) {
+            try {
+                return Class.forName(typeName, false, classLoader);
+            } catch (ClassNotFoundException ex) {
+                // Fall through to our own class loader
+            }
+        }
+        try {
+            return Class.forName(typeName, false, KeysetCursorCodec.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException("Invalid keyset cursor: type not found " + typeName, ex);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Serializable parse(Class<?> type, String text) {
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, text);
+        }
+        return getParser(type).parse(text);
+    }
+
+    private ValueParser getParser(Class<?> type) {
+        ValueParser parser = parsers.get(type);
+        if (parser == null) {
+            parser = createParser(type);
+            parsers.putIfAbsent(type, parser);
+        }
+        return parser;
+    }
+
+    private static ValueParser createParser(Class<?> type) {
+        if (!Serializable.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Unsupported keyset value type " + type.getName() + " because it is not serializable!");
+        }
+        Method method = getStaticMethod(type, "parse", CharSequence.class);
+        if (method == null) {
+            method = getStaticMethod(type, "valueOf", String.class);
+        }
+        if (method != null) {
+            return new ValueParser(method, null);
+        }
+        try {
+            return new ValueParser(null, type.getConstructor(String.class));
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("Unsupported keyset value type " + type.getName() + " because it has no static parse(CharSequence) or valueOf(String) method or a constructor accepting a String!");
+        }
+    }
+
+    private static Method getStaticMethod(Class<?> type, String name, Class<?> parameterType) {
+        try {
+            Method method = type.getMethod(name, parameterType);
+            if (Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                return method;
+            }
+        } catch (NoSuchMethodException ex) {
+            // Ignore
+        }
+        return null;
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not initialize " + HMAC_ALGORITHM + " for keyset cursors", ex);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String toBase64(byte[] bytes) {
+        int length = bytes.length;
+        char[] chars = new char[(length * 4 + 2) / 3];
+        int charIndex = 0;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            chars[charIndex++] = BASE64_ALPHABET[bits >>> 18];
+            chars[charIndex++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+            chars[charIndex++] = BASE64_ALPHABET[(bits >>> 6) & 0x3F];
+            chars[charIndex++] = BASE64_ALPHABET[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (bytes[i] & 0xFF) << 16;
+            chars[charIndex++] = BASE64_ALPHABET[bits >>> 18];
+            chars[charIndex] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8;
+            chars[charIndex++] = BASE64_ALPHABET[bits >>> 18];
+            chars[charIndex++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+            chars[charIndex] = BASE64_ALPHABET[(bits >>> 6) & 0x3F];
+        }
+        return new String(chars);
+    }
+
+    private static byte[] fromBase64(String string) {
+        int length = string.length();
+        // Tolerate padding
+        while (length > 0 && string.charAt(length - 1) == '=') {
+            length--;
+        }
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid keyset cursor: illegal Base64 length");
+        }
+        byte[] bytes = new byte[length * 3 / 4];
+        int byteIndex = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            int value = c < 128 ? BASE64_INDEX[c] : -1;
+            if (value == -1) {
+                throw new IllegalArgumentException("Invalid keyset cursor: illegal Base64 character '" + c + "'");
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                bytes[byteIndex++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses values from their string representation.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class ValueParser {
+
+        private final Method method;
+        private final Constructor<?> constructor;
+
+        private ValueParser(Method method, Constructor<?> constructor) {
+            this.method = method;
+            this.constructor = constructor;
+        }
+
+        public Serializable parse(String text) {
+            try {
+                if (method != null) {
+                    return (Serializable) method.invoke(null, text);
+                } else {
+                    return (Serializable) constructor.newInstance(text);
+                }
+            } catch (InvocationTargetException ex) {
+                throw new IllegalArgumentException("Invalid keyset cursor: could not parse value '" + text + "'", ex.getCause());
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException("Could not parse keyset value '" + text + "'", ex);
+            }
+        }
+    }
+
+    /**
+     * A growable byte buffer that encodes primitive values.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class ByteWriter {
+
+        private byte[] buffer;
+        private int length;
+
+        private ByteWriter(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, length + additional));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        public void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        public void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        public void writeFixed(long value, int bytes) {
+            ensureCapacity(bytes);
+            for (int shift = (bytes - 1) << 3; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        public void writeBytes(byte[] bytes, int count) {
+            ensureCapacity(count);
+            System.arraycopy(bytes, 0, buffer, length, count);
+            length += count;
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, bytes.length);
+        }
+
+        public byte[] toByteArray() {
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * A reader for the values written by {@link ByteWriter}.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class ByteReader {
+
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        private ByteReader(byte[] buffer, int position, int limit) {
+            this.buffer = buffer;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        private void checkAvailable(int count) {
+            if (count < 0 || count > limit - position) {
+                throw new IllegalArgumentException("Invalid keyset cursor: truncated data");
+            }
+        }
+
+        public int readByte() {
+            checkAvailable(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        public int readVarInt() {
+            long value = readVarLong();
+            if ((value & ~0xFFFFFFFFL) != 0) {
+                throw new IllegalArgumentException("Invalid keyset cursor: integer overflow");
+            }
+            return (int) value;
+        }
+
+        public long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid keyset cursor: malformed variable length integer");
+        }
+
+        public long readFixed(int bytes) {
+            checkAvailable(bytes);
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value = value << 8 | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        public byte[] readBytes(int count) {
+            checkAvailable(count);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + count);
+            position += count;
+            return bytes;
+        }
+
+        public String readString() {
+            int count = readVarInt();
+            checkAvailable(count);
+            String value = new String(buffer, position, count, UTF_8);
+            position += count;
+            return value;
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package com.blazebit.persistence;
 
 import javax.persistence.TypedQuery;
+import java.util.concurrent.Executor;
 
 /**
  * A builder for paginated criteria queries.
@@ -193,6 +194,32 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithInlineCountQuery();
 
+    /**
+     * Sets the executor on which the count query is executed concurrently to the id and object query.
+     * The count query is executed through a separate entity manager created from the entity manager factory of this query builder,
+     * which means that the count query uses a separate connection and does not see changes that were not yet committed.
+     * The total size of the resulting {@link PagedList} is then backed by the count query execution,
+     * so {@link PagedList#getTotalSize()} and {@link PagedList#getTotalPages()} block until the count query is done.
+     *
+     * Setting an executor disables the inlining of the count query, see {@link #withInlineCountQuery(boolean)}.
+     * If the count query can't be executed concurrently, e.g. because it uses CTEs or entity functions, because the count is bounded
+     * or because the page is determined by an entity id, the count query is executed as usual before the id and object query.
+     * Passing <code>null</code> disables concurrent execution of the count query.
+     *
+     * @param executor the executor for the count query or <code>null</code>
+     * @return The query builder for chaining calls
+     * @since 1.6.21
+     */
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor executor);
+
+    /**
+     * Returns the executor on which the count query is executed concurrently or <code>null</code> if the count query is executed sequentially.
+     *
+     * @return the executor for the count query or <code>null</code>
+     * @since 1.6.21
+     */
+    public Executor getCountQueryExecutor();
+
     /**
      * Creates and returns a new {@link CriteriaBuilder} that can be used to query the id values for the current page.
      *
@@ -209,6 +236,17 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
     @Override
     public PagedList<T> getResultList();
 
+    /**
+     * Freezes the current state of this query builder into an immutable template of the count, id and object queries.
+     *
+     * @return The prepared paginated criteria
+     * @throws IllegalStateException If the query builder can't be prepared because it doesn't render to plain JPQL queries, uses a bounded count or its object builder is bound to the entity manager
+     * @since 1.6.21
+     * @see PreparedPaginatedCriteria
+     */
+    @Override
+    public PreparedPaginatedCriteria<T> prepare();
+
     @Override
     public <Y> PaginatedCriteriaBuilder<Y> copy(Class<Y> resultClass);
 
@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable template of a query that was built with a {@link FullQueryBuilder} and can be executed concurrently with different entity managers.
+ * The query strings, the object builder and the parameter values are captured when preparing a query builder via {@link FullQueryBuilder#prepare()},
+ * so that executing the template neither has to build nor to render the query again.
+ *
+ * Parameters are passed by name, positional parameters by their position as string. Parameter values that are not passed
+ * default to the values that were set on the query builder when preparing it. A query builder can only be prepared
+ * if it renders to a plain JPQL query i.e. if it doesn't make use of CTEs, entity functions or VALUES clauses.
+ * Since the object builder of the query builder is shared between executions, it must be safe for concurrent use.
+ * Query builders with an object builder that is bound to an entity manager, like entity views that use the <code>SELECT</code> or <code>SUBSELECT</code>
+ * fetch strategy for correlations, are rejected, see {@link EntityManagerAwareObjectBuilder}.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface PreparedCriteria<T> {
+
+    /**
+     * Returns the query string of the prepared query.
+     *
+     * @return The query string
+     */
+    public String getQueryString();
+
+    /**
+     * Creates a query for the given entity manager with the parameter values that were set when preparing the query builder.
+     *
+     * @param entityManager The entity manager to use for creating the query
+     * @return The query
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager);
+
+    /**
+     * Creates a query for the given entity manager with the given parameter values.
+     *
+     * @param entityManager The entity manager to use for creating the query
+     * @param parameters The parameter values by parameter name that override the values that were set when preparing the query builder
+     * @return The query
+     * @throws IllegalArgumentException If a parameter with a given name does not exist
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager, Map<String, Object> parameters);
+
+    /**
+     * Executes the query for the given entity manager with the given parameter values and returns the result list.
+     *
+     * @param entityManager The entity manager to use for executing the query
+     * @param parameters The parameter values by parameter name that override the values that were set when preparing the query builder
+     * @return The result list
+     * @throws IllegalArgumentException If a parameter with a given name does not exist
+     */
+    public List<T> getResultList(EntityManager entityManager, Map<String, Object> parameters);
+
+    /**
+     * Executes the query for the given entity manager with the given parameter values and returns the single result.
+     *
+     * @param entityManager The entity manager to use for executing the query
+     * @param parameters The parameter values by parameter name that override the values that were set when preparing the query builder
+     * @return The single result
+     * @throws IllegalArgumentException If a parameter with a given name does not exist
+     */
+    public T getSingleResult(EntityManager entityManager, Map<String, Object> parameters);
+}
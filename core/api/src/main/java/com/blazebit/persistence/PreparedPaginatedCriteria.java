@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+
+/**
+ * An immutable template of the queries of a {@link PaginatedCriteriaBuilder}, see {@link PreparedCriteria} for details.
+ * Next to the restrictions of {@link PreparedCriteria}, paginated queries that use a bounded count can't be prepared.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface PreparedPaginatedCriteria<T> extends PreparedCriteria<T> {
+
+    /**
+     * Returns the query string of the prepared count query.
+     *
+     * @return The count query string
+     */
+    public String getCountQueryString();
+
+    /**
+     * Returns the query string of the prepared id query or <code>null</code> if no separate id query is used.
+     *
+     * @return The id query string or <code>null</code>
+     */
+    public String getPageIdQueryString();
+
+    @Override
+    public PaginatedTypedQuery<T> createQuery(EntityManager entityManager);
+
+    @Override
+    public PaginatedTypedQuery<T> createQuery(EntityManager entityManager, Map<String, Object> parameters);
+
+    @Override
+    public PagedList<T> getResultList(EntityManager entityManager, Map<String, Object> parameters);
+}
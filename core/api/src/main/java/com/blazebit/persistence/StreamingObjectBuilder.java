@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Iterator;
+
+/**
+ * An object builder that is capable of building objects from a lazily consumed sequence of tuples.
+ *
+ * An {@link ObjectBuilder} that requires the whole result list in {@link ObjectBuilder#buildList(java.util.List)} for reducing tuples can implement
+ * this interface to still support streaming via {@link Queryable#getResultStream()}. Implementations should only retain as many tuples in memory
+ * as needed to produce the next objects.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface StreamingObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns an iterator that lazily builds objects of the target type <code>T</code> from the given tuples.
+     *
+     * @param tuples The result tuples
+     * @return The iterator for the target objects
+     */
+    public Iterator<T> buildIterator(Iterator<Object[]> tuples);
+}
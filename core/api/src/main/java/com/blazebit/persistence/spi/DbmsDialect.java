@@ -360,6 +360,14 @@ public interface DbmsDialect {
      */
     public UpdateJoinStyle getUpdateJoinStyle();
 
+    /**
+     * Returns the upsert style that is supported by the dbms.
+     *
+     * @return the upsert style that is supported by the dbms
+     * @since 1.6.21
+     */
+    public UpsertStyle getUpsertStyle();
+
     /**
      * Returns true if the multiset implementation for the dbms supports exists and supports arbitrary length.
      *
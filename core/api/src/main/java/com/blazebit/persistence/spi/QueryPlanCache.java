@@ -0,0 +1,187 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * The bounded cache for query plans of the {@link ExtendedQuerySupport}.
+ * A criteria builder factory only has its own cache if the eviction policy configured via {@link com.blazebit.persistence.ConfigurationProperties#QUERY_PLAN_CACHE_EVICTION_POLICY}
+ * is <code>SLRU</code> or <code>LRU</code>. The size is configured via {@link com.blazebit.persistence.ConfigurationProperties#QUERY_PLAN_CACHE_MAXIMUM_SIZE}.
+ * The cache can be obtained via {@link com.blazebit.persistence.CriteriaBuilderFactory#getService(Class)}, which returns <code>null</code> if the default <code>LIRS</code> policy is used,
+ * and is used by JPA provider integrations through the {@link ServiceProvider} passed to the {@link ExtendedQuerySupport}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface QueryPlanCache {
+
+    /**
+     * Returns the cached query plan for the given key or <code>null</code>.
+     *
+     * @param key The key of the query plan
+     * @return the cached query plan or <code>null</code>
+     */
+    public Object get(Object key);
+
+    /**
+     * Caches the given query plan for the given key if there is no query plan cached for the key yet.
+     *
+     * @param key The key of the query plan
+     * @param queryPlan The query plan
+     * @return the query plan that is cached for the key after this call
+     */
+    public Object putIfAbsent(Object key, Object queryPlan);
+
+    /**
+     * Records the time that was spent for compiling a query plan, regardless of whether the query plan is cached.
+     *
+     * @param nanos The compilation time in nanoseconds
+     */
+    public void recordCompilation(long nanos);
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics();
+
+    /**
+     * Removes all cached query plans. The statistics are retained.
+     */
+    public void clear();
+
+    /**
+     * A snapshot of the statistics of a query plan cache.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    final class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long compilationCount;
+        private final long compilationNanos;
+        private final long size;
+        private final long maximumSize;
+
+        /**
+         * Creates a new statistics snapshot.
+         *
+         * @param hitCount The hit count
+         * @param missCount The miss count
+         * @param evictionCount The eviction count
+         * @param compilationCount The compilation count
+         * @param compilationNanos The accumulated compilation time in nanoseconds
+         * @param size The size
+         * @param maximumSize The maximum size
+         */
+        public Statistics(long hitCount, long missCount, long evictionCount, long compilationCount, long compilationNanos, long size, long maximumSize) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.compilationCount = compilationCount;
+            this.compilationNanos = compilationNanos;
+            this.size = size;
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * The number of lookups that found a cached query plan.
+         *
+         * @return the hit count
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * The number of lookups that did not find a cached query plan.
+         *
+         * @return the miss count
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * The number of lookups.
+         *
+         * @return the request count
+         */
+        public long getRequestCount() {
+            return hitCount + missCount;
+        }
+
+        /**
+         * The ratio of lookups that found a cached query plan or <code>1.0</code> if there were no lookups yet.
+         *
+         * @return the hit rate
+         */
+        public double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0d : (double) hitCount / requestCount;
+        }
+
+        /**
+         * The number of query plans that were evicted due to the size limit.
+         *
+         * @return the eviction count
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * The number of query plans that were compiled, regardless of whether they were cached.
+         *
+         * @return the compilation count
+         */
+        public long getCompilationCount() {
+            return compilationCount;
+        }
+
+        /**
+         * The accumulated nanoseconds spent for compiling query plans.
+         *
+         * @return the compilation time in nanoseconds
+         */
+        public long getCompilationNanos() {
+            return compilationNanos;
+        }
+
+        /**
+         * The number of currently cached query plans.
+         *
+         * @return the size
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * The maximum number of cached query plans.
+         *
+         * @return the maximum size
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    ", compilationCount=" + compilationCount +
+                    ", compilationNanos=" + compilationNanos +
+                    ", size=" + size +
+                    ", maximumSize=" + maximumSize +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * The possible upsert styles.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public enum UpsertStyle {
+    /**
+     * No support for upserts.
+     */
+    NONE,
+    /**
+     * Requires an ON CONFLICT clause after the insert.
+     */
+    ON_CONFLICT,
+    /**
+     * Requires an ON DUPLICATE KEY UPDATE clause after the insert.
+     */
+    ON_DUPLICATE_KEY,
+    /**
+     * Requires a MERGE statement.
+     */
+    MERGE,
+    /**
+     * Requires a MERGE statement that is terminated by a semicolon.
+     */
+    TERMINATED_MERGE;
+}
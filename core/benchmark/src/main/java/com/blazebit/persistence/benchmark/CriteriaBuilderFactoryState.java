@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Bootstraps the benchmark persistence unit on an in-memory H2 database and a criteria builder factory for it.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@State(Scope.Benchmark)
+public class CriteriaBuilderFactoryState {
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private CriteriaBuilderFactory cbf;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("Benchmark");
+        em = emf.createEntityManager();
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        configure(config);
+        cbf = config.createCriteriaBuilderFactory(emf);
+    }
+
+    protected void configure(CriteriaBuilderConfiguration config) {
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (em != null) {
+            em.close();
+        }
+        if (emf != null) {
+            emf.close();
+        }
+    }
+
+    public EntityManager getEm() {
+        return em;
+    }
+
+    public CriteriaBuilderFactory getCbf() {
+        return cbf;
+    }
+}
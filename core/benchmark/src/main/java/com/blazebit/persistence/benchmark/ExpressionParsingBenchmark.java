@@ -0,0 +1,78 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of common JPQL.Next expressions with the plain {@link ExpressionFactoryImpl}
+ * and with the caching expression factory of a criteria builder factory.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionParsingBenchmark {
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    @State(Scope.Benchmark)
+    public static class ExpressionFactoryState {
+
+        @Param({
+            "d.owner.friend.name",
+            "COALESCE(d.owner.name, d.name, 'unknown')",
+            "CASE WHEN d.age > 10 THEN d.name ELSE UPPER(d.owner.name) END",
+            "d.age * 2 + SIZE(d.versions) - :offset",
+            "d.name LIKE :pattern AND (d.age BETWEEN 1 AND 10 OR d.owner.id IN :ids)",
+            "TREAT(d.owner AS Person).name",
+            "COUNT(DISTINCT d.owner.id)"
+        })
+        public String expression;
+
+        private ExpressionFactory expressionFactory;
+        private ExpressionFactory cachingExpressionFactory;
+
+        @Setup(Level.Trial)
+        public void setup(CriteriaBuilderFactoryState state) {
+            cachingExpressionFactory = state.getCbf().getService(ExpressionFactory.class);
+            expressionFactory = cachingExpressionFactory.unwrap(ExpressionFactoryImpl.class);
+        }
+    }
+
+    @Benchmark
+    public Expression parse(ExpressionFactoryState state) {
+        return state.expressionFactory.createSimpleExpression(state.expression, false, true, false);
+    }
+
+    @Benchmark
+    public Expression parseCached(ExpressionFactoryState state) {
+        return state.cachingExpressionFactory.createSimpleExpression(state.expression, false, true, false);
+    }
+}
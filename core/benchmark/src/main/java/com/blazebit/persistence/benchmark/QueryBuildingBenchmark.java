@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.DefaultKeysetPage;
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.model.IdHolderCTE;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot builder path from {@link CriteriaBuilderFactory#create(EntityManager, Class, String)} to the rendered query string.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    private static final KeysetPage KEYSET_PAGE = new DefaultKeysetPage(
+            0,
+            10,
+            new DefaultKeyset(new Serializable[]{ "doc1", 1L }),
+            new DefaultKeyset(new Serializable[]{ "doc9", 9L })
+    );
+
+    @Benchmark
+    public String simpleSelect(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d")
+                .select("d.id")
+                .select("d.name")
+                .where("d.age").gt(10L)
+                .orderByAsc("d.id")
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String deepImplicitJoins(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d")
+                .select("d.owner.friend.name")
+                .select("d.parent.owner.friend.friend.name")
+                .where("d.owner.friend.partnerDocument.owner.name").eq("owner")
+                .where("d.parent.parent.name").isNotNull()
+                .orderByAsc("d.owner.friend.friend.name")
+                .orderByAsc("d.id")
+                .getQueryString();
+    }
+
+    @Benchmark
+    public void paginated(CriteriaBuilderFactoryState state, Blackhole blackhole) {
+        PaginatedCriteriaBuilder<Document> cb = state.getCbf().create(state.getEm(), Document.class, "d")
+                .leftJoinFetch("d.versions", "v")
+                .where("d.owner.name").like().value("owner%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 10);
+        blackhole.consume(cb.getPageCountQueryString());
+        blackhole.consume(cb.getPageIdQueryString());
+        blackhole.consume(cb.getQueryString());
+    }
+
+    @Benchmark
+    public String keysetPagination(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d")
+                .where("d.age").gt(10L)
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(KEYSET_PAGE, 10, 10)
+                .withKeysetExtraction(true)
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String cte(CriteriaBuilderFactoryState state) {
+        CriteriaBuilder<Document> cb = state.getCbf().create(state.getEm(), Document.class, "d")
+                .with(IdHolderCTE.class)
+                    .from(Document.class, "sub")
+                    .bind("id").select("sub.id")
+                    .where("sub.owner.age").gt(18L)
+                .end()
+                .where("d.id").in()
+                    .from(IdHolderCTE.class, "cte")
+                    .select("cte.id")
+                .end();
+        return cb.getQueryString();
+    }
+
+    @Benchmark
+    public String setOperation(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d1")
+                .select("d1")
+                .where("d1.age").lt(10L)
+                .union()
+                    .from(Document.class, "d2")
+                    .select("d2")
+                    .where("d2.owner.name").eq("owner")
+                .endSet()
+                .orderByAsc("name")
+                .getQueryString();
+    }
+}
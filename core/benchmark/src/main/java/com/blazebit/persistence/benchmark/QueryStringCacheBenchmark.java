@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.TypedQuery;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the builder paths with and without the query string cache, including the cost of the fingerprint generation.
+ * For {@link CriteriaBuilder#getQueryString()}, a cache hit skips preparing and rendering,
+ * whereas for {@link CriteriaBuilder#getQuery()}, a cache hit only skips rendering.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryStringCacheBenchmark {
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    @State(Scope.Benchmark)
+    public static class CachingCriteriaBuilderFactoryState extends CriteriaBuilderFactoryState {
+
+        @Override
+        protected void configure(CriteriaBuilderConfiguration config) {
+            config.setProperty(ConfigurationProperties.QUERY_STRING_CACHE_ENABLED, "true");
+        }
+    }
+
+    @Benchmark
+    public String simpleSelectQueryString(CriteriaBuilderFactoryState state) {
+        return simpleSelect(state).getQueryString();
+    }
+
+    @Benchmark
+    public String simpleSelectQueryStringCached(CachingCriteriaBuilderFactoryState state) {
+        return simpleSelect(state).getQueryString();
+    }
+
+    @Benchmark
+    public String deepImplicitJoinsQueryString(CriteriaBuilderFactoryState state) {
+        return deepImplicitJoins(state).getQueryString();
+    }
+
+    @Benchmark
+    public String deepImplicitJoinsQueryStringCached(CachingCriteriaBuilderFactoryState state) {
+        return deepImplicitJoins(state).getQueryString();
+    }
+
+    @Benchmark
+    public TypedQuery<Document> deepImplicitJoinsQuery(CriteriaBuilderFactoryState state) {
+        return deepImplicitJoins(state).getQuery();
+    }
+
+    @Benchmark
+    public TypedQuery<Document> deepImplicitJoinsQueryCached(CachingCriteriaBuilderFactoryState state) {
+        return deepImplicitJoins(state).getQuery();
+    }
+
+    private static CriteriaBuilder<Document> simpleSelect(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d")
+                .where("d.age").gt(10L)
+                .orderByAsc("d.id");
+    }
+
+    private static CriteriaBuilder<Document> deepImplicitJoins(CriteriaBuilderFactoryState state) {
+        return state.getCbf().create(state.getEm(), Document.class, "d")
+                .where("d.owner.friend.partnerDocument.owner.name").eq("owner")
+                .where("d.parent.parent.name").isNotNull()
+                .orderByAsc("d.owner.friend.friend.name")
+                .orderByAsc("d.id");
+    }
+}
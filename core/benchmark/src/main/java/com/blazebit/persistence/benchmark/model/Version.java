@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark.model;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@Entity
+@Table(name = "document_version")
+public class Version implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private int versionIdx;
+    private Document document;
+
+    public Version() {
+    }
+
+    public Version(int versionIdx, Document document) {
+        this.versionIdx = versionIdx;
+        this.document = document;
+    }
+
+    @Id
+    @GeneratedValue
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getVersionIdx() {
+        return versionIdx;
+    }
+
+    public void setVersionIdx(int versionIdx) {
+        this.versionIdx = versionIdx;
+    }
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    public Document getDocument() {
+        return document;
+    }
+
+    public void setDocument(Document document) {
+        this.document = document;
+    }
+}
@@ -8,6 +8,7 @@ package com.blazebit.persistence.impl;
 import com.blazebit.persistence.BaseFromQueryBuilder;
 import com.blazebit.persistence.BaseSubqueryBuilder;
 import com.blazebit.persistence.CTEBuilder;
+import com.blazebit.persistence.CachingObjectBuilder;
 import com.blazebit.persistence.CaseWhenStarterBuilder;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
@@ -75,6 +76,8 @@ import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContextForQuery;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContextMap;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionOptimizer;
+import com.blazebit.persistence.parser.expression.ExpressionTreeQueryBuilder;
 import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.NumericLiteral;
 import com.blazebit.persistence.parser.expression.NumericType;
@@ -143,9 +146,10 @@ import java.util.Set;
  * @author Moritz Becker
  * @since 1.0.0
  */
-public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource {
+public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource, ExpressionTreeQueryBuilder {
 
     public static final String ID_PARAM_NAME = "ids";
+    private static final ExpressionOptimizer EXPRESSION_OPTIMIZER = new ExpressionOptimizer();
 
     protected final MainQuery mainQuery;
     protected final QueryContext queryContext;
@@ -199,6 +203,11 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
     private boolean checkSetBuilderEnded = true;
     private boolean implicitJoinsApplied = false;
+    // The structural fingerprint of the builder before preparing, used as key for the query string cache
+    private String queryFingerprint;
+    private boolean queryFingerprintComputed = false;
+    // The result cache key for the query that is currently created by getResultListWithResultCache
+    private Object resultCacheKey;
 
     /**
      * Create flat copy of builder
@@ -1320,6 +1329,20 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return (BuilderType) this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void select(Expression expression, String selectAlias) {
+        if (selectAlias != null && selectAlias.isEmpty()) {
+            throw new IllegalArgumentException("selectAlias");
+        }
+        verifyBuilderEnded();
+        prepareForModification(ClauseType.SELECT);
+        selectManager.select(optimizeExpressionTree(expression), selectAlias);
+        if (selectManager.getSelectInfos().size() > 1) {
+            resultType = (Class<QueryResultType>) Tuple.class;
+        }
+    }
+
     public SubqueryInitiator<BuilderType> selectSubquery() {
         return selectSubquery((String) null);
     }
@@ -1519,6 +1542,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return (BuilderType) this;
     }
 
+    @Override
+    public void setWhereExpression(Predicate predicate) {
+        prepareForModification(ClauseType.WHERE);
+        whereManager.restrictSetExpression(optimizeExpressionTree(predicate));
+    }
+
     @SuppressWarnings("unchecked")
     public MultipleSubqueryInitiator<BuilderType> setWhereExpressionSubqueries(String expression) {
         prepareForModification(ClauseType.WHERE);
@@ -1563,6 +1592,13 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return (BuilderType) this;
     }
 
+    @Override
+    public void groupBy(Expression expression) {
+        prepareForModification(ClauseType.GROUP_BY);
+        verifyBuilderEnded();
+        groupByManager.groupBy(optimizeExpressionTree(expression));
+    }
+
     private List<Expression> groupByExpressions(String[] expressions) {
         List<Expression> list = new ArrayList<>(expressions.length);
         if (mainQuery.getQueryConfiguration().isCompatibleModeEnabled()) {
@@ -1757,6 +1793,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         havingManager.restrictSetExpression(predicate);
         return (BuilderType) this;
     }
+
+    @Override
+    public void setHavingExpression(Predicate predicate) {
+        prepareForModification(ClauseType.HAVING);
+        if (groupByManager.isEmpty()) {
+            throw new IllegalStateException("Having without group by");
+        }
+        havingManager.restrictSetExpression(optimizeExpressionTree(predicate));
+    }
     
     @SuppressWarnings("unchecked")
     public MultipleSubqueryInitiator<BuilderType> setHavingExpressionSubqueries(String expression) {
@@ -1803,16 +1848,36 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         } else {
             expr = expressionFactory.createSimpleExpression(expression, false);
         }
-        orderBy(expr, ascending, nullFirst);
+        orderByExpression(expr, ascending, nullFirst);
         return (BuilderType) this;
     }
 
-    private void orderBy(Expression expression, boolean ascending, boolean nullFirst) {
+    @Override
+    public void orderBy(Expression expression, boolean ascending, boolean nullFirst) {
+        orderByExpression(optimizeExpressionTree(expression), ascending, nullFirst);
+    }
+
+    private void orderByExpression(Expression expression, boolean ascending, boolean nullFirst) {
         prepareForModification(ClauseType.ORDER_BY);
         verifyBuilderEnded();
         orderByManager.orderBy(expression, ascending, nullFirst);
     }
 
+    /**
+     * Applies the same optimizations to a pre-built expression tree that the expression factory applies to parsed expressions.
+     *
+     * @param expression The expression tree
+     * @param <T> The expression type
+     * @return The optimized expression tree
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Expression> T optimizeExpressionTree(T expression) {
+        if (mainQuery.getQueryConfiguration().isExpressionOptimizationEnabled()) {
+            return (T) expression.accept(EXPRESSION_OPTIMIZER);
+        }
+        return expression;
+    }
+
     /*
      * Window methods
      */
@@ -2827,9 +2892,92 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     public String getQueryString() {
+        if (needsCheck && isQueryStringCacheEnabled()) {
+            String fingerprint = getQueryFingerprint();
+            if (fingerprint != null) {
+                QueryStringCache queryStringCache = cbf.getQueryStringCache();
+                String queryString = queryStringCache.get(fingerprint, true);
+                if (queryString == null) {
+                    long start = System.nanoTime();
+                    prepareAndCheck(null);
+                    queryString = getExternalQueryString();
+                    queryStringCache.put(fingerprint, true, queryString, System.nanoTime() - start);
+                }
+                return queryString;
+            }
+        }
         prepareAndCheck(null);
         return getExternalQueryString();
     }
+
+    /**
+     * Returns whether the query strings of this builder may be cached in the query string cache of the criteria builder factory.
+     *
+     * @return <code>true</code> if the query string of this builder may be cached
+     */
+    protected boolean isQueryStringCacheable() {
+        return false;
+    }
+
+    /**
+     * Returns the result list of this builder through the result cache of the select object builder if it is a {@link CachingObjectBuilder}.
+     * On a cache hit, the result list is built from copies of the cached tuples without creating or executing a query.
+     * If a structural fingerprint can be generated for this builder, a cache hit also skips preparing and rendering the query.
+     *
+     * @return the result list or <code>null</code> if the select object builder doesn't cache results
+     */
+    @SuppressWarnings("unchecked")
+    protected final List<QueryResultType> getResultListWithResultCache() {
+        ObjectBuilder<QueryResultType> selectObjectBuilder = selectManager.getSelectObjectBuilder();
+        if (!(selectObjectBuilder instanceof CachingObjectBuilder<?>)) {
+            return null;
+        }
+        String queryIdentity = null;
+        if (needsCheck && isQueryStringCacheable()) {
+            if (isQueryStringCacheEnabled()) {
+                queryIdentity = getQueryFingerprint();
+            } else {
+                if (checkSetBuilderEnded) {
+                    verifySetBuilderEnded();
+                }
+                verifyBuilderEnded();
+                queryIdentity = QueryFingerprintGenerator.generate(this);
+            }
+        }
+        if (queryIdentity == null) {
+            prepareAndCheck(null);
+            queryIdentity = getExternalQueryString();
+        }
+        Object queryKey = new ObjectBuilderTypedQuery.QueryKey(queryIdentity, parameterManager.getParameterValues(), firstResult, maxResults);
+        List<Object[]> tuples = ((CachingObjectBuilder<QueryResultType>) selectObjectBuilder).getCachedTuples(queryKey);
+        if (tuples != null) {
+            return ObjectBuilderTypedQuery.buildCachedResultList(selectObjectBuilder, tuples);
+        }
+        try {
+            resultCacheKey = queryKey;
+            return getTypedQuery(null, null).getResultList();
+        } finally {
+            resultCacheKey = null;
+        }
+    }
+
+    private boolean isQueryStringCacheEnabled() {
+        return isQueryStringCacheable() && mainQuery.getQueryConfiguration().isQueryStringCacheEnabled();
+    }
+
+    private String getQueryFingerprint() {
+        if (!queryFingerprintComputed) {
+            if (checkSetBuilderEnded) {
+                verifySetBuilderEnded();
+            }
+            verifyBuilderEnded();
+            long start = System.nanoTime();
+            queryFingerprint = QueryFingerprintGenerator.generate(this);
+            cbf.getQueryStringCache().addFingerprintNanos(System.nanoTime() - start);
+            queryFingerprintComputed = true;
+        }
+        return queryFingerprint;
+    }
     
     protected String getBaseQueryStringWithCheck(StringBuilder lateralSb, JoinNode lateralJoinNode) {
         prepareAndCheck(null);
@@ -3568,7 +3716,18 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             return buildLateralBaseQueryString(lateralSb, lateralJoinNode);
         }
         if (cachedQueryString == null) {
-            cachedQueryString = buildBaseQueryString(false);
+            String fingerprint = queryFingerprintComputed ? queryFingerprint : null;
+            if (fingerprint == null) {
+                cachedQueryString = buildBaseQueryString(false);
+            } else {
+                QueryStringCache queryStringCache = cbf.getQueryStringCache();
+                cachedQueryString = queryStringCache.get(fingerprint, false);
+                if (cachedQueryString == null) {
+                    long start = System.nanoTime();
+                    cachedQueryString = buildBaseQueryString(false);
+                    queryStringCache.put(fingerprint, false, cachedQueryString, System.nanoTime() - start);
+                }
+            }
         }
 
         return cachedQueryString;
@@ -3599,6 +3758,8 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         needsCheck = true;
         cachedQueryString = null;
         cachedExternalQueryString = null;
+        queryFingerprint = null;
+        queryFingerprintComputed = false;
         cachedGroupByIdentifierExpressions = null;
         keyRestrictedLeftJoins = null;
         implicitJoinsApplied = false;
@@ -3651,6 +3812,10 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         }
 
         verifyBuilderEnded();
+        if (isQueryStringCacheEnabled()) {
+            // The fingerprint must be computed before preparing, as preparing mutates the builder state
+            getQueryFingerprint();
+        }
         prepareAndCheckCtes();
         prepareSelect();
         // resolve unresolved aliases, object model etc.
@@ -3997,7 +4162,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     protected final TypedQuery<QueryResultType> applyObjectBuilder(TypedQuery<?> query) {
         ObjectBuilder<QueryResultType> selectObjectBuilder = selectManager.getSelectObjectBuilder();
         if (selectObjectBuilder != null) {
-            return new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), selectObjectBuilder);
+            return new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), selectObjectBuilder, resultCacheKey);
         } else if (parameterManager.getCriteriaNameMapping() != null) {
             return new TypedQueryWrapper<>((TypedQuery<QueryResultType>) query, parameterManager.getCriteriaNameMapping());
         } else {
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CachingObjectBuilder;
 import com.blazebit.persistence.CaseWhenStarterBuilder;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
@@ -14,6 +15,7 @@ import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.MultipleSubqueryInitiator;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PreparedCriteria;
 import com.blazebit.persistence.RestrictionBuilder;
 import com.blazebit.persistence.SelectObjectBuilder;
 import com.blazebit.persistence.SimpleCaseWhenStarterBuilder;
@@ -40,6 +42,7 @@ import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.PathExpression;
 import com.blazebit.persistence.parser.expression.StringLiteral;
+import com.blazebit.persistence.parser.predicate.Predicate;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
 import com.blazebit.persistence.parser.util.TypeUtils;
 import com.blazebit.persistence.spi.AttributeAccessor;
@@ -658,6 +661,37 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return getCountQuery(getCountQueryStringWithoutCheck(Long.MAX_VALUE), useCountWrapper(true));
     }
 
+    @Override
+    public PreparedCriteria<T> prepare() {
+        String queryString = getBaseQueryStringWithCheck(null, null);
+        if (needsSqlReplacement(getKeyRestrictedLeftJoins())) {
+            throw new IllegalStateException("Can't prepare a query builder that uses CTEs, entity functions or key restricted left joins!");
+        }
+        if (selectManager.isEntityManagerBoundObjectBuilder()) {
+            throw new IllegalStateException("Can't prepare a query builder that uses an object builder which is bound to the entity manager, like entity views with SELECT or SUBSELECT fetched correlations!");
+        }
+        ObjectBuilder<T> objectBuilder = selectManager.getSelectObjectBuilder();
+        String externalQueryString = getExternalQueryString();
+        return new PreparedCriteriaImpl<>(
+                queryString,
+                externalQueryString,
+                selectManager.getExpectedQueryResultType(),
+                firstResult,
+                maxResults,
+                isCacheable() ? mainQuery.jpaProvider : null,
+                parameterManager.copyParameters(),
+                copyCriteriaNameMapping(),
+                parameterManager.getMaximumPaddedInListSize(),
+                objectBuilder,
+                objectBuilder instanceof CachingObjectBuilder<?> ? externalQueryString : null
+        );
+    }
+
+    protected final Map<javax.persistence.criteria.ParameterExpression<?>, String> copyCriteriaNameMapping() {
+        Map<javax.persistence.criteria.ParameterExpression<?>, String> criteriaNameMapping = parameterManager.getCriteriaNameMapping();
+        return criteriaNameMapping == null ? null : new HashMap<>(criteriaNameMapping);
+    }
+
     @Override
     public TypedQuery<Long> getCountQuery(long maximumCount) {
         prepareAndCheck(null);
@@ -827,6 +861,21 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return entityIdentifierExpressions;
     }
 
+    /**
+     * Returns whether the query is ordered by the identifier of the single query root first,
+     * i.e. whether the result tuples of a query root entity are contiguous.
+     * Since order by expressions are resolved when building the query, this must only be called after the query was built.
+     *
+     * @return whether the query is ordered by the query root identifier first
+     * @since 1.6.21
+     */
+    public boolean isOrderedByQueryRootIdentifier() {
+        if (joinManager.getRoots().size() != 1 || hasGroupBy) {
+            return false;
+        }
+        return orderByManager.startsWith(getQueryRootEntityIdentifierExpressions());
+    }
+
     private void addAttributes(String prefix, Set<SingularAttribute<?, ?>> attributes, List<ResolvedExpression> resolvedExpressions, StringBuilder sb, JoinNode rootNode) {
         for (SingularAttribute<?, ?> attribute : attributes) {
             String attributeName;
@@ -1228,6 +1277,14 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return super.setHavingExpression(expression);
     }
 
+    @Override
+    public void setHavingExpression(Predicate predicate) {
+        if (createdPaginatedBuilder) {
+            throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
+        }
+        super.setHavingExpression(predicate);
+    }
+
     @Override
     public MultipleSubqueryInitiator<X> setHavingExpressionSubqueries(String expression) {
         if (createdPaginatedBuilder) {
@@ -1252,6 +1309,14 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return super.groupBy(expression);
     }
 
+    @Override
+    public void groupBy(Expression expression) {
+        if (explicitPaginatedIdentifier) {
+            throw new IllegalStateException("Cannot add a GROUP BY clause when paginating by the expressions [" + expressionString(getIdentifierExpressions()) + "]");
+        }
+        super.groupBy(expression);
+    }
+
     public X groupByRollup(String... expressions) {
         if (explicitPaginatedIdentifier) {
             throw new IllegalStateException("Cannot use grouping sets when paginating");
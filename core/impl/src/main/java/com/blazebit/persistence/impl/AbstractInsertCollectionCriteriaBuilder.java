@@ -143,6 +143,11 @@ public abstract class AbstractInsertCollectionCriteriaBuilder<T, X extends BaseI
         JpaUtils.expandBindings(bindingMap, collectionColumnBindingMap, collectionAttributeEntries, ClauseType.SELECT, this, keyFunctionExpression, true);
     }
 
+    @Override
+    protected X onConflict(String[] conflictAttributes, boolean doUpdate) {
+        throw new UnsupportedOperationException("Upserts are not supported for collection inserts!");
+    }
+
     @Override
     protected Query getQuery(Map<DbmsModificationState, String> includedModificationStates) {
         Query baseQuery = em.createQuery(getBaseQueryStringWithCheck(null, null));
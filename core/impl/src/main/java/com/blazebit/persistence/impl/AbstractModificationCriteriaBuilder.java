@@ -202,23 +202,18 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
             boolean shouldRenderCteNodes = renderCteNodes(isEmbedded);
             List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(isEmbedded) : Collections.EMPTY_LIST;
 
-            QuerySpecification querySpecification = new ModificationQuerySpecification(
-                    this,
+            QuerySpecification querySpecification = createModificationQuerySpecification(
                     query,
                     getCountExampleQuery(),
-                    parameterManager.getParameterImpls(),
                     parameterListNames,
                     keyRestrictedLeftJoinAliases,
                     entityFunctionNodes,
-                    mainQuery.cteManager.isRecursive(),
                     ctes,
                     shouldRenderCteNodes,
                     isEmbedded,
                     returningColumns,
                     null,
-                    includedModificationStates,
-                    returningAttributeBindingMap,
-                    mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                    includedModificationStates
             );
 
             query = new CustomSQLQuery(
@@ -381,23 +376,18 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
         List<EntityFunctionNode> entityFunctionNodes = getEntityFunctionNodes(baseQuery, 0);
         boolean shouldRenderCteNodes = renderCteNodes(false);
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.EMPTY_LIST;
-        QuerySpecification querySpecification = new ModificationQuerySpecification(
-                this,
+        QuerySpecification querySpecification = createModificationQuerySpecification(
                 baseQuery,
                 exampleQuery,
-                parameterManager.getParameterImpls(),
                 parameterListNames,
                 keyRestrictedLeftJoinAliases,
                 entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(),
                 ctes,
                 shouldRenderCteNodes,
                 false,
                 returningColumns,
                 objectBuilder,
-                null,
-                returningAttributeBindingMap,
-                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                null
         );
 
         CustomReturningSQLTypedQuery query = new CustomReturningSQLTypedQuery<R>(
@@ -415,6 +405,29 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
         return query;
     }
     
+    protected <R> ModificationQuerySpecification<R> createModificationQuerySpecification(Query baseQuery, Query exampleQuery, Set<String> parameterListNames, List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes,
+                                                                                         List<CTENode> ctes, boolean shouldRenderCteNodes, boolean isEmbedded, String[] returningColumns, ReturningObjectBuilder<R> objectBuilder,
+                                                                                         Map<DbmsModificationState, String> includedModificationStates) {
+        return new ModificationQuerySpecification<>(
+                this,
+                baseQuery,
+                exampleQuery,
+                parameterManager.getParameterImpls(),
+                parameterListNames,
+                keyRestrictedLeftJoinAliases,
+                entityFunctionNodes,
+                mainQuery.cteManager.isRecursive(),
+                ctes,
+                shouldRenderCteNodes,
+                isEmbedded,
+                returningColumns,
+                objectBuilder,
+                includedModificationStates,
+                returningAttributeBindingMap,
+                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+        );
+    }
+
     private List<List<Attribute<?, ?>>> getAndCheckReturningAttributes() {
         int attributeCount = returningAttributes.size();
         if (attributeCount == 0) {
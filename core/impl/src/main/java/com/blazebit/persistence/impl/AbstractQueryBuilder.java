@@ -13,6 +13,7 @@ import javax.persistence.TypedQuery;
 
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.Queryable;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.spi.DbmsStatementType;
 
 /**
@@ -45,18 +46,26 @@ public abstract class AbstractQueryBuilder<T, X extends Queryable<T, X>, Z, W, F
 
     @Override
     public List<T> getResultList() {
-        return getQuery().getResultList();
+        List<T> resultList = getResultListWithResultCache();
+        if (resultList == null) {
+            return getQuery().getResultList();
+        }
+        return resultList;
     }
 
     @Override
     public T getSingleResult() {
-        return getQuery().getSingleResult();
+        List<T> resultList = getResultListWithResultCache();
+        if (resultList == null) {
+            return getQuery().getSingleResult();
+        }
+        return ObjectBuilderTypedQuery.getSingleResult(resultList, this);
     }
 
     @Override
     public T getSingleResultOrNull() {
         try {
-            return getQuery().getSingleResult();
+            return getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
@@ -103,6 +103,12 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
         return (X) this;
     }
 
+    @Override
+    public void orderBy(Expression expression, boolean ascending, boolean nullFirst) {
+        // Set operations are ordered by the select item position which is resolved through the expression string
+        orderBy(expression.toString(), ascending, nullFirst);
+    }
+
     private boolean isNullable(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder, String expression) {
         if (queryBuilder instanceof BaseFinalSetOperationBuilderImpl<?, ?, ?>) {
             SetOperationManager setOpManager = ((BaseFinalSetOperationBuilderImpl<?, ?, ?>) queryBuilder).setOperationManager;
@@ -13,18 +13,22 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
 
 import com.blazebit.persistence.BaseInsertCriteriaBuilder;
 import com.blazebit.persistence.ReturningBuilder;
+import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomSQLQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.InsertModificationQuerySpecification;
 import com.blazebit.persistence.impl.query.ModificationQuerySpecification;
 import com.blazebit.persistence.impl.query.QuerySpecification;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.spi.DbmsModificationState;
 import com.blazebit.persistence.spi.DbmsStatementType;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 /**
  *
@@ -35,6 +39,8 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCriteriaBuilder<T, X>, Y> extends AbstractModificationCriteriaBuilder<T, X, Y> implements BaseInsertCriteriaBuilder<T, X>, SelectBuilder<X> {
 
     protected final Map<String, Integer> bindingMap = new TreeMap<>();
+    protected String[] conflictAttributes;
+    protected boolean conflictDoUpdate;
 
     public BaseInsertCriteriaBuilderImpl(MainQuery mainQuery, QueryContext queryContext, boolean isMainQuery, Class<T> clazz, CTEManager.CTEKey cteKey, Class<?> cteClass, Y result, CTEBuilderListener listener) {
         super(mainQuery, queryContext, isMainQuery, DbmsStatementType.INSERT, clazz, null, cteKey, cteClass, result, listener);
@@ -47,6 +53,8 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
     public BaseInsertCriteriaBuilderImpl(BaseInsertCriteriaBuilderImpl<T, X, Y> builder, MainQuery mainQuery, QueryContext queryContext, Map<JoinManager, JoinManager> joinManagerMapping, ExpressionCopyContext copyContext) {
         super(builder, mainQuery, queryContext, joinManagerMapping, copyContext);
         bindingMap.putAll(builder.bindingMap);
+        conflictAttributes = builder.conflictAttributes;
+        conflictDoUpdate = builder.conflictDoUpdate;
     }
 
     @Override
@@ -69,6 +77,35 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         return this;
     }
 
+    @Override
+    public X onConflictDoNothing(String... conflictAttributes) {
+        return onConflict(conflictAttributes, false);
+    }
+
+    @Override
+    public X onConflictDoUpdate(String... conflictAttributes) {
+        return onConflict(conflictAttributes, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected X onConflict(String[] conflictAttributes, boolean doUpdate) {
+        if (mainQuery.dbmsDialect.getUpsertStyle() == UpsertStyle.NONE) {
+            throw new IllegalStateException("The DBMS does not support upserts!");
+        }
+        if (conflictAttributes.length == 0) {
+            throw new IllegalArgumentException("At least one conflict attribute is required!");
+        }
+        for (String attributeName : conflictAttributes) {
+            if (entityType.getAttribute(attributeName) == null) {
+                throw new IllegalArgumentException("Attribute '" + attributeName + "' does not exist on '" + entityType.getName() + "'!");
+            }
+        }
+        prepareForModification(null);
+        this.conflictAttributes = conflictAttributes.clone();
+        this.conflictDoUpdate = doUpdate;
+        return (X) this;
+    }
+
     protected void addBind(String attributeName) {
         // NOTE: We are not resolving embedded properties, because hibernate does not support them
         // Just do that to assert the attribute exists
@@ -104,6 +141,13 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
             newSelectInfos.add(selectInfo);
             attributeEntry.setValue(newPosition);
         }
+        if (conflictAttributes != null) {
+            for (String conflictAttribute : conflictAttributes) {
+                if (!bindingMap.containsKey(conflictAttribute)) {
+                    throw new IllegalStateException("The conflict attribute [" + conflictAttribute + "] must be bound!");
+                }
+            }
+        }
         expandBindings();
         super.prepareAndCheck(parentVisitor);
     }
@@ -151,6 +195,52 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         sbSelectFrom.append(entityType.getName());
     }
 
+    @Override
+    protected <R> ModificationQuerySpecification<R> createModificationQuerySpecification(Query baseQuery, Query exampleQuery, Set<String> parameterListNames, List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes,
+                                                                                         List<CTENode> ctes, boolean shouldRenderCteNodes, boolean isEmbedded, String[] returningColumns, ReturningObjectBuilder<R> objectBuilder,
+                                                                                         Map<DbmsModificationState, String> includedModificationStates) {
+        if (conflictAttributes == null) {
+            return super.createModificationQuerySpecification(baseQuery, exampleQuery, parameterListNames, keyRestrictedLeftJoinAliases, entityFunctionNodes, ctes, shouldRenderCteNodes, isEmbedded, returningColumns, objectBuilder, includedModificationStates);
+        }
+        List<String> conflictColumns = new ArrayList<>();
+        for (String conflictAttribute : conflictAttributes) {
+            Collections.addAll(conflictColumns, mainQuery.jpaProvider.getColumnNames(entityType, conflictAttribute));
+        }
+        List<String> insertColumnSqlTypes = new ArrayList<>();
+        for (String attributeName : bindingMap.keySet()) {
+            Attribute<?, ?> attribute = entityType.getAttribute(attributeName);
+            int columnCount = mainQuery.jpaProvider.getColumnNames(entityType, attributeName).length;
+            if (columnCount == 1 && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                insertColumnSqlTypes.add(mainQuery.dbmsDialect.getSqlType(attribute.getJavaType()));
+            } else {
+                for (int i = 0; i < columnCount; i++) {
+                    insertColumnSqlTypes.add(null);
+                }
+            }
+        }
+        return new InsertModificationQuerySpecification<>(
+                this,
+                baseQuery,
+                exampleQuery,
+                parameterManager.getParameterImpls(),
+                parameterListNames,
+                keyRestrictedLeftJoinAliases,
+                entityFunctionNodes,
+                mainQuery.cteManager.isRecursive(),
+                ctes,
+                shouldRenderCteNodes,
+                isEmbedded,
+                returningColumns,
+                objectBuilder,
+                includedModificationStates,
+                returningAttributeBindingMap,
+                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled(),
+                conflictColumns.toArray(new String[conflictColumns.size()]),
+                conflictDoUpdate,
+                insertColumnSqlTypes.toArray(new String[insertColumnSqlTypes.size()])
+        );
+    }
+
     @Override
     public Query getQuery() {
         if (mainQuery.jpaProvider.supportsInsertStatement()) {
@@ -176,23 +266,18 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         boolean shouldRenderCteNodes = renderCteNodes(isEmbedded);
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(isEmbedded) : Collections.EMPTY_LIST;
 
-        QuerySpecification querySpecification = new ModificationQuerySpecification(
-                this,
+        QuerySpecification querySpecification = createModificationQuerySpecification(
                 baseQuery,
                 getCountExampleQuery(),
-                parameterManager.getParameterImpls(),
                 parameterListNames,
                 keyRestrictedLeftJoinAliases,
                 entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(),
                 ctes,
                 shouldRenderCteNodes,
                 isEmbedded,
                 returningColumns,
                 null,
-                includedModificationStates,
-                returningAttributeBindingMap,
-                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                includedModificationStates
         );
 
         CustomSQLQuery query = new CustomSQLQuery(
@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.util.SegmentedLruCache;
+import com.blazebit.persistence.spi.QueryPlanCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The query plan cache of a criteria builder factory that is used by the {@link com.blazebit.persistence.spi.ExtendedQuerySupport}
+ * of the JPA provider integration. The size and the eviction policy are taken from the query configuration of the criteria builder factory.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class BoundedQueryPlanCache implements QueryPlanCache {
+
+    private final SegmentedLruCache<Object, Object> cache;
+    private final AtomicLong compilationCount = new AtomicLong();
+    private final AtomicLong compilationNanos = new AtomicLong();
+
+    public BoundedQueryPlanCache(QueryConfiguration queryConfiguration) {
+        this.cache = new SegmentedLruCache<>(
+                queryConfiguration.getQueryPlanCacheMaximumSize(),
+                Long.MAX_VALUE,
+                !"LRU".equals(queryConfiguration.getQueryPlanCacheEvictionPolicy())
+        );
+    }
+
+    @Override
+    public Object get(Object key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public Object putIfAbsent(Object key, Object queryPlan) {
+        return cache.putIfAbsent(key, queryPlan, 1);
+    }
+
+    @Override
+    public void recordCompilation(long nanos) {
+        compilationCount.incrementAndGet();
+        compilationNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return new Statistics(
+                cache.getHitCount(),
+                cache.getMissCount(),
+                cache.getEvictionCount(),
+                compilationCount.get(),
+                compilationNanos.get(),
+                cache.getSize(),
+                cache.getMaximumSize()
+        );
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.impl.query.QueryWrapper;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes the count query of a paginated query on a separate entity manager through an executor,
+ * so that it can run concurrently to the id and object query.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class ConcurrentCountQuery {
+
+    private final Executor executor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String queryString;
+    private final JpaProvider cacheableJpaProvider;
+
+    /**
+     * Creates a new concurrent count query.
+     *
+     * @param executor The executor on which to run the count query
+     * @param entityManagerFactory The entity manager factory from which to create the entity manager for the count query
+     * @param queryString The count query string
+     * @param cacheableJpaProvider The JPA provider to mark the count query as cacheable or <code>null</code> if it isn't cacheable
+     */
+    public ConcurrentCountQuery(Executor executor, EntityManagerFactory entityManagerFactory, String queryString, JpaProvider cacheableJpaProvider) {
+        this.executor = executor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.queryString = queryString;
+        this.cacheableJpaProvider = cacheableJpaProvider;
+    }
+
+    /**
+     * Submits the count query with the parameter values currently bound to the given query.
+     *
+     * @param parameterSource The count query created on the entity manager of the query builder that holds the parameter values
+     * @return The future for the count
+     */
+    public Future<Long> submit(Query parameterSource) {
+        // Capture the parameter values on the calling thread, as queries must not be accessed concurrently
+        final Map<String, Object> namedParameters = new HashMap<>();
+        final Map<Integer, Object> positionalParameters = new HashMap<>();
+        Query query = parameterSource;
+        if (query instanceof QueryWrapper) {
+            // Use the actual parameter names of the query string rather than the criteria parameter mapping
+            query = ((QueryWrapper) query).getDelegate();
+        }
+        for (Parameter<?> parameter : query.getParameters()) {
+            if (query.isBound(parameter)) {
+                if (parameter.getName() == null) {
+                    positionalParameters.put(parameter.getPosition(), query.getParameterValue(parameter));
+                } else {
+                    namedParameters.put(parameter.getName(), query.getParameterValue(parameter));
+                }
+            }
+        }
+
+        FutureTask<Long> task = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                    Query countQuery = em.createQuery(queryString);
+                    if (cacheableJpaProvider != null) {
+                        cacheableJpaProvider.setCacheable(countQuery);
+                    }
+                    for (Map.Entry<String, Object> entry : namedParameters.entrySet()) {
+                        countQuery.setParameter(entry.getKey(), entry.getValue());
+                    }
+                    for (Map.Entry<Integer, Object> entry : positionalParameters.entrySet()) {
+                        countQuery.setParameter(entry.getKey(), entry.getValue());
+                    }
+                    return ((Number) countQuery.getSingleResult()).longValue();
+                } finally {
+                    em.close();
+                }
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            // Run the count query on the calling thread if the executor is saturated or shut down
+            task.run();
+        }
+        return task;
+    }
+}
@@ -13,6 +13,7 @@ import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.UpdateCriteriaBuilder;
 import com.blazebit.persistence.parser.FunctionKind;
+import com.blazebit.persistence.parser.expression.AbstractExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
@@ -29,10 +30,13 @@ import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlFunctionGroup;
 import com.blazebit.persistence.spi.JpqlFunctionKind;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.spi.QueryPlanCache;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.metamodel.Metamodel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +57,8 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final Map<String, FunctionKind> functions;
     private final Map<Class<?>, String> namedTypes;
     private final ExpressionCache expressionCache;
+    private final QueryStringCache queryStringCache;
+    private final QueryPlanCache queryPlanCache;
     private final ExpressionFactory expressionFactory;
     private final ExpressionFactory subqueryExpressionFactory;
     private final QueryConfiguration queryConfiguration;
@@ -105,19 +111,44 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.registeredFunctionNames = caseInsensitiveFunctions(configuredRegisteredFunctions);
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
 
-        ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
+        AbstractExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize);
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), (Map<String, String>) (Map<?, ?>) config.getProperties());
+        this.queryStringCache = new QueryStringCache(expressionCache);
+        // With the LIRS eviction policy, the JPA provider integration uses the query plan cache of the JPA provider
+        this.queryPlanCache = "LIRS".equals(queryConfiguration.getQueryPlanCacheEvictionPolicy()) ? null : new BoundedQueryPlanCache(queryConfiguration);
         ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
-        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory));
+        AbstractExpressionFactory originalSubqueryExpressionFactory = new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory);
+        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(originalSubqueryExpressionFactory);
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
         JpqlMacroStorage macroStorage = new JpqlMacroStorage(null, macroConfiguration);
         this.expressionFactory = new JpqlMacroAwareExpressionFactory(cachingExpressionFactory, macroStorage);
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
+
+        if (queryConfiguration.isExpressionParserWarmUpEnabled()) {
+            // The uncached factories are used to avoid filling the expression cache with the warm up corpus
+            List<String> warmUpExpressions = new ArrayList<>(functions.size() + config.getMacros().size());
+            for (String functionName : functions.keySet()) {
+                warmUpExpressions.add(functionName + "(a.b)");
+            }
+            for (String macroName : config.getMacros().keySet()) {
+                warmUpExpressions.add(macroName + "(a.b)");
+            }
+            for (AbstractExpressionFactory factory : Arrays.asList(originalExpressionFactory, originalSubqueryExpressionFactory)) {
+                factory.warmUp();
+                factory.warmUp(warmUpExpressions);
+            }
+        }
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, Map<String, String> properties) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                // Configurable caches like the BoundedExpressionCache accept the configuration properties
+                return (ExpressionCache) cacheClass.getConstructor(Map.class).newInstance(new HashMap<>(properties));
+            } catch (NoSuchMethodException ex) {
+                return (ExpressionCache) cacheClass.newInstance();
+            }
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
@@ -213,6 +244,10 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return expressionCache;
     }
 
+    public QueryStringCache getQueryStringCache() {
+        return queryStringCache;
+    }
+
     public ExpressionFactory getExpressionFactory() {
         return expressionFactory;
     }
@@ -355,6 +390,10 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             return (T) jpaProvider;
         } else if (ExpressionCache.class.equals(serviceClass)) {
             return (T) expressionCache;
+        } else if (QueryStringCache.class.equals(serviceClass)) {
+            return (T) queryStringCache;
+        } else if (QueryPlanCache.class.equals(serviceClass)) {
+            return (T) queryPlanCache;
         } else if (Metamodel.class.isAssignableFrom(serviceClass)) {
             return (T) metamodel;
         } else if (EntityManagerFactory.class.equals(serviceClass)) {
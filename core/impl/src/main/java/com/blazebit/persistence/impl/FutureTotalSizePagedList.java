@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedArrayList;
+import com.blazebit.persistence.PagedList;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link PagedList} for which the total size is determined by a concurrently executed count query.
+ * Accessing the total size or the total pages blocks until the count query is done.
+ *
+ * @param <T> the type of elements in this list
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class FutureTotalSizePagedList<T> extends ArrayList<T> implements PagedList<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final KeysetPage keyset;
+    private final transient Future<Long> totalSizeFuture;
+    private final long minimumTotalSize;
+    private final int page;
+    private final int firstResult;
+    private final int maxResults;
+    private volatile long totalSize = -1L;
+
+    /**
+     * Constructs a new paged list from the given collection.
+     *
+     * @param collection  The collection of elements for this page
+     * @param keyset      The keyset page for this page
+     * @param totalSizeFuture The future for the total size of the result
+     * @param minimumTotalSize The total size that is known from the elements of this page
+     * @param firstResult The first result index within the overall result
+     * @param maxResults  The maximum result count for a page
+     */
+    public FutureTotalSizePagedList(Collection<? extends T> collection, KeysetPage keyset, Future<Long> totalSizeFuture, long minimumTotalSize, int firstResult, int maxResults) {
+        super(collection);
+        this.keyset = keyset;
+        this.totalSizeFuture = totalSizeFuture;
+        this.minimumTotalSize = minimumTotalSize;
+        this.page = (int) Math.floor((firstResult == -1 ? 0 : firstResult) * 1d / maxResults) + 1;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    @Override
+    public long getTotalSize() {
+        long totalSize = this.totalSize;
+        if (totalSize == -1L) {
+            try {
+                totalSize = Math.max(totalSizeFuture.get(), minimumTotalSize);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new PersistenceException("Interrupted while waiting for the count query", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new PersistenceException("The count query failed", ex.getCause());
+            }
+            this.totalSize = totalSize;
+        }
+        return totalSize;
+    }
+
+    @Override
+    public int getPage() {
+        return page;
+    }
+
+    @Override
+    public int getTotalPages() {
+        long totalSize = getTotalSize();
+        return totalSize < 1 ? 0 : (int) Math.ceil(totalSize * 1d / maxResults);
+    }
+
+    @Override
+    public int getFirstResult() {
+        return firstResult;
+    }
+
+    @Override
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    @Override
+    public KeysetPage getKeysetPage() {
+        return keyset;
+    }
+
+    private Object writeReplace() {
+        // The future can't be serialized, so we resolve the total size and serialize a plain paged list instead
+        return new PagedArrayList<>(this, keyset, getTotalSize(), firstResult, maxResults);
+    }
+}
@@ -70,6 +70,10 @@ public class GroupByManager extends AbstractManager<ExpressionModifier> {
         return ClauseType.GROUP_BY;
     }
 
+    List<NodeInfo> getGroupByInfos() {
+        return groupByInfos;
+    }
+
     public void groupBy(Expression expr) {
         groupByInfos.add(new NodeInfo(expr));
         registerParameterExpressions(expr);
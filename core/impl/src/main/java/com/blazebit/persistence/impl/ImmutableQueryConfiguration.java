@@ -21,6 +21,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final boolean expressionParserWarmUpEnabled;
 
     private final boolean returningClauseCaseSensitive;
     private final boolean sizeToCountTransformationEnabled;
@@ -34,11 +35,17 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final Boolean inlineCountQuery;
     private final Boolean inlineCtes;
     private final boolean queryPlanCacheEnabled;
+    private final int queryPlanCacheMaximumSize;
+    private final String queryPlanCacheEvictionPolicy;
+    private final boolean queryStringCacheEnabled;
+    private final boolean inListPaddingEnabled;
+    private final int inListMaximumSize;
 
     public ImmutableQueryConfiguration(Map<String, String> properties) {
         this.compatibleModeEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.COMPATIBLE_MODE, false);
         this.expressionOptimizationEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.EXPRESSION_OPTIMIZATION, true);
         this.expressionCacheClass = properties.get(ConfigurationProperties.EXPRESSION_CACHE_CLASS);
+        this.expressionParserWarmUpEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.EXPRESSION_PARSER_WARM_UP, false);
 
         this.returningClauseCaseSensitive =                 getBooleanProperty(properties, ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE,     "false");
         this.sizeToCountTransformationEnabled =             getBooleanProperty(properties, ConfigurationProperties.SIZE_TO_COUNT_TRANSFORMATION,        "true");
@@ -55,6 +62,31 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.inlineCountQuery = "auto".equalsIgnoreCase(inlineCountQuery) ? null : Boolean.parseBoolean(inlineCountQuery);
         this.inlineCtes = "auto".equalsIgnoreCase(inlineCtes) ? null : Boolean.parseBoolean(inlineCtes);
         this.queryPlanCacheEnabled =                        getBooleanProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED,            "true");
+        this.queryStringCacheEnabled =                      getBooleanProperty(properties, ConfigurationProperties.QUERY_STRING_CACHE_ENABLED,          "false");
+        this.inListPaddingEnabled =                         getBooleanProperty(properties, ConfigurationProperties.IN_LIST_PADDING,                     "false");
+        String inListMaximumSize =                          getProperty(properties, ConfigurationProperties.IN_LIST_MAXIMUM_SIZE,                       "1000");
+        String queryPlanCacheMaximumSize =                  getProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE,              "2048");
+        String queryPlanCacheEvictionPolicy =               getProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY,           "LIRS");
+        try {
+            this.queryPlanCacheMaximumSize = Integer.parseInt(queryPlanCacheMaximumSize);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid non-integer value '" + queryPlanCacheMaximumSize + "' for property " + ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, ex);
+        }
+        if (this.queryPlanCacheMaximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid non-positive value '" + queryPlanCacheMaximumSize + "' for property " + ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE);
+        }
+        try {
+            this.inListMaximumSize = Integer.parseInt(inListMaximumSize);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid non-integer value '" + inListMaximumSize + "' for property " + ConfigurationProperties.IN_LIST_MAXIMUM_SIZE, ex);
+        }
+        if (this.inListMaximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid non-positive value '" + inListMaximumSize + "' for property " + ConfigurationProperties.IN_LIST_MAXIMUM_SIZE);
+        }
+        this.queryPlanCacheEvictionPolicy = queryPlanCacheEvictionPolicy.toUpperCase();
+        if (!"LIRS".equals(this.queryPlanCacheEvictionPolicy) && !"SLRU".equals(this.queryPlanCacheEvictionPolicy) && !"LRU".equals(this.queryPlanCacheEvictionPolicy)) {
+            throw new IllegalArgumentException("Invalid value '" + queryPlanCacheEvictionPolicy + "' for property " + ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY + ". Valid values are LIRS, SLRU and LRU");
+        }
     }
 
     @Override
@@ -77,6 +109,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public boolean isExpressionParserWarmUpEnabled() {
+        return expressionParserWarmUpEnabled;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -142,6 +179,31 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return queryPlanCacheEnabled;
     }
 
+    @Override
+    public int getQueryPlanCacheMaximumSize() {
+        return queryPlanCacheMaximumSize;
+    }
+
+    @Override
+    public String getQueryPlanCacheEvictionPolicy() {
+        return queryPlanCacheEvictionPolicy;
+    }
+
+    @Override
+    public boolean isQueryStringCacheEnabled() {
+        return queryStringCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
+    @Override
+    public int getInListMaximumSize() {
+        return inListMaximumSize;
+    }
+
     @Override
     public String getProperty(String name) {
         switch (name) {
@@ -153,6 +215,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY: return Boolean.toString(implicitGroupByFromOrderByEnabled);
             case ConfigurationProperties.EXPRESSION_OPTIMIZATION: return Boolean.toString(expressionOptimizationEnabled);
             case ConfigurationProperties.EXPRESSION_CACHE_CLASS: return expressionCacheClass;
+            case ConfigurationProperties.EXPRESSION_PARSER_WARM_UP: return Boolean.toString(expressionParserWarmUpEnabled);
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS: return Boolean.toString(valuesClauseFilterNullsEnabled);
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING: return Boolean.toString(parameterAsLiteralRenderingEnabled);
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING: return Boolean.toString(optimizedKeysetPredicateRenderingEnabled);
@@ -160,6 +223,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.INLINE_COUNT_QUERY: return inlineIdQuery == null ? "auto" : Boolean.toString(inlineIdQuery);
             case ConfigurationProperties.INLINE_CTES: return inlineCtes == null ? "auto" : Boolean.toString(inlineCtes);
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(queryPlanCacheEnabled);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE: return Integer.toString(queryPlanCacheMaximumSize);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY: return queryPlanCacheEvictionPolicy;
+            case ConfigurationProperties.QUERY_STRING_CACHE_ENABLED: return Boolean.toString(queryStringCacheEnabled);
+            case ConfigurationProperties.IN_LIST_PADDING: return Boolean.toString(inListPaddingEnabled);
+            case ConfigurationProperties.IN_LIST_MAXIMUM_SIZE: return Integer.toString(inListMaximumSize);
             default: return null;
         }
     }
@@ -175,6 +243,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY, Boolean.toString(implicitGroupByFromOrderByEnabled));
         properties.put(ConfigurationProperties.EXPRESSION_OPTIMIZATION, Boolean.toString(expressionOptimizationEnabled));
         properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, expressionCacheClass);
+        properties.put(ConfigurationProperties.EXPRESSION_PARSER_WARM_UP, Boolean.toString(expressionParserWarmUpEnabled));
         properties.put(ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS, Boolean.toString(valuesClauseFilterNullsEnabled));
         properties.put(ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING, Boolean.toString(parameterAsLiteralRenderingEnabled));
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(optimizedKeysetPredicateRenderingEnabled));
@@ -182,6 +251,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.INLINE_COUNT_QUERY, getInlineCountQueryEnabled() == null ? "auto" : Boolean.toString(getInlineCountQueryEnabled()));
         properties.put(ConfigurationProperties.INLINE_CTES, getInlineCtesEnabled() == null ? "auto" : Boolean.toString(getInlineCtesEnabled()));
         properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(queryPlanCacheEnabled));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, Integer.toString(queryPlanCacheMaximumSize));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY, queryPlanCacheEvictionPolicy);
+        properties.put(ConfigurationProperties.QUERY_STRING_CACHE_ENABLED, Boolean.toString(queryStringCacheEnabled));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, Boolean.toString(inListPaddingEnabled));
+        properties.put(ConfigurationProperties.IN_LIST_MAXIMUM_SIZE, Integer.toString(inListMaximumSize));
         return properties;
     }
 
@@ -21,6 +21,7 @@ import com.blazebit.persistence.impl.builder.predicate.PredicateBuilderEndedList
 import com.blazebit.persistence.impl.builder.predicate.PredicateBuilderEndedListenerImpl;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionTreeJoinOnBuilder;
 import com.blazebit.persistence.parser.predicate.CompoundPredicate;
 import com.blazebit.persistence.parser.predicate.Predicate;
 import com.blazebit.persistence.parser.predicate.PredicateBuilder;
@@ -30,7 +31,7 @@ import com.blazebit.persistence.parser.predicate.PredicateBuilder;
  * @author Moritz Becker
  * @since 1.0.0
  */
-public class JoinOnBuilderImpl<T> extends PredicateManager<JoinOnBuilderImpl<T>> implements JoinOnBuilder<T>, PredicateBuilder, PredicateBuilderEndedListener, SubqueryBuilderListener<T>, ExpressionBuilderEndedListener {
+public class JoinOnBuilderImpl<T> extends PredicateManager<JoinOnBuilderImpl<T>> implements JoinOnBuilder<T>, PredicateBuilder, PredicateBuilderEndedListener, SubqueryBuilderListener<T>, ExpressionBuilderEndedListener, ExpressionTreeJoinOnBuilder<T> {
 
     private final T result;
     private final PredicateBuilderEndedListener listener;
@@ -136,6 +137,13 @@ public class JoinOnBuilderImpl<T> extends PredicateManager<JoinOnBuilderImpl<T>>
         return result;
     }
 
+    @Override
+    public T setOnExpression(Predicate predicate) {
+        restrictSetExpression(subqueryInitFactory.getQueryBuilder().optimizeExpressionTree(predicate));
+        listener.onBuilderEnded(this);
+        return result;
+    }
+
     @Override
     public MultipleSubqueryInitiator<T> setOnExpressionSubqueries(String expression) {
         Predicate predicate = expressionFactory.createBooleanExpression(expression, false);
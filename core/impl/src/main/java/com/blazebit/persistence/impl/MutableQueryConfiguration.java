@@ -19,6 +19,10 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final boolean expressionParserWarmUpEnabled;
+    private final int queryPlanCacheMaximumSize;
+    private final String queryPlanCacheEvictionPolicy;
+    private final int inListMaximumSize;
 
     private boolean returningClauseCaseSensitive;
     private boolean sizeToCountTransformationEnabled;
@@ -33,11 +37,18 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private Boolean inlineCountQuery;
     private Boolean inlineCtes;
     private boolean queryPlanCacheEnabled;
+    private boolean queryStringCacheEnabled;
+    private boolean inListPaddingEnabled;
+    private int propertiesKey = -1;
 
     public MutableQueryConfiguration(QueryConfiguration queryConfiguration) {
         this.compatibleModeEnabled = queryConfiguration.isCompatibleModeEnabled();
         this.expressionOptimizationEnabled = queryConfiguration.isExpressionOptimizationEnabled();
         this.expressionCacheClass = queryConfiguration.getExpressionCacheClass();
+        this.expressionParserWarmUpEnabled = queryConfiguration.isExpressionParserWarmUpEnabled();
+        this.queryPlanCacheMaximumSize = queryConfiguration.getQueryPlanCacheMaximumSize();
+        this.queryPlanCacheEvictionPolicy = queryConfiguration.getQueryPlanCacheEvictionPolicy();
+        this.inListMaximumSize = queryConfiguration.getInListMaximumSize();
         this.returningClauseCaseSensitive = queryConfiguration.isReturningClauseCaseSensitive();
         this.sizeToCountTransformationEnabled = queryConfiguration.isCountTransformationEnabled();
         this.implicitGroupByFromSelectEnabled = queryConfiguration.isImplicitGroupByFromSelectEnabled();
@@ -50,6 +61,9 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         this.inlineIdQuery = queryConfiguration.getInlineIdQueryEnabled();
         this.inlineCountQuery = queryConfiguration.getInlineCountQueryEnabled();
         this.inlineCtes = queryConfiguration.getInlineCtesEnabled();
+        this.queryPlanCacheEnabled = queryConfiguration.isQueryPlanCacheEnabled();
+        this.queryStringCacheEnabled = queryConfiguration.isQueryStringCacheEnabled();
+        this.inListPaddingEnabled = queryConfiguration.isInListPaddingEnabled();
     }
 
     @Override
@@ -72,6 +86,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public boolean isExpressionParserWarmUpEnabled() {
+        return expressionParserWarmUpEnabled;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -137,6 +156,64 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return queryPlanCacheEnabled;
     }
 
+    @Override
+    public int getQueryPlanCacheMaximumSize() {
+        return queryPlanCacheMaximumSize;
+    }
+
+    @Override
+    public String getQueryPlanCacheEvictionPolicy() {
+        return queryPlanCacheEvictionPolicy;
+    }
+
+    @Override
+    public boolean isQueryStringCacheEnabled() {
+        return queryStringCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
+    @Override
+    public int getInListMaximumSize() {
+        return inListMaximumSize;
+    }
+
+    /**
+     * Returns a key that is equal for mutable query configurations with the same values for the properties that can be changed for a criteria builder.
+     * The key is cached until a property is changed.
+     *
+     * @return the key of the changeable properties
+     */
+    public int getPropertiesKey() {
+        int key = propertiesKey;
+        if (key == -1) {
+            // Every boolean uses one bit and every tri-state uses two bits, so the key is unique
+            key = returningClauseCaseSensitive ? 1 : 0;
+            key = (key << 1) | (sizeToCountTransformationEnabled ? 1 : 0);
+            key = (key << 1) | (implicitGroupByFromSelectEnabled ? 1 : 0);
+            key = (key << 1) | (implicitGroupByFromHavingEnabled ? 1 : 0);
+            key = (key << 1) | (implicitGroupByFromOrderByEnabled ? 1 : 0);
+            key = (key << 1) | (valuesClauseFilterNullsEnabled ? 1 : 0);
+            key = (key << 1) | (parameterAsLiteralRenderingEnabled ? 1 : 0);
+            key = (key << 1) | (optimizedKeysetPredicateRenderingEnabled ? 1 : 0);
+            key = (key << 2) | triState(inlineIdQuery);
+            key = (key << 2) | triState(inlineCountQuery);
+            key = (key << 2) | triState(inlineCtes);
+            key = (key << 1) | (queryPlanCacheEnabled ? 1 : 0);
+            key = (key << 1) | (queryStringCacheEnabled ? 1 : 0);
+            key = (key << 1) | (inListPaddingEnabled ? 1 : 0);
+            propertiesKey = key;
+        }
+        return key;
+    }
+
+    private static int triState(Boolean value) {
+        return value == null ? 0 : value ? 1 : 2;
+    }
+
     @Override
     public void setProperties(Map<String, String> properties) {
         for (Map.Entry<String, String> entry : properties.entrySet()) {
@@ -156,6 +233,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY:       implicitGroupByFromOrderByEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.EXPRESSION_OPTIMIZATION:               throw propertySetNotAllowed(propertyName);
             case ConfigurationProperties.EXPRESSION_CACHE_CLASS:                throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.EXPRESSION_PARSER_WARM_UP:             throw propertySetNotAllowed(propertyName);
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS:            valuesClauseFilterNullsEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING:        parameterAsLiteralRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING:  optimizedKeysetPredicateRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
@@ -163,9 +241,15 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.INLINE_COUNT_QUERY:                    inlineCountQuery = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.INLINE_CTES:                           inlineCtes = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED:              queryPlanCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE:         throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY:      throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.QUERY_STRING_CACHE_ENABLED:            queryStringCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.IN_LIST_PADDING:                       inListPaddingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.IN_LIST_MAXIMUM_SIZE:                  throw propertySetNotAllowed(propertyName);
             default: break;
         }
         // CHECKSTYLE:ON: OneStatementPerLine
+        propertiesKey = -1;
     }
 
     private RuntimeException propertySetNotAllowed(String propertyName) {
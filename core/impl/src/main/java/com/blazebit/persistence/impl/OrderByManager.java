@@ -109,6 +109,10 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
         return identifierToUseSelectAliases;
     }
 
+    List<OrderByInfo> getOrderByInfos() {
+        return orderByInfos;
+    }
+
     @Override
     public ClauseType getClauseType() {
         return ClauseType.ORDER_BY;
@@ -276,6 +280,42 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
         return realExpressions;
     }
 
+    boolean startsWith(ResolvedExpression[] expressions) {
+        List<OrderByInfo> infos = orderByInfos;
+        if (infos.size() < expressions.length) {
+            return false;
+        }
+
+        Set<String> remainingExpressions = new HashSet<>(expressions.length);
+        for (ResolvedExpression expression : expressions) {
+            remainingExpressions.add(expression.getExpressionString());
+        }
+
+        StringBuilder expressionStringBuilder = new StringBuilder();
+        queryGenerator.setQueryBuffer(expressionStringBuilder);
+        try {
+            for (int i = 0; i < expressions.length; i++) {
+                final OrderByInfo orderByInfo = infos.get(i);
+                AliasInfo aliasInfo = aliasManager.getAliasInfo(orderByInfo.getExpressionString());
+                Expression expr;
+                if (aliasInfo instanceof SelectInfo) {
+                    expr = ((SelectInfo) aliasInfo).getExpression();
+                } else {
+                    expr = orderByInfo.getExpression();
+                }
+                expressionStringBuilder.setLength(0);
+                expr.accept(queryGenerator);
+                if (!remainingExpressions.remove(expressionStringBuilder.toString())) {
+                    return false;
+                }
+            }
+        } finally {
+            queryGenerator.setQueryBuffer(null);
+        }
+
+        return true;
+    }
+
     boolean hasOrderBys() {
         return orderByInfos.size() > 0;
     }
@@ -583,7 +623,7 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
      * @author Christian Beikov
      * @since 1.2.0
      */
-    private static class OrderByInfo extends NodeInfo {
+    static class OrderByInfo extends NodeInfo {
 
         private String expressionString;
         private boolean ascending;
@@ -600,6 +640,14 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
             return expressionString;
         }
 
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        public boolean isNullFirst() {
+            return nullFirst;
+        }
+
         @Override
         public void setExpression(Expression expression) {
             super.setExpression(expression);
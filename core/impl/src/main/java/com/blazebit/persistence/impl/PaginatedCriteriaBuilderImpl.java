@@ -16,6 +16,7 @@ import com.blazebit.persistence.MultipleSubqueryInitiator;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PreparedPaginatedCriteria;
 import com.blazebit.persistence.RestrictionBuilder;
 import com.blazebit.persistence.SelectObjectBuilder;
 import com.blazebit.persistence.SimpleCaseWhenStarterBuilder;
@@ -69,6 +70,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  *
@@ -88,6 +90,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private boolean withForceIdQuery = false;
     private Boolean withInlineIdQuery;
     private boolean withInlineCountQuery;
+    private Executor countQueryExecutor;
     private long maximumCount = Long.MAX_VALUE;
     private int highestOffset = 0;
     private final KeysetPage keysetPage;
@@ -162,6 +165,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         builder.withCountQuery(withCountQuery);
         builder.withForceIdQuery(withForceIdQuery);
         builder.withHighestKeysetOffset(highestOffset);
+        builder.withCountQueryExecutor(countQueryExecutor);
         return builder;
     }
 
@@ -389,6 +393,21 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return this;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor executor) {
+        if (executor != null) {
+            // The count query must be a separate query to be able to execute it concurrently
+            withInlineCountQuery(false);
+        }
+        this.countQueryExecutor = executor;
+        return this;
+    }
+
+    @Override
+    public Executor getCountQueryExecutor() {
+        return countQueryExecutor;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> setProperty(String propertyName, String propertyValue) {
         super.setProperty(propertyName, propertyValue);
@@ -522,10 +541,15 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             entityFunctions = joinManager.getEntityFunctions(COUNT_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS, true, alwaysIncludedNodes);
         }
 
+        ConcurrentCountQuery concurrentCountQuery = null;
         if (maximumCount == Long.MAX_VALUE) {
             if (entityId == null) {
                 // No reference entity id, so just do a simple count query
                 countQuery = getCountQuery(countQueryString, Long.class, normalQueryMode, keyRestrictedLeftJoins, entityFunctions, null);
+                // Only a plain JPQL count query can be executed on a different entity manager
+                if (countQueryExecutor != null && normalQueryMode && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)) {
+                    concurrentCountQuery = new ConcurrentCountQuery(countQueryExecutor, em.getEntityManagerFactory(), countQueryString, isCacheable() ? mainQuery.jpaProvider : null);
+                }
             } else {
                 countQuery = getCountQuery(countQueryString, Object[].class, normalQueryMode, keyRestrictedLeftJoins, entityFunctions, null);
             }
@@ -594,11 +618,80 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 keysetPage,
                 forceFirstResult,
                 inlinedIdQuery,
-                inlinedCountQuery
+                inlinedCountQuery,
+                concurrentCountQuery
         );
         return query;
     }
 
+    @Override
+    public PreparedPaginatedCriteria<T> prepare() {
+        prepareAndCheck(null);
+        if (mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions() || !getKeyRestrictedLeftJoins().isEmpty()) {
+            throw new IllegalStateException("Can't prepare a query builder that uses CTEs, entity functions or key restricted left joins!");
+        }
+        if (maximumCount != Long.MAX_VALUE) {
+            throw new IllegalStateException("Can't prepare a paginated query builder that uses a bounded count!");
+        }
+        if (selectManager.isEntityManagerBoundObjectBuilder()) {
+            throw new IllegalStateException("Can't prepare a query builder that uses an object builder which is bound to the entity manager, like entity views with SELECT or SUBSELECT fetched correlations!");
+        }
+
+        String idQueryString = null;
+        Class<?> idQueryResultType = null;
+        Class<?> objectQueryResultType;
+        boolean inlinedIdQuery;
+        boolean inlinedCountQuery = firstResult < maximumCount && withCountQuery && withInlineCountQuery;
+        if (!isWithInlineIdQuery() && (hasCollections || withForceIdQuery)) {
+            idQueryString = getPageIdQueryStringWithoutCheck();
+            if (needsNewIdList || withInlineCountQuery || getIdentifierExpressionsToUse().length > 1) {
+                idQueryResultType = Object[].class;
+            }
+            objectQueryResultType = selectManager.getExpectedQueryResultType();
+            inlinedIdQuery = false;
+        } else {
+            if (keysetExtraction || inlinedCountQuery) {
+                objectQueryResultType = Object[].class;
+            } else {
+                objectQueryResultType = selectManager.getExpectedQueryResultType();
+            }
+            inlinedIdQuery = isWithInlineIdQuery() && (hasCollections || withForceIdQuery);
+        }
+
+        return new PreparedPaginatedCriteriaImpl<>(
+                getPageCountQueryStringWithoutCheck(),
+                getExternalPageCountQueryString(),
+                idQueryString,
+                getExternalPageIdQueryString(),
+                idQueryResultType,
+                getBaseQueryString(null, null),
+                getExternalQueryString(),
+                objectQueryResultType,
+                selectManager.getExpectedQueryResultType() != Object[].class,
+                selectManager.getSelectObjectBuilder(),
+                isCacheable() ? mainQuery.jpaProvider : null,
+                parameterManager.copyParameters(),
+                copyCriteriaNameMapping(),
+                parameterManager.getMaximumPaddedInListSize(),
+                countQueryExecutor,
+                keysetExtraction,
+                withExtractAllKeysets,
+                firstResult < maximumCount && withCountQuery,
+                highestOffset,
+                entityId,
+                firstResult,
+                maxResults,
+                getIdentifierExpressionsToUse().length,
+                needsNewIdList,
+                keysetToSelectIndexMapping,
+                keysetMode,
+                keysetPage,
+                forceFirstResult,
+                inlinedIdQuery,
+                inlinedCountQuery
+        );
+    }
+
     @Override
     public PagedList<T> getResultList() {
         return getQuery().getResultList();
@@ -974,20 +1067,21 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             }
         }
 
-        ObjectBuilder<T> objectBuilder = null;
-        ObjectBuilder<T> transformerObjectBuilder = selectManager.getSelectObjectBuilder();
         boolean inlinedCountQuery = firstResult < maximumCount && withCountQuery && withInlineCountQuery;
-
-        if (keysetExtraction) {
-            if (transformerObjectBuilder == null) {
-                objectBuilder = new KeysetExtractionObjectBuilder<T>(keysetToSelectIndexMapping, keysetMode, maxResults, highestOffset, selectManager.getExpectedQueryResultType() != Object[].class, withExtractAllKeysets, inlinedCountQuery);
-            } else {
-                objectBuilder = new DelegatingKeysetExtractionObjectBuilder<T>(transformerObjectBuilder, keysetToSelectIndexMapping, keysetMode, maxResults, highestOffset, withExtractAllKeysets, inlinedCountQuery);
-            }
-
+        ObjectBuilder<T> transformerObjectBuilder = selectManager.getSelectObjectBuilder();
+        ObjectBuilder<T> objectBuilder = createExtractionObjectBuilder(
+                transformerObjectBuilder,
+                keysetExtraction,
+                keysetToSelectIndexMapping,
+                keysetMode,
+                maxResults,
+                highestOffset,
+                selectManager.getExpectedQueryResultType() != Object[].class,
+                withExtractAllKeysets,
+                inlinedCountQuery
+        );
+        if (objectBuilder != null) {
             transformerObjectBuilder = objectBuilder;
-        } else if (inlinedCountQuery && transformerObjectBuilder != null) {
-            transformerObjectBuilder = objectBuilder = new CountExtractionObjectBuilder<>(transformerObjectBuilder);
         }
 
         if (transformerObjectBuilder != null) {
@@ -1001,6 +1095,25 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return new AbstractMap.SimpleEntry<TypedQuery<T>, ObjectBuilder<T>>(query, objectBuilder);
     }
 
+    /**
+     * Creates the object builder that extracts the keysets or the inlined count from the object query results.
+     *
+     * @return The extraction object builder or <code>null</code> if nothing needs to be extracted
+     */
+    static <T> ObjectBuilder<T> createExtractionObjectBuilder(ObjectBuilder<T> transformerObjectBuilder, boolean keysetExtraction, int[] keysetToSelectIndexMapping, KeysetMode keysetMode,
+                                                             int maxResults, int highestOffset, boolean unwrap, boolean withExtractAllKeysets, boolean inlinedCountQuery) {
+        if (keysetExtraction) {
+            if (transformerObjectBuilder == null) {
+                return new KeysetExtractionObjectBuilder<T>(keysetToSelectIndexMapping, keysetMode, maxResults, highestOffset, unwrap, withExtractAllKeysets, inlinedCountQuery);
+            } else {
+                return new DelegatingKeysetExtractionObjectBuilder<T>(transformerObjectBuilder, keysetToSelectIndexMapping, keysetMode, maxResults, highestOffset, withExtractAllKeysets, inlinedCountQuery);
+            }
+        } else if (inlinedCountQuery && transformerObjectBuilder != null) {
+            return new CountExtractionObjectBuilder<>(transformerObjectBuilder);
+        }
+        return null;
+    }
+
     private Query getIdQuery(String idQueryString, boolean normalQueryMode, Set<JoinNode> keyRestrictedLeftJoins, List<JoinNode> entityFunctions) {
         Query baseQuery;
         if (needsNewIdList || withInlineCountQuery || getIdentifierExpressionsToUse().length > 1) {
@@ -1656,6 +1769,11 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
     }
 
+    @Override
+    public void setHavingExpression(Predicate predicate) {
+        throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
+    }
+
     @Override
     public MultipleSubqueryInitiator<PaginatedCriteriaBuilder<T>> setHavingExpressionSubqueries(String expression) {
         throw new IllegalStateException("Calling having() on a PaginatedCriteriaBuilder is not allowed.");
@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * @author Christian Beikov
@@ -70,9 +71,10 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final boolean forceFirstResult;
     private final boolean inlinedIdQuery;
     private final boolean inlinedCountQuery;
+    private final ConcurrentCountQuery concurrentCountQuery;
 
     public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, boolean boundedCount, int highestOffset, TypedQuery<?> countQuery, Query idQuery, TypedQuery<X> objectQuery, ObjectBuilder<X> objectBuilder, Collection<ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping,
-                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery) {
+                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery, ConcurrentCountQuery concurrentCountQuery) {
         this.withExtractAllKeysets = withExtractAllKeysets;
         this.withCount = withCount;
         this.boundedCount = boundedCount;
@@ -93,6 +95,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         this.forceFirstResult = forceFirstResult;
         this.inlinedIdQuery = inlinedIdQuery;
         this.inlinedCountQuery = inlinedCountQuery;
+        this.concurrentCountQuery = concurrentCountQuery;
         this.criteriaNameMapping = criteriaNameMapping;
 
         Map<String, Parameter<?>> params = new HashMap<>(parameters.size());
@@ -172,7 +175,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     public List<X> getPageResultList() {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
-        return getResultList(queryFirstResult, firstRow, -1L);
+        return getResultList(queryFirstResult, firstRow, -1L, false);
     }
 
     @Override
@@ -181,10 +184,9 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
         long totalSize = -1L;
+        Future<Long> totalSizeFuture = null;
         if (withCount && !inlinedCountQuery) {
-            if (entityId == null) {
-                totalSize = ((Number) countQuery.getSingleResult()).longValue();
-            } else {
+            if (entityId != null) {
                 Object[] result = (Object[]) countQuery.getSingleResult();
                 totalSize = ((Number) result[0]).longValue();
 
@@ -197,6 +199,10 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     int position = ((Number) result[1]).intValue() - 1;
                     queryFirstResult = firstRow = position == 0 ? 0 : position - (position % pageSize);
                 }
+            } else if (concurrentCountQuery == null) {
+                totalSize = ((Number) countQuery.getSingleResult()).longValue();
+            } else {
+                totalSizeFuture = concurrentCountQuery.submit(countQuery);
             }
         }
 
@@ -204,10 +210,22 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        if (totalSizeFuture == null) {
+            return getResultList(queryFirstResult, firstRow, totalSize, false);
+        }
+
+        PagedList<X> resultList;
+        try {
+            resultList = getResultList(queryFirstResult, firstRow, totalSize, true);
+        } catch (RuntimeException ex) {
+            totalSizeFuture.cancel(false);
+            throw ex;
+        }
+        long minimumTotalSize = resultList.isEmpty() ? 0L : firstRow + resultList.size();
+        return new FutureTotalSizePagedList<X>(resultList, resultList.getKeysetPage(), totalSizeFuture, minimumTotalSize, queryFirstResult, pageSize);
     }
 
-    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, boolean concurrentCount) {
         if (idQuery != null) {
             idQuery.setMaxResults(pageSize);
 
@@ -226,7 +244,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
                 long size;
-                if (withCount && totalSize == -1) {
+                if (withCount && totalSize == -1 && !concurrentCount) {
                     size = getTotalCount();
                 } else {
                     size = totalSize;
@@ -405,7 +423,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 if (totalSize == -1) {
                     if (inlinedCountQuery && firstRow == 0) {
                         totalSize = 0L;
-                    } else if (withCount) {
+                    } else if (withCount && !concurrentCount) {
                         totalSize = getTotalCount();
                     }
                 }
@@ -61,6 +61,7 @@ public class ParameterManager {
     private final ParameterUnregistrationVisitor parameterUnregistrationVisitor;
     private Map<javax.persistence.criteria.ParameterExpression<?>, String> criteriaNameMapping;
     private int positionalOffset = -1; // Records the last positional parameter index that was used
+    private MainQuery mainQuery;
 
     public ParameterManager(JpaProvider jpaProvider, EntityMetamodel entityMetamodel) {
         this.jpaProvider = jpaProvider;
@@ -69,6 +70,10 @@ public class ParameterManager {
         this.parameterUnregistrationVisitor = new ParameterUnregistrationVisitor(this);
     }
 
+    void setMainQuery(MainQuery mainQuery) {
+        this.mainQuery = mainQuery;
+    }
+
     public ParameterRegistrationVisitor getParameterRegistrationVisitor() {
         return parameterRegistrationVisitor;
     }
@@ -203,6 +208,21 @@ public class ParameterManager {
     }
 
     void parameterizeQuery(Query q, String skippedParameterPrefix) {
+        parameterizeQuery(q, skippedParameterPrefix, parameters, valuesParameters, criteriaNameMapping, getMaximumPaddedInListSize());
+    }
+
+    /**
+     * Returns the size up to which the values of collection-valued parameters are padded or <code>0</code> if padding is disabled.
+     *
+     * @return The maximum padded size
+     */
+    int getMaximumPaddedInListSize() {
+        QueryConfiguration queryConfiguration = mainQuery.getQueryConfiguration();
+        return queryConfiguration.isInListPaddingEnabled() ? queryConfiguration.getInListMaximumSize() : 0;
+    }
+
+    static void parameterizeQuery(Query q, String skippedParameterPrefix, Map<String, ParameterImpl<?>> parameters, Map<String, String> valuesParameters,
+                                  Map<javax.persistence.criteria.ParameterExpression<?>, String> criteriaNameMapping, int maximumPaddedInListSize) {
         Set<String> requestedValueParameters = new HashSet<String>();
         for (Parameter<?> p : q.getParameters()) {
             String parameterName = p.getName();
@@ -234,7 +254,7 @@ public class ParameterManager {
                     q.setParameter(parameterName, parameter.getValue());
                 }
             } else {
-                parameter.bind(q);
+                parameter.bind(q, maximumPaddedInListSize);
             }
         }
 
@@ -259,6 +279,37 @@ public class ParameterManager {
         return parameters.values();
     }
 
+    /**
+     * Returns the values of the given parameters by name, for use in the result cache key of a caching object builder.
+     *
+     * @param parameters The parameters by name
+     * @return The parameter values by name
+     */
+    static Map<String, Object> getParameterValues(Map<String, ParameterImpl<?>> parameters) {
+        Map<String, Object> parameterValues = new HashMap<>(parameters.size());
+        for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
+            parameterValues.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return parameterValues;
+    }
+
+    Map<String, Object> getParameterValues() {
+        return getParameterValues(parameters);
+    }
+
+    /**
+     * Returns copies of the parameters that are detached from the query builders, for use in prepared criteria.
+     *
+     * @return The detached parameters by name
+     */
+    Map<String, ParameterImpl<?>> copyParameters() {
+        Map<String, ParameterImpl<?>> copies = new TreeMap<>();
+        for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
+            copies.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copies;
+    }
+
     public Map<javax.persistence.criteria.ParameterExpression<?>, String> getCriteriaNameMapping() {
         return criteriaNameMapping;
     }
@@ -713,8 +764,43 @@ public class ParameterManager {
             }
         }
 
+        /**
+         * Returns a copy of this parameter with the same value and transformer that isn't associated with any query builder.
+         *
+         * @return The copy
+         */
+        public ParameterImpl<T> copy() {
+            ParameterImpl<T> copy;
+            if (name == null) {
+                copy = new ParameterImpl<>(position, collectionValued, implicit, null, null);
+            } else {
+                copy = new ParameterImpl<>(name, collectionValued, implicit, null, null);
+            }
+            copy.usedInImplicitGroupBy = usedInImplicitGroupBy;
+            copy.parameterType = parameterType;
+            copy.criteriaParameter = criteriaParameter;
+            copy.value = value;
+            copy.valueSet = valueSet;
+            copy.transformer = transformer;
+            return copy;
+        }
+
         public void bind(Query q) {
+            bind(q, 0);
+        }
+
+        /**
+         * Binds the value of this parameter to the given query, padding collection values up to the given size.
+         *
+         * @param q The query
+         * @param maximumPaddedInListSize The size up to which collection values are padded or <code>0</code> for no padding
+         */
+        public void bind(Query q, int maximumPaddedInListSize) {
             if (valueSet) {
+                Object value = this.value;
+                if (maximumPaddedInListSize > 0 && collectionValued && value instanceof Collection<?>) {
+                    value = padInList((Collection<?>) value, maximumPaddedInListSize);
+                }
                 if (value instanceof ParameterValue) {
                     if (name == null) {
                         ((ParameterValue) value).bind(q, position);
@@ -731,6 +817,25 @@ public class ParameterManager {
             }
         }
 
+        private static Collection<?> padInList(Collection<?> values, int maximumPaddedInListSize) {
+            int size = values.size();
+            if (size < 2 || size >= maximumPaddedInListSize) {
+                return values;
+            }
+            // Repeating an element doesn't change the outcome of an IN predicate but bounds the number of distinct SQL strings
+            int paddedSize = Math.min(Integer.highestOneBit(size - 1) << 1, maximumPaddedInListSize);
+            if (paddedSize == size) {
+                return values;
+            }
+            List<Object> paddedValues = new ArrayList<>(paddedSize);
+            paddedValues.addAll(values);
+            Object lastValue = paddedValues.get(size - 1);
+            for (int i = size; i < paddedSize; i++) {
+                paddedValues.add(lastValue);
+            }
+            return paddedValues;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -0,0 +1,176 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.CachingObjectBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.PreparedCriteria;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.impl.query.TypedQueryWrapper;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prepared plain JPQL query that only holds the state that is necessary for creating the query.
+ * The parameters are detached copies that are never mutated, parameter values passed on execution are set on further copies.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class PreparedCriteriaImpl<T> implements PreparedCriteria<T> {
+
+    private final String queryString;
+    private final String externalQueryString;
+    private final Class<?> resultType;
+    private final int firstResult;
+    private final int maxResults;
+    private final JpaProvider cacheableJpaProvider;
+    private final Map<String, ParameterManager.ParameterImpl<?>> parameters;
+    private final Map<ParameterExpression<?>, String> criteriaNameMapping;
+    private final int maximumPaddedInListSize;
+    private final ObjectBuilder<T> objectBuilder;
+    private final String objectBuilderQueryString;
+
+    /**
+     * Creates a new prepared criteria.
+     *
+     * @param queryString The JPQL query string
+     * @param externalQueryString The query string as exposed to the user
+     * @param resultType The result type of the JPQL query
+     * @param firstResult The first result
+     * @param maxResults The maximum number of results
+     * @param cacheableJpaProvider The JPA provider to mark the query as cacheable or <code>null</code> if it isn't cacheable
+     * @param parameters The detached parameters
+     * @param criteriaNameMapping The JPA Criteria parameter name mapping or <code>null</code>
+     * @param maximumPaddedInListSize The size up to which collection values are padded or <code>0</code> for no padding
+     * @param objectBuilder The object builder or <code>null</code>
+     * @param objectBuilderQueryString The query string for the result cache key of a caching object builder or <code>null</code>
+     */
+    public PreparedCriteriaImpl(String queryString, String externalQueryString, Class<?> resultType, int firstResult, int maxResults, JpaProvider cacheableJpaProvider,
+                                Map<String, ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping, int maximumPaddedInListSize,
+                                ObjectBuilder<T> objectBuilder, String objectBuilderQueryString) {
+        this.queryString = queryString;
+        this.externalQueryString = externalQueryString;
+        this.resultType = resultType;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.cacheableJpaProvider = cacheableJpaProvider;
+        this.parameters = parameters;
+        this.criteriaNameMapping = criteriaNameMapping;
+        this.maximumPaddedInListSize = maximumPaddedInListSize;
+        this.objectBuilder = objectBuilder;
+        this.objectBuilderQueryString = objectBuilderQueryString;
+    }
+
+    @Override
+    public String getQueryString() {
+        return externalQueryString;
+    }
+
+    @Override
+    public TypedQuery<T> createQuery(EntityManager entityManager) {
+        return createQuery(entityManager, Collections.<String, Object>emptyMap());
+    }
+
+    @Override
+    public TypedQuery<T> createQuery(EntityManager entityManager, Map<String, Object> parameterValues) {
+        return createQuery(entityManager, withValues(this.parameters, parameterValues), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<T> createQuery(EntityManager entityManager, Map<String, ParameterManager.ParameterImpl<?>> parameters, Object resultCacheKey) {
+        TypedQuery<T> query = (TypedQuery<T>) entityManager.createQuery(queryString, resultType);
+        if (firstResult != 0) {
+            query.setFirstResult(firstResult);
+        }
+        if (maxResults != Integer.MAX_VALUE) {
+            query.setMaxResults(maxResults);
+        }
+        if (cacheableJpaProvider != null) {
+            cacheableJpaProvider.setCacheable(query);
+        }
+
+        bind(query, null, parameters, criteriaNameMapping, maximumPaddedInListSize);
+        if (objectBuilder != null) {
+            return new ObjectBuilderTypedQuery<>(query, criteriaNameMapping, objectBuilder, resultCacheKey);
+        } else if (criteriaNameMapping != null) {
+            return new TypedQueryWrapper<>(query, criteriaNameMapping);
+        }
+        return query;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> getResultList(EntityManager entityManager, Map<String, Object> parameterValues) {
+        Map<String, ParameterManager.ParameterImpl<?>> parameters = withValues(this.parameters, parameterValues);
+        if (objectBuilderQueryString == null) {
+            return createQuery(entityManager, parameters, null).getResultList();
+        }
+        // Only queries that aren't exposed can use the result cache, as the parameters of exposed queries could still change
+        Object resultCacheKey = new ObjectBuilderTypedQuery.QueryKey(objectBuilderQueryString, ParameterManager.getParameterValues(parameters), firstResult, maxResults);
+        List<Object[]> tuples = ((CachingObjectBuilder<T>) objectBuilder).getCachedTuples(resultCacheKey);
+        if (tuples != null) {
+            return ObjectBuilderTypedQuery.buildCachedResultList(objectBuilder, tuples);
+        }
+        return createQuery(entityManager, parameters, resultCacheKey).getResultList();
+    }
+
+    @Override
+    public T getSingleResult(EntityManager entityManager, Map<String, Object> parameterValues) {
+        if (objectBuilderQueryString == null) {
+            return createQuery(entityManager, parameterValues).getSingleResult();
+        }
+        return ObjectBuilderTypedQuery.getSingleResult(getResultList(entityManager, parameterValues), queryString);
+    }
+
+    /**
+     * Returns the given detached parameters with the given values applied to copies of the respective parameters.
+     *
+     * @param parameters The detached parameters
+     * @param parameterValues The parameter values by name
+     * @return The parameters with the values applied
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, ParameterManager.ParameterImpl<?>> withValues(Map<String, ParameterManager.ParameterImpl<?>> parameters, Map<String, Object> parameterValues) {
+        if (parameterValues.isEmpty()) {
+            return parameters;
+        }
+        Map<String, ParameterManager.ParameterImpl<?>> result = new HashMap<>(parameters);
+        for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+            ParameterManager.ParameterImpl<Object> parameter = (ParameterManager.ParameterImpl<Object>) parameters.get(entry.getKey());
+            if (parameter == null) {
+                throw new IllegalArgumentException(String.format("Parameter name \"%s\" does not exist", entry.getKey()));
+            }
+            // Copy to apply the value transformer without affecting concurrent executions
+            parameter = parameter.copy();
+            parameter.setValue(entry.getValue());
+            result.put(entry.getKey(), parameter);
+        }
+        return result;
+    }
+
+    /**
+     * Binds the values of the given parameters to the query.
+     *
+     * @param query The query
+     * @param skippedParameterPrefix The prefix of query parameters that are bound elsewhere or <code>null</code>
+     * @param parameters The parameters
+     * @param criteriaNameMapping The JPA Criteria parameter name mapping or <code>null</code>
+     * @param maximumPaddedInListSize The size up to which collection values are padded or <code>0</code> for no padding
+     */
+    static void bind(Query query, String skippedParameterPrefix, Map<String, ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping, int maximumPaddedInListSize) {
+        ParameterManager.parameterizeQuery(query, skippedParameterPrefix, parameters, Collections.<String, String>emptyMap(), criteriaNameMapping, maximumPaddedInListSize);
+    }
+}
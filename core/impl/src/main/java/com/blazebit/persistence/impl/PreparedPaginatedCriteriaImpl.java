@@ -0,0 +1,230 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.PreparedPaginatedCriteria;
+import com.blazebit.persistence.impl.keyset.KeysetMode;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.impl.query.QueryWrapper;
+import com.blazebit.persistence.impl.query.TypedQueryWrapper;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The prepared count, id and object queries of a paginated criteria builder in normal query mode.
+ * Object builders that extract keysets or the inlined count are stateful and thus created per execution.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class PreparedPaginatedCriteriaImpl<T> implements PreparedPaginatedCriteria<T> {
+
+    private final String countQueryString;
+    private final String externalCountQueryString;
+    private final String idQueryString;
+    private final String externalIdQueryString;
+    private final Class<?> idQueryResultType;
+    private final String objectQueryString;
+    private final String externalObjectQueryString;
+    private final Class<?> objectQueryResultType;
+    private final boolean unwrapKeysetTuple;
+    private final ObjectBuilder<T> objectBuilder;
+    private final JpaProvider cacheableJpaProvider;
+    private final Map<String, ParameterManager.ParameterImpl<?>> parameters;
+    private final Map<ParameterExpression<?>, String> criteriaNameMapping;
+    private final int maximumPaddedInListSize;
+    private final Executor countQueryExecutor;
+    private final boolean keysetExtraction;
+    private final boolean withExtractAllKeysets;
+    private final boolean withCount;
+    private final int highestOffset;
+    private final Object entityId;
+    private final int firstResult;
+    private final int pageSize;
+    private final int identifierCount;
+    private final boolean needsNewIdList;
+    private final int[] keysetToSelectIndexMapping;
+    private final KeysetMode keysetMode;
+    private final KeysetPage keysetPage;
+    private final boolean forceFirstResult;
+    private final boolean inlinedIdQuery;
+    private final boolean inlinedCountQuery;
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    public PreparedPaginatedCriteriaImpl(String countQueryString, String externalCountQueryString, String idQueryString, String externalIdQueryString, Class<?> idQueryResultType,
+                                         String objectQueryString, String externalObjectQueryString, Class<?> objectQueryResultType, boolean unwrapKeysetTuple, ObjectBuilder<T> objectBuilder,
+                                         JpaProvider cacheableJpaProvider, Map<String, ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping, int maximumPaddedInListSize, Executor countQueryExecutor,
+                                         boolean keysetExtraction, boolean withExtractAllKeysets, boolean withCount, int highestOffset, Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList,
+                                         int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery) {
+        this.countQueryString = countQueryString;
+        this.externalCountQueryString = externalCountQueryString;
+        this.idQueryString = idQueryString;
+        this.externalIdQueryString = externalIdQueryString;
+        this.idQueryResultType = idQueryResultType;
+        this.objectQueryString = objectQueryString;
+        this.externalObjectQueryString = externalObjectQueryString;
+        this.objectQueryResultType = objectQueryResultType;
+        this.unwrapKeysetTuple = unwrapKeysetTuple;
+        this.objectBuilder = objectBuilder;
+        this.cacheableJpaProvider = cacheableJpaProvider;
+        this.parameters = parameters;
+        this.criteriaNameMapping = criteriaNameMapping;
+        this.maximumPaddedInListSize = maximumPaddedInListSize;
+        this.countQueryExecutor = countQueryExecutor;
+        this.keysetExtraction = keysetExtraction;
+        this.withExtractAllKeysets = withExtractAllKeysets;
+        this.withCount = withCount;
+        this.highestOffset = highestOffset;
+        this.entityId = entityId;
+        this.firstResult = firstResult;
+        this.pageSize = pageSize;
+        this.identifierCount = identifierCount;
+        this.needsNewIdList = needsNewIdList;
+        this.keysetToSelectIndexMapping = keysetToSelectIndexMapping;
+        this.keysetMode = keysetMode;
+        this.keysetPage = keysetPage;
+        this.forceFirstResult = forceFirstResult;
+        this.inlinedIdQuery = inlinedIdQuery;
+        this.inlinedCountQuery = inlinedCountQuery;
+    }
+
+    @Override
+    public String getQueryString() {
+        return externalObjectQueryString;
+    }
+
+    @Override
+    public String getCountQueryString() {
+        return externalCountQueryString;
+    }
+
+    @Override
+    public String getPageIdQueryString() {
+        return externalIdQueryString;
+    }
+
+    @Override
+    public PaginatedTypedQuery<T> createQuery(EntityManager entityManager) {
+        return createQuery(entityManager, Collections.<String, Object>emptyMap());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PaginatedTypedQuery<T> createQuery(EntityManager entityManager, Map<String, Object> parameterValues) {
+        Map<String, ParameterManager.ParameterImpl<?>> parameters = PreparedCriteriaImpl.withValues(this.parameters, parameterValues);
+
+        // With a reference entity id, the count query also selects the page position of the entity
+        TypedQuery<?> countQuery = entityManager.createQuery(countQueryString, entityId == null ? Long.class : Object[].class);
+        setCacheable(countQuery);
+        PreparedCriteriaImpl.bind(countQuery, null, parameters, criteriaNameMapping, maximumPaddedInListSize);
+        if (criteriaNameMapping != null) {
+            countQuery = new TypedQueryWrapper<>(countQuery, criteriaNameMapping);
+        }
+        ConcurrentCountQuery concurrentCountQuery = null;
+        if (countQueryExecutor != null && entityId == null) {
+            concurrentCountQuery = new ConcurrentCountQuery(countQueryExecutor, entityManager.getEntityManagerFactory(), countQueryString, cacheableJpaProvider);
+        }
+
+        Query idQuery = null;
+        if (idQueryString != null) {
+            if (idQueryResultType == null) {
+                idQuery = entityManager.createQuery(idQueryString);
+            } else {
+                idQuery = entityManager.createQuery(idQueryString, idQueryResultType);
+            }
+            setCacheable(idQuery);
+            PreparedCriteriaImpl.bind(idQuery, null, parameters, criteriaNameMapping, maximumPaddedInListSize);
+            if (criteriaNameMapping != null) {
+                idQuery = new QueryWrapper(idQuery, criteriaNameMapping);
+            }
+        }
+
+        TypedQuery<T> objectQuery = (TypedQuery<T>) entityManager.createQuery(objectQueryString, objectQueryResultType);
+        setCacheable(objectQuery);
+        if (idQueryString == null) {
+            PreparedCriteriaImpl.bind(objectQuery, null, parameters, criteriaNameMapping, maximumPaddedInListSize);
+        } else {
+            // The id parameters are bound by the paginated query after executing the id query
+            PreparedCriteriaImpl.bind(objectQuery, identifierCount == 1 ? AbstractCommonQueryBuilder.ID_PARAM_NAME : AbstractCommonQueryBuilder.ID_PARAM_NAME + "_", parameters, criteriaNameMapping, maximumPaddedInListSize);
+        }
+        ObjectBuilder<T> extractionObjectBuilder = null;
+        ObjectBuilder<T> transformerObjectBuilder = objectBuilder;
+        if (idQueryString == null) {
+            extractionObjectBuilder = PaginatedCriteriaBuilderImpl.createExtractionObjectBuilder(
+                    objectBuilder,
+                    keysetExtraction,
+                    keysetToSelectIndexMapping,
+                    keysetMode,
+                    pageSize,
+                    highestOffset,
+                    unwrapKeysetTuple,
+                    withExtractAllKeysets,
+                    inlinedCountQuery
+            );
+            if (extractionObjectBuilder != null) {
+                transformerObjectBuilder = extractionObjectBuilder;
+            }
+        }
+        if (transformerObjectBuilder != null) {
+            objectQuery = new ObjectBuilderTypedQuery<>(objectQuery, criteriaNameMapping, transformerObjectBuilder);
+        } else if (criteriaNameMapping != null) {
+            objectQuery = new TypedQueryWrapper<>(objectQuery, criteriaNameMapping);
+        }
+
+        return new PaginatedTypedQueryImpl<>(
+                withExtractAllKeysets,
+                withCount,
+                false,
+                highestOffset,
+                countQuery,
+                idQuery,
+                objectQuery,
+                extractionObjectBuilder,
+                parameters.values(),
+                criteriaNameMapping,
+                entityId,
+                firstResult,
+                pageSize,
+                identifierCount,
+                needsNewIdList,
+                keysetToSelectIndexMapping,
+                keysetMode,
+                keysetPage,
+                forceFirstResult,
+                inlinedIdQuery,
+                inlinedCountQuery,
+                concurrentCountQuery
+        );
+    }
+
+    private void setCacheable(Query query) {
+        if (cacheableJpaProvider != null) {
+            cacheableJpaProvider.setCacheable(query);
+        }
+    }
+
+    @Override
+    public PagedList<T> getResultList(EntityManager entityManager, Map<String, Object> parameterValues) {
+        return createQuery(entityManager, parameterValues).getResultList();
+    }
+
+    @Override
+    public T getSingleResult(EntityManager entityManager, Map<String, Object> parameterValues) {
+        return createQuery(entityManager, parameterValues).getSingleResult();
+    }
+}
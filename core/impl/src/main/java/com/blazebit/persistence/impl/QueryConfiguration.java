@@ -22,6 +22,8 @@ public interface QueryConfiguration {
 
     public String getExpressionCacheClass();
 
+    public boolean isExpressionParserWarmUpEnabled();
+
     public boolean isCountTransformationEnabled();
 
     public boolean isImplicitGroupByFromSelectEnabled();
@@ -55,4 +57,14 @@ public interface QueryConfiguration {
     public boolean isCacheable();
 
     public boolean isQueryPlanCacheEnabled();
+
+    public int getQueryPlanCacheMaximumSize();
+
+    public String getQueryPlanCacheEvictionPolicy();
+
+    public boolean isQueryStringCacheEnabled();
+
+    public boolean isInListPaddingEnabled();
+
+    public int getInListMaximumSize();
 }
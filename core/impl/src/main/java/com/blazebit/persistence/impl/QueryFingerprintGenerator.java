@@ -0,0 +1,275 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.SimpleQueryGenerator;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.Subquery;
+import com.blazebit.persistence.parser.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.expression.VisitorAdapter;
+import com.blazebit.persistence.parser.predicate.CompoundPredicate;
+import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a structural fingerprint of a query builder before it is prepared.
+ * Two builders with the same fingerprint render to the same query string, which makes the fingerprint usable as key for the {@link QueryStringCache}.
+ *
+ * The fingerprint covers the join tree with on clauses, the select, where, group by, having and order by clauses, limit and offset
+ * as well as subqueries. Parameters are covered by name. If a builder uses a feature that is not covered, like CTEs including inline CTEs, set operations,
+ * keyset pagination, VALUES clauses, lateral or correlated joins, no fingerprint is generated.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class QueryFingerprintGenerator extends SimpleQueryGenerator {
+
+    private boolean cacheable = true;
+
+    private QueryFingerprintGenerator() {
+        setQueryBuffer(new StringBuilder());
+        setBooleanLiteralRenderingContext(BooleanLiteralRenderingContext.PLAIN);
+    }
+
+    /**
+     * Returns the fingerprint for the given builder or <code>null</code> if the builder uses features that are not covered by the fingerprint.
+     *
+     * @param queryBuilder The query builder
+     * @return The fingerprint or <code>null</code>
+     */
+    public static String generate(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        MainQuery mainQuery = queryBuilder.mainQuery;
+        if (!queryBuilder.isMainQuery || !mainQuery.cteManager.getCtes().isEmpty() || mainQuery.parameterManager.getCriteriaNameMapping() != null) {
+            return null;
+        }
+        QueryFingerprintGenerator generator = new QueryFingerprintGenerator();
+        StringBuilder sb = generator.getQueryBuffer();
+        QueryConfiguration queryConfiguration = mainQuery.getQueryConfiguration();
+        if (queryConfiguration instanceof MutableQueryConfiguration) {
+            // Only the properties that can be changed for a builder are covered, the others are the same for all builders of a criteria builder factory
+            sb.append(((MutableQueryConfiguration) queryConfiguration).getPropertiesKey()).append(' ');
+        }
+        if (!generator.append(queryBuilder)) {
+            return null;
+        }
+        return sb.toString();
+    }
+
+    private boolean append(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        if (queryBuilder.finalSetOperationBuilder != null || queryBuilder.keysetManager.hasKeyset() || queryBuilder.keysetManager.getKeysetLink() != null
+                || !queryBuilder.explicitVersionEntities.isEmpty() || !queryBuilder.windowManager.getWindows().isEmpty() || queryBuilder.joinManager.hasEntityFunctions()) {
+            return false;
+        }
+        StringBuilder sb = getQueryBuffer();
+        sb.append(queryBuilder.getClass().getName());
+        if (queryBuilder.resultType != null) {
+            sb.append('<').append(queryBuilder.resultType.getName()).append('>');
+        }
+        sb.append(" FROM ");
+        List<JoinNode> roots = queryBuilder.joinManager.getRoots();
+        for (int i = 0; i < roots.size(); i++) {
+            if (!append(roots.get(i))) {
+                return false;
+            }
+        }
+
+        sb.append(" SELECT ");
+        SelectManager<?> selectManager = queryBuilder.selectManager;
+        if (selectManager.isDistinct()) {
+            sb.append("DISTINCT ");
+        }
+        List<SelectInfo> selectInfos = selectManager.getSelectInfos();
+        for (int i = 0; i < selectInfos.size(); i++) {
+            SelectInfo selectInfo = selectInfos.get(i);
+            if (i != 0) {
+                sb.append(", ");
+            }
+            if (!appendGroupingExpression(selectInfo.getExpression())) {
+                return false;
+            }
+            if (selectInfo.getAlias() != null) {
+                sb.append(" AS ").append(selectInfo.getAlias());
+            }
+        }
+
+        if (!appendPredicate(" WHERE ", queryBuilder.whereManager.rootPredicate.getPredicate())) {
+            return false;
+        }
+        List<NodeInfo> groupByInfos = queryBuilder.groupByManager.getGroupByInfos();
+        if (!groupByInfos.isEmpty()) {
+            sb.append(" GROUP BY ");
+            for (int i = 0; i < groupByInfos.size(); i++) {
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                if (!appendGroupingExpression(groupByInfos.get(i).getExpression())) {
+                    return false;
+                }
+            }
+        }
+        CompoundPredicate havingPredicate = queryBuilder.havingManager.rootPredicate.getPredicate();
+        if (!havingPredicate.getChildren().isEmpty()) {
+            sb.append(" HAVING ");
+            if (!appendGroupingExpression(havingPredicate)) {
+                return false;
+            }
+        }
+        List<OrderByManager.OrderByInfo> orderByInfos = queryBuilder.orderByManager.getOrderByInfos();
+        if (!orderByInfos.isEmpty()) {
+            sb.append(" ORDER BY ");
+            for (int i = 0; i < orderByInfos.size(); i++) {
+                OrderByManager.OrderByInfo orderByInfo = orderByInfos.get(i);
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                if (!appendGroupingExpression(orderByInfo.getExpression())) {
+                    return false;
+                }
+                sb.append(orderByInfo.isAscending() ? " ASC" : " DESC");
+                sb.append(orderByInfo.isNullFirst() ? " NULLS FIRST" : " NULLS LAST");
+            }
+        }
+        if (queryBuilder.firstResult != 0 || queryBuilder.maxResults != Integer.MAX_VALUE) {
+            sb.append(" LIMIT ").append(queryBuilder.maxResults).append(" OFFSET ").append(queryBuilder.firstResult);
+        }
+        return true;
+    }
+
+    private boolean append(JoinNode node) {
+        if (node.getValueCount() > 0 || node.isLateral() || node.getCorrelationParent() != null || node.getInlineCte() != null || node.getDeReferenceFunction() != null) {
+            return false;
+        }
+        StringBuilder sb = getQueryBuffer();
+        sb.append('[');
+        if (node.getParentTreeNode() != null) {
+            sb.append(node.getParentTreeNode().getRelationName());
+        }
+        if (node.getQualificationExpression() != null) {
+            sb.append(' ').append(node.getQualificationExpression());
+        }
+        sb.append(' ').append(node.getJoinType());
+        if (node.isFetch()) {
+            sb.append(" FETCH");
+        }
+        if (node.isCrossJoin()) {
+            sb.append(" CROSS");
+        }
+        sb.append(' ').append(JpaMetamodelUtils.getTypeName(node.getBaseType()));
+        if (node.getTreatType() != null) {
+            sb.append(" TREAT ").append(JpaMetamodelUtils.getTypeName(node.getTreatType()));
+        }
+        sb.append(' ').append(node.getAlias());
+        if (node.getAliasInfo().isImplicit()) {
+            sb.append(" IMPLICIT");
+        }
+        if (node.getOnPredicate() != null && !appendPredicate(" ON ", node.getOnPredicate())) {
+            return false;
+        }
+        for (JoinTreeNode treeNode : node.getNodes().values()) {
+            JoinNode defaultNode = treeNode.getDefaultNode();
+            for (JoinNode childNode : treeNode.getJoinNodes().values()) {
+                if (childNode == defaultNode) {
+                    sb.append(" DEFAULT");
+                }
+                if (!append(childNode)) {
+                    return false;
+                }
+            }
+        }
+        for (JoinNode treatedJoinNode : node.getTreatedJoinNodes().values()) {
+            if (!append(treatedJoinNode)) {
+                return false;
+            }
+        }
+        for (JoinNode entityJoinNode : node.getEntityJoinNodes()) {
+            if (!append(entityJoinNode)) {
+                return false;
+            }
+        }
+        sb.append(']');
+        return true;
+    }
+
+    private boolean appendGroupingExpression(Expression expression) {
+        // Parameters that end up in the group by clause are rendered as literals and subqueries might contain such parameters,
+        // so we can't cache query strings with parameters or subqueries in clauses that contribute to the group by clause
+        ParameterDetector detector = new ParameterDetector();
+        expression.accept(detector);
+        if (detector.found) {
+            return false;
+        }
+        return appendExpression(expression);
+    }
+
+    private boolean appendPredicate(String clause, CompoundPredicate predicate) {
+        if (predicate.getChildren().isEmpty()) {
+            return true;
+        }
+        getQueryBuffer().append(clause);
+        return appendExpression(predicate);
+    }
+
+    private boolean appendExpression(Expression expression) {
+        expression.accept(this);
+        return cacheable;
+    }
+
+    @Override
+    protected Set<String> getSupportedEnumTypes() {
+        // Always render parameters as placeholders
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void visit(ParameterExpression expression) {
+        StringBuilder sb = getQueryBuffer();
+        sb.append(':').append(expression.getName());
+        if (expression.isCollectionValued()) {
+            sb.append("[]");
+        }
+    }
+
+    @Override
+    public void visit(SubqueryExpression expression) {
+        if (!cacheable) {
+            return;
+        }
+        Subquery subquery = expression.getSubquery();
+        if (subquery instanceof SubqueryBuilderImpl<?>) {
+            StringBuilder sb = getQueryBuffer();
+            sb.append('(');
+            cacheable = append((SubqueryBuilderImpl<?>) subquery);
+            sb.append(')');
+        } else {
+            cacheable = false;
+        }
+    }
+
+    /**
+     * Detects parameter and subquery expressions.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class ParameterDetector extends VisitorAdapter {
+
+        private boolean found;
+
+        @Override
+        public void visit(ParameterExpression expression) {
+            found = true;
+        }
+
+        @Override
+        public void visit(SubqueryExpression expression) {
+            found = true;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.parser.expression.WeightedExpressionCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A criteria builder factory level cache for rendered query strings, keyed by the structural fingerprint of a query builder.
+ * The entries are stored in the {@link ExpressionCache} of the criteria builder factory, so a bounded expression cache also bounds this cache.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ * @see QueryFingerprintGenerator
+ */
+public class QueryStringCache {
+
+    static final String QUERY_STRING_CACHE_NAME = "com.blazebit.persistence.impl.cache.QueryString";
+    static final String EXTERNAL_QUERY_STRING_CACHE_NAME = "com.blazebit.persistence.impl.cache.ExternalQueryString";
+
+    private final ExpressionCache<Entry> cache;
+    private final WeightedExpressionCache<Entry> weightedCache;
+    private final AtomicLong renderNanos = new AtomicLong();
+    private final AtomicLong savedRenderNanos = new AtomicLong();
+    private final AtomicLong fingerprintNanos = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public QueryStringCache(ExpressionCache<?> cache) {
+        this.cache = (ExpressionCache<Entry>) cache;
+        this.weightedCache = cache instanceof WeightedExpressionCache<?> ? (WeightedExpressionCache<Entry>) cache : null;
+    }
+
+    String get(String fingerprint, boolean externalRepresentation) {
+        Entry entry = cache.get(getCacheName(externalRepresentation), new ExpressionCache.Key(fingerprint, false, false, false));
+        if (entry == null) {
+            return null;
+        }
+        savedRenderNanos.addAndGet(entry.renderNanos);
+        return entry.queryString;
+    }
+
+    void put(String fingerprint, boolean externalRepresentation, String queryString, long renderNanos) {
+        this.renderNanos.addAndGet(renderNanos);
+        ExpressionCache.Key key = new ExpressionCache.Key(fingerprint, false, false, false);
+        if (weightedCache == null) {
+            cache.putIfAbsent(getCacheName(externalRepresentation), key, new Entry(queryString, renderNanos));
+        } else {
+            // The query string length is a good approximation for the size of the structure that was rendered
+            weightedCache.putIfAbsent(getCacheName(externalRepresentation), key, new Entry(queryString, renderNanos), queryString.length());
+        }
+    }
+
+    void addFingerprintNanos(long fingerprintNanos) {
+        this.fingerprintNanos.addAndGet(fingerprintNanos);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     * The expression cache statistics are only available if the expression cache is a {@link WeightedExpressionCache} with enabled statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(
+                weightedCache == null ? null : weightedCache.getStatistics(QUERY_STRING_CACHE_NAME),
+                weightedCache == null ? null : weightedCache.getStatistics(EXTERNAL_QUERY_STRING_CACHE_NAME),
+                renderNanos.get(),
+                savedRenderNanos.get(),
+                fingerprintNanos.get()
+        );
+    }
+
+    private static String getCacheName(boolean externalRepresentation) {
+        return externalRepresentation ? EXTERNAL_QUERY_STRING_CACHE_NAME : QUERY_STRING_CACHE_NAME;
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class Entry {
+        final String queryString;
+        final long renderNanos;
+
+        Entry(String queryString, long renderNanos) {
+            this.queryString = queryString;
+            this.renderNanos = renderNanos;
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of the query string cache.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    public static final class Statistics {
+        private final WeightedExpressionCache.Statistics queryStringStatistics;
+        private final WeightedExpressionCache.Statistics externalQueryStringStatistics;
+        private final long renderNanos;
+        private final long savedRenderNanos;
+        private final long fingerprintNanos;
+
+        Statistics(WeightedExpressionCache.Statistics queryStringStatistics, WeightedExpressionCache.Statistics externalQueryStringStatistics, long renderNanos, long savedRenderNanos, long fingerprintNanos) {
+            this.queryStringStatistics = queryStringStatistics;
+            this.externalQueryStringStatistics = externalQueryStringStatistics;
+            this.renderNanos = renderNanos;
+            this.savedRenderNanos = savedRenderNanos;
+            this.fingerprintNanos = fingerprintNanos;
+        }
+
+        /**
+         * The statistics for the query strings used for query execution or <code>null</code> if there were no lookups yet or statistics are disabled.
+         *
+         * @return the statistics for the query strings
+         */
+        public WeightedExpressionCache.Statistics getQueryStringStatistics() {
+            return queryStringStatistics;
+        }
+
+        /**
+         * The statistics for the query strings returned by <code>getQueryString()</code> or <code>null</code> if there were no lookups yet or statistics are disabled.
+         *
+         * @return the statistics for the external query strings
+         */
+        public WeightedExpressionCache.Statistics getExternalQueryStringStatistics() {
+            return externalQueryStringStatistics;
+        }
+
+        /**
+         * The accumulated nanoseconds spent for preparing and rendering query strings that were put into the cache.
+         *
+         * @return the render time in nanoseconds
+         */
+        public long getRenderNanos() {
+            return renderNanos;
+        }
+
+        /**
+         * The accumulated nanoseconds spent for generating the fingerprints of query builders to look up query strings, for hits and misses.
+         *
+         * @return the fingerprint time in nanoseconds
+         */
+        public long getFingerprintNanos() {
+            return fingerprintNanos;
+        }
+
+        /**
+         * The accumulated nanoseconds of preparing and rendering that were saved through cache hits, not accounting for the fingerprint generation.
+         *
+         * @return the gross saved render time in nanoseconds
+         */
+        public long getGrossSavedRenderNanos() {
+            return savedRenderNanos;
+        }
+
+        /**
+         * The accumulated nanoseconds of preparing and rendering that were saved through cache hits minus the time spent for generating fingerprints.
+         * A negative value means that the cache costs more than it saves for the workload, e.g. because the hit rate is low
+         * or because queries are mostly executed, where a hit only skips rendering but not preparing.
+         *
+         * @return the net saved render time in nanoseconds
+         */
+        public long getSavedRenderNanos() {
+            return savedRenderNanos - fingerprintNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "queryStringStatistics=" + queryStringStatistics +
+                    ", externalQueryStringStatistics=" + externalQueryStringStatistics +
+                    ", renderNanos=" + renderNanos +
+                    ", savedRenderNanos=" + savedRenderNanos +
+                    ", fingerprintNanos=" + fingerprintNanos +
+                    '}';
+        }
+    }
+}
@@ -5,7 +5,9 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CachingObjectBuilder;
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.EntityManagerAwareObjectBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.MultipleSubqueryInitiator;
 import com.blazebit.persistence.ObjectBuilder;
@@ -23,6 +25,7 @@ import com.blazebit.persistence.impl.builder.object.ClassObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.ConstructorObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.DelegatingTupleObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.MultisetTransformingObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.CachingPreProcessingObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.PreProcessingObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.SelectObjectBuilderImpl;
 import com.blazebit.persistence.impl.builder.object.TupleObjectBuilder;
@@ -135,11 +138,19 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
                 }
             }
         } else if (!jpqlFunctionProcessors.isEmpty()) {
-            builder = new PreProcessingObjectBuilder<>(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), builder);
+            if (builder instanceof CachingObjectBuilder<?>) {
+                builder = new CachingPreProcessingObjectBuilder<>(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), (CachingObjectBuilder<T>) builder);
+            } else {
+                builder = new PreProcessingObjectBuilder<>(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), builder);
+            }
         }
         return builder;
     }
 
+    boolean isEntityManagerBoundObjectBuilder() {
+        return objectBuilder instanceof EntityManagerAwareObjectBuilder<?> && ((EntityManagerAwareObjectBuilder<?>) objectBuilder).isEntityManagerBound();
+    }
+
     public List<SelectInfo> getSelectInfos() {
         return selectInfos;
     }
@@ -0,0 +1,37 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.builder.object;
+
+import com.blazebit.persistence.CachingObjectBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+
+import java.util.List;
+
+/**
+ * A {@link PreProcessingObjectBuilder} that retains the result caching capabilities of the wrapped object builder.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class CachingPreProcessingObjectBuilder<T> extends PreProcessingObjectBuilder<T> implements CachingObjectBuilder<T> {
+
+    private final CachingObjectBuilder<T> cachingObjectBuilder;
+
+    public CachingPreProcessingObjectBuilder(ObjectBuilder<Object[]> preProcessor, CachingObjectBuilder<T> objectBuilder) {
+        super(preProcessor, objectBuilder);
+        this.cachingObjectBuilder = objectBuilder;
+    }
+
+    @Override
+    public List<Object[]> getCachedTuples(Object queryKey) {
+        return cachingObjectBuilder.getCachedTuples(queryKey);
+    }
+
+    @Override
+    public void putCachedTuples(Object queryKey, List<Object[]> tuples) {
+        cachingObjectBuilder.putCachedTuples(queryKey, tuples);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.builder.object;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
+
+import java.util.Iterator;
+
+/**
+ * An iterator that builds objects from tuples one by one via {@link ObjectBuilder#build(Object[])}.
+ *
+ * @param <T> The type that the object builder produces
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ObjectBuilderIterator<T> implements Iterator<T> {
+
+    private final ObjectBuilder<T> objectBuilder;
+    private final Iterator<Object[]> tuples;
+
+    public ObjectBuilderIterator(ObjectBuilder<T> objectBuilder, Iterator<Object[]> tuples) {
+        this.objectBuilder = objectBuilder;
+        this.tuples = tuples;
+    }
+
+    /**
+     * Returns an iterator that lazily builds objects from the given tuples, using {@link StreamingObjectBuilder#buildIterator(Iterator)} if possible.
+     *
+     * @param objectBuilder The object builder
+     * @param tuples The tuples
+     * @param <T> The type that the object builder produces
+     * @return The iterator for the built objects
+     */
+    public static <T> Iterator<T> create(ObjectBuilder<T> objectBuilder, Iterator<Object[]> tuples) {
+        if (objectBuilder instanceof StreamingObjectBuilder<?>) {
+            return ((StreamingObjectBuilder<T>) objectBuilder).buildIterator(tuples);
+        }
+        return new ObjectBuilderIterator<>(objectBuilder, tuples);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return tuples.hasNext();
+    }
+
+    @Override
+    public T next() {
+        Object[] tuple = tuples.next();
+        T result = objectBuilder.build(tuple);
+        if (result == tuple) {
+            throw new UnsupportedOperationException("Object builder is not streaming capable: " + objectBuilder);
+        }
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
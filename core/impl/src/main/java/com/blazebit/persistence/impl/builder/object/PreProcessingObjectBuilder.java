@@ -7,7 +7,9 @@ package com.blazebit.persistence.impl.builder.object;
 
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -15,7 +17,7 @@ import java.util.List;
  * @author Christian Beikov
  * @since 1.5.0
  */
-public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
+public class PreProcessingObjectBuilder<T> implements StreamingObjectBuilder<T> {
 
     private final ObjectBuilder<Object[]> preProcessor;
     private final ObjectBuilder<T> objectBuilder;
@@ -39,4 +41,24 @@ public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
     public List<T> buildList(List<T> list) {
         return objectBuilder.buildList(list);
     }
+
+    @Override
+    public Iterator<T> buildIterator(final Iterator<Object[]> tuples) {
+        return ObjectBuilderIterator.create(objectBuilder, new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return tuples.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return preProcessor.build(tuples.next());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
 }
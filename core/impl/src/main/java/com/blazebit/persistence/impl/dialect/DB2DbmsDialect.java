@@ -16,6 +16,7 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 /**
  * @author Christian Beikov
@@ -61,6 +62,11 @@ public class DB2DbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.MERGE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.MERGE;
+    }
+
     @Override
     public boolean supportsComplexJoinOn() {
         return false;
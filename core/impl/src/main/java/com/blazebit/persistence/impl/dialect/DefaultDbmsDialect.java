@@ -25,6 +25,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 /**
@@ -171,6 +172,11 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return UpdateJoinStyle.NONE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.NONE;
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return false;
@@ -14,6 +14,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -78,6 +79,11 @@ public class MSSQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.FROM_ALIAS;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.TERMINATED_MERGE;
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return true;
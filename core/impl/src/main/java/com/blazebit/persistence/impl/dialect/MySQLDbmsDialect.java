@@ -10,6 +10,7 @@ import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 import java.util.HashMap;
@@ -83,6 +84,11 @@ public class MySQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.REFERENCE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.ON_DUPLICATE_KEY;
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // MySQL is non SQL-standard compliant in this regard
@@ -18,6 +18,7 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 /**
  * @author Christian Beikov
@@ -42,6 +43,11 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.FROM;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.ON_CONFLICT;
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // PostgreSQL is non SQL-standard compliant in this regard
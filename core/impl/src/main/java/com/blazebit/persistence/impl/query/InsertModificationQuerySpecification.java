@@ -0,0 +1,191 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.ReturningObjectBuilder;
+import com.blazebit.persistence.impl.AbstractCommonQueryBuilder;
+import com.blazebit.persistence.impl.util.SqlUtils;
+import com.blazebit.persistence.spi.DbmsModificationState;
+import com.blazebit.persistence.spi.UpsertStyle;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns an insert statement into an upsert according to the upsert style of the dbms.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class InsertModificationQuerySpecification<T> extends ModificationQuerySpecification<T> {
+
+    private final String[] conflictColumns;
+    private final boolean conflictDoUpdate;
+    private final String[] insertColumnSqlTypes;
+
+    public InsertModificationQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Query exampleQuery, Collection<? extends Parameter<?>> parameters, Set<String> parameterListNames,
+                                                List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes, boolean recursive, List<CTENode> ctes, boolean shouldRenderCteNodes,
+                                                boolean isEmbedded, String[] returningColumns, ReturningObjectBuilder<T> objectBuilder, Map<DbmsModificationState, String> includedModificationStates, Map<String, String> returningAttributeBindingMap, boolean queryPlanCacheEnabled,
+                                                String[] conflictColumns, boolean conflictDoUpdate, String[] insertColumnSqlTypes) {
+        super(commonQueryBuilder, baseQuery, exampleQuery, parameters, parameterListNames, keyRestrictedLeftJoinAliases, entityFunctionNodes, recursive, ctes, shouldRenderCteNodes, isEmbedded, returningColumns, objectBuilder, includedModificationStates, returningAttributeBindingMap, queryPlanCacheEnabled);
+        this.conflictColumns = conflictColumns;
+        this.conflictDoUpdate = conflictDoUpdate;
+        this.insertColumnSqlTypes = insertColumnSqlTypes;
+    }
+
+    @Override
+    protected void applyModificationTransformations(StringBuilder sqlSb, String affectedDmlTable) {
+        affectedDmlTable = affectedDmlTable.trim();
+        int columnsStartIndex = sqlSb.indexOf("(", sqlSb.indexOf(" into ")) + 1;
+        int columnsEndIndex = sqlSb.indexOf(")", columnsStartIndex);
+        String[] insertColumns = sqlSb.substring(columnsStartIndex, columnsEndIndex).split(",");
+        for (int i = 0; i < insertColumns.length; i++) {
+            insertColumns[i] = insertColumns[i].trim();
+        }
+        int[] conflictColumnIndexes = new int[conflictColumns.length];
+        for (int i = 0; i < conflictColumns.length; i++) {
+            conflictColumnIndexes[i] = indexOf(insertColumns, conflictColumns[i]);
+            if (conflictColumnIndexes[i] == -1) {
+                throw new IllegalStateException("The conflict column [" + conflictColumns[i] + "] is not part of the inserted columns " + Arrays.toString(insertColumns) + "!");
+            }
+        }
+        List<Integer> updateColumnIndexes = new ArrayList<>(insertColumns.length);
+        if (conflictDoUpdate) {
+            for (int i = 0; i < insertColumns.length; i++) {
+                if (indexOf(conflictColumns, insertColumns[i]) == -1) {
+                    updateColumnIndexes.add(i);
+                }
+            }
+        }
+
+        UpsertStyle upsertStyle = dbmsDialect.getUpsertStyle();
+        switch (upsertStyle) {
+            case ON_CONFLICT:
+                sqlSb.append(" on conflict (");
+                for (int i = 0; i < conflictColumns.length; i++) {
+                    if (i != 0) {
+                        sqlSb.append(", ");
+                    }
+                    sqlSb.append(conflictColumns[i]);
+                }
+                if (updateColumnIndexes.isEmpty()) {
+                    sqlSb.append(") do nothing");
+                } else {
+                    sqlSb.append(") do update set ");
+                    for (int i = 0; i < updateColumnIndexes.size(); i++) {
+                        if (i != 0) {
+                            sqlSb.append(", ");
+                        }
+                        String column = insertColumns[updateColumnIndexes.get(i)];
+                        sqlSb.append(column).append(" = excluded.").append(column);
+                    }
+                }
+                break;
+            case ON_DUPLICATE_KEY:
+                sqlSb.append(" on duplicate key update ");
+                if (updateColumnIndexes.isEmpty()) {
+                    // A no-op assignment is the only way to ignore duplicates without ignoring other errors
+                    sqlSb.append(affectedDmlTable).append('.').append(conflictColumns[0]).append(" = ");
+                    sqlSb.append(affectedDmlTable).append('.').append(conflictColumns[0]);
+                } else {
+                    for (int i = 0; i < updateColumnIndexes.size(); i++) {
+                        if (i != 0) {
+                            sqlSb.append(", ");
+                        }
+                        String column = insertColumns[updateColumnIndexes.get(i)];
+                        sqlSb.append(affectedDmlTable).append('.').append(column).append(" = values(").append(column).append(')');
+                    }
+                }
+                break;
+            case MERGE:
+            case TERMINATED_MERGE:
+                if (returningColumns != null) {
+                    throw new IllegalStateException("Returning the result of an upsert is not supported by the DBMS!");
+                }
+                String sql = sqlSb.toString();
+                int selectIndex = SqlUtils.SELECT_FINDER.indexIn(sql, columnsEndIndex);
+                int fromIndex = SqlUtils.indexOfFrom(sql, selectIndex);
+                String[] selectItems = SqlUtils.getSelectItemExpressions(sql, selectIndex);
+                if (selectItems.length != insertColumns.length) {
+                    throw new IllegalStateException("The number of select items " + selectItems.length + " does not match the number of inserted columns " + insertColumns.length + "!");
+                }
+                sqlSb.setLength(0);
+                sqlSb.append("merge into ");
+                sqlSb.append(affectedDmlTable);
+
+                sqlSb.append(" using (select ");
+                for (int i = 0; i < selectItems.length; i++) {
+                    if (i != 0) {
+                        sqlSb.append(", ");
+                    }
+                    // Parameters in derived tables need a type on some DBMS
+                    if ("?".equals(selectItems[i]) && i < insertColumnSqlTypes.length && insertColumnSqlTypes[i] != null) {
+                        sqlSb.append(dbmsDialect.cast("?", insertColumnSqlTypes[i]));
+                    } else {
+                        sqlSb.append(selectItems[i]);
+                    }
+                    sqlSb.append(" as c").append(i);
+                }
+                if (fromIndex != -1) {
+                    sqlSb.append(sql, fromIndex, sql.length());
+                }
+                sqlSb.append(") tmp on (");
+                for (int i = 0; i < conflictColumns.length; i++) {
+                    if (i != 0) {
+                        sqlSb.append(" and ");
+                    }
+                    sqlSb.append(affectedDmlTable).append('.').append(conflictColumns[i]).append(" = tmp.c").append(conflictColumnIndexes[i]);
+                }
+                sqlSb.append(')');
+                if (!updateColumnIndexes.isEmpty()) {
+                    sqlSb.append(" when matched then update set ");
+                    for (int i = 0; i < updateColumnIndexes.size(); i++) {
+                        if (i != 0) {
+                            sqlSb.append(", ");
+                        }
+                        int index = updateColumnIndexes.get(i);
+                        sqlSb.append(insertColumns[index]).append(" = tmp.c").append(index);
+                    }
+                }
+                sqlSb.append(" when not matched then insert (");
+                for (int i = 0; i < insertColumns.length; i++) {
+                    if (i != 0) {
+                        sqlSb.append(", ");
+                    }
+                    sqlSb.append(insertColumns[i]);
+                }
+                sqlSb.append(") values (");
+                for (int i = 0; i < insertColumns.length; i++) {
+                    if (i != 0) {
+                        sqlSb.append(", ");
+                    }
+                    sqlSb.append("tmp.c").append(i);
+                }
+                sqlSb.append(')');
+                if (upsertStyle == UpsertStyle.TERMINATED_MERGE) {
+                    sqlSb.append(';');
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported upsert style: " + upsertStyle);
+        }
+    }
+
+    private static int indexOf(String[] columns, String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
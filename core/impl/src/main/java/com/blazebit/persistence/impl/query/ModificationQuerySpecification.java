@@ -117,6 +117,7 @@ public class ModificationQuerySpecification<T> extends CustomQuerySpecification<
             throw new UnsupportedOperationException("Unsupported statement type: " + statementType);
         }
         StringBuilder sqlSb = applySqlTransformations(sqlQuery);
+        applyModificationTransformations(sqlSb, affectedDmlTable);
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
         // NOTE: CTEs will only be added, if this is a subquery
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, isEmbedded, withClause, affectedDmlTable, returningColumns, includedModificationStates);
@@ -137,4 +138,8 @@ public class ModificationQuerySpecification<T> extends CustomQuerySpecification<
         this.dirty = false;
     }
 
+    protected void applyModificationTransformations(StringBuilder sqlSb, String affectedDmlTable) {
+        // Hook for statement type specific transformations that must happen before the extended SQL is appended
+    }
+
 }
@@ -5,13 +5,24 @@
 
 package com.blazebit.persistence.impl.query;
 
+import com.blazebit.persistence.CachingObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.ObjectBuilderIterator;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
@@ -26,24 +37,42 @@ import javax.persistence.criteria.ParameterExpression;
 public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
 
     private final ObjectBuilder<X> builder;
+    private final Object resultCacheKey;
 
-    @SuppressWarnings("unchecked")
     public ObjectBuilderTypedQuery(TypedQuery<?> delegate, Map<ParameterExpression<?>, String> criteriaNameMapping, ObjectBuilder<X> builder) {
+        this(delegate, criteriaNameMapping, builder, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ObjectBuilderTypedQuery(TypedQuery<?> delegate, Map<ParameterExpression<?>, String> criteriaNameMapping, ObjectBuilder<X> builder, Object resultCacheKey) {
         super((TypedQuery<X>) delegate, criteriaNameMapping);
         this.builder = builder;
+        this.resultCacheKey = resultCacheKey;
     }
 
     @Override
     public X getSingleResult() {
-        List<X> list = getResultList();
-        
+        return getSingleResult(getResultList(), delegate);
+    }
+
+    /**
+     * Returns the single element of the given result list of the given query.
+     *
+     * @param list The result list
+     * @param query The query for the exception message
+     * @param <X> The element type
+     * @return The single element
+     * @throws NoResultException if the list is empty
+     * @throws NonUniqueResultException if the list has more than one element
+     */
+    public static <X> X getSingleResult(List<X> list, Object query) {
         switch (list.size()) {
             case 0:
-                throw new NoResultException("No results for query: " + delegate);
+                throw new NoResultException("No results for query: " + query);
             case 1:
                 return list.get(0);
             default:
-                throw new NonUniqueResultException("Expected a single result for query: " + delegate);
+                throw new NonUniqueResultException("Expected a single result for query: " + query);
         }
     }
 
@@ -63,7 +92,52 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
 
     @Override
     public List<X> getResultList() {
-        List<X> list = super.getResultList();
+        if (resultCacheKey == null || !(builder instanceof CachingObjectBuilder<?>)) {
+            return buildResultList(builder, super.getResultList());
+        }
+        List<Object[]> tuples = getTuples(super.getResultList());
+        List<Object[]> tuplesCopy = new ArrayList<>(tuples.size());
+        for (int i = 0; i < tuples.size(); i++) {
+            // Object builders might alter the tuples, so we have to cache copies
+            tuplesCopy.add(tuples.get(i).clone());
+        }
+        List<X> resultList = buildResultList(builder, tuples);
+        ((CachingObjectBuilder<X>) builder).putCachedTuples(resultCacheKey, tuplesCopy);
+        return resultList;
+    }
+
+    /**
+     * Builds the result list for copies of the given cached tuples with the given object builder.
+     *
+     * @param builder The object builder
+     * @param cachedTuples The cached tuples
+     * @param <X> The type that the object builder produces
+     * @return The result list
+     */
+    public static <X> List<X> buildCachedResultList(ObjectBuilder<X> builder, List<Object[]> cachedTuples) {
+        List<Object[]> tuples = new ArrayList<>(cachedTuples.size());
+        for (int i = 0; i < cachedTuples.size(); i++) {
+            tuples.add(cachedTuples.get(i).clone());
+        }
+        return buildResultList(builder, tuples);
+    }
+
+    private static List<Object[]> getTuples(List<?> list) {
+        int size = list.size();
+        List<Object[]> tuples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Object tuple = list.get(i);
+
+            if (tuple instanceof Object[]) {
+                tuples.add((Object[]) tuple);
+            } else {
+                tuples.add(new Object[] { tuple });
+            }
+        }
+        return tuples;
+    }
+
+    private static <X> List<X> buildResultList(ObjectBuilder<X> builder, List<?> list) {
         int size = list.size();
         List<X> newList = new ArrayList<X>(size);
 
@@ -82,27 +156,139 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
 
     public Stream<X> getResultStream() {
         final Stream<X> resultStream = super.getResultStream();
-        return resultStream.map(new Function<X, X>() {
+        final Iterator<X> resultIterator = resultStream.iterator();
+        Iterator<Object[]> tuples = new Iterator<Object[]>() {
             @Override
-            public X apply(X tuple) {
-                Object[] array;
+            public boolean hasNext() {
+                return resultIterator.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                Object tuple = resultIterator.next();
                 if (tuple instanceof Object[]) {
-                    array = (Object[]) tuple;
+                    return (Object[]) tuple;
                 } else {
-                    array = new Object[]{tuple};
-                }
-                X result = builder.build(array);
-                if (result == array) {
-                    throw new UnsupportedOperationException("Object builder is not streaming capable: " + builder);
+                    return new Object[]{ tuple };
                 }
-                return result;
             }
-        }).onClose(new Runnable() {
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        final Iterator<X> iterator = ObjectBuilderIterator.create(builder, tuples);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(new Runnable() {
             @Override
             public void run() {
-                resultStream.close();
+                try {
+                    // Streaming object builders might hold resources like dedicated entity managers until the iterator is exhausted
+                    if (iterator instanceof AutoCloseable) {
+                        ((AutoCloseable) iterator).close();
+                    }
+                } catch (RuntimeException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new IllegalStateException("Could not close the result iterator", ex);
+                } finally {
+                    resultStream.close();
+                }
             }
         });
     }
 
+    /**
+     * The key of a query execution that is passed to a {@link CachingObjectBuilder}.
+     * The key holds copies of mutable parameter values, so that changing a parameter value after the execution doesn't change the key.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    public static final class QueryKey {
+
+        private final String queryIdentity;
+        private final Map<String, Object> parameterValues;
+        private final int firstResult;
+        private final int maxResults;
+        private final int hashCode;
+
+        /**
+         * Creates a new query key.
+         *
+         * @param queryIdentity The fingerprint or query string of the query
+         * @param parameterValues The parameter values by name which are copied
+         * @param firstResult The first result
+         * @param maxResults The max results
+         */
+        public QueryKey(String queryIdentity, Map<String, Object> parameterValues, int firstResult, int maxResults) {
+            this.queryIdentity = queryIdentity;
+            this.parameterValues = copyParameterValues(parameterValues);
+            this.firstResult = firstResult;
+            this.maxResults = maxResults;
+            int result = queryIdentity.hashCode();
+            result = 31 * result + parameterValues.hashCode();
+            result = 31 * result + firstResult;
+            result = 31 * result + maxResults;
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+
+            QueryKey queryKey = (QueryKey) o;
+            return firstResult == queryKey.firstResult
+                    && maxResults == queryKey.maxResults
+                    && queryIdentity.equals(queryKey.queryIdentity)
+                    && parameterValues.equals(queryKey.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        private static Map<String, Object> copyParameterValues(Map<String, Object> parameterValues) {
+            Map<String, Object> copies = new HashMap<>(parameterValues.size());
+            for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+                copies.put(entry.getKey(), copyParameterValue(entry.getValue()));
+            }
+            return copies;
+        }
+
+        private static Object copyParameterValue(Object value) {
+            if (value instanceof Collection<?>) {
+                Collection<?> collection = (Collection<?>) value;
+                List<Object> copy = new ArrayList<>(collection.size());
+                for (Object element : collection) {
+                    copy.add(copyParameterValue(element));
+                }
+                return Collections.unmodifiableList(copy);
+            } else if (value != null && value.getClass().isArray()) {
+                // Arrays don't implement equals, so we compare the elements
+                int length = Array.getLength(value);
+                List<Object> copy = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    copy.add(copyParameterValue(Array.get(value, i)));
+                }
+                return Collections.unmodifiableList(copy);
+            } else if (value instanceof Date) {
+                return ((Date) value).clone();
+            } else if (value instanceof Calendar) {
+                return ((Calendar) value).clone();
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryKey{queryIdentity='" + queryIdentity + "', parameterValues=" + parameterValues + ", firstResult=" + firstResult + ", maxResults=" + maxResults + "}";
+        }
+    }
 }
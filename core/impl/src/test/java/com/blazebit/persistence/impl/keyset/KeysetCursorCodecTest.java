@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.keyset;
+
+import com.blazebit.persistence.JoinType;
+import com.blazebit.persistence.KeysetCursorCodec;
+import com.blazebit.persistence.KeysetPage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class KeysetCursorCodecTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(Charset.forName("UTF-8"));
+
+    @Test
+    public void testRoundTripBuiltinTypes() {
+        Timestamp timestamp = new Timestamp(-1234567L);
+        timestamp.setNanos(123456789);
+        Serializable[] lowest = new Serializable[]{
+            null, true, false, (byte) -3, (short) 300, -42, Long.MIN_VALUE, 1.5f, -2.25d, 'x', "Ünicode",
+            new BigInteger("-123456789012345678901234567890"), new BigDecimal("-12.3400"), UUID.randomUUID(),
+            new Date(1234567L), new java.sql.Date(86400000L), new java.sql.Time(3600000L), timestamp
+        };
+        Serializable[] highest = new Serializable[]{ 1L, "abc" };
+        KeysetCursorCodec codec = new KeysetCursorCodec();
+
+        KeysetPage keysetPage = codec.decode(codec.encodeToString(20, 10, lowest, highest));
+
+        Assert.assertEquals(20, keysetPage.getFirstResult());
+        Assert.assertEquals(10, keysetPage.getMaxResults());
+        Assert.assertArrayEquals(lowest, keysetPage.getLowest().getTuple());
+        Assert.assertArrayEquals(highest, keysetPage.getHighest().getTuple());
+        for (int i = 0; i < lowest.length; i++) {
+            if (lowest[i] != null) {
+                Assert.assertEquals(lowest[i].getClass(), keysetPage.getLowest().getTuple()[i].getClass());
+            }
+        }
+    }
+
+    @Test
+    public void testNullTuples() {
+        KeysetCursorCodec codec = new KeysetCursorCodec();
+
+        KeysetPage keysetPage = codec.decode(codec.encode(0, 5, null, null));
+
+        Assert.assertNull(keysetPage.getLowest());
+        Assert.assertNull(keysetPage.getHighest());
+    }
+
+    @Test
+    public void testCompactComparedToJavaSerialization() throws Exception {
+        Serializable[] tuple = new Serializable[]{ "Some name", 123456L };
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.write(0);
+            oos.write(10);
+            oos.writeObject(tuple);
+        }
+
+        byte[] cursor = new KeysetCursorCodec().encode(0, 10, tuple, null);
+
+        Assert.assertTrue(cursor.length * 5 <= baos.size());
+    }
+
+    @Test
+    public void testDisallowedType() {
+        KeysetCursorCodec codec = new KeysetCursorCodec();
+        byte[] cursor = codec.encode(0, 10, new Serializable[]{ JoinType.LEFT }, null);
+
+        try {
+            codec.decode(cursor);
+            Assert.fail("Expected to fail decoding a disallowed type");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains(JoinType.class.getName()));
+        }
+    }
+
+    @Test
+    public void testAllowedTypes() {
+        KeysetCursorCodec codec = new KeysetCursorCodec(Collections.singleton(JoinType.class.getName()), null);
+        byte[] cursor = codec.encode(0, 10, new Serializable[]{ JoinType.LEFT }, null);
+
+        Assert.assertArrayEquals(new Serializable[]{ JoinType.LEFT }, codec.decode(cursor).getLowest().getTuple());
+        Assert.assertArrayEquals(new Serializable[]{ JoinType.LEFT }, new KeysetCursorCodec().decode(cursor, new Class<?>[]{ JoinType.class }).getLowest().getTuple());
+    }
+
+    @Test
+    public void testSignedCursor() {
+        KeysetCursorCodec codec = new KeysetCursorCodec(null, KEY);
+        byte[] cursor = codec.encode(10, 10, new Serializable[]{ 1L }, null);
+
+        Assert.assertArrayEquals(new Serializable[]{ 1L }, codec.decode(cursor).getLowest().getTuple());
+
+        cursor[2]++;
+        try {
+            codec.decode(cursor);
+            Assert.fail("Expected to fail decoding a tampered cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains("signature mismatch"));
+        }
+        try {
+            codec.decode(new KeysetCursorCodec().encode(10, 10, new Serializable[]{ 1L }, null));
+            Assert.fail("Expected to fail decoding an unsigned cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains("missing signature"));
+        }
+    }
+
+    @Test
+    public void testTruncatedCursor() {
+        KeysetCursorCodec codec = new KeysetCursorCodec();
+        byte[] cursor = codec.encode(0, 10, new Serializable[]{ "abc" }, null);
+        byte[] truncated = new byte[cursor.length - 2];
+        System.arraycopy(cursor, 0, truncated, 0, truncated.length);
+
+        try {
+            codec.decode(truncated);
+            Assert.fail("Expected to fail decoding a truncated cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().startsWith("Invalid keyset cursor"));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class QueryKeyTest {
+
+    private static ObjectBuilderTypedQuery.QueryKey key(String name, Object value) {
+        Map<String, Object> parameterValues = new HashMap<>();
+        parameterValues.put(name, value);
+        return new ObjectBuilderTypedQuery.QueryKey("query", parameterValues, 0, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testMutatedCollectionDoesNotChangeKey() {
+        List<Long> ids = new ArrayList<>(Arrays.asList(1L, 2L));
+        ObjectBuilderTypedQuery.QueryKey key = key("ids", ids);
+        ids.add(3L);
+
+        Assert.assertEquals(key("ids", Arrays.asList(1L, 2L)), key);
+        Assert.assertNotEquals(key("ids", ids), key);
+    }
+
+    @Test
+    public void testMutatedArrayDoesNotChangeKey() {
+        byte[] bytes = new byte[]{ 1, 2 };
+        ObjectBuilderTypedQuery.QueryKey key = key("bytes", bytes);
+        bytes[1] = 3;
+
+        Assert.assertEquals(key("bytes", new byte[]{ 1, 2 }), key);
+        Assert.assertNotEquals(key("bytes", bytes), key);
+    }
+
+    @Test
+    public void testMutatedDateDoesNotChangeKey() {
+        Date date = new Date(1000L);
+        ObjectBuilderTypedQuery.QueryKey key = key("date", date);
+        date.setTime(2000L);
+
+        Assert.assertEquals(key("date", new Date(1000L)), key);
+        Assert.assertNotEquals(key("date", date), key);
+    }
+
+    @Test
+    public void testMutatedParameterValuesDoNotChangeKey() {
+        Map<String, Object> parameterValues = new HashMap<>();
+        parameterValues.put("id", 1L);
+        ObjectBuilderTypedQuery.QueryKey key = new ObjectBuilderTypedQuery.QueryKey("query", parameterValues, 0, Integer.MAX_VALUE);
+        parameterValues.put("id", 2L);
+
+        Assert.assertEquals(new ObjectBuilderTypedQuery.QueryKey("query", Collections.<String, Object>singletonMap("id", 1L), 0, Integer.MAX_VALUE), key);
+    }
+}
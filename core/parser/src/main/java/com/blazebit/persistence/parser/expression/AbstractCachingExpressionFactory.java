@@ -69,10 +69,16 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
 
     private final ExpressionFactory delegate;
     private final ExpressionCache<ExpressionCacheEntry> expressionCache;
+    private final WeightedExpressionCache<ExpressionCacheEntry> weightedExpressionCache;
 
     public AbstractCachingExpressionFactory(ExpressionFactory delegate, ExpressionCache expressionCache) {
         this.delegate = delegate;
         this.expressionCache = expressionCache;
+        if (expressionCache instanceof WeightedExpressionCache<?> && ((WeightedExpressionCache<?>) expressionCache).isWeighted()) {
+            this.weightedExpressionCache = (WeightedExpressionCache<ExpressionCacheEntry>) expressionCache;
+        } else {
+            this.weightedExpressionCache = null;
+        }
     }
 
     @Override
@@ -157,7 +163,12 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
                 exprEntry.addMacroConfigurationExpression(macroKey, expr);
             }
 
-            expressionCache.putIfAbsent(cacheName, new ExpressionCache.Key(expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression), exprEntry);
+            ExpressionCache.Key key = new ExpressionCache.Key(expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression);
+            if (weightedExpressionCache == null) {
+                expressionCache.putIfAbsent(cacheName, key, exprEntry);
+            } else {
+                weightedExpressionCache.putIfAbsent(cacheName, key, exprEntry, ExpressionWeigher.weigh(expr));
+            }
             return (E) expr.copy(ExpressionCopyContext.EMPTY);
         }
 
@@ -21,12 +21,15 @@ import org.antlr.v4.runtime.atn.ATNConfigSet;
 import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.dfa.DFA;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -92,6 +95,53 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
         }
     };
 
+    private static final List<String> WARM_UP_EXPRESSIONS = Arrays.asList(
+            "a.b.c",
+            "KEY(a.map).b",
+            "VALUE(a.map)",
+            "ENTRY(a.map)",
+            "INDEX(a.list)",
+            "TREAT(a AS Entity).b",
+            "a.list[1].b",
+            "TYPE(a)",
+            "-a.b + 1 * 2 - a.c / 3.5",
+            ":param",
+            "?1",
+            "'string'",
+            "1L",
+            "TRUE",
+            "CURRENT_TIMESTAMP",
+            "{d '2000-01-01'}",
+            "{ts '2000-01-01 00:00:00'}",
+            "CASE WHEN a.b = 1 THEN 'x' ELSE 'y' END",
+            "CASE a.b WHEN 1 THEN 2 ELSE 3 END",
+            "COALESCE(a.b, :param, 1)",
+            "NULLIF(a.b, 1)",
+            "CONCAT(a.b, 'x')",
+            "SUBSTRING(a.b, 1, 2)",
+            "TRIM(BOTH ' ' FROM a.b)",
+            "LOWER(a.b)",
+            "LENGTH(a.b)",
+            "LOCATE('x', a.b)",
+            "ABS(a.b)",
+            "MOD(a.b, 2)",
+            "SIZE(a.list)",
+            "COUNT(DISTINCT a.b)",
+            "COUNT(*)",
+            "SUM(a.b)",
+            "MAX(a.b)",
+            "FUNCTION('fn', a.b, 1)",
+            "fn(a.b)",
+            "a.b = 1 AND a.c <> :param OR NOT a.d > 2",
+            "a.b BETWEEN 1 AND 2",
+            "a.b NOT LIKE 'x%' ESCAPE '!'",
+            "a.b IN (1, 2, :param)",
+            "a.b IN :param",
+            "a.b IS NOT NULL",
+            "a.list IS EMPTY",
+            "a MEMBER OF b.list"
+    );
+
     private final boolean optimize;
     private final Map<String, FunctionKind> functions;
     private final Map<String, Class<?>> entityTypes;
@@ -100,6 +150,9 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
     private final int minEnumSegmentCount;
     private final int minEntitySegmentCount;
     private final ExpressionOptimizer optimizer = new ExpressionOptimizer();
+    private final ThreadLocal<WeakReference<JPQLNextParser>> parserCache = new ThreadLocal<>();
+    private final AtomicLong parseCount = new AtomicLong();
+    private final AtomicLong fullContextParseCount = new AtomicLong();
 
     protected AbstractExpressionFactory(Map<String, FunctionKind> functions, Map<String, Class<?>> entityTypes, Map<String, Class<Enum<?>>> enumTypes, Map<String, Class<Enum<?>>> enumTypesForLiterals, boolean optimize) {
         this.functions = functions;
@@ -151,23 +204,9 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
             throw new IllegalArgumentException("expression");
         }
         CharStream inputCharStream = CharStreams.fromString(expression);
-        JPQLNextLexer l = new JPQLNextLexer(inputCharStream);
-        configureLexer(l);
-        CommonTokenStream tokens = new CommonTokenStream(l);
-        JPQLNextParser p = new JPQLNextParser(tokens);
-        p.getInterpreter().setPredictionMode(PredictionMode.SLL);
-        configureParser(p);
         ParserRuleContext ctx;
         try {
-            try {
-                ctx = ruleInvoker.invokeRule(p);  // STAGE 1
-            } catch (Exception ex) {
-                tokens.seek(0); // rewind input stream
-                p.reset();
-                p.getInterpreter().setPredictionMode(PredictionMode.LL);
-                ctx = ruleInvoker.invokeRule(p);  // STAGE 2
-                // if we parse ok, it's LL not SLL
-            }
+            ctx = parse(ruleInvoker, inputCharStream, expression, true);
         } catch (SyntaxErrorException ex) {
             throw new SyntaxErrorException("Could not parse expression '" + expression + "', " + ex.getMessage(), ex);
         }
@@ -184,6 +223,113 @@ public abstract class AbstractExpressionFactory extends AbstractExpressionFactor
         return parsedExpression;
     }
 
+    private ParserRuleContext parse(RuleInvoker ruleInvoker, CharStream inputCharStream, String expression, boolean recordStatistics) {
+        JPQLNextParser p = getParser(inputCharStream);
+        if (recordStatistics) {
+            parseCount.incrementAndGet();
+        }
+        try {
+            return ruleInvoker.invokeRule(p);  // STAGE 1
+        } catch (Exception ex) {
+            p.reset(); // rewind input stream
+            p.getInterpreter().setPredictionMode(PredictionMode.LL);
+            ParserRuleContext ctx = ruleInvoker.invokeRule(p);  // STAGE 2
+            // if we parse ok, it's LL not SLL
+            if (recordStatistics) {
+                fullContextParseCount.incrementAndGet();
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("The expression '" + expression + "' required full context parsing");
+                }
+            }
+            return ctx;
+        }
+    }
+
+    private JPQLNextParser getParser(CharStream inputCharStream) {
+        // Lexers and parsers are reused per thread, the DFA cache is shared by all instances anyway
+        WeakReference<JPQLNextParser> parserReference = parserCache.get();
+        JPQLNextParser p;
+        if (parserReference == null || (p = parserReference.get()) == null) {
+            JPQLNextLexer l = new JPQLNextLexer(inputCharStream);
+            configureLexer(l);
+            p = new JPQLNextParser(new CommonTokenStream(l));
+            parserCache.set(new WeakReference<>(p));
+        } else {
+            CommonTokenStream tokens = (CommonTokenStream) p.getTokenStream();
+            JPQLNextLexer l = (JPQLNextLexer) tokens.getTokenSource();
+            l.setInputStream(inputCharStream);
+            tokens.setTokenSource(l);
+            p.setTokenStream(tokens);
+        }
+        p.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        configureParser(p);
+        return p;
+    }
+
+    /**
+     * Parses a built-in corpus of representative expressions and predicates without building expression trees.
+     *
+     * @return The number of expressions that could be parsed
+     * @since 1.6.21
+     * @see #warmUp(Iterable)
+     */
+    public int warmUp() {
+        return warmUp(WARM_UP_EXPRESSIONS);
+    }
+
+    /**
+     * Parses the given expressions as simple expressions or predicates without building expression trees.
+     * This warms up the DFA cache that all ANTLR parser instances share, so that the first parses of similar expressions at runtime are faster.
+     * Expressions that can't be parsed are skipped and warm up parses are not recorded in the parse statistics.
+     *
+     * @param expressions The expressions to parse
+     * @return The number of expressions that could be parsed
+     * @since 1.6.21
+     */
+    public int warmUp(Iterable<String> expressions) {
+        int count = 0;
+        for (String expression : expressions) {
+            if (expression == null || expression.isEmpty()) {
+                continue;
+            }
+            try {
+                parse(getSimpleExpressionRuleInvoker(), CharStreams.fromString(expression), expression, false);
+                count++;
+            } catch (RuntimeException ex) {
+                try {
+                    parse(PREDICATE_EXPRESSION_RULE_INVOKER, CharStreams.fromString(expression), expression, false);
+                    count++;
+                } catch (RuntimeException ex2) {
+                    if (LOG.isLoggable(Level.FINEST)) {
+                        LOG.log(Level.FINEST, "Skipping the warm up expression '" + expression + "'", ex2);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of expressions that were parsed by this expression factory.
+     *
+     * @return The number of parsed expressions
+     * @since 1.6.21
+     */
+    public long getParseCount() {
+        return parseCount.get();
+    }
+
+    /**
+     * Returns the number of expressions that could not be parsed with the fast SLL prediction mode
+     * and had to be parsed again with full context LL prediction. Such expressions are logged on the level <code>FINE</code>.
+     *
+     * @return The number of parses that required full context prediction
+     * @since 1.6.21
+     */
+    public long getFullContextParseCount() {
+        return fullContextParseCount.get();
+    }
+
     protected abstract RuleInvoker getSimpleExpressionRuleInvoker();
 
     @Override
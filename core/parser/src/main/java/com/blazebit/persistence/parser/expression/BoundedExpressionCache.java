@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.parser.util.SegmentedLruCache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded expression cache that uses a segmented LRU eviction policy per cache name.
+ *
+ * New entries are put into a probation segment and are promoted to a protected segment on the next hit.
+ * When the protected segment is full, its least recently used entry is demoted to the probation segment.
+ * Entries are evicted from the tail of the probation segment, so expressions that are parsed only once
+ * don't push out frequently used expressions.
+ *
+ * A cache is bounded by the number of entries and by the accumulated weight of its entries,
+ * which is the number of nodes of the cached expression trees.
+ * Weights are only computed if a maximum weight is configured, otherwise every entry has the weight 1.
+ *
+ * Recording accesses is lossy, if the lock of a cache is contended, the access is not recorded to avoid blocking readers.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class BoundedExpressionCache<T> implements WeightedExpressionCache<T> {
+
+    /**
+     * The maximum number of entries per cache name. A specific cache can be configured by appending a dot and the cache name
+     * or the simple cache name i.e. the part after the last dot of the cache name.
+     */
+    public static final String MAXIMUM_SIZE = "com.blazebit.persistence.expression.cache_maximum_size";
+    /**
+     * The maximum accumulated weight per cache name. A specific cache can be configured by appending a dot and the cache name
+     * or the simple cache name i.e. the part after the last dot of the cache name.
+     */
+    public static final String MAXIMUM_WEIGHT = "com.blazebit.persistence.expression.cache_maximum_weight";
+
+    static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+    static final long DEFAULT_MAXIMUM_WEIGHT = Long.MAX_VALUE;
+    private final ConcurrentMap<String, SegmentedLruCache<Key, T>> cacheManager;
+    private final Map<String, String> properties;
+    private final boolean weighted;
+
+    public BoundedExpressionCache() {
+        this(Collections.<String, String>emptyMap());
+    }
+
+    public BoundedExpressionCache(Map<String, String> properties) {
+        this.cacheManager = new ConcurrentHashMap<>();
+        this.properties = properties;
+        // Validate the configuration early
+        getLongProperty(MAXIMUM_SIZE, null, DEFAULT_MAXIMUM_SIZE);
+        getLongProperty(MAXIMUM_WEIGHT, null, DEFAULT_MAXIMUM_WEIGHT);
+        boolean weighted = false;
+        for (String propertyName : properties.keySet()) {
+            if (propertyName.startsWith(MAXIMUM_WEIGHT)) {
+                weighted = true;
+                break;
+            }
+        }
+        this.weighted = weighted;
+    }
+
+    @Override
+    public T get(String cacheName, Key key) {
+        return getCache(cacheName).get(key);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value) {
+        return putIfAbsent(cacheName, key, value, 1);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value, int weight) {
+        return getCache(cacheName).putIfAbsent(key, value, Math.max(1, weight));
+    }
+
+    @Override
+    public boolean isWeighted() {
+        // Without a configured maximum weight, every entry has the weight 1
+        return weighted;
+    }
+
+    @Override
+    public Statistics getStatistics(String cacheName) {
+        final SegmentedLruCache<Key, T> cache = cacheManager.get(cacheName);
+        return cache == null ? null : new Statistics(cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount(), cache.getSize(), cache.getWeight());
+    }
+
+    private SegmentedLruCache<Key, T> getCache(String cacheName) {
+        SegmentedLruCache<Key, T> cache = cacheManager.get(cacheName);
+
+        if (cache == null) {
+            cache = new SegmentedLruCache<>(
+                    getLongProperty(MAXIMUM_SIZE, cacheName, DEFAULT_MAXIMUM_SIZE),
+                    getLongProperty(MAXIMUM_WEIGHT, cacheName, DEFAULT_MAXIMUM_WEIGHT),
+                    true
+            );
+            SegmentedLruCache<Key, T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
+
+            if (oldCache != null) {
+                cache = oldCache;
+            }
+        }
+
+        return cache;
+    }
+
+    private long getLongProperty(String propertyName, String cacheName, long defaultValue) {
+        String value = null;
+        if (cacheName != null) {
+            value = properties.get(propertyName + "." + cacheName);
+            if (value == null) {
+                value = properties.get(propertyName + "." + cacheName.substring(cacheName.lastIndexOf('.') + 1));
+            }
+        }
+        if (value == null) {
+            value = properties.get(propertyName);
+        }
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long longValue = Long.parseLong(value.trim());
+            if (longValue < 1) {
+                throw new IllegalArgumentException("Invalid value for property " + propertyName + ", must be a positive number: " + value);
+            }
+            return longValue;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid value for property " + propertyName + ": " + value, ex);
+        }
+    }
+}
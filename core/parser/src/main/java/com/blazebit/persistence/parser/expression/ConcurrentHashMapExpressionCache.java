@@ -5,47 +5,134 @@
 
 package com.blazebit.persistence.parser.expression;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * An unbounded expression cache. For a cache that evicts entries, see {@link BoundedExpressionCache}.
+ *
+ * Statistics are only recorded if enabled through {@link #STATISTICS_ENABLED}, to keep the lookup path free of shared counters.
  *
  * @author Christian Beikov
  * @since 1.2.0
  */
-public class ConcurrentHashMapExpressionCache<T> implements ExpressionCache<T> {
+public class ConcurrentHashMapExpressionCache<T> implements WeightedExpressionCache<T> {
+
+    /**
+     * Whether hit and miss counts as well as the accumulated weight of the entries should be recorded.
+     *
+     * @since 1.6.21
+     */
+    public static final String STATISTICS_ENABLED = "com.blazebit.persistence.expression.cache_statistics";
 
-    private final ConcurrentMap<String, ConcurrentMap<Key, T>> cacheManager;
+    private final ConcurrentMap<String, Cache<T>> cacheManager;
+    private final boolean statisticsEnabled;
 
     public ConcurrentHashMapExpressionCache() {
+        this(Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Creates a new cache configured through the given properties.
+     *
+     * @param properties The configuration properties
+     * @since 1.6.21
+     */
+    public ConcurrentHashMapExpressionCache(Map<String, String> properties) {
         this.cacheManager = new ConcurrentHashMap<>();
+        String statisticsEnabled = properties.get(STATISTICS_ENABLED);
+        if (statisticsEnabled == null || statisticsEnabled.isEmpty()) {
+            this.statisticsEnabled = false;
+        } else if ("true".equalsIgnoreCase(statisticsEnabled)) {
+            this.statisticsEnabled = true;
+        } else if ("false".equalsIgnoreCase(statisticsEnabled)) {
+            this.statisticsEnabled = false;
+        } else {
+            throw new IllegalArgumentException("Invalid value for property " + STATISTICS_ENABLED + ": " + statisticsEnabled);
+        }
     }
 
     @Override
     public T get(String cacheName, Key key) {
-        final ConcurrentMap<Key, T> cache = cacheManager.get(cacheName);
-        return cache == null ? null : cache.get(key);
+        if (!statisticsEnabled) {
+            final Cache<T> cache = cacheManager.get(cacheName);
+            return cache == null ? null : cache.map.get(key);
+        }
+        final Cache<T> cache = getCache(cacheName);
+        T value = cache.map.get(key);
+        if (value == null) {
+            cache.missCount.incrementAndGet();
+        } else {
+            cache.hitCount.incrementAndGet();
+        }
+        return value;
     }
 
     @Override
     public T putIfAbsent(String cacheName, Key key, T value) {
+        return putIfAbsent(cacheName, key, value, 1);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value, int weight) {
+        final Cache<T> cache = getCache(cacheName);
+        T oldValue = cache.map.putIfAbsent(key, value);
+        if (oldValue != null) {
+            return oldValue;
+        }
+
+        if (statisticsEnabled) {
+            cache.weight.addAndGet(weight);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isWeighted() {
+        // The weight is only needed for the statistics as this cache is unbounded
+        return statisticsEnabled;
+    }
+
+    @Override
+    public Statistics getStatistics(String cacheName) {
+        if (!statisticsEnabled) {
+            return null;
+        }
+        final Cache<T> cache = cacheManager.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        return new Statistics(cache.hitCount.get(), cache.missCount.get(), 0L, cache.map.size(), cache.weight.get());
+    }
+
+    private Cache<T> getCache(String cacheName) {
         // Find the cache manager
-        ConcurrentMap<Key, T> cache = cacheManager.get(cacheName);
+        Cache<T> cache = cacheManager.get(cacheName);
 
         if (cache == null) {
-            cache = new ConcurrentHashMap<>();
-            ConcurrentMap<Key, T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
+            cache = new Cache<>();
+            Cache<T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
 
             if (oldCache != null) {
                 cache = oldCache;
             }
         }
 
-        T oldValue = cache.putIfAbsent(key, value);
-        if (oldValue != null) {
-            return oldValue;
-        }
+        return cache;
+    }
 
-        return value;
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class Cache<T> {
+        final ConcurrentMap<Key, T> map = new ConcurrentHashMap<>();
+        final AtomicLong hitCount = new AtomicLong();
+        final AtomicLong missCount = new AtomicLong();
+        final AtomicLong weight = new AtomicLong();
     }
 }
@@ -0,0 +1,28 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.parser.predicate.Predicate;
+
+/**
+ * An internal contract of the join on builders that allows to pass a pre-built predicate instead of an expression string.
+ *
+ * @param <T> The result type of the join on builder
+ * @author Christian Beikov
+ * @since 1.6.21
+ * @see ExpressionTreeQueryBuilder
+ */
+public interface ExpressionTreeJoinOnBuilder<T> {
+
+    /**
+     * Like <code>JoinOnBuilder.setOnExpression(String)</code> but with a pre-built predicate.
+     * This also ends the join on builder.
+     *
+     * @param predicate The on predicate
+     * @return The parent builder
+     */
+    public T setOnExpression(Predicate predicate);
+}
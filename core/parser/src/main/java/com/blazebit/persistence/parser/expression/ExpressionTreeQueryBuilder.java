@@ -0,0 +1,57 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.parser.predicate.Predicate;
+
+/**
+ * An internal contract of the query builders that allows to pass pre-built expression trees instead of expression strings.
+ * Integrations that construct expressions programmatically, like the JPA Criteria API implementation, use this to avoid
+ * rendering an expression to a string just to have it parsed again. The trees are owned by the builder after passing them.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface ExpressionTreeQueryBuilder {
+
+    /**
+     * Like <code>SelectBuilder.select(String, String)</code> but with a pre-built expression.
+     *
+     * @param expression The select expression
+     * @param selectAlias The select alias or <code>null</code>
+     */
+    public void select(Expression expression, String selectAlias);
+
+    /**
+     * Like <code>WhereBuilder.setWhereExpression(String)</code> but with a pre-built predicate.
+     *
+     * @param predicate The where predicate
+     */
+    public void setWhereExpression(Predicate predicate);
+
+    /**
+     * Like <code>GroupByBuilder.groupBy(String)</code> but with a pre-built expression.
+     *
+     * @param expression The group by expression
+     */
+    public void groupBy(Expression expression);
+
+    /**
+     * Like <code>HavingBuilder.setHavingExpression(String)</code> but with a pre-built predicate.
+     *
+     * @param predicate The having predicate
+     */
+    public void setHavingExpression(Predicate predicate);
+
+    /**
+     * Like <code>OrderByBuilder.orderBy(String, boolean, boolean)</code> but with a pre-built expression.
+     *
+     * @param expression The order by expression
+     * @param ascending Whether the order should be ascending or descending
+     * @param nullFirst Whether null elements should be ordered first or last
+     */
+    public void orderBy(Expression expression, boolean ascending, boolean nullFirst);
+}
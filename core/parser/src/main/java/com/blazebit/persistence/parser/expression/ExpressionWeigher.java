@@ -0,0 +1,284 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.parser.predicate.BetweenPredicate;
+import com.blazebit.persistence.parser.predicate.BooleanLiteral;
+import com.blazebit.persistence.parser.predicate.CompoundPredicate;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
+import com.blazebit.persistence.parser.predicate.ExistsPredicate;
+import com.blazebit.persistence.parser.predicate.GePredicate;
+import com.blazebit.persistence.parser.predicate.GtPredicate;
+import com.blazebit.persistence.parser.predicate.InPredicate;
+import com.blazebit.persistence.parser.predicate.IsEmptyPredicate;
+import com.blazebit.persistence.parser.predicate.IsNullPredicate;
+import com.blazebit.persistence.parser.predicate.LePredicate;
+import com.blazebit.persistence.parser.predicate.LikePredicate;
+import com.blazebit.persistence.parser.predicate.LtPredicate;
+import com.blazebit.persistence.parser.predicate.MemberOfPredicate;
+
+/**
+ * Computes the weight of an expression which is the number of nodes in the expression tree.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+final class ExpressionWeigher extends VisitorAdapter {
+
+    private int weight;
+
+    private ExpressionWeigher() {
+    }
+
+    public static int weigh(Expression expression) {
+        if (expression == null) {
+            return 1;
+        }
+        ExpressionWeigher weigher = new ExpressionWeigher();
+        expression.accept(weigher);
+        return Math.max(1, weigher.weight);
+    }
+
+    @Override
+    public void visit(PathExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(ArrayExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(TreatExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(ListIndexExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(MapEntryExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(MapKeyExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(MapValueExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(PropertyExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(ParameterExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(NullExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(SubqueryExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(FunctionExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(TypeFunctionExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(TrimExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(GeneralCaseExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(SimpleCaseExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(WhenClauseExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(ArithmeticExpression expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(ArithmeticFactor expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(NumericLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(BooleanLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(StringLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(DateLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(TimeLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(TimestampLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(EnumLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(EntityLiteral expression) {
+        weight++;
+        super.visit(expression);
+    }
+
+    @Override
+    public void visit(CompoundPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(EqPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(IsNullPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(IsEmptyPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(MemberOfPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(LikePredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(BetweenPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(InPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(GtPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(GePredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(LtPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(LePredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+
+    @Override
+    public void visit(ExistsPredicate predicate) {
+        weight++;
+        super.visit(predicate);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+/**
+ * An expression cache that can make use of the weight of values for eviction decisions and that exposes statistics.
+ * Implementations of just {@link ExpressionCache} are still supported, callers check for this interface.
+ *
+ * @param <T> The value type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface WeightedExpressionCache<T> extends ExpressionCache<T> {
+
+    /**
+     * Like {@link #putIfAbsent(String, ExpressionCache.Key, Object)} but additionally passes the weight of the value,
+     * which is the number of nodes of the expression tree. Bounded caches may use the weight for eviction decisions.
+     *
+     * @param cacheName The cache name
+     * @param key The key
+     * @param value The value
+     * @param weight The weight of the value
+     * @return The value that is associated with the key after the operation
+     */
+    public T putIfAbsent(String cacheName, Key key, T value, int weight);
+
+    /**
+     * Returns whether this cache makes use of the weight passed to {@link #putIfAbsent(String, ExpressionCache.Key, Object, int)}.
+     * Callers may skip computing the weight if this returns <code>false</code>.
+     *
+     * @return Whether the weight of values is used
+     */
+    public boolean isWeighted();
+
+    /**
+     * Returns the statistics for the cache with the given name or <code>null</code> if no such cache exists or statistics are disabled.
+     *
+     * @param cacheName The cache name
+     * @return The statistics or <code>null</code>
+     */
+    public Statistics getStatistics(String cacheName);
+
+    /**
+     * A snapshot of the statistics of a named expression cache.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long size;
+        private final long weight;
+
+        public Statistics(long hitCount, long missCount, long evictionCount, long size, long weight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getRequestCount() {
+            return hitCount + missCount;
+        }
+
+        public double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0d : (double) hitCount / requestCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    ", size=" + size +
+                    ", weight=" + weight +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent cache that is bounded by the number of entries and the accumulated weight of its entries.
+ *
+ * When segmented, new entries are put into a probation segment and are promoted to a protected segment on the next hit.
+ * When the protected segment is full, its least recently used entry is demoted to the probation segment.
+ * Entries are evicted from the tail of the probation segment, so entries that are used only once
+ * don't push out frequently used entries. When not segmented, the least recently used entry is evicted.
+ *
+ * Recording accesses is lossy, if the lock of the cache is contended, the access is not recorded to avoid blocking readers.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public final class SegmentedLruCache<K, V> {
+
+    // The percentage of the capacity that is reserved for the protected segment
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final ConcurrentMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+    private final boolean segmented;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long maximumProtectedSize;
+    private final long maximumProtectedWeight;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public SegmentedLruCache(long maximumSize, long maximumWeight, boolean segmented) {
+        this.segmented = segmented;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.maximumProtectedSize = protectedCapacity(maximumSize);
+        this.maximumProtectedWeight = protectedCapacity(maximumWeight);
+    }
+
+    static long protectedCapacity(long capacity) {
+        // Multiply first to avoid truncating small capacities, unless that would overflow
+        if (capacity > Long.MAX_VALUE / PROTECTED_PERCENTAGE) {
+            return capacity / 100L * PROTECTED_PERCENTAGE;
+        }
+        return Math.max(1L, capacity * PROTECTED_PERCENTAGE / 100L);
+    }
+
+    public V get(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        // Don't block readers, skipping the recording of an access is fine
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    public V putIfAbsent(K key, V value, int weight) {
+        Node<K, V> node = new Node<>(key, value, weight);
+        Node<K, V> oldNode = map.putIfAbsent(key, node);
+        if (oldNode != null) {
+            return oldNode.value;
+        }
+        lock.lock();
+        try {
+            // The cache might have been cleared in the meantime
+            if (map.get(key) == node) {
+                probation.addFirst(node);
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            map.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getSize() {
+        lock.lock();
+        try {
+            return probation.size + protectedSegment.size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWeight() {
+        lock.lock();
+        try {
+            return probation.weight + protectedSegment.weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        // The node might not be linked yet if the put is still in progress
+        if (node.removed || node.prev == null) {
+            return;
+        }
+        if (node.protectedSegment) {
+            protectedSegment.remove(node);
+            protectedSegment.addFirst(node);
+        } else if (!segmented) {
+            probation.remove(node);
+            probation.addFirst(node);
+        } else {
+            probation.remove(node);
+            node.protectedSegment = true;
+            protectedSegment.addFirst(node);
+            // Demote the least recently used protected entries
+            while (protectedSegment.size > 1 && (protectedSegment.size > maximumProtectedSize || protectedSegment.weight > maximumProtectedWeight)) {
+                Node<K, V> demoted = protectedSegment.tail();
+                protectedSegment.remove(demoted);
+                demoted.protectedSegment = false;
+                probation.addFirst(demoted);
+            }
+        }
+    }
+
+    private void evict() {
+        while (probation.size + protectedSegment.size > maximumSize || probation.weight + protectedSegment.weight > maximumWeight) {
+            Node<K, V> victim;
+            if (probation.isEmpty()) {
+                if (protectedSegment.isEmpty()) {
+                    return;
+                }
+                victim = protectedSegment.tail();
+                protectedSegment.remove(victim);
+            } else {
+                victim = probation.tail();
+                probation.remove(victim);
+            }
+            victim.removed = true;
+            map.remove(victim.key, victim);
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int weight;
+        boolean protectedSegment;
+        boolean removed;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A doubly linked list with sentinel nodes, the head contains the most recently used entry.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class Segment<K, V> {
+        final Node<K, V> head = new Node<>(null, null, 0);
+        long size;
+        long weight;
+
+        Segment() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        Node<K, V> tail() {
+            return head.prev;
+        }
+
+        void addFirst(Node<K, V> node) {
+            node.prev = head;
+            node.next = head.next;
+            head.next.prev = node;
+            head.next = node;
+            size++;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+            weight -= node.weight;
+        }
+
+        void clear() {
+            Node<K, V> node = head.next;
+            while (node != head) {
+                Node<K, V> next = node.next;
+                node.removed = true;
+                node.prev = null;
+                node.next = null;
+                node = next;
+            }
+            head.prev = head;
+            head.next = head;
+            size = 0;
+            weight = 0;
+        }
+    }
+}
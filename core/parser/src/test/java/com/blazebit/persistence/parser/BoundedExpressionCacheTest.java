@@ -0,0 +1,177 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import com.blazebit.persistence.parser.expression.WeightedExpressionCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "com.blazebit.persistence.parser.expression.cache.PathExpression";
+
+    @Test
+    public void testEvictsByMaximumSize() {
+        BoundedExpressionCache<String> cache = createCache(BoundedExpressionCache.MAXIMUM_SIZE, "3");
+        for (int i = 0; i < 10; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("a" + i), "a" + i);
+        }
+
+        WeightedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(3, statistics.getSize());
+        Assert.assertEquals(7, statistics.getEvictionCount());
+        Assert.assertNull(cache.get(CACHE_NAME, key("a0")));
+        Assert.assertEquals("a9", cache.get(CACHE_NAME, key("a9")));
+    }
+
+    @Test
+    public void testFrequentlyUsedEntrySurvivesScan() {
+        BoundedExpressionCache<String> cache = createCache(BoundedExpressionCache.MAXIMUM_SIZE + ".PathExpression", "5");
+        cache.putIfAbsent(CACHE_NAME, key("hot"), "hot");
+        // Promote the entry to the protected segment
+        Assert.assertEquals("hot", cache.get(CACHE_NAME, key("hot")));
+
+        for (int i = 0; i < 100; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("cold" + i), "cold" + i);
+        }
+
+        Assert.assertEquals("hot", cache.get(CACHE_NAME, key("hot")));
+        Assert.assertEquals(5, cache.getStatistics(CACHE_NAME).getSize());
+    }
+
+    @Test
+    public void testProtectedSegmentOfSmallCache() {
+        BoundedExpressionCache<String> cache = createCache(BoundedExpressionCache.MAXIMUM_SIZE, "10");
+        for (int i = 0; i < 8; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("hot" + i), "hot" + i);
+            // Promote the entry to the protected segment
+            Assert.assertEquals("hot" + i, cache.get(CACHE_NAME, key("hot" + i)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("cold" + i), "cold" + i);
+        }
+
+        // 80% of the capacity is protected
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals("hot" + i, cache.get(CACHE_NAME, key("hot" + i)));
+        }
+    }
+
+    @Test
+    public void testEvictsByMaximumWeight() {
+        BoundedExpressionCache<String> cache = createCache(BoundedExpressionCache.MAXIMUM_WEIGHT, "10");
+        cache.putIfAbsent(CACHE_NAME, key("a"), "a", 4);
+        cache.putIfAbsent(CACHE_NAME, key("b"), "b", 4);
+        cache.putIfAbsent(CACHE_NAME, key("c"), "c", 4);
+
+        WeightedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(2, statistics.getSize());
+        Assert.assertEquals(8, statistics.getWeight());
+        Assert.assertEquals(1, statistics.getEvictionCount());
+        Assert.assertNull(cache.get(CACHE_NAME, key("a")));
+    }
+
+    @Test
+    public void testStatistics() {
+        WeightedExpressionCache<?> cache = createCache(BoundedExpressionCache.MAXIMUM_WEIGHT, "1000");
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        ef.createPathExpression("a.b.c");
+        ef.createPathExpression("a.b.c");
+        ef.createPathExpression("a.b.c");
+
+        WeightedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(2, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(1, statistics.getSize());
+        Assert.assertEquals(4, statistics.getWeight());
+    }
+
+    @Test
+    public void testUnboundedWeightIsNotComputed() {
+        WeightedExpressionCache<?> cache = new BoundedExpressionCache<>();
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        ef.createPathExpression("a.b.c");
+
+        Assert.assertFalse(cache.isWeighted());
+        Assert.assertEquals(1, cache.getStatistics(CACHE_NAME).getWeight());
+    }
+
+    @Test
+    public void testUnboundedCacheStatisticsAreOptIn() {
+        WeightedExpressionCache<?> cache = new ConcurrentHashMapExpressionCache<>();
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        ef.createPathExpression("a.b.c");
+        Assert.assertFalse(cache.isWeighted());
+        Assert.assertNull(cache.getStatistics(CACHE_NAME));
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put(ConcurrentHashMapExpressionCache.STATISTICS_ENABLED, "true");
+        cache = new ConcurrentHashMapExpressionCache<>(properties);
+        ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        ef.createPathExpression("a.b.c");
+        ef.createPathExpression("a.b.c");
+
+        WeightedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(4, statistics.getWeight());
+    }
+
+    @Test
+    public void testPlainExpressionCache() {
+        // Custom caches implementing only the basic contract must still work
+        final Map<ExpressionCache.Key, Object> map = new HashMap<>();
+        ExpressionCache<Object> cache = new ExpressionCache<Object>() {
+            @Override
+            public Object get(String cacheName, Key key) {
+                return map.get(key);
+            }
+
+            @Override
+            public Object putIfAbsent(String cacheName, Key key, Object value) {
+                Object oldValue = map.get(key);
+                if (oldValue == null) {
+                    map.put(key, value);
+                    return value;
+                }
+                return oldValue;
+            }
+        };
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        Assert.assertEquals(ef.createPathExpression("a.b.c"), ef.createPathExpression("a.b.c"));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConfiguration() {
+        createCache(BoundedExpressionCache.MAXIMUM_SIZE, "0");
+    }
+
+    private static BoundedExpressionCache<String> createCache(String propertyName, String value) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(propertyName, value);
+        return new BoundedExpressionCache<>(properties);
+    }
+
+    private static ExpressionCache.Key key(String expression) {
+        return new ExpressionCache.Key(expression, false, false, false);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.AbstractExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SyntaxErrorException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ExpressionFactoryWarmUpTest {
+
+    private final AbstractExpressionFactory expressionFactory = new ExpressionFactoryImpl(Collections.<String, FunctionKind>emptyMap(), true, false);
+
+    @Test
+    public void testWarmUpParsesCorpus() {
+        Assert.assertEquals(44, expressionFactory.warmUp());
+        // Warm up parses are not recorded
+        Assert.assertEquals(0, expressionFactory.getParseCount());
+    }
+
+    @Test
+    public void testWarmUpSkipsInvalidExpressions() {
+        Assert.assertEquals(2, expressionFactory.warmUp(Arrays.asList("a.b", "a.b = 1 AND a.c IS NULL", "a.b +", "")));
+    }
+
+    @Test
+    public void testReuseParserAfterSyntaxError() {
+        Assert.assertEquals("a.b", expressionFactory.createSimpleExpression("a.b", false, false, false, null, null).toString());
+        try {
+            expressionFactory.createSimpleExpression("a.b +", false, false, false, null, null);
+            Assert.fail("Expected syntax error");
+        } catch (SyntaxErrorException ex) {
+            // Expected
+        }
+        Assert.assertEquals("c.d + 1", expressionFactory.createSimpleExpression("c.d + 1", false, false, false, null, null).toString());
+        Assert.assertEquals(3, expressionFactory.getParseCount());
+    }
+}
@@ -14,6 +14,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 import java.sql.PreparedStatement;
@@ -221,6 +222,11 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.getUpdateJoinStyle();
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return delegate.getUpsertStyle();
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return delegate.supportsArbitraryLengthMultiset();
@@ -0,0 +1,149 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.AsyncQueryExecution;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class AsyncQueryTest extends AbstractCoreTest {
+
+    private ExecutorService executor;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Before
+    public void setUpExecutor() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGetResultList() throws Exception {
+        List<String> result = AsyncQueryExecution.getResultList(executor, emf, new AsyncQueryExecution.QueryBuilderFactory<CriteriaBuilder<String>>() {
+            @Override
+            public CriteriaBuilder<String> create(EntityManager entityManager) {
+                assertNotSame(em, entityManager);
+                return namesQuery(entityManager);
+            }
+        }).get();
+
+        assertEquals(namesQuery(em).getResultList(), result);
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    public void testGetSingleResult() throws Exception {
+        Long count = AsyncQueryExecution.getSingleResult(executor, emf, new AsyncQueryExecution.QueryBuilderFactory<CriteriaBuilder<Long>>() {
+            @Override
+            public CriteriaBuilder<Long> create(EntityManager entityManager) {
+                return cbf.create(entityManager, Long.class)
+                        .from(Document.class, "d")
+                        .select("COUNT(*)");
+            }
+        }).get();
+
+        assertEquals(5L, count.longValue());
+    }
+
+    @Test
+    public void testGetSingleResultOrNull() throws Exception {
+        String name = AsyncQueryExecution.getSingleResultOrNull(executor, emf, new AsyncQueryExecution.QueryBuilderFactory<CriteriaBuilder<String>>() {
+            @Override
+            public CriteriaBuilder<String> create(EntityManager entityManager) {
+                return namesQuery(entityManager).where("d.name").eq("doesNotExist");
+            }
+        }).get();
+
+        assertNull(name);
+    }
+
+    @Test
+    public void testGetSingleResultFailure() throws Exception {
+        try {
+            AsyncQueryExecution.getSingleResult(executor, emf, new AsyncQueryExecution.QueryBuilderFactory<CriteriaBuilder<String>>() {
+                @Override
+                public CriteriaBuilder<String> create(EntityManager entityManager) {
+                    return namesQuery(entityManager).where("d.name").eq("doesNotExist");
+                }
+            }).get();
+            fail("Expected failure");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NoResultException);
+        }
+    }
+
+    @Test
+    public void testGetPagedResultList() throws Exception {
+        PagedList<Document> result = AsyncQueryExecution.getPagedResultList(executor, emf, new AsyncQueryExecution.QueryBuilderFactory<PaginatedCriteriaBuilder<Document>>() {
+            @Override
+            public PaginatedCriteriaBuilder<Document> create(EntityManager entityManager) {
+                return cbf.create(entityManager, Document.class, "d")
+                        .orderByAsc("d.id")
+                        .page(2, 2);
+            }
+        }).get();
+
+        assertEquals(2, result.size());
+        assertEquals("doc2", result.get(0).getName());
+        assertEquals(5L, result.getTotalSize());
+        // The entity manager of the execution is closed, so the results are detached
+        assertFalse(em.contains(result.get(0)));
+    }
+
+    private CriteriaBuilder<String> namesQuery(EntityManager entityManager) {
+        return cbf.create(entityManager, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .orderByAsc("d.name");
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.parser.expression.AbstractExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ExpressionParserWarmUpTest extends AbstractCoreTest {
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        config.setProperty(ConfigurationProperties.EXPRESSION_PARSER_WARM_UP, "true");
+    }
+
+    @Test
+    public void testWarmUp() {
+        assertEquals("true", cbf.getProperty(ConfigurationProperties.EXPRESSION_PARSER_WARM_UP));
+        AbstractExpressionFactory expressionFactory = cbf.getService(ExpressionFactory.class).unwrap(AbstractExpressionFactory.class);
+        // Warm up parses are not recorded
+        assertEquals(0, expressionFactory.getParseCount());
+
+        cbf.create(em, Document.class, "d")
+                .where("UPPER(d.name)").eq("WARM UP")
+                .getResultList();
+        assertTrue(expressionFactory.getParseCount() > 0);
+    }
+}
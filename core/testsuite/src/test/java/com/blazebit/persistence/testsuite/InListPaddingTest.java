@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class InListPaddingTest extends AbstractCoreTest {
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        config.setProperty(ConfigurationProperties.IN_LIST_MAXIMUM_SIZE, "4");
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testInListMaximumSizeProperty() {
+        assertEquals("4", cbf.getProperty(ConfigurationProperties.IN_LIST_MAXIMUM_SIZE));
+        assertEquals("false", cbf.getProperty(ConfigurationProperties.IN_LIST_PADDING));
+    }
+
+    @Test
+    public void testPadding() {
+        List<String> names = Arrays.asList("doc1", "doc2", "doc3");
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").in(names)
+                .orderByAsc("d.name")
+                .setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        TypedQuery<String> query = cb.getQuery();
+
+        assertEquals(4, ((Collection<?>) query.getParameterValue(query.getParameters().iterator().next())).size());
+        assertEquals(names, query.getResultList());
+        // The builder still exposes the original value
+        assertEquals(names, cb.getParameterValue(cb.getParameters().iterator().next().getName()));
+    }
+
+    @Test
+    public void testNoPaddingBeyondMaximumSize() {
+        List<String> names = Arrays.asList("doc0", "doc1", "doc2", "doc3", "doc4");
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").in(names)
+                .orderByAsc("d.name")
+                .setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        TypedQuery<String> query = cb.getQuery();
+
+        assertEquals(5, ((Collection<?>) query.getParameterValue(query.getParameters().iterator().next())).size());
+        assertEquals(names, query.getResultList());
+    }
+
+    @Test
+    public void testNoPaddingByDefault() {
+        List<String> names = Arrays.asList("doc1", "doc2", "doc3");
+        TypedQuery<String> query = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").in(names)
+                .orderByAsc("d.name")
+                .getQuery();
+
+        assertEquals(3, ((Collection<?>) query.getParameterValue(query.getParameters().iterator().next())).size());
+        assertEquals(names, query.getResultList());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class PaginationConcurrentCountTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                for (int i = 0; i < 7; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i < 3 ? o1 : o2);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testCountQueryIsExecutedOnExecutor() {
+        CountingExecutor executor = new CountingExecutor();
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl2")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withCountQueryExecutor(executor);
+        assertFalse(cb.isWithInlineCountQuery());
+
+        PagedList<Document> result = cb.getResultList();
+
+        assertEquals(1, executor.executions.get());
+        assertEquals(2, result.size());
+        assertEquals("doc5", result.get(0).getName());
+        assertEquals(4L, result.getTotalSize());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(2, result.getPage());
+    }
+
+    @Test
+    public void testCountQueryIsExecutedOnExecutorWithIdQuery() {
+        CountingExecutor executor = new CountingExecutor();
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .where("d.name").like().value("doc%").noEscape()
+                .orderByAsc("d.id")
+                .page(0, 5)
+                .withForceIdQuery(true)
+                .withCountQueryExecutor(executor)
+                .getResultList();
+
+        assertEquals(1, executor.executions.get());
+        assertEquals(5, result.size());
+        assertEquals(7L, result.getTotalSize());
+        assertEquals(2, result.getTotalPages());
+    }
+
+    @Test
+    public void testCountQueryIsExecutedOnExecutorForEmptyPage() {
+        CountingExecutor executor = new CountingExecutor();
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(10, 5)
+                .withCountQueryExecutor(executor)
+                .getResultList();
+
+        assertEquals(1, executor.executions.get());
+        assertEquals(0, result.size());
+        assertEquals(7L, result.getTotalSize());
+    }
+
+    @Test
+    public void testNavigationToEntityIdCountsSequentially() {
+        Long id = cbf.create(em, Long.class).from(Document.class, "d")
+                .select("d.id")
+                .where("d.name").eq("doc4")
+                .getSingleResult();
+        CountingExecutor executor = new CountingExecutor();
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .pageAndNavigate(id, 2)
+                .withCountQueryExecutor(executor)
+                .getResultList();
+
+        // The position of the entity is determined by the count query, so it can't run concurrently
+        assertEquals(0, executor.executions.get());
+        assertEquals(4, result.getFirstResult());
+        assertEquals(7L, result.getTotalSize());
+    }
+
+    /**
+     * Runs tasks on a new thread and counts the executions.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static class CountingExecutor implements Executor {
+
+        private final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable command) {
+            executions.incrementAndGet();
+            new Thread(command).start();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.EntityManagerAwareObjectBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PreparedCriteria;
+import com.blazebit.persistence.PreparedPaginatedCriteria;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class PreparedCriteriaTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testPrepare() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").eqExpression(":name")
+                .setParameter("name", "doc1");
+        PreparedCriteria<String> preparedCriteria = cb.prepare();
+
+        assertEquals(cb.getQueryString(), preparedCriteria.getQueryString());
+        assertEquals(Arrays.asList("doc1"), preparedCriteria.createQuery(em).getResultList());
+        assertEquals(Arrays.asList("doc3"), preparedCriteria.getResultList(em, Collections.<String, Object>singletonMap("name", "doc3")));
+        assertEquals("doc4", preparedCriteria.getSingleResult(em, Collections.<String, Object>singletonMap("name", "doc4")));
+        // The template is not affected by the values of previous executions
+        assertEquals(Arrays.asList("doc1"), preparedCriteria.getResultList(em, Collections.<String, Object>emptyMap()));
+    }
+
+    @Test
+    public void testPrepareIsDetachedFromBuilder() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").eqExpression(":name")
+                .setParameter("name", "doc1");
+        PreparedCriteria<String> preparedCriteria = cb.prepare();
+        cb.setParameter("name", "doc2")
+                .where("d.name").notEqExpression("'doc2'");
+
+        assertEquals(Arrays.asList("doc1"), preparedCriteria.createQuery(em).getResultList());
+        assertEquals(Collections.emptyList(), cb.getResultList());
+    }
+
+    @Test
+    public void testPrepareWithLimitAndObjectBuilder() {
+        PreparedCriteria<String[]> preparedCriteria = cbf.create(em, Document.class, "d")
+                .selectNew(new ObjectBuilder<String[]>() {
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("d.name").select("d.owner.name");
+                    }
+
+                    @Override
+                    public String[] build(Object[] tuple) {
+                        return new String[]{ (String) tuple[0], (String) tuple[1] };
+                    }
+
+                    @Override
+                    public List<String[]> buildList(List<String[]> list) {
+                        return list;
+                    }
+                })
+                .where("d.name").notEqExpression(":excluded")
+                .orderByAsc("d.name")
+                .setMaxResults(2)
+                .prepare();
+
+        List<String[]> result = preparedCriteria.getResultList(em, Collections.<String, Object>singletonMap("excluded", "doc0"));
+        assertEquals(2, result.size());
+        assertEquals("doc1", result.get(0)[0]);
+        assertEquals("Karl1", result.get(0)[1]);
+        assertEquals("doc2", result.get(1)[0]);
+    }
+
+    @Test
+    public void testPrepareUnknownParameter() {
+        final PreparedCriteria<String> preparedCriteria = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .prepare();
+
+        verifyException(preparedCriteria, IllegalArgumentException.class, r -> r.getResultList(em, Collections.<String, Object>singletonMap("name", "doc1")));
+    }
+
+    @Test
+    public void testPreparePaginated() {
+        PreparedPaginatedCriteria<Document> preparedCriteria = cbf.create(em, Document.class, "d")
+                .where("d.name").notEqExpression(":excluded")
+                .setParameter("excluded", "doc0")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .prepare();
+
+        assertNull(preparedCriteria.getPageIdQueryString());
+        PagedList<Document> result = preparedCriteria.createQuery(em).getResultList();
+        assertEquals(2, result.size());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals(4L, result.getTotalSize());
+
+        result = preparedCriteria.getResultList(em, Collections.<String, Object>singletonMap("excluded", "doc4"));
+        assertEquals(2, result.size());
+        assertEquals("doc0", result.get(0).getName());
+        assertEquals(4L, result.getTotalSize());
+    }
+
+    @Test
+    public void testPreparePaginatedWithIdQuery() {
+        PreparedPaginatedCriteria<Document> preparedCriteria = cbf.create(em, Document.class, "d")
+                .fetch("partners")
+                .where("d.name").notEqExpression(":excluded")
+                .setParameter("excluded", "doc0")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(1, 2)
+                .withInlineIdQuery(false)
+                .prepare();
+
+        assertNotNull(preparedCriteria.getPageIdQueryString());
+        PagedList<Document> result = preparedCriteria.getResultList(em, Collections.<String, Object>singletonMap("excluded", "doc1"));
+        assertEquals(2, result.size());
+        assertEquals("doc2", result.get(0).getName());
+        assertEquals("doc3", result.get(1).getName());
+        assertEquals(4L, result.getTotalSize());
+    }
+
+    @Test
+    public void testPreparePaginatedBoundedCount() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withBoundedCount(3);
+
+        verifyException(cb, IllegalStateException.class, r -> r.prepare());
+    }
+
+    @Test
+    public void testPrepareEntityManagerBoundObjectBuilder() {
+        CriteriaBuilder<String> cb = cbf.create(em, Document.class, "d")
+                .selectNew(new EntityManagerAwareObjectBuilder<String>() {
+                    @Override
+                    public boolean isEntityManagerBound() {
+                        return true;
+                    }
+
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("d.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        return (String) tuple[0];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        return list;
+                    }
+                });
+
+        verifyException(cb, IllegalStateException.class, r -> r.prepare());
+        verifyException(cb.orderByAsc("d.id").page(0, 2), IllegalStateException.class, r -> r.prepare());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.FinalSetOperationCriteriaBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.QueryPlanCache;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate60;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate62;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate66;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate70;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate72;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+// NOTE: The query plan cache is only used by the Hibernate 4.2 - 5.6 integration
+@Category({ NoHibernate60.class, NoHibernate62.class, NoHibernate66.class, NoHibernate70.class, NoHibernate72.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+public class QueryPlanCacheTest extends AbstractCoreTest {
+
+    private CriteriaBuilderFactory createCbf(String maximumSize, String evictionPolicy) {
+        return createCbf(maximumSize, evictionPolicy, true);
+    }
+
+    private CriteriaBuilderFactory createCbf(String maximumSize, String evictionPolicy, boolean enabled) {
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        configure(config);
+        config.setProperty(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(enabled));
+        config.setProperty(ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, maximumSize);
+        config.setProperty(ConfigurationProperties.QUERY_PLAN_CACHE_EVICTION_POLICY, evictionPolicy);
+        return config.createCriteriaBuilderFactory(em.getEntityManagerFactory());
+    }
+
+    private FinalSetOperationCriteriaBuilder<String> createUnion(CriteriaBuilderFactory cbf, String attribute) {
+        return cbf.create(em, String.class)
+                .from(Document.class, "d1")
+                .select("d1." + attribute)
+                .where("d1.name").eq("D1")
+            .unionAll()
+                .from(Document.class, "d2")
+                .select("d2." + attribute)
+                .where("d2.name").eq("D1")
+            .endSet();
+    }
+
+    @Test
+    public void testQueryPlanIsReused() {
+        CriteriaBuilderFactory cbf = createCbf("16", "SLRU");
+        createUnion(cbf, "name").getResultList();
+        createUnion(cbf, "name").getResultList();
+
+        QueryPlanCache.Statistics statistics = cbf.getService(QueryPlanCache.class).getStatistics();
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getCompilationCount());
+        Assert.assertEquals(1, statistics.getSize());
+        Assert.assertEquals(16, statistics.getMaximumSize());
+        Assert.assertTrue(statistics.getCompilationNanos() > 0);
+    }
+
+    @Test
+    public void testQueryPlanCacheIsConfiguredPerFactory() {
+        CriteriaBuilderFactory cbf1 = createCbf("16", "SLRU");
+        CriteriaBuilderFactory cbf2 = createCbf("32", "LRU");
+        createUnion(cbf1, "name").getResultList();
+        createUnion(cbf2, "name").getResultList();
+
+        QueryPlanCache.Statistics statistics1 = cbf1.getService(QueryPlanCache.class).getStatistics();
+        QueryPlanCache.Statistics statistics2 = cbf2.getService(QueryPlanCache.class).getStatistics();
+        Assert.assertEquals(16, statistics1.getMaximumSize());
+        Assert.assertEquals(32, statistics2.getMaximumSize());
+        Assert.assertEquals(1, statistics1.getMissCount());
+        Assert.assertEquals(1, statistics2.getMissCount());
+        Assert.assertEquals(1, statistics1.getSize());
+        Assert.assertEquals(1, statistics2.getSize());
+    }
+
+    @Test
+    public void testDisabledQueryPlanCacheCompilesEveryTime() {
+        CriteriaBuilderFactory cbf = createCbf("16", "SLRU", false);
+        createUnion(cbf, "name").getResultList();
+        createUnion(cbf, "name").getResultList();
+
+        QueryPlanCache.Statistics statistics = cbf.getService(QueryPlanCache.class).getStatistics();
+        Assert.assertEquals(0, statistics.getRequestCount());
+        Assert.assertEquals(2, statistics.getCompilationCount());
+        Assert.assertEquals(0, statistics.getSize());
+    }
+
+    @Test
+    public void testEvictionsAreCounted() {
+        CriteriaBuilderFactory cbf = createCbf("1", "LRU");
+        createUnion(cbf, "name").getResultList();
+        createUnion(cbf, "owner.name").getResultList();
+        createUnion(cbf, "name").getResultList();
+
+        QueryPlanCache.Statistics statistics = cbf.getService(QueryPlanCache.class).getStatistics();
+        Assert.assertEquals(3, statistics.getMissCount());
+        Assert.assertEquals(2, statistics.getEvictionCount());
+        Assert.assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void testHibernateQueryPlanCacheIsUsedByDefault() {
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        configure(config);
+        CriteriaBuilderFactory cbf = config.createCriteriaBuilderFactory(em.getEntityManagerFactory());
+        createUnion(cbf, "name").getResultList();
+        createUnion(cbf, "name").getResultList();
+
+        Assert.assertNull(cbf.getService(QueryPlanCache.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEvictionPolicy() {
+        createCbf("16", "FIFO");
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.impl.QueryStringCache;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBase;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBaseContainer;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub1;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub2;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class QueryStringCacheTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return concat(super.getEntityClasses(), new Class<?>[] {
+            PolymorphicBase.class,
+            PolymorphicSub1.class,
+            PolymorphicSub2.class,
+            PolymorphicBaseContainer.class
+        });
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    private CriteriaBuilderFactory createCachingCbf() {
+        return createCachingCbf(Criteria.getDefault());
+    }
+
+    private CriteriaBuilderFactory createCachingCbf(CriteriaBuilderConfiguration config) {
+        configure(config);
+        config.setProperty(ConfigurationProperties.QUERY_STRING_CACHE_ENABLED, "true");
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_STATISTICS, "true");
+        return config.createCriteriaBuilderFactory(em.getEntityManagerFactory());
+    }
+
+    private CriteriaBuilder<Document> createCriteria(CriteriaBuilderFactory cbf, String name) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(name)
+                .where("d.name").like().expression(":namePattern").noEscape()
+                .orderByAsc("d.id");
+    }
+
+    @Test
+    public void testQueryStringIsReused() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        String expected = createCriteria(this.cbf, "a").getQueryString();
+
+        Assert.assertEquals(expected, createCriteria(cbf, "a").getQueryString());
+        // The parameter value must not be part of the fingerprint
+        Assert.assertEquals(expected, createCriteria(cbf, "b").getQueryString());
+
+        QueryStringCache.Statistics statistics = cbf.getService(QueryStringCache.class).getStatistics();
+        Assert.assertEquals(1, statistics.getExternalQueryStringStatistics().getMissCount());
+        Assert.assertEquals(1, statistics.getExternalQueryStringStatistics().getHitCount());
+        // The fingerprint generation is paid for hits and misses and must be subtracted from the saved time
+        Assert.assertTrue(statistics.getFingerprintNanos() > 0);
+        Assert.assertEquals(statistics.getGrossSavedRenderNanos() - statistics.getFingerprintNanos(), statistics.getSavedRenderNanos());
+    }
+
+    @Test
+    public void testQueryExecutionReusesQueryString() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        List<Document> first = createCriteria(cbf, "a").setParameter("namePattern", "%").getResultList();
+        List<Document> second = createCriteria(cbf, "b").setParameter("namePattern", "%").getResultList();
+        Assert.assertTrue(first.isEmpty());
+        Assert.assertTrue(second.isEmpty());
+
+        QueryStringCache.Statistics statistics = cbf.getService(QueryStringCache.class).getStatistics();
+        Assert.assertEquals(1, statistics.getQueryStringStatistics().getMissCount());
+        Assert.assertEquals(1, statistics.getQueryStringStatistics().getHitCount());
+    }
+
+    @Test
+    public void testDifferentStructureIsNotShared() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        CriteriaBuilder<Document> criteria = createCriteria(cbf, "a");
+        String queryString = criteria.getQueryString();
+        criteria.orderByDesc("d.name");
+
+        Assert.assertNotEquals(queryString, criteria.getQueryString());
+        Assert.assertNotEquals(queryString, createCriteria(cbf, "a").where("d.age").gt(1L).getQueryString());
+        Assert.assertEquals(createCriteria(this.cbf, "a").orderByDesc("d.name").getQueryString(), criteria.getQueryString());
+    }
+
+    @Test
+    public void testUnsupportedBuilderIsNotCached() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        String expected = this.cbf.create(em, Document.class, "d").select("d.name").select(":param").setParameter("param", 1L).getQueryString();
+        Assert.assertEquals(expected, cbf.create(em, Document.class, "d").select("d.name").select(":param").setParameter("param", 1L).getQueryString());
+        Assert.assertNull(cbf.getService(QueryStringCache.class).getStatistics().getExternalQueryStringStatistics());
+    }
+
+    private void assertQueryStringsAreNotShared(CriteriaBuilder<?> first, CriteriaBuilder<?> second, CriteriaBuilder<?> uncachedSecond) {
+        // The first builder populates the cache, so the second builder would get its query string if the fingerprints collided
+        first.getQueryString();
+        Assert.assertEquals(uncachedSecond.getQueryString(), second.getQueryString());
+    }
+
+    @Test
+    public void testDefaultJoinIsNotShared() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        assertQueryStringsAreNotShared(
+                cbf.create(em, String.class).from(Document.class, "d").innerJoinDefault("d.owner", "o").select("d.owner.name"),
+                cbf.create(em, String.class).from(Document.class, "d").innerJoin("d.owner", "o").select("d.owner.name"),
+                this.cbf.create(em, String.class).from(Document.class, "d").innerJoin("d.owner", "o").select("d.owner.name")
+        );
+    }
+
+    @Test
+    public void testImplicitJoinAliasIsNotShared() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        // The implicit join of d.owner gets the alias owner_1
+        assertQueryStringsAreNotShared(
+                cbf.create(em, String.class).from(Document.class, "d").select("d.owner.name"),
+                cbf.create(em, String.class).from(Document.class, "d").leftJoin("d.owner", "owner_1").select("d.owner.name"),
+                this.cbf.create(em, String.class).from(Document.class, "d").leftJoin("d.owner", "owner_1").select("d.owner.name")
+        );
+    }
+
+    @Test
+    // NOTE: EclipseLink and Datanucleus do not support treat joins of subtype relations
+    @Category({ NoDatanucleus.class, NoEclipselink.class })
+    public void testTreatJoinIsNotShared() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        assertQueryStringsAreNotShared(
+                cbf.create(em, Long.class).from(PolymorphicBase.class, "p").leftJoin("p.parent", "parent").select("parent.id"),
+                cbf.create(em, Long.class).from(PolymorphicBase.class, "p").leftJoin("TREAT(p.parent AS PolymorphicSub1)", "parent").select("parent.id"),
+                this.cbf.create(em, Long.class).from(PolymorphicBase.class, "p").leftJoin("TREAT(p.parent AS PolymorphicSub1)", "parent").select("parent.id")
+        );
+    }
+
+    @Test
+    public void testInListPaddingIsNotShared() {
+        CriteriaBuilderFactory cbf = createCachingCbf();
+        List<String> names = Arrays.asList("doc1", "doc2", "doc3");
+        TypedQuery<String> paddedQuery = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").in(names)
+                .setProperty(ConfigurationProperties.IN_LIST_PADDING, "true")
+                .getQuery();
+        TypedQuery<String> query = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.name").in(names)
+                .getQuery();
+
+        Assert.assertEquals(4, ((Collection<?>) paddedQuery.getParameterValue(paddedQuery.getParameters().iterator().next())).size());
+        Assert.assertEquals(3, ((Collection<?>) query.getParameterValue(query.getParameters().iterator().next())).size());
+    }
+
+    @Test
+    public void testCollectionParameterSizeDoesNotAffectCachedQueryString() {
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        config.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        config.setProperty(ConfigurationProperties.IN_LIST_MAXIMUM_SIZE, "4");
+        CriteriaBuilderFactory cbf = createCachingCbf(config);
+        List<List<String>> nameLists = Arrays.asList(
+                Arrays.asList("doc1", "doc2", "doc3"),
+                Arrays.asList("doc0"),
+                Arrays.asList("doc0", "doc1", "doc2", "doc3", "doc4")
+        );
+        int[] boundSizes = { 4, 1, 5 };
+
+        for (int i = 0; i < nameLists.size(); i++) {
+            List<String> names = nameLists.get(i);
+            TypedQuery<String> query = cbf.create(em, String.class)
+                    .from(Document.class, "d")
+                    .select("d.name")
+                    .where("d.name").in(names)
+                    .orderByAsc("d.name")
+                    .getQuery();
+
+            Assert.assertEquals(boundSizes[i], ((Collection<?>) query.getParameterValue(query.getParameters().iterator().next())).size());
+            Assert.assertEquals(names, query.getResultList());
+        }
+
+        QueryStringCache.Statistics statistics = cbf.getService(QueryStringCache.class).getStatistics();
+        Assert.assertEquals(1, statistics.getQueryStringStatistics().getMissCount());
+        Assert.assertEquals(2, statistics.getQueryStringStatistics().getHitCount());
+    }
+}
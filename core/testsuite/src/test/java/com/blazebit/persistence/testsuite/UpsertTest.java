@@ -0,0 +1,182 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.InsertCriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoH2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMSSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoPostgreSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoSQLite;
+import com.blazebit.persistence.testsuite.entity.DocumentForSimpleOneToOne;
+import com.blazebit.persistence.testsuite.entity.DocumentInfoSimple;
+import com.blazebit.persistence.testsuite.entity.IdHolderCTE;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+// NOTE: Insert statements are only supported with Hibernate and Firebird as well as SQLite have no upsert support
+@Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoFirebird.class, NoSQLite.class })
+public class UpsertTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {
+            DocumentForSimpleOneToOne.class,
+            DocumentInfoSimple.class,
+            IdHolderCTE.class
+        };
+    }
+
+    @Before
+    public void setUp() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                DocumentInfoSimple info = new DocumentInfoSimple();
+                info.setId(1L);
+                info.setSomeInfo("info1");
+                em.persist(info);
+            }
+        });
+    }
+
+    @Test
+    public void testOnConflictDoNothing() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                InsertCriteriaBuilder<DocumentInfoSimple> cb = cbf.insert(em, DocumentInfoSimple.class)
+                        .fromValues(Long.class, "v", Arrays.asList(1L, 2L))
+                        .bind("id").select("v")
+                        .bind("someInfo", "new")
+                        .onConflictDoNothing("id");
+                cb.executeUpdate();
+            }
+        });
+
+        List<DocumentInfoSimple> infos = getInfos();
+        assertEquals(2, infos.size());
+        assertEquals("info1", infos.get(0).getSomeInfo());
+        assertEquals("new", infos.get(1).getSomeInfo());
+    }
+
+    @Test
+    public void testOnConflictDoUpdate() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                InsertCriteriaBuilder<DocumentInfoSimple> cb = cbf.insert(em, DocumentInfoSimple.class)
+                        .fromValues(Long.class, "v", Arrays.asList(1L, 2L))
+                        .bind("id").select("v")
+                        .bind("someInfo", "new")
+                        .onConflictDoUpdate("id");
+                cb.executeUpdate();
+            }
+        });
+
+        List<DocumentInfoSimple> infos = getInfos();
+        assertEquals(2, infos.size());
+        assertEquals("new", infos.get(0).getSomeInfo());
+        assertEquals("new", infos.get(1).getSomeInfo());
+    }
+
+    @Test
+    public void testConflictAttributeMustBeBound() {
+        InsertCriteriaBuilder<DocumentInfoSimple> cb = cbf.insert(em, DocumentInfoSimple.class)
+                .fromValues(Long.class, "v", Arrays.asList(1L, 2L))
+                .bind("someInfo", "new")
+                .onConflictDoNothing("id");
+        try {
+            cb.getQueryString();
+            fail("Expected failure");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+    }
+
+    // NOTE: Only PostgreSQL supports both, returning from within a CTE and returning the result of an upsert
+    @Test
+    @Category({ NoH2.class, NoOracle.class, NoMSSQL.class, NoMySQL.class, NoDB2.class })
+    public void testOnConflictDoUpdateReturning() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<Long> cb = cbf.create(em, Long.class);
+                cb.withReturning(IdHolderCTE.class)
+                        .insert(DocumentInfoSimple.class)
+                        .fromValues(Long.class, "v", Arrays.asList(1L, 2L))
+                        .bind("id").select("v")
+                        .bind("someInfo", "new")
+                        .onConflictDoUpdate("id")
+                        .returning("id", "id")
+                        .end();
+                cb.from(IdHolderCTE.class, "idHolder");
+                cb.select("idHolder.id");
+                cb.orderByAsc("idHolder.id");
+
+                assertEquals(Arrays.asList(1L, 2L), cb.getResultList());
+            }
+        });
+
+        List<DocumentInfoSimple> infos = getInfos();
+        assertEquals(2, infos.size());
+        assertEquals("new", infos.get(0).getSomeInfo());
+        assertEquals("new", infos.get(1).getSomeInfo());
+    }
+
+    // NOTE: The MERGE statement based upsert emulation can't return the affected rows
+    @Test
+    @Category({ NoPostgreSQL.class, NoMySQL.class })
+    public void testReturningIsRejectedForMergeUpsert() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                InsertCriteriaBuilder<DocumentInfoSimple> cb = cbf.insert(em, DocumentInfoSimple.class)
+                        .fromValues(Long.class, "v", Arrays.asList(1L, 2L))
+                        .bind("id").select("v")
+                        .bind("someInfo", "new")
+                        .onConflictDoUpdate("id");
+                try {
+                    cb.executeWithReturning("id", Long.class);
+                    fail("Expected failure");
+                } catch (IllegalStateException ex) {
+                    // Expected
+                }
+            }
+        });
+
+        List<DocumentInfoSimple> infos = getInfos();
+        assertEquals(1, infos.size());
+        assertEquals("info1", infos.get(0).getSomeInfo());
+    }
+
+    private List<DocumentInfoSimple> getInfos() {
+        em.clear();
+        return cbf.create(em, DocumentInfoSimple.class, "i").orderByAsc("i.id").getResultList();
+    }
+}
@@ -31,6 +31,17 @@ public final class ConfigurationProperties {
      * @since 1.2.0
      */
     public static final String TEMPLATE_EAGER_LOADING = "com.blazebit.persistence.view.eager_loading";
+    /**
+     * A non-negative integer value that defines the number of threads that are used for the eager loading of templates and updaters
+     * configured via {@link #TEMPLATE_EAGER_LOADING} and {@link #UPDATER_EAGER_LOADING}.
+     * The entity views are loaded on a dedicated {@link java.util.concurrent.ForkJoinPool} that is shut down after the boot.
+     * Proxies configured via {@link #PROXY_EAGER_LOADING} are always generated on the bootstrap thread, as the proxy generation is serialized.
+     * A value of <code>0</code> uses as many threads as there are available processors.
+     * By default the eager loading is done on the bootstrap thread i.e. the default value is <code>1</code>.
+     *
+     * @since 1.6.21
+     */
+    public static final String EAGER_LOADING_PARALLELISM = "com.blazebit.persistence.view.eager_loading.parallelism";
     /**
      * A boolean flag to make it possible to disable unsafe proxy generation.
      * By default the unsafe proxies are allowed to be able to make use of the features.
@@ -228,6 +239,19 @@ public final class ConfigurationProperties {
      */
     public static final String STATIC_IMPLEMENTATION_SCANNING_DISABLED = "com.blazebit.persistence.view.static_implementation_scanning_disabled";
 
+    /**
+     * A boolean flag to make it possible to disable the generation of entity view implementation classes at runtime.
+     * When disabled, every entity view that is an interface or abstract class must have a static implementation annotated with {@link StaticImplementation},
+     * as generated by the annotation processor, otherwise the bootstrap fails with an error listing the entity views without static implementation.
+     * Static implementations are then also used for entity views with view constructors instead of the unsafe proxies controlled by {@link #PROXY_UNSAFE_ALLOWED}.
+     * This is useful for environments like GraalVM native images, where no bytecode can be generated at runtime.
+     * By default the runtime generation is enabled i.e. the default value is <code>false</code>.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.6.21
+     */
+    public static final String PROXY_RUNTIME_GENERATION_DISABLED = "com.blazebit.persistence.view.proxy.runtime_generation_disabled";
+
     /**
      * A boolean flag to make it possible to disable the scanning for static metmodels annotated with {@link StaticMetamodel}.
      * By default the scanning is enabled i.e. the default value is <code>false</code>.
@@ -246,6 +270,68 @@ public final class ConfigurationProperties {
      */
     public static final String CREATE_EMPTY_FLAT_VIEWS = "com.blazebit.persistence.view.create_empty_flat_views";
 
+    /**
+     * An integer value that defines the number of view roots for which tuples are reduced at once when streaming entity views
+     * that contain collections via {@linkplain com.blazebit.persistence.Queryable#getResultStream()}.
+     * Correlations with the batch fetch strategy are also loaded per window, so only the tuples of the current window have to be kept in memory.
+     * Note that streaming requires the tuples of a view root to be contiguous i.e. the query should be ordered by the view id.
+     *
+     * By default the window size is 100. The value can be overridden by setting this property via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * @since 1.6.21
+     */
+    public static final String STREAMING_WINDOW_SIZE = "com.blazebit.persistence.view.streaming.window_size";
+
+    /**
+     * A {@link java.util.concurrent.Executor} that is used to execute the queries of independent correlated attributes with the batch fetch strategy concurrently.
+     * Setting an executor is an explicit opt-in to load correlations outside of the {@link javax.persistence.EntityManager} of the query.
+     * Every concurrently loaded correlated attribute is bound to a dedicated entity manager created from the entity manager factory of the query,
+     * which is closed once the result list is built or the streamed result is fully consumed.
+     * Such correlations only see committed data and the entities they load are detached afterwards.
+     *
+     * By default no executor is configured, so correlations are executed sequentially through the entity manager of the query.
+     * The value can be set by setting this property via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * @since 1.6.21
+     */
+    public static final String CORRELATION_EXECUTOR = "com.blazebit.persistence.view.correlation.executor";
+
+    /**
+     * A boolean flag to enable caching of the result list of an entity view query in the {@link com.blazebit.persistence.view.spi.EntityViewResultCache}.
+     * The cache key covers the entity view type, the query including filters, sorters and limits, the bound parameter values as well as the optional parameters.
+     * Cached entries are evicted when entities of the types used by the entity view are flushed through the {@link EntityViewManager}.
+     * Result caching is only supported for entity views that are not updatable or creatable and for non-paginated queries.
+     * The cache holds the query result tuples, from which new entity view objects are built for every execution, and only if all values are immutable.
+     * Results of entity views that e.g. contain entities or mutable values like {@link java.util.Date} are not cached.
+     * Only the result list and single result methods of the query builder make use of the cache, queries obtained via e.g. <code>getQuery()</code> are not cached.
+     *
+     * By default result caching is disabled i.e. the default value is <code>false</code>.
+     * The value can be overridden by setting this property via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.6.21
+     */
+    public static final String RESULT_CACHE = "com.blazebit.persistence.view.result_cache";
+
+    /**
+     * A positive integer value that defines the maximum number of query results held by the default in-memory {@link com.blazebit.persistence.view.spi.EntityViewResultCache}.
+     * When the cache is full, the least recently used entry is evicted.
+     *
+     * By default the maximum size is 1000.
+     *
+     * @since 1.6.21
+     */
+    public static final String RESULT_CACHE_MAX_SIZE = "com.blazebit.persistence.view.result_cache.max_size";
+
+    /**
+     * A positive integer value that defines the number of milliseconds after which an entry of the default in-memory {@link com.blazebit.persistence.view.spi.EntityViewResultCache} expires.
+     *
+     * By default entries expire after 60000 milliseconds.
+     *
+     * @since 1.6.21
+     */
+    public static final String RESULT_CACHE_TTL = "com.blazebit.persistence.view.result_cache.ttl";
+
     private ConfigurationProperties() {
     }
 }
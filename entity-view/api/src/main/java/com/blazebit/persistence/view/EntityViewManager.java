@@ -363,6 +363,30 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public void saveFullTo(EntityManager entityManager, Object view, Object entity);
 
+    /**
+     * Saves the entities which the given entity views map to within a single flush operation.
+     * Issues partial updates if enabled for the respective views.
+     * Only the entities of views with the same type that use the {@link com.blazebit.persistence.view.FlushStrategy#ENTITY} flush strategy are loaded with a single query.
+     * These views are flushed to the entities and, unlike {@link #save(EntityManager, Object)}, the entity manager is flushed at the end of the operation,
+     * so that the JPA provider can execute the updates as JDBC batch if it is configured to do so.
+     * Views that use the {@link com.blazebit.persistence.view.FlushStrategy#QUERY} flush strategy are flushed with one update query per view like with {@link #save(EntityManager, Object)}.
+     * Every view is still subject to the optimistic lock check of the respective view.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.6.21
+     */
+    public void saveAll(EntityManager entityManager, Iterable<?> views);
+
+    /**
+     * Fully saves the entities which the given entity views map to within a single flush operation.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.6.21
+     */
+    public void saveFullAll(EntityManager entityManager, Iterable<?> views);
+
     /**
      * Updates the entity which the given entity view maps to.
      * Issues a partial update if enabled for the given view.
@@ -407,6 +431,27 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public FlushOperationBuilder saveFullWith(EntityManager entityManager, Object view);
 
+    /**
+     * Saves the entities which the given entity views map to within a single flush operation.
+     * Issues partial updates if enabled for the respective views.
+     *
+     * @param entityManager The entity manager to use for the update
+     * @param views The views to use for updating
+     * @return A flush operation builder for further configuring the flush operation
+     * @since 1.6.21
+     */
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views);
+
+    /**
+     * Fully saves the entities which the given entity views map to within a single flush operation.
+     *
+     * @param entityManager The entity manager to use for the update
+     * @param views The views to use for updating
+     * @return A flush operation builder for further configuring the flush operation
+     * @since 1.6.21
+     */
+    public FlushOperationBuilder saveFullAllWith(EntityManager entityManager, Iterable<?> views);
+
     /**
      * Saves the entity view state onto the given entity.
      * Issues a partial update if enabled for the given view.
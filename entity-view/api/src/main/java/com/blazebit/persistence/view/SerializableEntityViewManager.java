@@ -189,6 +189,16 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         getEvm().saveFull(entityManager, view);
     }
 
+    @Override
+    public void saveAll(EntityManager entityManager, Iterable<?> views) {
+        getEvm().saveAll(entityManager, views);
+    }
+
+    @Override
+    public void saveFullAll(EntityManager entityManager, Iterable<?> views) {
+        getEvm().saveFullAll(entityManager, views);
+    }
+
     @Override
     public void saveTo(EntityManager entityManager, Object view, Object entity) {
         getEvm().saveTo(entityManager, view, entity);
@@ -221,6 +231,16 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         return getEvm().saveFullWith(entityManager, view);
     }
 
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views) {
+        return getEvm().saveAllWith(entityManager, views);
+    }
+
+    @Override
+    public FlushOperationBuilder saveFullAllWith(EntityManager entityManager, Iterable<?> views) {
+        return getEvm().saveFullAllWith(entityManager, views);
+    }
+
     @Override
     public FlushOperationBuilder saveWithTo(EntityManager entityManager, Object view, Object entity) {
         return getEvm().saveWithTo(entityManager, view, entity);
@@ -269,6 +269,23 @@ public interface EntityViewConfiguration {
      */
     public EntityViewConfiguration setTransactionSupport(TransactionSupport transactionSupport);
 
+    /**
+     * Returns the configured result cache or <code>null</code> if the default in-memory result cache should be used.
+     *
+     * @return the configured result cache
+     * @since 1.6.21
+     */
+    public EntityViewResultCache getResultCache();
+
+    /**
+     * Sets the given result cache that is used for entity view queries that enable result caching.
+     *
+     * @param resultCache The result cache
+     * @return this for method chaining
+     * @since 1.6.21
+     */
+    public EntityViewConfiguration setResultCache(EntityViewResultCache resultCache);
+
     /**
      * Returns all globally configured optional parameters.
      *
@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.spi;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A cache for the query results of entity view queries that enable result caching via {@link com.blazebit.persistence.view.ConfigurationProperties#RESULT_CACHE}.
+ * The cache stores the tuples that entity views are built from, so that every execution builds new entity view objects.
+ * Only tuples that consist of immutable values like strings, numbers, enums or <code>java.time</code> objects are cached.
+ *
+ * Every entry is tagged with the entity types that the entity view uses. When entities of one of these types are flushed through the
+ * {@link com.blazebit.persistence.view.EntityViewManager}, the entries tagged with the type are evicted. Implementations must be thread safe.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface EntityViewResultCache {
+
+    /**
+     * Returns the cached tuples for the given key or <code>null</code> if there are none.
+     *
+     * @param key The cache key
+     * @return The cached tuples or <code>null</code>
+     */
+    public List<Object[]> get(Object key);
+
+    /**
+     * Caches the given tuples under the given key.
+     *
+     * @param key The cache key
+     * @param tuples The tuples to cache
+     * @param entityClasses The entity types of which changes invalidate the tuples
+     */
+    public void put(Object key, List<Object[]> tuples, Set<Class<?>> entityClasses);
+
+    /**
+     * Evicts all entries that are tagged with one of the given entity types.
+     *
+     * @param entityClasses The entity types that were changed
+     */
+    public void evict(Set<Class<?>> entityClasses);
+
+    /**
+     * Evicts all entries.
+     */
+    public void clear();
+}
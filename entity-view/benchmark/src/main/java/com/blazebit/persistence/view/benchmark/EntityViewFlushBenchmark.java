@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.benchmark.model.DocumentUpdateView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dirty tracking of updatable entity views and flushing dirty views through {@link EntityViewManager#save(EntityManager, Object)}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityViewFlushBenchmark {
+
+    @Benchmark
+    public boolean dirtyChecking(UpdateViewState state) {
+        DocumentUpdateView view = state.views.get(0);
+        view.setName(state.nextName());
+        return state.evm.getChangeModel(view).isDirty();
+    }
+
+    @Benchmark
+    public List<DocumentUpdateView> flush(UpdateViewState state) {
+        EntityManager em = state.em;
+        em.getTransaction().begin();
+        try {
+            for (int i = 0; i < state.views.size(); i++) {
+                DocumentUpdateView view = state.views.get(i);
+                view.setName(state.nextName());
+                view.setAge(view.getAge() + 1);
+                state.evm.save(em, view);
+            }
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.clear();
+        }
+        return state.views;
+    }
+
+    /**
+     * Loads a page of updatable views once per trial that are then modified in every invocation.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    @State(Scope.Thread)
+    public static class UpdateViewState {
+
+        private EntityManager em;
+        private EntityViewManager evm;
+        private List<DocumentUpdateView> views;
+        private long counter;
+
+        @Setup(Level.Trial)
+        public void setup(EntityViewManagerState state) {
+            em = state.getEm();
+            evm = state.getEvm();
+            views = evm.applySetting(
+                    EntityViewSetting.create(DocumentUpdateView.class),
+                    state.getCbfState().getCbf().create(em, Document.class).orderByAsc("id").setMaxResults(10)
+            ).getResultList();
+            em.clear();
+        }
+
+        String nextName() {
+            return "doc" + counter++;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.benchmark.CriteriaBuilderFactoryState;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.model.Person;
+import com.blazebit.persistence.benchmark.model.Version;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.benchmark.model.DocumentFlatView;
+import com.blazebit.persistence.view.benchmark.model.DocumentSimpleView;
+import com.blazebit.persistence.view.benchmark.model.DocumentUpdateView;
+import com.blazebit.persistence.view.benchmark.model.DocumentView;
+import com.blazebit.persistence.view.benchmark.model.PersonMultisetCorrelationView;
+import com.blazebit.persistence.view.benchmark.model.PersonSelectCorrelationView;
+import com.blazebit.persistence.view.benchmark.model.PersonSubselectCorrelationView;
+import com.blazebit.persistence.view.benchmark.model.PersonView;
+import com.blazebit.persistence.view.benchmark.model.VersionView;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Builds the entity view manager for the benchmark views and populates the in-memory database with a fixed data set.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@State(Scope.Benchmark)
+public class EntityViewManagerState {
+
+    @Param({ "100" })
+    private int persons;
+
+    private CriteriaBuilderFactoryState cbfState;
+    private EntityViewManager evm;
+
+    @Setup(Level.Trial)
+    public void setup(CriteriaBuilderFactoryState cbfState) {
+        this.cbfState = cbfState;
+        EntityViewConfiguration config = EntityViews.createDefaultConfiguration();
+        config.addEntityView(PersonView.class);
+        config.addEntityView(VersionView.class);
+        config.addEntityView(DocumentFlatView.class);
+        config.addEntityView(DocumentView.class);
+        config.addEntityView(DocumentSimpleView.class);
+        config.addEntityView(DocumentUpdateView.class);
+        config.addEntityView(PersonSelectCorrelationView.class);
+        config.addEntityView(PersonSubselectCorrelationView.class);
+        config.addEntityView(PersonMultisetCorrelationView.class);
+        evm = config.createEntityViewManager(cbfState.getCbf());
+        populate(cbfState.getEm());
+    }
+
+    private void populate(EntityManager em) {
+        em.getTransaction().begin();
+        try {
+            Person previous = null;
+            for (int i = 0; i < persons; i++) {
+                Person owner = new Person("owner" + i);
+                owner.setAge(i);
+                owner.setFriend(previous);
+                em.persist(owner);
+
+                // Every person owns two documents with a few versions each
+                for (int j = 0; j < 2; j++) {
+                    Document document = new Document("doc" + i + "_" + j, owner);
+                    document.setAge(j);
+                    em.persist(document);
+                    for (int k = 0; k < 3; k++) {
+                        em.persist(new Version(k, document));
+                    }
+                    if (previous != null && j == 0) {
+                        previous.setPartnerDocument(document);
+                    }
+                }
+                previous = owner;
+            }
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.clear();
+        }
+    }
+
+    public EntityManager getEm() {
+        return cbfState.getEm();
+    }
+
+    public CriteriaBuilderFactoryState getCbfState() {
+        return cbfState;
+    }
+
+    public EntityViewManager getEvm() {
+        return evm;
+    }
+}
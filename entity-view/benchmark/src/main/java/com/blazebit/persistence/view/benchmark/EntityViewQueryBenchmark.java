@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.model.Person;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.benchmark.model.DocumentFlatView;
+import com.blazebit.persistence.view.benchmark.model.DocumentView;
+import com.blazebit.persistence.view.benchmark.model.PersonMultisetCorrelationView;
+import com.blazebit.persistence.view.benchmark.model.PersonSelectCorrelationView;
+import com.blazebit.persistence.view.benchmark.model.PersonSubselectCorrelationView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fetching entity views end-to-end, which covers applying the setting to a criteria builder,
+ * executing the query and transforming the result tuples into view objects.
+ * The correlation benchmarks fetch the same view with the different fetch strategies to make them comparable.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityViewQueryBenchmark {
+
+    @Benchmark
+    public List<DocumentFlatView> flatView(EntityViewManagerState state) {
+        return fetch(state, Document.class, DocumentFlatView.class);
+    }
+
+    @Benchmark
+    public List<DocumentView> subviewCollections(EntityViewManagerState state) {
+        return fetch(state, Document.class, DocumentView.class);
+    }
+
+    @Benchmark
+    public List<PersonSelectCorrelationView> selectCorrelation(EntityViewManagerState state) {
+        return fetch(state, Person.class, PersonSelectCorrelationView.class);
+    }
+
+    @Benchmark
+    public List<PersonSubselectCorrelationView> subselectCorrelation(EntityViewManagerState state) {
+        return fetch(state, Person.class, PersonSubselectCorrelationView.class);
+    }
+
+    @Benchmark
+    public List<PersonMultisetCorrelationView> multisetCorrelation(EntityViewManagerState state) {
+        return fetch(state, Person.class, PersonMultisetCorrelationView.class);
+    }
+
+    private static <T> List<T> fetch(EntityViewManagerState state, Class<?> entityClass, Class<T> viewClass) {
+        CriteriaBuilder<?> cb = state.getCbfState().getCbf().create(state.getEm(), entityClass)
+                .orderByAsc("id");
+        List<T> result = state.getEvm().applySetting(EntityViewSetting.create(viewClass), cb).getResultList();
+        // Don't let the persistence context grow across invocations
+        state.getEm().clear();
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark.model;
+
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.Mapping;
+
+/**
+ * A view that only maps basic attributes to measure the plain tuple to view conversion.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@EntityView(Document.class)
+public interface DocumentFlatView {
+
+    @IdMapping
+    public Long getId();
+
+    public String getName();
+
+    public long getAge();
+
+    @Mapping("owner.name")
+    public String getOwnerName();
+
+    @Mapping("UPPER(owner.friend.name)")
+    public String getOwnerFriendName();
+}
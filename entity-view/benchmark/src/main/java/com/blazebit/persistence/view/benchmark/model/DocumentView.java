@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark.model;
+
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+
+import java.util.Set;
+
+/**
+ * A view with a subview and subview collections fetched through joins to measure the tuple reduction.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@EntityView(Document.class)
+public interface DocumentView {
+
+    @IdMapping
+    public Long getId();
+
+    public String getName();
+
+    public PersonView getOwner();
+
+    public Set<VersionView> getVersions();
+
+    public Set<PersonView> getPartners();
+}
@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl;
+
+import com.blazebit.persistence.view.spi.EntityViewResultCache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory result cache that evicts the least recently used entry when the maximum size is reached and entries after a time to live.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class DefaultEntityViewResultCache implements EntityViewResultCache {
+
+    private final long timeToLiveNanos;
+    private final Map<Object, Entry> entries;
+
+    public DefaultEntityViewResultCache(final int maxSize, long timeToLiveMillis) {
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized List<Object[]> get(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.creationTime > timeToLiveNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.tuples;
+    }
+
+    @Override
+    public synchronized void put(Object key, List<Object[]> tuples, Set<Class<?>> entityClasses) {
+        entries.put(key, new Entry(tuples, entityClasses, System.nanoTime()));
+    }
+
+    @Override
+    public synchronized void evict(Set<Class<?>> entityClasses) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isAffectedBy(entityClasses)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cached tuples with the entity types they depend on.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class Entry {
+
+        private final List<Object[]> tuples;
+        private final Set<Class<?>> entityClasses;
+        private final long creationTime;
+
+        public Entry(List<Object[]> tuples, Set<Class<?>> entityClasses, long creationTime) {
+            this.tuples = tuples;
+            this.entityClasses = entityClasses;
+            this.creationTime = creationTime;
+        }
+
+        public boolean isAffectedBy(Set<Class<?>> changedEntityClasses) {
+            for (Class<?> changedEntityClass : changedEntityClasses) {
+                for (Class<?> entityClass : entityClasses) {
+                    // A change of an entity subtype or supertype might affect the result as well
+                    if (entityClass.isAssignableFrom(changedEntityClass) || changedEntityClass.isAssignableFrom(entityClass)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 
 /**
  * @author Christian Beikov
@@ -34,6 +35,7 @@ import java.util.TreeSet;
 public final class EntityViewConfiguration {
 
     private static final NavigableSet<String> EMPTY_SET = new TreeSet<>();
+    private static final int DEFAULT_STREAMING_WINDOW_SIZE = 100;
     private final FullQueryBuilder<?, ?> criteriaBuilder;
     private final ExpressionFactory expressionFactory;
     private final ViewJpqlMacro viewJpqlMacro;
@@ -42,6 +44,8 @@ public final class EntityViewConfiguration {
     private final NavigableSet<String> fetches;
     private final Map<String, Integer> batchSizeConfiguration;
     private final Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration;
+    private final int streamingWindowSize;
+    private final Executor correlationExecutor;
 
     public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Collection<String> fetches, String attributePath) {
         this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, attributePath));
@@ -54,6 +58,8 @@ public final class EntityViewConfiguration {
     private EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, NavigableSet<String> fetches) {
         Map<String, Integer> batchSizeConfiguration = new HashMap<String, Integer>(properties.size());
         Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration = new HashMap<>(properties.size());
+        int streamingWindowSize = DEFAULT_STREAMING_WINDOW_SIZE;
+        Executor correlationExecutor = null;
 
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
             String key = entry.getKey();
@@ -87,6 +93,10 @@ public final class EntityViewConfiguration {
                     key = key.substring(ConfigurationProperties.EXPECT_BATCH_MODE.length() + 1);
                     expectBatchCorrelationValuesConfiguration.put(key, value);
                 }
+            } else if (ConfigurationProperties.STREAMING_WINDOW_SIZE.equals(key)) {
+                streamingWindowSize = getBatchSize(key, entry.getValue());
+            } else if (ConfigurationProperties.CORRELATION_EXECUTOR.equals(key)) {
+                correlationExecutor = getExecutor(key, entry.getValue());
             }
         }
 
@@ -98,6 +108,8 @@ public final class EntityViewConfiguration {
         this.fetches = fetches;
         this.batchSizeConfiguration = Collections.unmodifiableMap(batchSizeConfiguration);
         this.expectBatchCorrelationValuesConfiguration = Collections.unmodifiableMap(expectBatchCorrelationValuesConfiguration);
+        this.streamingWindowSize = streamingWindowSize;
+        this.correlationExecutor = correlationExecutor;
         this.criteriaBuilder.registerMacro("view", viewJpqlMacro);
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
     }
@@ -111,6 +123,8 @@ public final class EntityViewConfiguration {
         this.fetches = fetches;
         this.batchSizeConfiguration = original.batchSizeConfiguration;
         this.expectBatchCorrelationValuesConfiguration = original.expectBatchCorrelationValuesConfiguration;
+        this.streamingWindowSize = original.streamingWindowSize;
+        this.correlationExecutor = original.correlationExecutor;
     }
 
     private static NavigableSet<String> getFetches(Collection<String> fetches, String attributePath) {
@@ -284,6 +298,22 @@ public final class EntityViewConfiguration {
         return val;
     }
 
+    public int getStreamingWindowSize() {
+        return streamingWindowSize;
+    }
+
+    public Executor getCorrelationExecutor() {
+        return correlationExecutor;
+    }
+
+    private static Executor getExecutor(String key, Object value) {
+        if (value == null || value instanceof Executor) {
+            return (Executor) value;
+        }
+
+        throw new IllegalArgumentException("Invalid executor configuration for key '" + key + "', expected a java.util.concurrent.Executor but got: " + value);
+    }
+
     public BatchCorrelationMode getExpectBatchCorrelationValues() {
         return getExpectBatchCorrelationValues("");
     }
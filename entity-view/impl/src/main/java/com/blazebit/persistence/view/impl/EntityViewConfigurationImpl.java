@@ -17,6 +17,7 @@ import com.blazebit.persistence.view.spi.TransactionSupport;
 import com.blazebit.persistence.view.spi.type.BasicUserType;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
 import com.blazebit.persistence.view.spi.EntityViewMapping;
+import com.blazebit.persistence.view.spi.EntityViewResultCache;
 import com.blazebit.persistence.view.spi.type.TypeConverter;
 
 import javax.persistence.EntityManagerFactory;
@@ -54,6 +55,7 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
     private final Map<Class<?>, Object> typeTestValues = new HashMap<>();
     private Properties properties = new Properties();
     private TransactionSupport transactionSupport;
+    private EntityViewResultCache resultCache;
     private Map<String, Object> optionalParameters = new HashMap<>();
 
     public EntityViewConfigurationImpl() {
@@ -63,6 +65,7 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
     private void loadDefaultProperties() {
         properties.put(ConfigurationProperties.PROXY_EAGER_LOADING, "false");
         properties.put(ConfigurationProperties.PROXY_UNSAFE_ALLOWED, "true");
+        properties.put(ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED, "false");
         properties.put(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED, "false");
         properties.put(ConfigurationProperties.UPDATER_DISALLOW_OWNED_UPDATABLE_SUBVIEW, "true");
         properties.put(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK, "true");
@@ -71,6 +74,8 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
         properties.put(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.CREATE_EMPTY_FLAT_VIEWS, "true");
+        properties.put(ConfigurationProperties.RESULT_CACHE_MAX_SIZE, "1000");
+        properties.put(ConfigurationProperties.RESULT_CACHE_TTL, "60000");
 
         typeTestValues.put(boolean.class, true);
         typeTestValues.put(byte.class, Byte.MAX_VALUE);
@@ -312,6 +317,17 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
         return this;
     }
 
+    @Override
+    public EntityViewResultCache getResultCache() {
+        return resultCache;
+    }
+
+    @Override
+    public EntityViewConfiguration setResultCache(EntityViewResultCache resultCache) {
+        this.resultCache = resultCache;
+        return this;
+    }
+
     @Override
     public Map<String, Object> getOptionalParameters() {
         return optionalParameters;
@@ -14,6 +14,7 @@ import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.Path;
 import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.parser.expression.AbstractCachingExpressionFactory;
+import com.blazebit.persistence.parser.expression.AbstractExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.MacroFunction;
@@ -112,18 +113,24 @@ import com.blazebit.persistence.view.metamodel.Attribute;
 import com.blazebit.persistence.view.metamodel.AttributeFilterMapping;
 import com.blazebit.persistence.view.metamodel.AttributePath;
 import com.blazebit.persistence.view.metamodel.AttributePaths;
+import com.blazebit.persistence.view.metamodel.CorrelatedAttribute;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.MapAttribute;
+import com.blazebit.persistence.view.metamodel.MappingAttribute;
 import com.blazebit.persistence.view.metamodel.MappingConstructor;
 import com.blazebit.persistence.view.metamodel.MethodAttribute;
 import com.blazebit.persistence.view.metamodel.MethodMultiListAttribute;
 import com.blazebit.persistence.view.metamodel.MethodMultiMapAttribute;
 import com.blazebit.persistence.view.metamodel.MethodPluralAttribute;
 import com.blazebit.persistence.view.metamodel.MethodSingularAttribute;
+import com.blazebit.persistence.view.metamodel.ParameterAttribute;
 import com.blazebit.persistence.view.metamodel.PluralAttribute;
 import com.blazebit.persistence.view.metamodel.SingularAttribute;
+import com.blazebit.persistence.view.metamodel.SubqueryAttribute;
+import com.blazebit.persistence.view.metamodel.ViewRoot;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
+import com.blazebit.persistence.view.spi.EntityViewResultCache;
 import com.blazebit.persistence.view.spi.TransactionSupport;
 import com.blazebit.persistence.view.spi.ViewJpqlMacro;
 import com.blazebit.persistence.view.spi.type.DirtyStateTrackable;
@@ -141,16 +148,21 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  *
@@ -164,6 +176,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private static final String MULTI_RELATION_CLASS_NAME_SUFFIX = "MultiRelation";
     private static final String BUILDER_CLASS_NAME_SUFFIX = "Builder";
     private static final Set<ViewTransition> VIEW_TRANSITIONS = EnumSet.allOf(ViewTransition.class);
+    private static final int DEFAULT_RESULT_CACHE_MAX_SIZE = 1000;
+    private static final long DEFAULT_RESULT_CACHE_TTL = 60000L;
     private static final Method SYNTHETIC_VERSION_GETTER;
 
     static {
@@ -183,6 +197,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final ViewMetamodelImpl metamodel;
     private final ProxyFactory proxyFactory;
     private final TransactionSupport transactionSupport;
+    private final EntityViewResultCache resultCache;
     private final Map<String, Object> optionalParameters;
     private final boolean supportsTransientReference;
     private final ConcurrentMap<ViewTypeObjectBuilderTemplate.Key, ViewTypeObjectBuilderTemplate<?>> objectBuilderCache;
@@ -193,6 +208,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final ConcurrentMap<Class<?>, Constructor<?>> createConstructorCache;
     private final ConcurrentMap<Class<?>, Constructor<?>> referenceConstructorCache;
     private final ConcurrentMap<Class<?>, ListenerTypeInfo> listenerClassTypeInfo;
+    private final ConcurrentMap<ManagedViewType<?>, Set<Class<?>>> resultCacheEntityClasses;
     private final ClassValue<EntityViewManager> serializableDelegates;
     private final Map<String, Class<? extends AttributeFilterProvider>> filterMappings;
     private final Map<Class<?>, Set<Class<?>>> javaTypeToManagedTypeJavaTypes;
@@ -210,10 +226,20 @@ public class EntityViewManagerImpl implements EntityViewManager {
         this.expressionFactory = cbf.getService(ExpressionFactory.class);
         this.packageOpener = cbf.getService(PackageOpener.class);
         this.entityIdAccessor = new EntityIdAttributeAccessor(jpaProvider);
-        this.unsafeDisabled = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
+        boolean runtimeGenerationDisabled = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED)));
+        // Static implementations can't initialize fields before invoking the super constructor like unsafe proxies
+        this.unsafeDisabled = runtimeGenerationDisabled || !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
         this.strictCascadingCheck = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK)));
-        this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, packageOpener);
+        this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, runtimeGenerationDisabled, packageOpener);
         this.transactionSupport = config.getTransactionSupport();
+        if (config.getResultCache() == null) {
+            this.resultCache = new DefaultEntityViewResultCache(
+                    (int) getLongProperty(config, ConfigurationProperties.RESULT_CACHE_MAX_SIZE, DEFAULT_RESULT_CACHE_MAX_SIZE, 1L, Integer.MAX_VALUE),
+                    getLongProperty(config, ConfigurationProperties.RESULT_CACHE_TTL, DEFAULT_RESULT_CACHE_TTL, 1L, Long.MAX_VALUE)
+            );
+        } else {
+            this.resultCache = config.getResultCache();
+        }
         this.optionalParameters = Collections.unmodifiableMap(new HashMap<>(config.getOptionalParameters()));
         this.serializableDelegates = new ClassValue<EntityViewManager>() {
             @Override
@@ -229,7 +255,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
         boolean validateManagedTypes = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED)));
         boolean validateExpressions = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.EXPRESSION_VALIDATION_DISABLED)));
         boolean scanStaticBuilder = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_BUILDER_SCANNING_DISABLED)));
-        boolean scanStaticImplementations = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED)));
+        boolean scanStaticImplementations = runtimeGenerationDisabled || !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED)));
         boolean scanStaticMetamodels = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED)));
 
         Set<String> errors = config.getBootContext().getErrors();
@@ -286,6 +312,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
         this.createConstructorCache = new ConcurrentHashMap<>();
         this.referenceConstructorCache = new ConcurrentHashMap<>();
         this.listenerClassTypeInfo = new ConcurrentHashMap<>();
+        this.resultCacheEntityClasses = new ConcurrentHashMap<>();
         this.filterMappings = new HashMap<>();
         registerFilterMappings();
 
@@ -422,30 +449,132 @@ public class EntityViewManagerImpl implements EntityViewManager {
 
         this.listeners = listeners;
 
-        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)))) {
-            for (ViewTypeImpl<?> view : metamodel.views()) {
+        // The mapping expressions are parsed during the expression validation anyway
+        if (!validateExpressions && Boolean.valueOf(cbf.getProperty(com.blazebit.persistence.ConfigurationProperties.EXPRESSION_PARSER_WARM_UP))) {
+            expressionFactory.unwrap(AbstractExpressionFactory.class).warmUp(collectMappingExpressions(viewMetamodel));
+        }
+
+        int parallelism = (int) getLongProperty(config, ConfigurationProperties.EAGER_LOADING_PARALLELISM, 1L, 0L, Integer.MAX_VALUE);
+        if (parallelism == 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        boolean templateEagerLoading = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)));
+        if (templateEagerLoading || Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_EAGER_LOADING)))) {
+            // Proxy classes are defined under the lock of the proxy factory, so we generate them sequentially on the bootstrap thread
+            // Loading templates will always involve also loading the proxies, so they are generated here as well
+            for (ViewType<?> view : metamodel.getViews()) {
+                proxyFactory.getProxy(this, (ManagedViewTypeImplementor<Object>) view);
+            }
+        }
+        List<Runnable> eagerLoadingTasks = new ArrayList<>();
+        if (templateEagerLoading) {
+            for (final ViewTypeImpl<?> view : metamodel.views()) {
                 // TODO: Might be a good idea to let the view root be overridden or specified via the annotation
                 String probableViewRoot = StringUtils.firstToLower(view.getEntityClass().getSimpleName());
-                MacroConfigurationExpressionFactory macroAwareExpressionFactory = context.createMacroAwareExpressionFactory(probableViewRoot);
-                ViewJpqlMacro viewJpqlMacro = (ViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("VIEW").getState()[0];
-                EmbeddingViewJpqlMacro embeddingViewJpqlMacro = (EmbeddingViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("EMBEDDING_VIEW").getState()[0];
-                getTemplate(macroAwareExpressionFactory, view, null, null, viewJpqlMacro, null, embeddingViewJpqlMacro);
+                final MacroConfigurationExpressionFactory macroAwareExpressionFactory = context.createMacroAwareExpressionFactory(probableViewRoot);
+                eagerLoadingTasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        ViewJpqlMacro viewJpqlMacro = (ViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("VIEW").getState()[0];
+                        EmbeddingViewJpqlMacro embeddingViewJpqlMacro = (EmbeddingViewJpqlMacro) macroAwareExpressionFactory.getDefaultMacroConfiguration().get("EMBEDDING_VIEW").getState()[0];
+                        getTemplate(macroAwareExpressionFactory, view, null, null, viewJpqlMacro, null, embeddingViewJpqlMacro);
+
+                        for (MappingConstructor<?> constructor : view.getConstructors()) {
+                            getTemplate(macroAwareExpressionFactory, view, (MappingConstructorImpl) constructor, null, viewJpqlMacro, null, embeddingViewJpqlMacro);
+                        }
+                    }
+                });
+            }
+        }
+        runEagerLoadingTasks(eagerLoadingTasks, parallelism);
+
+        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_EAGER_LOADING)))) {
+            eagerLoadingTasks.clear();
+            for (final ManagedViewType<?> view : metamodel.getViews()) {
+                eagerLoadingTasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        getUpdater(null, (ManagedViewTypeImplementor<?>) view, null, null, null);
+                    }
+                });
+            }
+            runEagerLoadingTasks(eagerLoadingTasks, parallelism);
+        }
+    }
 
-                for (MappingConstructor<?> constructor : view.getConstructors()) {
-                    getTemplate(macroAwareExpressionFactory, view, (MappingConstructorImpl) constructor, null, viewJpqlMacro, null, embeddingViewJpqlMacro);
+    private static List<String> collectMappingExpressions(ViewMetamodelImpl viewMetamodel) {
+        List<String> expressions = new ArrayList<>();
+        for (ManagedViewType<?> managedView : viewMetamodel.getManagedViews()) {
+            expressions.add(managedView.getInheritanceMapping());
+            for (MethodAttribute<?, ?> attribute : managedView.getAttributes()) {
+                addMappingExpressions(expressions, attribute);
+            }
+            for (MappingConstructor<?> constructor : managedView.getConstructors()) {
+                for (ParameterAttribute<?, ?> attribute : constructor.getParameterAttributes()) {
+                    addMappingExpressions(expressions, attribute);
                 }
             }
-        } else if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_EAGER_LOADING)))) {
-            // Loading template will always involve also loading the proxies, so we use else if
-            for (ViewType<?> view : metamodel.getViews()) {
-                proxyFactory.getProxy(this, (ManagedViewTypeImplementor<Object>) view);
+        }
+        return expressions;
+    }
+
+    private static void addMappingExpressions(List<String> expressions, Attribute<?, ?> attribute) {
+        if (attribute instanceof MappingAttribute<?, ?>) {
+            expressions.add(((MappingAttribute<?, ?>) attribute).getMapping());
+        } else if (attribute instanceof CorrelatedAttribute<?, ?>) {
+            expressions.add(((CorrelatedAttribute<?, ?>) attribute).getCorrelationBasis());
+            expressions.add(((CorrelatedAttribute<?, ?>) attribute).getCorrelationResult());
+        } else if (attribute instanceof SubqueryAttribute<?, ?>) {
+            expressions.add(((SubqueryAttribute<?, ?>) attribute).getSubqueryExpression());
+        }
+    }
+
+    private static void runEagerLoadingTasks(List<Runnable> tasks, int parallelism) {
+        if (parallelism <= 1 || tasks.size() <= 1) {
+            for (Runnable task : tasks) {
+                task.run();
             }
+            return;
         }
 
-        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_EAGER_LOADING)))) {
-            for (ManagedViewType<?> view : metamodel.getViews()) {
-                getUpdater(null, (ManagedViewTypeImplementor<?>) view, null, null, null);
+        // The caches filled by eager loading are the same that are filled concurrently by queries at runtime
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (final Runnable task : tasks) {
+                futures.add(pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        Thread thread = Thread.currentThread();
+                        ClassLoader oldClassLoader = thread.getContextClassLoader();
+                        thread.setContextClassLoader(contextClassLoader);
+                        try {
+                            task.run();
+                        } finally {
+                            thread.setContextClassLoader(oldClassLoader);
+                        }
+                    }
+                }));
             }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException("Eager loading failed", cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Eager loading was interrupted", e);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
         }
     }
 
@@ -747,6 +876,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
             return (T) metamodel.getEntityMetamodel();
         } else if (TransactionSupport.class.isAssignableFrom(serviceClass)) {
             return (T) transactionSupport;
+        } else if (EntityViewResultCache.class.isAssignableFrom(serviceClass)) {
+            return (T) resultCache;
         } else if (CriteriaBuilderFactory.class.isAssignableFrom(serviceClass)) {
             return (T) cbf;
         }
@@ -763,6 +894,95 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return optionalParameters;
     }
 
+    private static long getLongProperty(EntityViewConfigurationImpl config, String propertyName, long defaultValue, long minimumValue, long maximumValue) {
+        String value = config.getProperty(propertyName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        long longValue;
+        try {
+            longValue = Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid non-integer value '" + value + "' for property " + propertyName, ex);
+        }
+        if (longValue < minimumValue || longValue > maximumValue) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for property " + propertyName + ", must be between " + minimumValue + " and " + maximumValue);
+        }
+        return longValue;
+    }
+
+    public EntityViewResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Returns the entity types used by the given view type and its subviews, which are the types that invalidate cached results of the view type.
+     *
+     * @param viewType The view type
+     * @return The entity types used by the view type
+     */
+    public Set<Class<?>> getResultCacheEntityClasses(ManagedViewType<?> viewType) {
+        Set<Class<?>> entityClasses = resultCacheEntityClasses.get(viewType);
+        if (entityClasses == null) {
+            entityClasses = new HashSet<>();
+            collectResultCacheEntityClasses(viewType, entityClasses, new HashSet<ManagedViewType<?>>());
+            entityClasses = Collections.unmodifiableSet(entityClasses);
+            resultCacheEntityClasses.putIfAbsent(viewType, entityClasses);
+        }
+        return entityClasses;
+    }
+
+    private void collectResultCacheEntityClasses(ManagedViewType<?> viewType, Set<Class<?>> entityClasses, Set<ManagedViewType<?>> visitedViewTypes) {
+        if (!visitedViewTypes.add(viewType)) {
+            return;
+        }
+        entityClasses.add(viewType.getEntityClass());
+        for (ManagedViewType<?> subtype : viewType.getInheritanceSubtypes()) {
+            collectResultCacheEntityClasses(subtype, entityClasses, visitedViewTypes);
+        }
+        for (ViewRoot viewRoot : viewType.getEntityViewRoots()) {
+            if (viewRoot.getType() instanceof EntityType<?>) {
+                entityClasses.add(viewRoot.getType().getJavaType());
+            }
+        }
+        for (MethodAttribute<?, ?> attribute : viewType.getAttributes()) {
+            collectResultCacheEntityClasses(attribute, entityClasses, visitedViewTypes);
+        }
+        for (MappingConstructor<?> constructor : viewType.getConstructors()) {
+            for (ParameterAttribute<?, ?> attribute : constructor.getParameterAttributes()) {
+                collectResultCacheEntityClasses(attribute, entityClasses, visitedViewTypes);
+            }
+        }
+    }
+
+    private void collectResultCacheEntityClasses(Attribute<?, ?> attribute, Set<Class<?>> entityClasses, Set<ManagedViewType<?>> visitedViewTypes) {
+        if (attribute instanceof PluralAttribute<?, ?, ?>) {
+            collectResultCacheEntityClasses(((PluralAttribute<?, ?, ?>) attribute).getElementType(), entityClasses, visitedViewTypes);
+            if (attribute instanceof MapAttribute<?, ?, ?>) {
+                collectResultCacheEntityClasses(((MapAttribute<?, ?, ?>) attribute).getKeyType(), entityClasses, visitedViewTypes);
+            }
+        } else if (attribute instanceof SingularAttribute<?, ?>) {
+            collectResultCacheEntityClasses(((SingularAttribute<?, ?>) attribute).getType(), entityClasses, visitedViewTypes);
+        }
+    }
+
+    private void collectResultCacheEntityClasses(com.blazebit.persistence.view.metamodel.Type<?> type, Set<Class<?>> entityClasses, Set<ManagedViewType<?>> visitedViewTypes) {
+        if (type instanceof ManagedViewType<?>) {
+            collectResultCacheEntityClasses((ManagedViewType<?>) type, entityClasses, visitedViewTypes);
+        } else if (type != null && metamodel.getEntityMetamodel().getEntity(type.getJavaType()) != null) {
+            entityClasses.add(type.getJavaType());
+        }
+    }
+
+    /**
+     * Evicts the cached results that depend on the given entity types.
+     *
+     * @param entityClasses The entity types that were changed
+     */
+    public void evictResultCache(Set<Class<?>> entityClasses) {
+        resultCache.evict(entityClasses);
+    }
+
     public JpaProvider getJpaProvider() {
         return jpaProvider;
     }
@@ -1064,6 +1284,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
         update(em, view, true);
     }
 
+    @Override
+    public void saveAll(EntityManager em, Iterable<?> views) {
+        updateAll(em, views, false);
+    }
+
+    @Override
+    public void saveFullAll(EntityManager em, Iterable<?> views) {
+        updateAll(em, views, true);
+    }
+
     @Override
     public void saveTo(EntityManager em, Object view, Object entity) {
         updateTo(em, view, entity, false);
@@ -1142,6 +1372,10 @@ public class EntityViewManagerImpl implements EntityViewManager {
         update(new DefaultUpdateContext(this, em, forceFull, false, false, null, view, null), view);
     }
 
+    public void updateAll(EntityManager em, Iterable<?> views, boolean forceFull) {
+        updateAll(new DefaultUpdateContext(this, em, forceFull, views), views);
+    }
+
     public void updateTo(EntityManager em, Object view, Object entity, boolean forceFull) {
         updateTo(new DefaultUpdateContext(this, em, forceFull, true, false, null, view, null), view, entity);
     }
@@ -1156,6 +1390,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return new DefaultUpdateContext(this, em, true, false, false, null, view, null);
     }
 
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager em, Iterable<?> views) {
+        return new DefaultUpdateContext(this, em, false, views);
+    }
+
+    @Override
+    public FlushOperationBuilder saveFullAllWith(EntityManager em, Iterable<?> views) {
+        return new DefaultUpdateContext(this, em, true, views);
+    }
+
     @Override
     public FlushOperationBuilder saveWithTo(EntityManager em, Object view, Object entity) {
         return new DefaultUpdateContext(this, em, false, true, false, null, view, entity);
@@ -1187,6 +1431,60 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    public void updateAll(UpdateContext context, Iterable<?> views) {
+        // Group the existing views by updater to load the entities of a group with a single query
+        Map<EntityViewUpdater, List<Object>> updatableProxiesByUpdater = new LinkedHashMap<>();
+        for (Object view : views) {
+            if (!(view instanceof MutableStateTrackable)) {
+                throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
+            }
+            MutableStateTrackable updatableProxy = (MutableStateTrackable) view;
+            if (updatableProxy.$$_isNew()) {
+                update(context, view);
+            } else {
+                ManagedViewTypeImplementor<?> viewType = metamodel.managedViewOrError(updatableProxy.$$_getEntityViewClass());
+                EntityViewUpdater updater = getUpdater(null, viewType, null, null, null);
+                List<Object> updatableProxies = updatableProxiesByUpdater.get(updater);
+                if (updatableProxies == null) {
+                    updatableProxies = new ArrayList<>();
+                    updatableProxiesByUpdater.put(updater, updatableProxies);
+                }
+                updatableProxies.add(view);
+            }
+        }
+
+        try {
+            boolean entitiesLoaded = false;
+            for (Map.Entry<EntityViewUpdater, List<Object>> entry : updatableProxiesByUpdater.entrySet()) {
+                EntityViewUpdater updater = entry.getKey();
+                List<Object> updatableProxies = entry.getValue();
+                List<Object> entities = new ArrayList<>(updatableProxies);
+                // Views that are flushed via queries are updated like with save, as loading their entities would only add a query
+                if (updater.loadEntities(context, entities)) {
+                    entitiesLoaded = true;
+                } else {
+                    Collections.fill(entities, null);
+                }
+                for (int i = 0; i < updatableProxies.size(); i++) {
+                    MutableStateTrackable updatableProxy = (MutableStateTrackable) updatableProxies.get(i);
+                    Object entity = entities.get(i);
+                    if (entity == null) {
+                        updater.executeUpdate(context, updatableProxy);
+                    } else {
+                        updater.executeUpdate(context, entity, updatableProxy);
+                    }
+                }
+            }
+            if (entitiesLoaded) {
+                // The entities were changed in the order of the groups, so the JPA provider can execute the updates of a group as JDBC batch
+                context.getEntityManager().flush();
+            }
+        } catch (Throwable t) {
+            context.getTransactionAccess().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+    }
+
     public void updateTo(UpdateContext context, Object view, Object entity) {
         if (!(view instanceof MutableStateTrackable)) {
             throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
@@ -9,6 +9,7 @@ import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.HavingBuilder;
 import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.Path;
 import com.blazebit.persistence.PredicateBuilder;
@@ -26,6 +27,7 @@ import com.blazebit.persistence.view.impl.metamodel.AbstractMethodAttribute;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
 import com.blazebit.persistence.view.impl.metamodel.MappingConstructorImpl;
 import com.blazebit.persistence.view.impl.metamodel.ViewTypeImplementor;
+import com.blazebit.persistence.view.impl.objectbuilder.ResultCachingObjectBuilder;
 import com.blazebit.persistence.view.metamodel.AttributeFilterMapping;
 import com.blazebit.persistence.view.metamodel.FlatViewType;
 import com.blazebit.persistence.view.metamodel.MappingAttribute;
@@ -36,6 +38,7 @@ import com.blazebit.persistence.view.metamodel.ViewFilterMapping;
 import com.blazebit.persistence.view.metamodel.ViewType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -105,7 +108,11 @@ public final class EntityViewSettingHelper {
         entityViewRoot = root.getPath();
         Q queryBuilder = getQueryBuilder(setting, criteriaBuilder, entityViewRoot, managedView, setting.getProperties());
         EntityViewConfiguration configuration = new EntityViewConfiguration(queryBuilder, ef, new MutableViewJpqlMacro(), new MutableEmbeddingViewJpqlMacro(), optionalParameters, setting.getProperties(), requestedFetches, managedView);
-        queryBuilder.selectNew(evm.createObjectBuilder(managedView, mappingConstructor, root.getJavaType(), entityViewRoot, null, criteriaBuilder, configuration, 0, 0, false));
+        ObjectBuilder<?> objectBuilder = evm.createObjectBuilder(managedView, mappingConstructor, root.getJavaType(), entityViewRoot, null, criteriaBuilder, configuration, 0, 0, false);
+        if (getBooleanProperty(setting.getProperties(), ConfigurationProperties.RESULT_CACHE, false)) {
+            objectBuilder = createResultCachingObjectBuilder(setting, evm, managedView, mappingConstructor, optionalParameters, requestedFetches, objectBuilder);
+        }
+        queryBuilder.selectNew(objectBuilder);
         Set<String> fetches = configuration.getFetches();
         applyAttributeFilters(setting, evm, queryBuilder, entityViewRoot, fetches, managedView);
         applyViewFilters(setting, evm, queryBuilder, managedView);
@@ -114,6 +121,24 @@ public final class EntityViewSettingHelper {
         return queryBuilder;
     }
 
+    private static <T, Q extends FullQueryBuilder<T, Q>> ObjectBuilder<?> createResultCachingObjectBuilder(EntityViewSetting<T, Q> setting, EntityViewManagerImpl evm, ManagedViewTypeImplementor<?> managedView, MappingConstructorImpl<?> mappingConstructor,
+                                                                                                            Map<String, Object> optionalParameters, Collection<String> requestedFetches, ObjectBuilder<?> objectBuilder) {
+        if (managedView.isUpdatable() || managedView.isCreatable()) {
+            throw new IllegalArgumentException("Result caching is not supported for the updatable or creatable entity view '" + managedView.getJavaType().getName() + "'!");
+        }
+        if (setting.isPaginated()) {
+            throw new IllegalArgumentException("Result caching is not supported for paginated entity view settings!");
+        }
+        // The query key covers the query string and parameter values, so the view key only has to cover what is not part of the query
+        List<Object> viewKey = Arrays.asList(
+                managedView.getJavaType(),
+                mappingConstructor == null ? null : mappingConstructor.getName(),
+                optionalParameters,
+                new HashSet<>(requestedFetches)
+        );
+        return ResultCachingObjectBuilder.create(objectBuilder, evm.getResultCache(), evm.getMetamodel(), viewKey, evm.getResultCacheEntityClasses(managedView));
+    }
+
     private static <T, Q extends FullQueryBuilder<T, Q>> Q getQueryBuilder(EntityViewSetting<T, Q> setting, CriteriaBuilder<?> criteriaBuilder, String entityViewRoot, ManagedViewTypeImplementor<?> managedView, Map<String, Object> properties) {
         if (setting.isPaginated()) {
             KeysetPage keysetPage = setting.getKeysetPage();
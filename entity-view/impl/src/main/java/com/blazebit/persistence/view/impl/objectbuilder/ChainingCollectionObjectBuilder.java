@@ -5,30 +5,54 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder;
 
+import com.blazebit.persistence.EntityManagerAwareObjectBuilder;
+import com.blazebit.persistence.From;
+import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
+import com.blazebit.persistence.impl.AbstractFullQueryBuilder;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformator;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformatorFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.6.4
  */
-public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
+public class ChainingCollectionObjectBuilder<T> implements StreamingObjectBuilder<T>, EntityManagerAwareObjectBuilder<T> {
 
     private final TupleTransformator transformator;
     private final ObjectBuilder<T> objectBuilder;
+    private final int[] idPositions;
+    private final FullQueryBuilder<?, ?> queryBuilder;
+    private final String viewRootAlias;
+    private final int streamingWindowSize;
+    private final boolean entityManagerBound;
 
-    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration) {
-        this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration);
+    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int[] idPositions, String viewRootAlias) {
+        this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration, entityViewConfiguration == null ? null : entityViewConfiguration.getCorrelationExecutor());
+        this.entityManagerBound = transformatorFactory.isEntityManagerBound();
         this.objectBuilder = objectBuilder;
+        this.idPositions = idPositions;
+        this.queryBuilder = entityViewConfiguration == null ? null : entityViewConfiguration.getCriteriaBuilder();
+        this.viewRootAlias = viewRootAlias;
+        this.streamingWindowSize = entityViewConfiguration == null ? Integer.MAX_VALUE : entityViewConfiguration.getStreamingWindowSize();
+    }
+
+    @Override
+    public boolean isEntityManagerBound() {
+        return entityManagerBound;
     }
 
     @Override
@@ -45,6 +69,14 @@ public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
     @Override
     @SuppressWarnings("unchecked")
     public List<T> buildList(List<T> list) {
+        try {
+            return buildWindow(list);
+        } finally {
+            transformator.close();
+        }
+    }
+
+    private List<T> buildWindow(List<T> list) {
         List<Object[]> currentTuples = transformator.transformAll((List<Object[]>) list);
         List<T> resultList = new ArrayList<T>(currentTuples.size());
         for (Object[] tuple : currentTuples) {
@@ -52,4 +84,110 @@ public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
         }
         return objectBuilder.buildList(resultList);
     }
+
+    @Override
+    public Iterator<T> buildIterator(Iterator<Object[]> tuples) {
+        return new WindowIterator(tuples, isOrderedByViewRootId());
+    }
+
+    private boolean isOrderedByViewRootId() {
+        if (idPositions == null || !(queryBuilder instanceof AbstractFullQueryBuilder<?, ?, ?, ?, ?>)) {
+            return false;
+        }
+        Set<From> roots = queryBuilder.getRoots();
+        if (roots.size() != 1 || !roots.iterator().next().getAlias().equals(viewRootAlias)) {
+            return false;
+        }
+        // The query was already built at this point, so the order by expressions are resolved
+        return ((AbstractFullQueryBuilder<?, ?, ?, ?, ?>) queryBuilder).isOrderedByQueryRootIdentifier();
+    }
+
+    /**
+     * Reduces the tuples of a fixed amount of view roots at once. This relies on the tuples of a view root being contiguous,
+     * which is only guaranteed if the query is ordered by the view root id first. Otherwise, all tuples form a single window.
+     * Closing the iterator releases the resources of the transformator, which is necessary if the iterator isn't exhausted.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private class WindowIterator implements Iterator<T>, AutoCloseable {
+
+        private final Iterator<Object[]> tuples;
+        private final boolean windowed;
+        private Iterator<T> currentWindow = Collections.emptyIterator();
+        private Object[] nextWindowTuple;
+        private TupleId currentId;
+
+        public WindowIterator(Iterator<Object[]> tuples, boolean windowed) {
+            this.tuples = tuples;
+            this.windowed = windowed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentWindow.hasNext()) {
+                if (!nextWindow()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentWindow.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            currentWindow = Collections.emptyIterator();
+            nextWindowTuple = null;
+            transformator.close();
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean nextWindow() {
+            List<Object[]> window = new ArrayList<>();
+            int roots = 0;
+            if (nextWindowTuple != null) {
+                window.add(nextWindowTuple);
+                nextWindowTuple = null;
+                roots = 1;
+            }
+            while (tuples.hasNext()) {
+                Object[] tuple = tuples.next();
+                if (windowed) {
+                    TupleId id = new TupleId(idPositions, tuple);
+                    if (!id.equals(currentId)) {
+                        currentId = id;
+                        if (roots == streamingWindowSize) {
+                            nextWindowTuple = tuple;
+                            break;
+                        }
+                        roots++;
+                    }
+                }
+                window.add(tuple);
+            }
+            if (window.isEmpty()) {
+                transformator.close();
+                return false;
+            }
+            try {
+                currentWindow = buildWindow((List<T>) (List<?>) window).iterator();
+            } catch (RuntimeException | Error ex) {
+                transformator.close();
+                throw ex;
+            }
+            return true;
+        }
+    }
 }
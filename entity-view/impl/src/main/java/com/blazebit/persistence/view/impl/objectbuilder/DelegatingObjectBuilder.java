@@ -7,6 +7,7 @@ package com.blazebit.persistence.view.impl.objectbuilder;
 
 import java.util.List;
 
+import com.blazebit.persistence.EntityManagerAwareObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 
@@ -15,7 +16,7 @@ import com.blazebit.persistence.SelectBuilder;
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class DelegatingObjectBuilder<T> implements ObjectBuilder<T> {
+public class DelegatingObjectBuilder<T> implements EntityManagerAwareObjectBuilder<T> {
 
     protected final ObjectBuilder<T> delegate;
 
@@ -23,6 +24,11 @@ public class DelegatingObjectBuilder<T> implements ObjectBuilder<T> {
         this.delegate = delegate;
     }
 
+    @Override
+    public boolean isEntityManagerBound() {
+        return delegate instanceof EntityManagerAwareObjectBuilder<?> && ((EntityManagerAwareObjectBuilder<?>) delegate).isEntityManagerBound();
+    }
+
     @Override
     public <X extends SelectBuilder<X>> void applySelects(X queryBuilder) {
         delegate.applySelects(queryBuilder);
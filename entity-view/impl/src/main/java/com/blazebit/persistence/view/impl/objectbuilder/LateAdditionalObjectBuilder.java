@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder;
 
+import com.blazebit.persistence.EntityManagerAwareObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 
@@ -16,7 +17,7 @@ import java.util.List;
  * @author Christian Beikov
  * @since 1.3.0
  */
-public class LateAdditionalObjectBuilder implements ObjectBuilder<Object[]> {
+public class LateAdditionalObjectBuilder implements EntityManagerAwareObjectBuilder<Object[]> {
 
     private final ObjectBuilder<Object[]> objectBuilder;
     private final ObjectBuilder<Object[]> additionalBuilder;
@@ -28,6 +29,15 @@ public class LateAdditionalObjectBuilder implements ObjectBuilder<Object[]> {
         this.apply = apply;
     }
 
+    @Override
+    public boolean isEntityManagerBound() {
+        return isEntityManagerBound(objectBuilder) || isEntityManagerBound(additionalBuilder);
+    }
+
+    private static boolean isEntityManagerBound(ObjectBuilder<?> objectBuilder) {
+        return objectBuilder instanceof EntityManagerAwareObjectBuilder<?> && ((EntityManagerAwareObjectBuilder<?>) objectBuilder).isEntityManagerBound();
+    }
+
     @Override
     public <X extends SelectBuilder<X>> void applySelects(X queryBuilder) {
         if (apply) {
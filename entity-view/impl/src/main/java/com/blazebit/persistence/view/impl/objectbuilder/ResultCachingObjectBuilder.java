@@ -0,0 +1,96 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import com.blazebit.persistence.CachingObjectBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
+import com.blazebit.persistence.view.impl.metamodel.ViewMetamodelImpl;
+import com.blazebit.persistence.view.spi.EntityViewResultCache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An object builder that caches the tuples it builds objects from in a {@link EntityViewResultCache}.
+ * Tuples are only cached if all values are of an immutable basic user type, so entity views never share
+ * entities, mutable values or collections between executions.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ResultCachingObjectBuilder<T> extends DelegatingObjectBuilder<T> implements CachingObjectBuilder<T> {
+
+    private final EntityViewResultCache resultCache;
+    private final ViewMetamodelImpl metamodel;
+    private final Object viewKey;
+    private final Set<Class<?>> entityClasses;
+
+    private ResultCachingObjectBuilder(ObjectBuilder<T> delegate, EntityViewResultCache resultCache, ViewMetamodelImpl metamodel, Object viewKey, Set<Class<?>> entityClasses) {
+        super(delegate);
+        this.resultCache = resultCache;
+        this.metamodel = metamodel;
+        this.viewKey = viewKey;
+        this.entityClasses = entityClasses;
+    }
+
+    /**
+     * Creates a result caching object builder for the given object builder that retains the streaming capabilities of the object builder.
+     *
+     * @param delegate The object builder
+     * @param resultCache The result cache
+     * @param metamodel The metamodel to determine the mutability of tuple values
+     * @param viewKey The key parts of the entity view that are not covered by the query key
+     * @param entityClasses The entity types of which changes invalidate the cached result lists
+     * @param <T> The type that the object builder produces
+     * @return The result caching object builder
+     */
+    public static <T> ResultCachingObjectBuilder<T> create(ObjectBuilder<T> delegate, EntityViewResultCache resultCache, ViewMetamodelImpl metamodel, Object viewKey, Set<Class<?>> entityClasses) {
+        if (delegate instanceof StreamingObjectBuilder<?>) {
+            return new StreamingResultCachingObjectBuilder<>((StreamingObjectBuilder<T>) delegate, resultCache, metamodel, viewKey, entityClasses);
+        }
+        return new ResultCachingObjectBuilder<>(delegate, resultCache, metamodel, viewKey, entityClasses);
+    }
+
+    @Override
+    public List<Object[]> getCachedTuples(Object queryKey) {
+        return resultCache.get(Arrays.asList(viewKey, queryKey));
+    }
+
+    @Override
+    public void putCachedTuples(Object queryKey, List<Object[]> tuples) {
+        for (int i = 0; i < tuples.size(); i++) {
+            Object[] tuple = tuples.get(i);
+            for (int j = 0; j < tuple.length; j++) {
+                if (tuple[j] != null && metamodel.getBasicUserType(tuple[j].getClass()).isMutable()) {
+                    return;
+                }
+            }
+        }
+        resultCache.put(Arrays.asList(viewKey, queryKey), Collections.unmodifiableList(tuples), entityClasses);
+    }
+
+    /**
+     * A result caching object builder for a streaming capable object builder.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class StreamingResultCachingObjectBuilder<T> extends ResultCachingObjectBuilder<T> implements StreamingObjectBuilder<T> {
+
+        private StreamingResultCachingObjectBuilder(StreamingObjectBuilder<T> delegate, EntityViewResultCache resultCache, ViewMetamodelImpl metamodel, Object viewKey, Set<Class<?>> entityClasses) {
+            super(delegate, resultCache, metamodel, viewKey, entityClasses);
+        }
+
+        @Override
+        public Iterator<T> buildIterator(Iterator<Object[]> tuples) {
+            return ((StreamingObjectBuilder<T>) delegate).buildIterator(tuples);
+        }
+    }
+}
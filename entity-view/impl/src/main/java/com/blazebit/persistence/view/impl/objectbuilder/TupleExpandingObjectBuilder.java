@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
+
+import java.util.Iterator;
+
+/**
+ * Expands the compacted tuples of a query that only selects the fetched mappers to the full tuple layout of a view.
+ * Positions of mappers that are not selected are <code>null</code> which is what a <code>NULL</code> select item would produce.
+ *
+ * @param <T> The type that the object builder produces
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class TupleExpandingObjectBuilder<T> extends DelegatingObjectBuilder<T> {
+
+    private final int[] selectedMapperIndexes;
+    private final int mapperCount;
+
+    private TupleExpandingObjectBuilder(ObjectBuilder<T> delegate, int[] selectedMapperIndexes, int mapperCount) {
+        super(delegate);
+        this.selectedMapperIndexes = selectedMapperIndexes;
+        this.mapperCount = mapperCount;
+    }
+
+    /**
+     * Creates a tuple expanding object builder for the given object builder that retains the streaming capabilities of the object builder.
+     *
+     * @param delegate The object builder that expects the full tuple layout
+     * @param selectedMapperIndexes The ascending indexes of the mappers for which select items are rendered
+     * @param mapperCount The number of mappers of the full tuple layout
+     * @param <T> The type that the object builder produces
+     * @return The tuple expanding object builder
+     */
+    public static <T> TupleExpandingObjectBuilder<T> create(ObjectBuilder<T> delegate, int[] selectedMapperIndexes, int mapperCount) {
+        if (delegate instanceof StreamingObjectBuilder<?>) {
+            return new StreamingTupleExpandingObjectBuilder<>((StreamingObjectBuilder<T>) delegate, selectedMapperIndexes, mapperCount);
+        }
+        return new TupleExpandingObjectBuilder<>(delegate, selectedMapperIndexes, mapperCount);
+    }
+
+    @Override
+    public T build(Object[] tuple) {
+        return delegate.build(expand(tuple));
+    }
+
+    Object[] expand(Object[] tuple) {
+        int selectedCount = selectedMapperIndexes.length;
+        // Select items that are not produced by mappers, like keyset elements, follow the mapper select items
+        int trailingCount = tuple.length - selectedCount;
+        Object[] expandedTuple = new Object[mapperCount + trailingCount];
+        for (int i = 0; i < selectedCount; i++) {
+            expandedTuple[selectedMapperIndexes[i]] = tuple[i];
+        }
+        if (trailingCount > 0) {
+            System.arraycopy(tuple, selectedCount, expandedTuple, mapperCount, trailingCount);
+        }
+        return expandedTuple;
+    }
+
+    /**
+     * A tuple expanding object builder for a streaming capable object builder.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class StreamingTupleExpandingObjectBuilder<T> extends TupleExpandingObjectBuilder<T> implements StreamingObjectBuilder<T> {
+
+        private StreamingTupleExpandingObjectBuilder(StreamingObjectBuilder<T> delegate, int[] selectedMapperIndexes, int mapperCount) {
+            super(delegate, selectedMapperIndexes, mapperCount);
+        }
+
+        @Override
+        public Iterator<T> buildIterator(final Iterator<Object[]> tuples) {
+            return ((StreamingObjectBuilder<T>) delegate).buildIterator(new Iterator<Object[]>() {
+                @Override
+                public boolean hasNext() {
+                    return tuples.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    return expand(tuples.next());
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            });
+        }
+    }
+}
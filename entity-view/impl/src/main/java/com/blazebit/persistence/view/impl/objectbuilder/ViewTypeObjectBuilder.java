@@ -15,6 +15,7 @@ import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
 import com.blazebit.persistence.view.spi.ViewJpqlMacro;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -36,8 +37,13 @@ public class ViewTypeObjectBuilder<T> implements ObjectBuilder<T> {
     private final EmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     private final NavigableSet<String> fetches;
     private final SecondaryMapper[] secondaryMappers;
+    private final int[] selectedMapperIndexes;
 
     public ViewTypeObjectBuilder(ViewTypeObjectBuilderTemplate<T> template, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, NavigableSet<String> fetches, boolean nullIfEmpty) {
+        this(template, parameterHolder, optionalParameters, viewJpqlMacro, embeddingViewJpqlMacro, fetches, nullIfEmpty, null);
+    }
+
+    public ViewTypeObjectBuilder(ViewTypeObjectBuilderTemplate<T> template, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, NavigableSet<String> fetches, boolean nullIfEmpty, int[] selectedMapperIndexes) {
         this.hasId = template.hasId();
         this.objectInstantiator = template.getObjectInstantiator();
         this.mappers = template.getMappers();
@@ -48,6 +54,7 @@ public class ViewTypeObjectBuilder<T> implements ObjectBuilder<T> {
         this.fetches = fetches;
         this.nullIfEmpty = nullIfEmpty;
         this.secondaryMappers = template.getSecondaryMappers();
+        this.selectedMapperIndexes = selectedMapperIndexes;
     }
 
     @Override
@@ -96,19 +103,53 @@ public class ViewTypeObjectBuilder<T> implements ObjectBuilder<T> {
                     }
                 }
             }
-            for (int i = 0; i < mappers.length; i++) {
-                TupleElementMapper mapper = mappers[i];
-                String attributePath = mapper.getAttributePath();
-                if (attributePath != null && (hasSubFetches(fetches, attributePath) || isInheritance(mapper, attributePath))) {
-                    mapper.applyMapping(queryBuilder, parameterHolder, optionalParameters, viewJpqlMacro, embeddingViewJpqlMacro,
+            if (selectedMapperIndexes == null) {
+                for (int i = 0; i < mappers.length; i++) {
+                    TupleElementMapper mapper = mappers[i];
+                    if (isFetched(fetches, mapper)) {
+                        mapper.applyMapping(queryBuilder, parameterHolder, optionalParameters, viewJpqlMacro, embeddingViewJpqlMacro,
+                            fetches, false);
+                    } else {
+                        queryBuilder.select("NULL");
+                    }
+                }
+            } else {
+                // The tuple is expanded again by the TupleExpandingObjectBuilder, so we can omit the select items of mappers that aren't fetched
+                for (int i = 0; i < selectedMapperIndexes.length; i++) {
+                    mappers[selectedMapperIndexes[i]].applyMapping(queryBuilder, parameterHolder, optionalParameters, viewJpqlMacro, embeddingViewJpqlMacro,
                         fetches, false);
-                } else {
-                    queryBuilder.select("NULL");
                 }
             }
         }
     }
 
+    /**
+     * Returns the ascending indexes of the mappers that are fetched for the given fetches,
+     * or <code>null</code> if all mappers are fetched and the tuple layout hence can't be compacted.
+     *
+     * @param mappers The mappers
+     * @param fetches The fetches
+     * @return The indexes of the fetched mappers or <code>null</code>
+     */
+    public static int[] getFetchedMapperIndexes(TupleElementMapper[] mappers, NavigableSet<String> fetches) {
+        int[] indexes = new int[mappers.length];
+        int count = 0;
+        for (int i = 0; i < mappers.length; i++) {
+            if (isFetched(fetches, mappers[i])) {
+                indexes[count++] = i;
+            }
+        }
+        if (count == mappers.length) {
+            return null;
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private static boolean isFetched(NavigableSet<String> fetches, TupleElementMapper mapper) {
+        String attributePath = mapper.getAttributePath();
+        return attributePath != null && (hasSubFetches(fetches, attributePath) || isInheritance(mapper, attributePath));
+    }
+
     public static boolean hasSubFetches(NavigableSet<String> fetches, String attributePath) {
         // Fetches can never contain a path leading to a view i.e. one for which a dot is allowed to follow.
         // To find a potential match in the fetches, we have to look for an entry that is greater-or-equal to a path
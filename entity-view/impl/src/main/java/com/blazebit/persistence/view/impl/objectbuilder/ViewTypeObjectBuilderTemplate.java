@@ -107,6 +107,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
 
 /**
@@ -1444,8 +1445,14 @@ public class ViewTypeObjectBuilderTemplate<T> {
     public ObjectBuilder<T> createObjectBuilder(ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int suffix, boolean isSubview, boolean nullFlatViewIfEmpty) {
         boolean hasOffset = tupleOffset != 0 || suffix != 0;
         ObjectBuilder<T> result;
+        NavigableSet<String> fetches = entityViewConfiguration == null ? null : entityViewConfiguration.getFetches();
+        // Only the select items of a root object builder can be omitted, as other builders rely on the positions within a bigger tuple
+        int[] selectedMapperIndexes = null;
+        if (!hasOffset && !isSubview && fetches != null && !fetches.isEmpty()) {
+            selectedMapperIndexes = ViewTypeObjectBuilder.getFetchedMapperIndexes(mappers, fetches);
+        }
 
-        result = new ViewTypeObjectBuilder<T>(this, parameterHolder, optionalParameters, entityViewConfiguration == null ? null : entityViewConfiguration.getViewJpqlMacro(), entityViewConfiguration == null ? null : entityViewConfiguration.getEmbeddingViewJpqlMacro(), entityViewConfiguration == null ? null : entityViewConfiguration.getFetches(), nullFlatViewIfEmpty);
+        result = new ViewTypeObjectBuilder<T>(this, parameterHolder, optionalParameters, entityViewConfiguration == null ? null : entityViewConfiguration.getViewJpqlMacro(), entityViewConfiguration == null ? null : entityViewConfiguration.getEmbeddingViewJpqlMacro(), fetches, nullFlatViewIfEmpty, selectedMapperIndexes);
 
         if (hasSubtypes) {
             result = new InheritanceReducerViewTypeObjectBuilder<>((ViewTypeObjectBuilder<T>) result, tupleOffset, suffix, mappers.length, !isSubview && (tupleOffset > 0 || suffix > 0), subtypeInstantiators);
@@ -1459,12 +1466,16 @@ public class ViewTypeObjectBuilderTemplate<T> {
 
         if (tupleTransformatorFactory.hasTransformers() && !isSubview) {
             if (tupleTransformatorFactory.hasListTransformers()) {
-                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
+                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, hasId ? idPositions : null, viewRootAlias);
             } else {
                 result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
             }
         }
 
+        if (selectedMapperIndexes != null) {
+            result = TupleExpandingObjectBuilder.create(result, selectedMapperIndexes, mappers.length);
+        }
+
         return result;
     }
 
@@ -9,11 +9,17 @@ import com.blazebit.persistence.view.impl.objectbuilder.TupleRest;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * @author Christian Beikov
@@ -22,9 +28,20 @@ import java.util.Set;
 public class TupleTransformator {
 
     private final List<TupleTransformatorLevel> transformatorLevels;
+    private final Executor executor;
+    private final EntityManager entityManager;
+    // The dedicated entity managers the list transformers of concurrently transformed levels are bound to
+    private final EntityManager[] levelEntityManagers;
 
     public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels) {
+        this(transformatorLevels, null, null);
+    }
+
+    public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels, Executor executor, EntityManager entityManager) {
         this.transformatorLevels = transformatorLevels;
+        this.executor = executor;
+        this.entityManager = entityManager;
+        this.levelEntityManagers = executor == null ? null : new EntityManager[transformatorLevels.size()];
     }
 
     public List<Object[]> transformAll(List<Object[]> tupleList) {
@@ -39,6 +56,14 @@ public class TupleTransformator {
                     newTupleListIter.set(transform(i, tuple, updatableViewMap));
                 }
             }
+            if (executor != null) {
+                int end = getConcurrentLevelsEnd(i);
+                if (end - i > 1) {
+                    transformConcurrently(i, end, tupleList);
+                    i = end - 1;
+                    continue;
+                }
+            }
             tupleList = transform(i, tupleList);
         }
 
@@ -75,6 +100,105 @@ public class TupleTransformator {
         return currentTuple;
     }
 
+    /**
+     * Closes the dedicated entity managers that were used for concurrently transformed levels.
+     * Entities loaded through them are detached afterwards. A subsequent transformation binds the list transformers to new entity managers.
+     */
+    public void close() {
+        if (levelEntityManagers == null) {
+            return;
+        }
+        RuntimeException exception = null;
+        for (int i = 0; i < levelEntityManagers.length; i++) {
+            EntityManager em = levelEntityManagers[i];
+            if (em != null) {
+                levelEntityManagers[i] = null;
+                try {
+                    em.close();
+                } catch (RuntimeException ex) {
+                    if (exception == null) {
+                        exception = ex;
+                    } else {
+                        exception.addSuppressed(ex);
+                    }
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private int getConcurrentLevelsEnd(int level) {
+        TupleListTransformer tupleListTransformer = transformatorLevels.get(level).tupleListTransformer;
+        if (tupleListTransformer == null || !tupleListTransformer.isConcurrentTransformationSupported()) {
+            return level + 1;
+        }
+        int end = level + 1;
+        // Consecutive list transformers are independent of each other if there are no tuple transformers in between
+        while (end < transformatorLevels.size() && transformatorLevels.get(end).tupleTransformers.length == 0 && bindEntityManager(end)) {
+            end++;
+        }
+        return end;
+    }
+
+    private boolean bindEntityManager(int level) {
+        if (levelEntityManagers[level] != null) {
+            return true;
+        }
+        TupleListTransformer tupleListTransformer = transformatorLevels.get(level).tupleListTransformer;
+        if (tupleListTransformer == null || !tupleListTransformer.isConcurrentTransformationSupported()) {
+            return false;
+        }
+        // An entity manager must not be used by multiple threads, so every concurrently transformed level uses a dedicated one
+        EntityManager em = entityManager.getEntityManagerFactory().createEntityManager();
+        if (tupleListTransformer.bindEntityManager(em)) {
+            levelEntityManagers[level] = em;
+            return true;
+        }
+        em.close();
+        return false;
+    }
+
+    private void transformConcurrently(int startLevel, int endLevel, final List<Object[]> tupleList) {
+        List<FutureTask<Void>> tasks = new ArrayList<>(endLevel - startLevel - 1);
+        for (int i = startLevel + 1; i < endLevel; i++) {
+            final TupleListTransformer tupleListTransformer = transformatorLevels.get(i).tupleListTransformer;
+            FutureTask<Void> task = new FutureTask<>(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    tupleListTransformer.transform(tupleList);
+                    return null;
+                }
+            });
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        transformatorLevels.get(startLevel).tupleListTransformer.transform(tupleList);
+
+        // Run tasks that weren't started yet in this thread to avoid waiting for a saturated executor
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).run();
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                tasks.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a concurrent correlation", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException("Concurrent correlation failed", e.getCause());
+            }
+        }
+    }
+
     private List<Object[]> transform(int level, List<Object[]> tupleList) {
         TupleListTransformer tupleListTransformer = transformatorLevels.get(level).tupleListTransformer;
         if (tupleListTransformer == null) {
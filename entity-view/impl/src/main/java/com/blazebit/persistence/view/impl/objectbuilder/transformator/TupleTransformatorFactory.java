@@ -13,12 +13,16 @@ import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTra
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformerFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformerFactory;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.AbstractCorrelatedBatchTupleListTransformerFactory;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.AbstractCorrelatedSubselectTupleTransformerFactory;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  *
@@ -29,6 +33,8 @@ public class TupleTransformatorFactory {
 
     private final List<TupleTransformatorFactoryLevel> transformatorLevels = new ArrayList<TupleTransformatorFactoryLevel>();
     private int currentLevel = 0;
+    // Whether the created transformators run SELECT or SUBSELECT correlation queries through the entity manager of the entity view query
+    private boolean entityManagerBound;
 
     public TupleTransformatorFactory() {
         transformatorLevels.add(new TupleTransformatorFactoryLevel());
@@ -45,10 +51,21 @@ public class TupleTransformatorFactory {
                 || transformatorLevels.get(0).tupleListTransformerFactory != null;
     }
 
+    /**
+     * Returns whether the created transformators hold state that is bound to the entity manager of the entity view query.
+     *
+     * @return whether the created transformators are bound to an entity manager
+     * @since 1.6.21
+     */
+    public boolean isEntityManagerBound() {
+        return entityManagerBound;
+    }
+
     public void add(TupleTransformatorFactory tupleTransformator) {
         if (!tupleTransformator.hasTransformers()) {
             return;
         }
+        entityManagerBound |= tupleTransformator.entityManagerBound;
 
         for (int i = 0; i < tupleTransformator.transformatorLevels.size(); i++) {
             if (i != 0) {
@@ -67,6 +84,7 @@ public class TupleTransformatorFactory {
         if (!tupleTransformator.hasTransformers()) {
             return;
         }
+        entityManagerBound |= tupleTransformator.entityManagerBound;
 
         for (int i = 0; i < tupleTransformator.transformatorLevels.size(); i++) {
             if (i != 0) {
@@ -196,6 +214,16 @@ public class TupleTransformatorFactory {
             }
             return tuples;
         }
+
+        @Override
+        public boolean isConcurrentTransformationSupported() {
+            return delegate.isConcurrentTransformationSupported();
+        }
+
+        @Override
+        public boolean bindEntityManager(EntityManager entityManager) {
+            return delegate.bindEntityManager(entityManager);
+        }
     }
 
     /**
@@ -243,14 +271,20 @@ public class TupleTransformatorFactory {
 
     public void add(TupleListTransformerFactory tupleListTransformerFactory) {
         transformatorLevels.get(currentLevel).tupleListTransformerFactory = tupleListTransformerFactory;
+        entityManagerBound |= tupleListTransformerFactory instanceof AbstractCorrelatedBatchTupleListTransformerFactory;
         incrementLevel();
     }
 
     public void add(TupleTransformerFactory tupleTransformerFactory) {
         transformatorLevels.get(currentLevel).tupleTransformerFactories.add(tupleTransformerFactory);
+        entityManagerBound |= tupleTransformerFactory instanceof AbstractCorrelatedSubselectTupleTransformerFactory;
     }
 
     public TupleTransformator create(ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration) {
+        return create(parameterHolder, optionalParameters, entityViewConfiguration, null);
+    }
+
+    public TupleTransformator create(ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, Executor correlationExecutor) {
         TupleTransformatorLevel[] newTransformatorLevels = new TupleTransformatorLevel[transformatorLevels.size()];
         // We create the tuple transformers and level in the inverse order as deeper nested objects come first, yet we want to initialize stuff top-down to properly support nested join correlations
         for (int i = transformatorLevels.size() - 1; i >= 0; i--) {
@@ -274,6 +308,9 @@ public class TupleTransformatorFactory {
             newTransformatorLevels[i] = new TupleTransformatorLevel(tupleTransformers, tupleListTransformer);
         }
         
-        return new TupleTransformator(Arrays.asList(newTransformatorLevels));
+        if (correlationExecutor == null) {
+            return new TupleTransformator(Arrays.asList(newTransformatorLevels));
+        }
+        return new TupleTransformator(Arrays.asList(newTransformatorLevels), correlationExecutor, entityViewConfiguration.getCriteriaBuilder().getEntityManager());
     }
 }
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder.transformer;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 /**
@@ -23,4 +24,28 @@ public abstract class TupleListTransformer {
     public abstract int getConsumableIndex();
 
     public abstract List<Object[]> transform(List<Object[]> tuples);
+
+    /**
+     * Returns whether this transformer may run concurrently to other list transformers of subsequent levels.
+     * This requires that the transformer only reads and writes the tuple elements it owns, returns the given tuple list
+     * and executes queries only through the entity manager it is bound to via {@link #bindEntityManager(EntityManager)}.
+     *
+     * @return whether concurrent transformation is supported
+     * @since 1.6.21
+     */
+    public boolean isConcurrentTransformationSupported() {
+        return false;
+    }
+
+    /**
+     * Binds this transformer to the given entity manager, which is then used for the queries of subsequent transformations
+     * instead of the entity manager of the entity view query.
+     *
+     * @param entityManager The entity manager to use for queries
+     * @return whether the transformer was bound to the entity manager
+     * @since 1.6.21
+     */
+    public boolean bindEntityManager(EntityManager entityManager) {
+        return false;
+    }
 }
@@ -57,6 +57,13 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     protected CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     protected Query query;
 
+    private EntityManager entityManager;
+    private PreparedCorrelationQuery preparedValuesQuery;
+    private final PreparedCorrelationQuery[] preparedViewMacroQueries = new PreparedCorrelationQuery[2];
+    private BatchCorrelationMode viewMacroCorrelationMode;
+    private String viewMacroCorrelationRoot;
+    private CorrelatedSubqueryViewRootJpqlMacro viewMacro;
+
     public AbstractCorrelatedBatchTupleListTransformer(ExpressionFactory ef, Correlator correlator, ContainerAccumulator<?> containerAccumulator, ManagedViewTypeImplementor<?> viewRootType, ManagedViewTypeImplementor<?> embeddingViewType, Expression correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches, String[] indexFetches,
                                                        Expression indexExpression, Correlator indexCorrelator, boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, Limiter limiter, EntityViewConfiguration entityViewConfiguration) {
         super(ef, correlator, containerAccumulator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, indexFetches, indexExpression, indexCorrelator, viewRootIndex, embeddingViewIndex, tupleIndex, correlationBasisType, correlationBasisEntity, limiter, entityViewConfiguration);
@@ -65,6 +72,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         this.expectBatchCorrelationMode = entityViewConfiguration.getExpectBatchCorrelationValues(attributePath);
         this.valueIndex = correlator.getElementOffset();
         this.keyIndex = valueIndex + 1;
+        this.entityManager = entityViewConfiguration.getCriteriaBuilder().getEntityManager();
     }
 
     private String generateCorrelationParamName() {
@@ -112,7 +120,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             embeddingViewExpression = CORRELATION_KEY_ALIAS;
         }
 
-        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(queryBuilder.getEntityManager(), Object[].class);
+        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(entityManager, Object[].class);
         this.viewRootJpqlMacro = new CorrelatedSubqueryViewRootJpqlMacro(criteriaBuilder, optionalParameters, viewRootExpression != null, viewRootEntityClass, viewRootIdAttributePath, viewRootExpression);
         this.embeddingViewJpqlMacro = new CorrelatedSubqueryEmbeddingViewJpqlMacro(criteriaBuilder, optionalParameters, embeddingViewExpression != null, embeddingViewEntityClass, embeddingViewIdAttributePath, embeddingViewExpression, batchedIdValues, viewRootJpqlMacro);
         this.criteriaBuilder.registerMacro("view", new MutableViewJpqlMacro(correlationResult));
@@ -174,14 +182,80 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         return correlationBuilder.getCorrelationRoot();
     }
 
+    @Override
+    public boolean isConcurrentTransformationSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean bindEntityManager(EntityManager entityManager) {
+        if (this.entityManager != entityManager) {
+            // The prepared correlation queries belong to the previous entity manager, which is closed when binding a new one
+            this.entityManager = entityManager;
+            this.preparedValuesQuery = null;
+            this.preparedViewMacroQueries[0] = null;
+            this.preparedViewMacroQueries[1] = null;
+            this.viewMacroCorrelationMode = null;
+        }
+        return true;
+    }
+
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
         FixedArrayList correlationParams = new FixedArrayList(batchSize);
         // We have the correlation key on the first position if we do batching
         final int tupleOffset = (batchSize > 1 ? 1 : 0) + (indexCorrelator == null && indexExpression == null ? 0 : 1);
 
-        final String correlationRoot = applyAndGetCorrelationRoot(expectBatchCorrelationMode);
-        // Add select items so that macros are properly used and we can query usage
+        // When a streamed result is transformed window by window, we reuse the correlation queries prepared for a previous window
+        if (preparedValuesQuery != null) {
+            preparedValuesQuery.restore();
+            transformValues(tuples, correlationParams);
+        } else if (viewMacroCorrelationMode != null) {
+            if (viewMacroCorrelationMode == BatchCorrelationMode.VIEW_ROOTS) {
+                transformViewMacroAware(tuples, correlationParams, tupleOffset, viewMacroCorrelationRoot, viewMacro, viewMacroCorrelationMode, viewRootType, viewRootIndex);
+            } else {
+                transformViewMacroAware(tuples, correlationParams, tupleOffset, viewMacroCorrelationRoot, viewMacro, viewMacroCorrelationMode, embeddingViewType, embeddingViewIndex);
+            }
+        } else {
+            final String correlationRoot = applyAndGetCorrelationRoot(expectBatchCorrelationMode);
+            // Add select items so that macros are properly used and we can query usage
+            finishCriteriaBuilder(tupleOffset, correlationRoot);
+
+            // If a view macro is used, we have to decide whether we do batches for each view id or correlation param
+            if (embeddingViewJpqlMacro.usesViewMacroNonId() || !correlatesThis && embeddingViewJpqlMacro.usesViewMacro()) {
+                if (!(embeddingViewType instanceof ViewType<?>)) {
+                    throw new IllegalStateException("The use of EMBEDDING_VIEW in the correlation for '" + embeddingViewType.getJavaType().getName() + "." + attributePath.substring(attributePath.lastIndexOf('.') + 1) + "' is illegal because the embedding view type '" + embeddingViewType.getJavaType().getName() + "' does not declare a @IdMapping!");
+                }
+                viewMacroCorrelationMode = BatchCorrelationMode.EMBEDDING_VIEWS;
+                viewMacroCorrelationRoot = correlationRoot;
+                viewMacro = embeddingViewJpqlMacro;
+                transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, embeddingViewJpqlMacro, BatchCorrelationMode.EMBEDDING_VIEWS, embeddingViewType, embeddingViewIndex);
+            } else if (viewRootJpqlMacro.usesViewMacro()) {
+                if (!(viewRootType instanceof ViewType<?>)) {
+                    throw new IllegalStateException("The use of VIEW_ROOT in the correlation for '" + embeddingViewType.getJavaType().getName() + "." + attributePath.substring(attributePath.lastIndexOf('.') + 1) + "' is illegal because the view root type '" + viewRootType.getJavaType().getName() + "' does not declare a @IdMapping!");
+                }
+                viewMacroCorrelationMode = BatchCorrelationMode.VIEW_ROOTS;
+                viewMacroCorrelationRoot = correlationRoot;
+                viewMacro = viewRootJpqlMacro;
+                transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, viewRootJpqlMacro, BatchCorrelationMode.VIEW_ROOTS, viewRootType, viewRootIndex);
+            } else {
+                // If the expectation was wrong, we have to create a new criteria builder
+                if (batchSize > 1 && expectBatchCorrelationMode != BatchCorrelationMode.VALUES) {
+                    applyAndGetCorrelationRoot(BatchCorrelationMode.VALUES);
+                    finishCriteriaBuilder(tupleOffset, correlationRoot);
+                }
+                populateParameters(criteriaBuilder);
+                query = criteriaBuilder.getQuery();
+                preparedValuesQuery = new PreparedCorrelationQuery(viewRootJpqlMacro);
+                transformValues(tuples, correlationParams);
+            }
+        }
+
+        consumeTupleMacroViewValues(tuples);
+        return tuples;
+    }
+
+    private void finishCriteriaBuilder(int tupleOffset, String correlationRoot) {
         ObjectBuilder<?> objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, 0, tupleOffset, correlationRoot, embeddingViewJpqlMacro, true);
         if (batchSize > 1) {
             criteriaBuilder.select(correlationSelectExpression);
@@ -192,82 +266,51 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
                 criteriaBuilder.selectNew(new LateAdditionalObjectBuilder(objectBuilder, indexBuilder, false));
             }
         }
+    }
 
-        // If a view macro is used, we have to decide whether we do batches for each view id or correlation param
-        if (embeddingViewJpqlMacro.usesViewMacroNonId() || !correlatesThis && embeddingViewJpqlMacro.usesViewMacro()) {
-            if (!(embeddingViewType instanceof ViewType<?>)) {
-                throw new IllegalStateException("The use of EMBEDDING_VIEW in the correlation for '" + embeddingViewType.getJavaType().getName() + "." + attributePath.substring(attributePath.lastIndexOf('.') + 1) + "' is illegal because the embedding view type '" + embeddingViewType.getJavaType().getName() + "' does not declare a @IdMapping!");
-            }
-            transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, embeddingViewJpqlMacro, BatchCorrelationMode.EMBEDDING_VIEWS, embeddingViewType, embeddingViewIndex);
-        } else if (viewRootJpqlMacro.usesViewMacro()) {
-            if (!(viewRootType instanceof ViewType<?>)) {
-                throw new IllegalStateException("The use of VIEW_ROOT in the correlation for '" + embeddingViewType.getJavaType().getName() + "." + attributePath.substring(attributePath.lastIndexOf('.') + 1) + "' is illegal because the view root type '" + viewRootType.getJavaType().getName() + "' does not declare a @IdMapping!");
-            }
-            transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, viewRootJpqlMacro, BatchCorrelationMode.VIEW_ROOTS, viewRootType, viewRootIndex);
-        } else {
-            EntityManager em = criteriaBuilder.getEntityManager();
-            Iterator<Object[]> tupleListIter = tuples.iterator();
-            if (batchSize > 1) {
-                // If the expectation was wrong, we have to create a new criteria builder
-                if (expectBatchCorrelationMode != BatchCorrelationMode.VALUES) {
-                    applyAndGetCorrelationRoot(BatchCorrelationMode.VALUES);
-                    objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, 0, tupleOffset, correlationRoot, embeddingViewJpqlMacro, true);
-                    criteriaBuilder.select(correlationSelectExpression);
-                    if (indexCorrelator != null) {
-                        ObjectBuilder<?> indexBuilder = indexCorrelator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, 0, indexExpression, embeddingViewJpqlMacro, true);
-                        if (indexBuilder != null) {
-                            criteriaBuilder.selectNew(new LateAdditionalObjectBuilder(objectBuilder, indexBuilder, false));
-                        }
-                    }
-                }
-            }
-            populateParameters(criteriaBuilder);
-            query = criteriaBuilder.getQuery();
+    private void transformValues(List<Object[]> tuples, FixedArrayList correlationParams) {
+        EntityManager em = criteriaBuilder.getEntityManager();
+        Iterator<Object[]> tupleListIter = tuples.iterator();
+        Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
+        while (tupleListIter.hasNext()) {
+            Object[] tuple = tupleListIter.next();
+            Object correlationValue = tuple[startIndex];
 
-            Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
-            while (tupleListIter.hasNext()) {
-                Object[] tuple = tupleListIter.next();
-                Object correlationValue = tuple[startIndex];
+            TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
 
-                TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+            if (tupleIndexValue == null) {
+                tupleIndexValue = new TuplePromise(startIndex);
+                tupleIndexValue.add(tuple);
+                correlationValues.put(correlationValue, tupleIndexValue);
 
-                if (tupleIndexValue == null) {
-                    tupleIndexValue = new TuplePromise(startIndex);
-                    tupleIndexValue.add(tuple);
-                    correlationValues.put(correlationValue, tupleIndexValue);
+                // Can't correlate null
+                if (correlationValue != null) {
+                    if (correlationBasisEntity != null) {
+                        correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                    } else {
+                        correlationParams.add(correlationValue);
+                    }
 
-                    // Can't correlate null
-                    if (correlationValue != null) {
+                    if (batchSize == correlationParams.realSize()) {
+                        Object defaultKey;
                         if (correlationBasisEntity != null) {
-                            correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                            defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
                         } else {
-                            correlationParams.add(correlationValue);
-                        }
-
-                        if (batchSize == correlationParams.realSize()) {
-                            Object defaultKey;
-                            if (correlationBasisEntity != null) {
-                                defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
-                            } else {
-                                defaultKey = correlationParams.get(0);
-                            }
-                            batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
+                            defaultKey = correlationParams.get(0);
                         }
+                        batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
                     }
-                } else {
-                    tupleIndexValue.add(tuple);
                 }
+            } else {
+                tupleIndexValue.add(tuple);
             }
+        }
 
-            if (correlationParams.realSize() > 0) {
-                batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
-            }
-
-            fillDefaultValues(Collections.singletonMap(null, correlationValues));
+        if (correlationParams.realSize() > 0) {
+            batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
         }
 
-        consumeTupleMacroViewValues(tuples);
-        return tuples;
+        fillDefaultValues(Collections.singletonMap(null, correlationValues));
     }
 
     @Override
@@ -347,30 +390,9 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
 
         boolean batchCorrelationValues = !macro.usesViewMacro() && viewRoots.size() <= correlationValues.size();
         FixedArrayList viewRootIds = new FixedArrayList(batchSize);
+        macro = prepareViewMacroAwareQuery(batchCorrelationValues, tupleOffset, correlationRoot, macro, correlationMode);
 
         if (batchCorrelationValues) {
-            if (batchSize > 1) {
-                // If the expectation was wrong, we have to create a new criteria builder
-                if (expectBatchCorrelationMode != BatchCorrelationMode.VALUES) {
-                    applyAndGetCorrelationRoot(BatchCorrelationMode.VALUES);
-                    macro = BatchCorrelationMode.VIEW_ROOTS == correlationMode ? viewRootJpqlMacro : embeddingViewJpqlMacro;
-                    ObjectBuilder<?> objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, 0, tupleOffset, correlationRoot, embeddingViewJpqlMacro, true);
-                    criteriaBuilder.select(correlationSelectExpression);
-                    if (indexCorrelator != null) {
-                        ObjectBuilder<?> indexBuilder = indexCorrelator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, 0, indexExpression, embeddingViewJpqlMacro, true);
-                        if (indexBuilder != null) {
-                            criteriaBuilder.selectNew(new LateAdditionalObjectBuilder(objectBuilder, indexBuilder, false));
-                        }
-                    }
-                }
-                macro.addBatchPredicate(criteriaBuilder);
-            } else {
-                // We have to bind the view id value, otherwise we might get wrong results
-                macro.addIdParamPredicate(criteriaBuilder);
-            }
-            populateParameters(criteriaBuilder);
-            query = criteriaBuilder.getQuery();
-
             for (Map.Entry<Object, Map<Object, TuplePromise>> batchEntry : viewRoots.entrySet()) {
                 Map<Object, TuplePromise> batchValues = batchEntry.getValue();
                 for (Map.Entry<Object, TuplePromise> batchValueEntry : batchValues.entrySet()) {
@@ -400,28 +422,6 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
 
             fillDefaultValues(viewRoots);
         } else {
-            if (batchSize > 1) {
-                // If the expectation was wrong, we have to create a new criteria builder
-                if (expectBatchCorrelationMode != correlationMode) {
-                    applyAndGetCorrelationRoot(correlationMode);
-                    macro = BatchCorrelationMode.VIEW_ROOTS == correlationMode ? viewRootJpqlMacro : embeddingViewJpqlMacro;
-                    ObjectBuilder<?> objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, 0, tupleOffset, correlationRoot, embeddingViewJpqlMacro, true);
-                    criteriaBuilder.select(correlationSelectExpression);
-                    if (indexCorrelator != null) {
-                        ObjectBuilder<?> indexBuilder = indexCorrelator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, 0, indexExpression, embeddingViewJpqlMacro, true);
-                        if (indexBuilder != null) {
-                            criteriaBuilder.selectNew(new LateAdditionalObjectBuilder(objectBuilder, indexBuilder, false));
-                        }
-                    }
-                }
-                macro.addBatchPredicate(criteriaBuilder);
-            } else {
-                // We have to bind the view id value, otherwise we might get wrong results
-                macro.addIdParamPredicate(criteriaBuilder);
-            }
-            populateParameters(criteriaBuilder);
-            query = criteriaBuilder.getQuery();
-
             for (Map.Entry<Object, Map<Object, TuplePromise>> batchEntry : correlationValues.entrySet()) {
                 Map<Object, TuplePromise> batchValues = batchEntry.getValue();
                 for (Map.Entry<Object, TuplePromise> batchValueEntry : batchValues.entrySet()) {
@@ -452,6 +452,40 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         }
     }
 
+    private CorrelatedSubqueryViewRootJpqlMacro prepareViewMacroAwareQuery(boolean batchCorrelationValues, int tupleOffset, String correlationRoot, CorrelatedSubqueryViewRootJpqlMacro macro, BatchCorrelationMode correlationMode) {
+        int preparedIndex = batchCorrelationValues ? 0 : 1;
+        PreparedCorrelationQuery preparedQuery = preparedViewMacroQueries[preparedIndex];
+        if (preparedQuery != null) {
+            preparedQuery.restore();
+            return preparedQuery.macro;
+        }
+
+        // The criteria builder can only be used as is if it wasn't prepared for the other kind of batching for a previous window
+        boolean reusable = preparedViewMacroQueries[1 - preparedIndex] == null;
+        if (batchSize > 1) {
+            BatchCorrelationMode batchCorrelationMode = batchCorrelationValues ? BatchCorrelationMode.VALUES : correlationMode;
+            // If the expectation was wrong, we have to create a new criteria builder
+            if (!reusable || expectBatchCorrelationMode != batchCorrelationMode) {
+                applyAndGetCorrelationRoot(batchCorrelationMode);
+                finishCriteriaBuilder(tupleOffset, correlationRoot);
+                macro = BatchCorrelationMode.VIEW_ROOTS == correlationMode ? viewRootJpqlMacro : embeddingViewJpqlMacro;
+            }
+            macro.addBatchPredicate(criteriaBuilder);
+        } else {
+            if (!reusable) {
+                applyAndGetCorrelationRoot(expectBatchCorrelationMode);
+                finishCriteriaBuilder(tupleOffset, correlationRoot);
+                macro = BatchCorrelationMode.VIEW_ROOTS == correlationMode ? viewRootJpqlMacro : embeddingViewJpqlMacro;
+            }
+            // We have to bind the view id value, otherwise we might get wrong results
+            macro.addIdParamPredicate(criteriaBuilder);
+        }
+        populateParameters(criteriaBuilder);
+        query = criteriaBuilder.getQuery();
+        preparedViewMacroQueries[preparedIndex] = new PreparedCorrelationQuery(macro);
+        return macro;
+    }
+
     private void batchLoad(Map<Object, TuplePromise> correlationValues, FixedArrayList batchParameters, FixedArrayList viewRootIds, Object defaultKey, CorrelatedSubqueryViewRootJpqlMacro macro, BatchCorrelationMode batchCorrelationMode) {
         batchParameters.clearRest();
         if (criteriaBuilder.containsParameter(correlationParamName)) {
@@ -520,4 +554,41 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         }
     }
 
+    /**
+     * The state of a prepared correlation query that can be restored to reuse the query for further tuple lists.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private final class PreparedCorrelationQuery {
+
+        private final String correlationParamName;
+        private final String correlationSelectExpression;
+        private final CriteriaBuilder<?> criteriaBuilder;
+        private final CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
+        private final CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
+        private final Query query;
+        private final CorrelatedSubqueryViewRootJpqlMacro macro;
+
+        public PreparedCorrelationQuery(CorrelatedSubqueryViewRootJpqlMacro macro) {
+            AbstractCorrelatedBatchTupleListTransformer transformer = AbstractCorrelatedBatchTupleListTransformer.this;
+            this.correlationParamName = transformer.correlationParamName;
+            this.correlationSelectExpression = transformer.correlationSelectExpression;
+            this.criteriaBuilder = transformer.criteriaBuilder;
+            this.viewRootJpqlMacro = transformer.viewRootJpqlMacro;
+            this.embeddingViewJpqlMacro = transformer.embeddingViewJpqlMacro;
+            this.query = transformer.query;
+            this.macro = macro;
+        }
+
+        public void restore() {
+            AbstractCorrelatedBatchTupleListTransformer transformer = AbstractCorrelatedBatchTupleListTransformer.this;
+            transformer.correlationParamName = correlationParamName;
+            transformer.correlationSelectExpression = correlationSelectExpression;
+            transformer.criteriaBuilder = criteriaBuilder;
+            transformer.viewRootJpqlMacro = viewRootJpqlMacro;
+            transformer.embeddingViewJpqlMacro = embeddingViewJpqlMacro;
+            transformer.query = query;
+        }
+    }
 }
@@ -8,6 +8,7 @@ package com.blazebit.persistence.view.impl.proxy;
 import com.blazebit.lang.StringUtils;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.SerializableEntityViewManager;
@@ -127,6 +128,7 @@ public class ProxyFactory {
     private final ClassPool pool;
     private final boolean unsafeDisabled;
     private final boolean strictCascadingCheck;
+    private final boolean runtimeGenerationDisabled;
     private final PackageOpener packageOpener;
 
     static {
@@ -156,11 +158,20 @@ public class ProxyFactory {
     }
 
     public ProxyFactory(boolean unsafeDisabled, boolean strictCascadingCheck, PackageOpener packageOpener) {
-        ClassPool pool = new ClassPool((ClassPool) null);
-        pool.appendSystemPath();
-        this.pool = pool;
-        this.unsafeDisabled = unsafeDisabled;
+        this(unsafeDisabled, strictCascadingCheck, false, packageOpener);
+    }
+
+    public ProxyFactory(boolean unsafeDisabled, boolean strictCascadingCheck, boolean runtimeGenerationDisabled, PackageOpener packageOpener) {
+        if (runtimeGenerationDisabled) {
+            this.pool = null;
+        } else {
+            ClassPool pool = new ClassPool((ClassPool) null);
+            pool.appendSystemPath();
+            this.pool = pool;
+        }
+        this.unsafeDisabled = unsafeDisabled || runtimeGenerationDisabled;
         this.strictCascadingCheck = strictCascadingCheck;
+        this.runtimeGenerationDisabled = runtimeGenerationDisabled;
         this.packageOpener = packageOpener;
     }
 
@@ -214,6 +225,11 @@ public class ProxyFactory {
                 }
             }
         } catch (ClassNotFoundException e) {
+            if (runtimeGenerationDisabled) {
+                errors.add("The static implementation class '" + implementationClassName + "' for the entity view type '" + javaType.getName() + "' could not be found but the runtime generation of entity view implementations is disabled! " +
+                        "Make sure the annotation processor runs for the entity view or set the configuration property " + ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED + " to false");
+                return;
+            }
             LOG.fine("Could not load static implementation class '" + implementationClassName + "'");
             // Ignore
             return;
@@ -249,6 +265,9 @@ public class ProxyFactory {
             synchronized (proxyLock) {
                 proxyClass = (Class<? extends T>) classes.get(clazz);
                 if (proxyClass == null) {
+                    if (runtimeGenerationDisabled) {
+                        throw new IllegalStateException("No static implementation class is available for the entity view type '" + clazz.getName() + "' but the runtime generation of entity view implementations is disabled via the configuration property " + ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED);
+                    }
                     proxyClass = createProxyClass(entityViewManager, viewType, unsafe);
                     classes.put(clazz, proxyClass);
                     proxyClassesToViewClasses.put(proxyClass, clazz);
@@ -69,6 +69,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private final boolean remove;
     private final Class<?> entityViewClass;
     private final Object object;
+    private final Iterable<?> objects;
     private final Object entity;
     private final TransactionAccess transactionAccess;
     private final InitialStateResetter initialStateResetter;
@@ -79,6 +80,15 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private List<PostFlushDeleter> orphanRemovalDeleters = new ArrayList<>();
 
     public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Object entity) {
+        this(evm, em, forceFull, forceEntity, remove, entityViewClass, object, null, entity);
+    }
+
+    public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, Iterable<?> objects) {
+        // Every object is flushed according to its flush strategy, only objects that are flushed to entities are loaded together
+        this(evm, em, forceFull, false, false, null, null, objects, null);
+    }
+
+    private DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Iterable<?> objects, Object entity) {
         this.evm = evm;
         this.em = em;
         this.forceFull = forceFull;
@@ -87,6 +97,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
         this.remove = remove;
         this.entityViewClass = entityViewClass;
         this.object = object;
+        this.objects = objects;
         this.entity = entity;
 
         if (!transactionAccess.isActive()) {
@@ -675,6 +686,8 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
             } else {
                 evm.remove(this, entityViewClass, object);
             }
+        } else if (objects != null) {
+            evm.updateAll(this, objects);
         } else {
             if (entity == null) {
                 evm.update(this, object);
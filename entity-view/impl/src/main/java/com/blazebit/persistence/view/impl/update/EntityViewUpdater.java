@@ -12,6 +12,8 @@ import com.blazebit.persistence.view.impl.update.flush.DirtyAttributeFlusher;
 import com.blazebit.persistence.view.impl.update.flush.FetchGraphNode;
 import com.blazebit.persistence.view.spi.type.EntityViewProxy;
 
+import java.util.List;
+
 /**
  *
  * @author Christian Beikov
@@ -29,6 +31,17 @@ public interface EntityViewUpdater extends UpdateQueryFactory {
 
     public Object executeUpdate(UpdateContext context, Object entity, MutableStateTrackable updatableProxy);
 
+    /**
+     * Replaces the given updatable proxies with their entities, which are loaded with a single query.
+     * An element is replaced with <code>null</code> if the entity wasn't found.
+     *
+     * @param context The update context
+     * @param updatableProxies The updatable proxies to replace
+     * @return <code>false</code> if entities can't be loaded for the view type or the view type is flushed via queries, in which case the list is not modified
+     * @since 1.6.21
+     */
+    public boolean loadEntities(UpdateContext context, List<Object> updatableProxies);
+
     public Object executePersist(UpdateContext context, MutableStateTrackable updatableProxy);
 
     public Object executePersist(UpdateContext context, Object entity, MutableStateTrackable updatableProxy);
@@ -623,7 +623,11 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy) {
-        return update(context, null, updatableProxy);
+        if (update(context, null, updatableProxy)) {
+            evictResultCache(context);
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -631,7 +635,9 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         if (entity == null) {
             throw new IllegalArgumentException("Illegal null entity!");
         }
-        update(context, entity, updatableProxy);
+        if (update(context, entity, updatableProxy)) {
+            evictResultCache(context);
+        }
         return entity;
     }
 
@@ -680,6 +686,20 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         return query;
     }
 
+    @Override
+    public boolean loadEntities(UpdateContext context, List<Object> updatableProxies) {
+        // Only views with an id can be loaded and only views that are flushed to entities need them
+        if (idFlusher == null || flushStrategy != FlushStrategy.ENTITY && !context.isForceEntity()) {
+            return false;
+        }
+        List<Object> ids = new ArrayList<>(updatableProxies.size());
+        for (int i = 0; i < updatableProxies.size(); i++) {
+            ids.add(((MutableStateTrackable) updatableProxies.get(i)).$$_getId());
+        }
+        fullEntityLoader.toEntities(context, updatableProxies, ids);
+        return true;
+    }
+
     private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy) {
         if (!rootUpdateAllowed && entity == null) {
             throw new IllegalArgumentException("Updating instances of the view type [" + updatableProxy.getClass().getName() + "] is not allowed because no entity id is known!");
@@ -719,6 +739,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
     @Override
     public Object executePersist(UpdateContext context, Object entity, MutableStateTrackable updatableProxy) {
         fullFlusher.flushEntity(context, entity, updatableProxy, updatableProxy, updatableProxy, null);
+        evictResultCache(context);
         return entity;
     }
 
@@ -728,11 +749,23 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             // TODO: pre-load cascade deleted entity graph
         }
         fullFlusher.remove(context, null, entityView, entityView);
+        evictResultCache(context);
     }
 
     @Override
     public void remove(UpdateContext context, Object viewId) {
         fullFlusher.remove(context, viewId);
+        evictResultCache(context);
+    }
+
+    private void evictResultCache(UpdateContext context) {
+        EntityViewManagerImpl evm = context.getEntityViewManager();
+        Set<Class<?>> entityClasses = evm.getResultCacheEntityClasses(managedViewType);
+        evm.evictResultCache(entityClasses);
+        InitialStateResetter initialStateResetter = context.getInitialStateResetter();
+        if (initialStateResetter != null) {
+            initialStateResetter.addResultCacheEviction(entityClasses);
+        }
     }
 
     @SuppressWarnings({"unchecked", "checkstyle:methodlength"})
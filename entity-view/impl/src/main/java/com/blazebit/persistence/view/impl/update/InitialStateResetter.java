@@ -14,6 +14,7 @@ import com.blazebit.persistence.view.spi.type.EntityViewProxy;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -39,4 +40,6 @@ public interface InitialStateResetter {
     public void addVersionedView(MutableStateTrackable updatedView, Object oldVersion);
 
     public void addState(Object[] reference, Object[] copy);
+
+    public void addResultCacheEviction(Set<Class<?>> entityClasses);
 }
@@ -23,9 +23,11 @@ import javax.transaction.Synchronization;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -43,6 +45,7 @@ public class ResetInitialStateSynchronization implements Synchronization, Initia
     private List<Object> updatedViews;
     private List<Object> removedViews;
     private List<Object> versionedViews;
+    private Set<Class<?>> resultCacheEvictions;
 
     public ResetInitialStateSynchronization(UpdateContext updateContext, ListenerManager listenerManager) {
         this.updateContext = updateContext;
@@ -158,6 +161,14 @@ public class ResetInitialStateSynchronization implements Synchronization, Initia
         coalescedInitialStates.add(copy);
     }
 
+    @Override
+    public void addResultCacheEviction(Set<Class<?>> entityClasses) {
+        if (resultCacheEvictions == null) {
+            resultCacheEvictions = new HashSet<>();
+        }
+        resultCacheEvictions.addAll(entityClasses);
+    }
+
     @Override
     public void beforeCompletion() {
     }
@@ -165,6 +176,10 @@ public class ResetInitialStateSynchronization implements Synchronization, Initia
     @Override
     @SuppressWarnings("unchecked")
     public void afterCompletion(int status) {
+        if (resultCacheEvictions != null) {
+            // Concurrent transactions could have cached the old state until now, so we have to evict again after completion
+            updateContext.getEntityViewManager().evictResultCache(resultCacheEvictions);
+        }
         if (status != Status.STATUS_COMMITTED) {
             Map<EntityViewProxy, ViewTransition> objects;
             if (listenerManager.hasPostRollbackListeners()) {
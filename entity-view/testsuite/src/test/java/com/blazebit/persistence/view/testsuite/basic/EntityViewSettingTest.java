@@ -197,6 +197,43 @@ public class EntityViewSettingTest extends AbstractEntityViewTest {
         assertNull(view.getOwner());
     }
 
+    @Test
+    public void testEntityViewFetchesOmitUnfetchedSelectItems() {
+        EntityViewManager evm = build(DocumentWithEntityView.class, PersonView.class);
+
+        EntityViewSetting<DocumentWithEntityView, CriteriaBuilder<DocumentWithEntityView>> setting = EntityViewSetting.create(DocumentWithEntityView.class);
+        setting.fetch("name");
+
+        CriteriaBuilder<DocumentWithEntityView> criteriaBuilder = evm.applySetting(setting, cbf.create(em, Document.class).where("name").eq("MyTest"));
+        assertFalse(criteriaBuilder.getQueryString().contains("NULL"));
+        DocumentWithEntityView view = criteriaBuilder.getSingleResult();
+        assertEquals("MyTest", view.getName());
+        assertNotNull(view.getId());
+        assertNull(view.getOwner());
+        assertNull(view.getFirstContact());
+        assertEquals(0L, view.getContactCount());
+    }
+
+    @Test
+    public void testPaginatedEntityViewFetchesOmitUnfetchedSelectItems() {
+        EntityViewManager evm = build(DocumentWithEntityView.class, PersonView.class);
+
+        EntityViewSetting<DocumentWithEntityView, PaginatedCriteriaBuilder<DocumentWithEntityView>> setting = EntityViewSetting.create(DocumentWithEntityView.class, 0, 2);
+        setting.fetch("name");
+        setting.addAttributeSorter("name", Sorters.ascending());
+        setting.addAttributeSorter("id", Sorters.ascending());
+
+        PaginatedCriteriaBuilder<DocumentWithEntityView> paginatedCb = evm.applySetting(setting, cbf.create(em, Document.class));
+        assertFalse(paginatedCb.getQueryString().contains("NULL"));
+        PagedList<DocumentWithEntityView> result = paginatedCb.withKeysetExtraction(true).getResultList();
+        assertEquals(2, result.size());
+        assertEquals(3, result.getTotalSize());
+        assertEquals("MyTest", result.get(0).getName());
+        assertEquals("NoContacts", result.get(1).getName());
+        assertNull(result.get(0).getOwner());
+        assertNotNull(result.getKeysetPage().getHighest());
+    }
+
     @Test
     @Category({ NoMySQLOld.class, NoHibernate42.class, NoHibernate43.class, NoHibernate50.class, NoHibernate51.class, NoEclipselink.class, NoDatanucleus.class, NoOpenJPA.class })
     // We need a left entity join for this so Hibernate < 5.1 can't be used
@@ -0,0 +1,81 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.DocumentWithEntityView;
+import com.blazebit.persistence.view.testsuite.basic.model.FetchesDocumentView1;
+import com.blazebit.persistence.view.testsuite.basic.model.FetchesPersonView1;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonView;
+import com.blazebit.persistence.view.testsuite.basic.model.UpdatableSaveAllDocumentView;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ParallelEagerLoadingTest extends AbstractEntityViewTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("pers1");
+                Document doc1 = new Document("doc1", p1);
+                em.persist(p1);
+                em.persist(doc1);
+            }
+        });
+    }
+
+    @Test
+    public void testParallelEagerLoading() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING, "true");
+        cfg.setProperty(ConfigurationProperties.UPDATER_EAGER_LOADING, "true");
+        cfg.setProperty(ConfigurationProperties.EAGER_LOADING_PARALLELISM, "0");
+        cfg.addEntityView(DocumentWithEntityView.class);
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(FetchesDocumentView1.class);
+        cfg.addEntityView(FetchesPersonView1.class);
+        cfg.addEntityView(UpdatableSaveAllDocumentView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        List<DocumentWithEntityView> list = evm.applySetting(EntityViewSetting.create(DocumentWithEntityView.class), cbf.create(em, Document.class)).getResultList();
+        Assert.assertEquals(1, list.size());
+        Assert.assertEquals("doc1", list.get(0).getName());
+    }
+
+    @Test
+    public void testInvalidParallelism() {
+        for (String parallelism : new String[]{ "-1", "abc" }) {
+            EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+            cfg.setProperty(ConfigurationProperties.EAGER_LOADING_PARALLELISM, parallelism);
+            cfg.addEntityView(PersonView.class);
+            try {
+                cfg.createEntityViewManager(cbf);
+                Assert.fail("Expected an invalid parallelism to be rejected: " + parallelism);
+            } catch (IllegalArgumentException ex) {
+                Assert.assertTrue(ex.getMessage().contains(ConfigurationProperties.EAGER_LOADING_PARALLELISM));
+            }
+        }
+    }
+}
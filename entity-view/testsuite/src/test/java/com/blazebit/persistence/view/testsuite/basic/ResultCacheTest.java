@@ -0,0 +1,222 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.AsyncQueryExecution;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.spi.EntityViewResultCache;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.ResultCacheDocumentView;
+import com.blazebit.persistence.view.testsuite.basic.model.ResultCacheDocumentWithDateView;
+import com.blazebit.persistence.view.testsuite.basic.model.UpdatableResultCacheDocumentView;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ResultCacheTest extends AbstractEntityViewTest {
+
+    private Document doc1;
+    private Document doc2;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                Document doc1 = new Document("doc1");
+                doc1.setOwner(o1);
+                doc1.setLastModified(new Date());
+                em.persist(doc1);
+
+                Document doc2 = new Document("doc2");
+                doc2.setOwner(o1);
+                em.persist(doc2);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        doc1 = cbf.create(em, Document.class).where("name").eq("doc1").getSingleResult();
+        doc2 = cbf.create(em, Document.class).where("name").eq("doc2").getSingleResult();
+        build(ResultCacheDocumentView.class, ResultCacheDocumentWithDateView.class, UpdatableResultCacheDocumentView.class);
+        evm.getService(EntityViewResultCache.class).clear();
+    }
+
+    @Test
+    public void testResultListIsCached() {
+        List<ResultCacheDocumentView> results = getResultList();
+        assertEquals(2, results.size());
+        assertEquals("doc1", results.get(0).getName());
+        assertEquals("Karl1", results.get(0).getOwnerName());
+
+        // Changes that are not done through the entity view manager are not visible until the entry expires
+        renameDocument(doc1.getId(), "newDoc1");
+        assertEquals("doc1", getResultList().get(0).getName());
+
+        evm.getService(EntityViewResultCache.class).clear();
+        assertEquals("newDoc1", getResultList().get(0).getName());
+        renameDocument(doc1.getId(), "doc1");
+    }
+
+    @Test
+    public void testCachedResultsAreNotShared() {
+        List<ResultCacheDocumentView> first = getResultList();
+        List<ResultCacheDocumentView> second = getResultList();
+        assertNotSame(first, second);
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(first.get(0).getName(), second.get(0).getName());
+        assertEquals(first.get(0).getOwnerName(), second.get(0).getOwnerName());
+    }
+
+    @Test
+    public void testSingleResultIsCached() {
+        EntityViewSetting<ResultCacheDocumentView, CriteriaBuilder<ResultCacheDocumentView>> setting = EntityViewSetting.create(ResultCacheDocumentView.class);
+        setting.setProperty(ConfigurationProperties.RESULT_CACHE, true);
+        CriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d").where("d.id").eq(doc1.getId());
+        assertEquals("doc1", evm.applySetting(setting, cb).getSingleResult().getName());
+
+        renameDocument(doc1.getId(), "newDoc1");
+        cb = cbf.create(em, Document.class, "d").where("d.id").eq(doc1.getId());
+        assertEquals("doc1", evm.applySetting(setting, cb).getSingleResult().getName());
+        renameDocument(doc1.getId(), "doc1");
+    }
+
+    @Test
+    public void testAsyncResultsAreCached() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("doc1", AsyncQueryExecution.getResultList(executor, emf, new ResultListQueryBuilderFactory()).get().get(0).getName());
+
+            renameDocument(doc1.getId(), "newDoc1");
+            // The execution uses its own entity manager, but the result cache is shared through the entity view manager
+            assertEquals("doc1", AsyncQueryExecution.getResultList(executor, emf, new ResultListQueryBuilderFactory()).get().get(0).getName());
+            assertEquals("doc1", getResultList().get(0).getName());
+            renameDocument(doc1.getId(), "doc1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResultsWithMutableValuesAreNotCached() {
+        EntityViewSetting<ResultCacheDocumentWithDateView, CriteriaBuilder<ResultCacheDocumentWithDateView>> setting = EntityViewSetting.create(ResultCacheDocumentWithDateView.class);
+        setting.setProperty(ConfigurationProperties.RESULT_CACHE, true);
+        CriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d").where("d.id").eq(doc1.getId());
+        assertEquals("doc1", evm.applySetting(setting, cb).getSingleResult().getName());
+
+        renameDocument(doc1.getId(), "newDoc1");
+        cb = cbf.create(em, Document.class, "d").where("d.id").eq(doc1.getId());
+        assertEquals("newDoc1", evm.applySetting(setting, cb).getSingleResult().getName());
+        renameDocument(doc1.getId(), "doc1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.RESULT_CACHE_MAX_SIZE, "abc");
+        cfg.addEntityView(ResultCacheDocumentView.class);
+        cfg.createEntityViewManager(cbf);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimeToLive() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.RESULT_CACHE_TTL, "-1");
+        cfg.addEntityView(ResultCacheDocumentView.class);
+        cfg.createEntityViewManager(cbf);
+    }
+
+    @Test
+    public void testParametersArePartOfTheKey() {
+        EntityViewSetting<ResultCacheDocumentView, CriteriaBuilder<ResultCacheDocumentView>> setting = EntityViewSetting.create(ResultCacheDocumentView.class);
+        setting.setProperty(ConfigurationProperties.RESULT_CACHE, true);
+
+        assertEquals("doc1", evm.find(em, setting, doc1.getId()).getName());
+        assertEquals("doc2", evm.find(em, setting, doc2.getId()).getName());
+        assertEquals("doc1", evm.find(em, setting, doc1.getId()).getName());
+    }
+
+    @Test
+    public void testSaveEvictsCachedResults() {
+        assertEquals("doc1", getResultList().get(0).getName());
+
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableResultCacheDocumentView view = evm.find(em, UpdatableResultCacheDocumentView.class, doc1.getId());
+                view.setName("newDoc1");
+                evm.save(em, view);
+            }
+        });
+        assertEquals("newDoc1", getResultList().get(0).getName());
+        renameDocument(doc1.getId(), "doc1");
+    }
+
+    @Test
+    public void testResultCacheIsNotSupportedForUpdatableViews() {
+        EntityViewSetting<UpdatableResultCacheDocumentView, CriteriaBuilder<UpdatableResultCacheDocumentView>> setting = EntityViewSetting.create(UpdatableResultCacheDocumentView.class);
+        setting.setProperty(ConfigurationProperties.RESULT_CACHE, true);
+        try {
+            evm.applySetting(setting, cbf.create(em, Document.class));
+            fail("Expected failure");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    private List<ResultCacheDocumentView> getResultList() {
+        return new ResultListQueryBuilderFactory().create(em).getResultList();
+    }
+
+    private class ResultListQueryBuilderFactory implements AsyncQueryExecution.QueryBuilderFactory<CriteriaBuilder<ResultCacheDocumentView>> {
+        @Override
+        public CriteriaBuilder<ResultCacheDocumentView> create(EntityManager entityManager) {
+            EntityViewSetting<ResultCacheDocumentView, CriteriaBuilder<ResultCacheDocumentView>> setting = EntityViewSetting.create(ResultCacheDocumentView.class);
+            setting.setProperty(ConfigurationProperties.RESULT_CACHE, true);
+            CriteriaBuilder<Document> cb = cbf.create(entityManager, Document.class, "d").orderByAsc("d.id");
+            return evm.applySetting(setting, cb);
+        }
+    }
+
+    private void renameDocument(final Long id, final String name) {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Document d SET d.name = :name WHERE d.id = :id")
+                        .setParameter("name", name)
+                        .setParameter("id", id)
+                        .executeUpdate();
+            }
+        });
+    }
+}
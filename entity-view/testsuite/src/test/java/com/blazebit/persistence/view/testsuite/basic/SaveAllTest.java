@@ -0,0 +1,197 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.spi.EntityViewMapping;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.UpdatableSaveAllDocumentView;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class SaveAllTest extends AbstractEntityViewTest {
+
+    private Document doc1;
+    private Document doc2;
+    private Document doc3;
+
+    @Before
+    public void setUp() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                doc1 = new Document("doc1", o1);
+                doc2 = new Document("doc2", o1);
+                doc3 = new Document("doc3", o1);
+                doc1.setVersion(1L);
+                doc2.setVersion(1L);
+                doc3.setVersion(1L);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+        build(FlushStrategy.QUERY);
+    }
+
+    private void build(FlushStrategy flushStrategy) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(UpdatableSaveAllDocumentView.class);
+        for (EntityViewMapping mapping : cfg.getEntityViewMappings()) {
+            mapping.setVersionAttribute(mapping.getAttributes().get("version"));
+            mapping.setFlushStrategy(flushStrategy);
+        }
+        build(cfg);
+    }
+
+    @Test
+    public void testSaveAllWithDifferentDirtyAttributes() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableSaveAllDocumentView view1 = evm.find(em, UpdatableSaveAllDocumentView.class, doc1.getId());
+                UpdatableSaveAllDocumentView view2 = evm.find(em, UpdatableSaveAllDocumentView.class, doc2.getId());
+                UpdatableSaveAllDocumentView view3 = evm.find(em, UpdatableSaveAllDocumentView.class, doc3.getId());
+                view1.setName("newDoc1");
+                view2.setAge(10L);
+                view3.setName("newDoc3");
+                evm.saveAll(em, Arrays.asList(view1, view2, view3));
+            }
+        });
+
+        assertDocument(doc1.getId(), "newDoc1", 0L, 2L);
+        assertDocument(doc2.getId(), "doc2", 10L, 2L);
+        assertDocument(doc3.getId(), "newDoc3", 0L, 2L);
+    }
+
+    @Test
+    public void testSaveAllWithQueryFlushStrategyDoesNotLoadEntities() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableSaveAllDocumentView view1 = evm.find(em, UpdatableSaveAllDocumentView.class, doc1.getId());
+                UpdatableSaveAllDocumentView view2 = evm.find(em, UpdatableSaveAllDocumentView.class, doc2.getId());
+                view1.setName("newDoc1");
+                view2.setAge(10L);
+                evm.saveAll(em, Arrays.asList(view1, view2));
+                // The views are flushed through update queries, so the entities are not loaded
+                PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+                assertFalse(persistenceUnitUtil.isLoaded(em.getReference(Document.class, doc1.getId())));
+                assertFalse(persistenceUnitUtil.isLoaded(em.getReference(Document.class, doc2.getId())));
+                assertEquals("newDoc1", em.find(Document.class, doc1.getId()).getName());
+                assertEquals(10L, em.find(Document.class, doc2.getId()).getAge());
+            }
+        });
+
+        assertDocument(doc1.getId(), "newDoc1", 0L, 2L);
+        assertDocument(doc2.getId(), "doc2", 10L, 2L);
+    }
+
+    @Test
+    public void testSaveAllWithEntityFlushStrategy() {
+        build(FlushStrategy.ENTITY);
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableSaveAllDocumentView view1 = evm.find(em, UpdatableSaveAllDocumentView.class, doc1.getId());
+                UpdatableSaveAllDocumentView view2 = evm.find(em, UpdatableSaveAllDocumentView.class, doc2.getId());
+                UpdatableSaveAllDocumentView view3 = evm.find(em, UpdatableSaveAllDocumentView.class, doc3.getId());
+                view1.setName("newDoc1");
+                view2.setAge(10L);
+                evm.saveAll(em, Arrays.asList(view1, view2, view3));
+                // The views are flushed to the loaded entities
+                PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+                assertTrue(persistenceUnitUtil.isLoaded(em.getReference(Document.class, doc1.getId())));
+                assertEquals("newDoc1", em.find(Document.class, doc1.getId()).getName());
+                // The entity manager is flushed at the end of the operation
+                String name = em.createQuery("SELECT d.name FROM Document d WHERE d.id = :id", String.class)
+                        .setParameter("id", doc1.getId())
+                        .setFlushMode(FlushModeType.COMMIT)
+                        .getSingleResult();
+                assertEquals("newDoc1", name);
+            }
+        });
+
+        assertDocument(doc1.getId(), "newDoc1", 0L, 2L);
+        assertDocument(doc2.getId(), "doc2", 10L, 2L);
+        assertDocument(doc3.getId(), "doc3", 0L, 1L);
+    }
+
+    @Test
+    public void testSaveAllWithFlushOperationBuilder() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableSaveAllDocumentView view1 = evm.find(em, UpdatableSaveAllDocumentView.class, doc1.getId());
+                UpdatableSaveAllDocumentView view2 = evm.find(em, UpdatableSaveAllDocumentView.class, doc2.getId());
+                view1.setName("newDoc1");
+                view2.setAge(10L);
+                evm.saveFullAllWith(em, Arrays.asList(view1, view2)).flush();
+            }
+        });
+
+        assertDocument(doc1.getId(), "newDoc1", 0L, 2L);
+        assertDocument(doc2.getId(), "doc2", 10L, 2L);
+    }
+
+    @Test
+    public void testSaveAllChecksVersionOfEveryView() {
+        try {
+            transactional(new TxVoidWork() {
+                @Override
+                public void work(EntityManager em) {
+                    UpdatableSaveAllDocumentView view1 = evm.find(em, UpdatableSaveAllDocumentView.class, doc1.getId());
+                    UpdatableSaveAllDocumentView view2 = evm.find(em, UpdatableSaveAllDocumentView.class, doc2.getId());
+                    view1.setName("newDoc1");
+                    view2.setName("newDoc2");
+                    em.createQuery("UPDATE Document d SET d.version = d.version + 1 WHERE d.id = :id")
+                            .setParameter("id", doc2.getId())
+                            .executeUpdate();
+                    evm.saveAll(em, Arrays.asList(view1, view2));
+                }
+            });
+            fail("Expected optimistic lock failure");
+        } catch (OptimisticLockException ex) {
+            // Expected
+        }
+
+        assertDocument(doc1.getId(), "doc1", 0L, 1L);
+        assertDocument(doc2.getId(), "doc2", 0L, 1L);
+    }
+
+    private void assertDocument(Long id, String name, long age, long version) {
+        em.clear();
+        Document document = em.find(Document.class, id);
+        assertEquals(name, document.getName());
+        assertEquals(age, document.getAge());
+        assertEquals(version, document.getVersion().longValue());
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.UpdatableEntityView;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@UpdatableEntityView
+@EntityView(Document.class)
+public interface UpdatableResultCacheDocumentView extends IdHolderView<Long> {
+
+    String getName();
+
+    void setName(String name);
+}
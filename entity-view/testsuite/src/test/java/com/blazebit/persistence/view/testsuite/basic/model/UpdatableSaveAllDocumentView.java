@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.UpdatableEntityView;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+@UpdatableEntityView
+@EntityView(Document.class)
+public interface UpdatableSaveAllDocumentView extends IdHolderView<Long> {
+
+    Long getVersion();
+
+    String getName();
+
+    void setName(String name);
+
+    long getAge();
+
+    void setAge(long age);
+}
@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.collections.subview;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.collections.entity.simple.DocumentForCollections;
+import com.blazebit.persistence.view.testsuite.collections.entity.simple.PersonForCollections;
+import com.blazebit.persistence.view.testsuite.collections.subview.model.SubviewDocumentListMapSetView;
+import com.blazebit.persistence.view.testsuite.collections.subview.model.SubviewPersonForCollectionsView;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.blazebit.persistence.view.testsuite.collections.subview.SubviewAssert.assertSubviewEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class StreamingCollectionsTest extends AbstractEntityViewTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[]{
+            DocumentForCollections.class,
+            PersonForCollections.class
+        };
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                for (int i = 0; i < 3; i++) {
+                    DocumentForCollections doc = new DocumentForCollections("doc" + i);
+                    PersonForCollections p1 = new PersonForCollections("pers" + i + "_1");
+                    PersonForCollections p2 = new PersonForCollections("pers" + i + "_2");
+                    p1.setPartnerDocument(doc);
+                    p2.setPartnerDocument(doc);
+                    doc.setOwner(p1);
+                    doc.getContacts().put(1, p1);
+                    doc.getContacts().put(2, p2);
+
+                    em.persist(p1);
+                    em.persist(p2);
+
+                    doc.getPartners().add(p1);
+                    doc.getPartners().add(p2);
+                    doc.getPersonList().add(p1);
+                    doc.getPersonList().add(p2);
+
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testStreamWithDefaultWindowSize() {
+        assertStreamEqualsList(EntityViewSetting.create(SubviewDocumentListMapSetView.class));
+    }
+
+    @Test
+    public void testStreamWithSmallWindowSize() {
+        EntityViewSetting<SubviewDocumentListMapSetView, CriteriaBuilder<SubviewDocumentListMapSetView>> setting = EntityViewSetting.create(SubviewDocumentListMapSetView.class);
+        setting.setProperty(ConfigurationProperties.STREAMING_WINDOW_SIZE, 2);
+        assertStreamEqualsList(setting);
+    }
+
+    @Test
+    public void testStreamUnorderedWithSmallWindowSize() {
+        EntityViewManager evm = build(
+                SubviewDocumentListMapSetView.class,
+                SubviewPersonForCollectionsView.class
+        );
+        EntityViewSetting<SubviewDocumentListMapSetView, CriteriaBuilder<SubviewDocumentListMapSetView>> setting = EntityViewSetting.create(SubviewDocumentListMapSetView.class);
+        setting.setProperty(ConfigurationProperties.STREAMING_WINDOW_SIZE, 1);
+        // Without an order by the view root id, the tuples of a view root aren't guaranteed to be contiguous
+        CriteriaBuilder<SubviewDocumentListMapSetView> cb = evm.applySetting(setting, cbf.create(em, DocumentForCollections.class, "d"));
+        List<DocumentForCollections> documents = cbf.create(em, DocumentForCollections.class, "d")
+                .getResultList();
+
+        Map<String, SubviewDocumentListMapSetView> results = new HashMap<>();
+        try (Stream<SubviewDocumentListMapSetView> stream = cb.getResultStream()) {
+            stream.forEach(view -> assertNull(results.put(view.getName(), view)));
+        }
+
+        assertEquals(3, results.size());
+        for (DocumentForCollections document : documents) {
+            SubviewDocumentListMapSetView view = results.get(document.getName());
+            assertSubviewEquals(document.getContacts(), view.getContacts());
+            assertSubviewEquals(document.getPartners(), view.getPartners());
+            assertSubviewEquals(document.getPersonList(), view.getPersonList());
+        }
+    }
+
+    private void assertStreamEqualsList(EntityViewSetting<SubviewDocumentListMapSetView, CriteriaBuilder<SubviewDocumentListMapSetView>> setting) {
+        EntityViewManager evm = build(
+                SubviewDocumentListMapSetView.class,
+                SubviewPersonForCollectionsView.class
+        );
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+                .orderByAsc("id");
+        CriteriaBuilder<SubviewDocumentListMapSetView> cb = evm.applySetting(setting, criteria);
+        List<DocumentForCollections> documents = cbf.create(em, DocumentForCollections.class, "d")
+                .orderByAsc("id")
+                .getResultList();
+
+        List<SubviewDocumentListMapSetView> results;
+        try (Stream<SubviewDocumentListMapSetView> stream = cb.getResultStream()) {
+            results = stream.collect(Collectors.<SubviewDocumentListMapSetView>toList());
+        }
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < documents.size(); i++) {
+            DocumentForCollections document = documents.get(i);
+            SubviewDocumentListMapSetView view = results.get(i);
+            assertEquals(document.getName(), view.getName());
+            assertSubviewEquals(document.getContacts(), view.getContacts());
+            assertSubviewEquals(document.getPartners(), view.getPartners());
+            assertSubviewEquals(document.getPersonList(), view.getPersonList());
+        }
+    }
+}
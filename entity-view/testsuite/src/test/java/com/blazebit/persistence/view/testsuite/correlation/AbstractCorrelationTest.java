@@ -23,6 +23,9 @@ import org.junit.Before;
 import javax.persistence.EntityManager;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 
@@ -79,6 +82,18 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
     }
 
     protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize) {
+        testCorrelation(entityView, batchSize, null);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Integer streamingWindowSize) {
+        testCorrelation(entityView, batchSize, streamingWindowSize, null);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Integer streamingWindowSize, String batchMode) {
+        testCorrelation(entityView, batchSize, streamingWindowSize, batchMode, null);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Integer streamingWindowSize, String batchMode, Executor correlationExecutor) {
         EntityViewManager evm = build(
                 entityView,
                 SimpleDocumentCorrelatedView.class,
@@ -91,8 +106,24 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
         if (batchSize != null) {
             setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", batchSize);
         }
+        if (streamingWindowSize != null) {
+            setting.setProperty(ConfigurationProperties.STREAMING_WINDOW_SIZE, streamingWindowSize);
+        }
+        if (batchMode != null) {
+            setting.setProperty(ConfigurationProperties.EXPECT_BATCH_MODE, batchMode);
+        }
+        if (correlationExecutor != null) {
+            setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, correlationExecutor);
+        }
         CriteriaBuilder<T> cb = evm.applySetting(setting, criteria);
-        List<T> results = cb.getResultList();
+        List<T> results;
+        if (streamingWindowSize == null) {
+            results = cb.getResultList();
+        } else {
+            try (Stream<T> stream = cb.getResultStream()) {
+                results = stream.collect(Collectors.<T>toList());
+            }
+        }
 
         assertEquals(4, results.size());
 
@@ -13,15 +13,40 @@ import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate43;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate50;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
 import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.model.DocumentCorrelationView;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewJoinId;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewJoinNormal;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubqueryId;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubqueryNormal;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubselectId;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubselectNormal;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleDocumentCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimplePersonCorrelatedSubView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleVersionCorrelatedView;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  *
  * @author Christian Beikov
@@ -85,6 +110,140 @@ public class SimpleCorrelationTest extends AbstractCorrelationTest {
         testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 20);
     }
 
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testSubqueryCorrelationNormalStreamed() {
+        testCorrelation(DocumentSimpleCorrelationViewSubqueryNormal.class, null, 1);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationNormalSize2Streamed() {
+        testCorrelation(DocumentSimpleCorrelationViewSubqueryNormal.class, 2, 2);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationIdSize2Streamed() {
+        testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 2, 2);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationNormalSize4Streamed() {
+        testCorrelation(DocumentSimpleCorrelationViewSubqueryNormal.class, 4, 3);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationNormalSize2Concurrent() {
+        testConcurrentCorrelation(DocumentSimpleCorrelationViewSubqueryNormal.class, 2, null);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationIdSize2ConcurrentStreamed() {
+        testConcurrentCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 2, 2);
+    }
+
+    private void testConcurrentCorrelation(Class<? extends DocumentCorrelationView> entityView, Integer batchSize, Integer streamingWindowSize) {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final AtomicInteger executions = new AtomicInteger();
+        try {
+            testCorrelation(entityView, batchSize, streamingWindowSize, null, new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    executions.incrementAndGet();
+                    executorService.execute(command);
+                }
+            });
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertTrue(executions.get() > 0);
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testConcurrentCorrelationStreamClosedEarlyReleasesEntityManagers() {
+        EntityViewManager evm = build(
+                DocumentSimpleCorrelationViewSubqueryId.class,
+                SimpleDocumentCorrelatedView.class,
+                SimplePersonCorrelatedSubView.class,
+                SimpleVersionCorrelatedView.class
+        );
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            EntityManager trackingEm = trackingEntityManager(em, opened, closed);
+            CriteriaBuilder<Document> criteria = cbf.create(trackingEm, Document.class, "d").orderByAsc("id");
+            EntityViewSetting<DocumentSimpleCorrelationViewSubqueryId, CriteriaBuilder<DocumentSimpleCorrelationViewSubqueryId>> setting = EntityViewSetting.create(DocumentSimpleCorrelationViewSubqueryId.class);
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", 2);
+            setting.setProperty(ConfigurationProperties.STREAMING_WINDOW_SIZE, 1);
+            setting.setProperty(ConfigurationProperties.CORRELATION_EXECUTOR, executorService);
+            CriteriaBuilder<DocumentSimpleCorrelationViewSubqueryId> cb = evm.applySetting(setting, criteria);
+
+            try (Stream<DocumentSimpleCorrelationViewSubqueryId> stream = cb.getResultStream()) {
+                Optional<DocumentSimpleCorrelationViewSubqueryId> first = stream.findFirst();
+                assertTrue(first.isPresent());
+                assertEquals(doc1.getName(), first.get().getName());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertTrue(opened.get() > 0);
+        assertEquals(opened.get(), closed.get());
+    }
+
+    private static EntityManager trackingEntityManager(final EntityManager em, final AtomicInteger opened, final AtomicInteger closed) {
+        final EntityManagerFactory emf = (EntityManagerFactory) Proxy.newProxyInstance(SimpleCorrelationTest.class.getClassLoader(), new Class[]{ EntityManagerFactory.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = invokeDelegate(em.getEntityManagerFactory(), method, args);
+                if ("createEntityManager".equals(method.getName())) {
+                    opened.incrementAndGet();
+                    final EntityManager createdEm = (EntityManager) result;
+                    return Proxy.newProxyInstance(SimpleCorrelationTest.class.getClassLoader(), new Class[]{ EntityManager.class }, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if ("close".equals(method.getName())) {
+                                closed.incrementAndGet();
+                            }
+                            return invokeDelegate(createdEm, method, args);
+                        }
+                    });
+                }
+                return result;
+            }
+        });
+        return (EntityManager) Proxy.newProxyInstance(SimpleCorrelationTest.class.getClassLoader(), new Class[]{ EntityManager.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getEntityManagerFactory".equals(method.getName())) {
+                    return emf;
+                }
+                return invokeDelegate(em, method, args);
+            }
+        });
+    }
+
+    private static Object invokeDelegate(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
     // TODO: test batch correlation expectation configuration
     // TODO: make explicit test for correlation key batching with view root usage maybe via nested subviews through collections?
 
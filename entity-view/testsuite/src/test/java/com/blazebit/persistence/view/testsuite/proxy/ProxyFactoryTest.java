@@ -393,6 +393,35 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         }
     }
 
+    @Test
+    public void testRuntimeGenerationDisabledFailsForMissingStaticImplementation() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED, "true");
+        cfg.addEntityView(DocumentInterfaceView.class);
+        cfg.addEntityView(DocumentClassView.class);
+        cfg.addEntityView(NameObjectView.class);
+        try {
+            cfg.createEntityViewManager(cbf);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("'" + DocumentInterfaceView.class.getName() + "'"));
+            assertTrue(ex.getMessage().contains("'" + DocumentClassView.class.getName() + "'"));
+            assertTrue(ex.getMessage().contains(ConfigurationProperties.PROXY_RUNTIME_GENERATION_DISABLED));
+        }
+    }
+
+    @Test
+    public void testRuntimeGenerationDisabledProxyFactoryDoesNotGenerateClasses() {
+        ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
+        ProxyFactory proxyFactory = new ProxyFactory(false, false, true, PackageOpener.NOOP);
+        try {
+            proxyFactory.getProxy(evm, (ManagedViewTypeImplementor<DocumentInterfaceView>) viewType);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("'" + DocumentInterfaceView.class.getName() + "'"));
+        }
+    }
+
     private void assertField(Class<?> proxyClass, String fieldName, int modifiers, Class<?> type, Class<?>... typeArguments) throws Exception {
         Field field = proxyClass.getDeclaredField(fieldName);
         assertNotNull(field);
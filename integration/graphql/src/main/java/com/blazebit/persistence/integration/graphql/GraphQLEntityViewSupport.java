@@ -9,6 +9,7 @@ import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.DefaultKeyset;
 import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
@@ -17,6 +18,7 @@ import com.blazebit.persistence.view.EntityViewSetting;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import graphql.relay.Connection;
+import graphql.relay.ConnectionCursor;
 import graphql.relay.DefaultConnection;
 import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
@@ -38,10 +40,7 @@ import graphql.schema.GraphQLUnmodifiedType;
 import graphql.schema.SelectedField;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -104,11 +103,15 @@ public class GraphQLEntityViewSupport {
 
     // GraphQL defines meta fields that can be used on any type: https://graphql.org/learn/queries/#meta-fields
     private static final Set<String> META_FIELDS = new HashSet<>(Arrays.asList("__typename"));
+    // The standard Base64 encoding of the Java serialization stream header
+    private static final String LEGACY_CURSOR_PREFIX = "rO0";
 
     private final Map<String, ManagedViewType<?>> typeNameToViewType;
     private final Map<String, Map<String, String>> typeNameToFieldMapping;
     private final Map<String, Set<DefaultFetchMapping>> typeNameToDefaultFetchMappings;
     private final Set<String> serializableBasicTypes;
+    private final KeysetCursorCodec cursorCodec;
+    private final boolean legacyCursorsAllowed;
     private final ConcurrentMap<TypeRootCacheKey, GraphQLUnmodifiedType> typeReferenceCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String[]> selectedFieldCache = new ConcurrentHashMap<>();
 
@@ -226,6 +229,29 @@ public class GraphQLEntityViewSupport {
      * @param elementCursorName The name of the cursor field within elements
      */
     public GraphQLEntityViewSupport(Map<String, ManagedViewType<?>> typeNameToViewType, Map<String, Map<String, String>> typeNameToFieldMapping, Map<String, Set<DefaultFetchMapping>> typeNameToDefaultFetchMappings, Set<String> serializableBasicTypes, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName) {
+        this(typeNameToViewType, typeNameToFieldMapping, typeNameToDefaultFetchMappings, serializableBasicTypes, new KeysetCursorCodec(serializableBasicTypes, null), false, pageSizeName, offsetName, beforeCursorName, afterCursorName, totalCountName, pageElementsName, pageElementObjectName, elementCursorName);
+    }
+
+    /**
+     * Creates a new {@link GraphQLEntityViewSupport} instance with the given type name to class mapping, serializable basic type whitelist and cursor codec.
+     *
+     * @param typeNameToViewType The mapping from GraphQL type names to entity view metamodels
+     * @param typeNameToFieldMapping The mapping from GraphQL type names to a map from GraphQL field name to entity view attribute name
+     * @param typeNameToDefaultFetchMappings The mapping from GraphQL type names to a list of default fetch mappings
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for deserialization of cursors in the legacy format
+     * @param cursorCodec The codec to use for encoding and decoding cursors
+     * @param legacyCursorsAllowed Whether cursors in the legacy Java serialization format are accepted
+     * @param pageSizeName The name of the page size field
+     * @param offsetName The name of the offset field
+     * @param beforeCursorName The name of the beforeCursor field
+     * @param afterCursorName The name of the afterCursor field
+     * @param totalCountName The name of the totalCount field
+     * @param pageElementsName The name of the elements field
+     * @param pageElementObjectName The name of the element object field within elements
+     * @param elementCursorName The name of the cursor field within elements
+     * @since 1.6.21
+     */
+    public GraphQLEntityViewSupport(Map<String, ManagedViewType<?>> typeNameToViewType, Map<String, Map<String, String>> typeNameToFieldMapping, Map<String, Set<DefaultFetchMapping>> typeNameToDefaultFetchMappings, Set<String> serializableBasicTypes, KeysetCursorCodec cursorCodec, boolean legacyCursorsAllowed, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName) {
         this.pageSizeName = pageSizeName;
         this.offsetName = offsetName;
         this.beforeCursorName = beforeCursorName;
@@ -236,6 +262,8 @@ public class GraphQLEntityViewSupport {
         this.typeNameToFieldMapping = typeNameToFieldMapping;
         this.typeNameToDefaultFetchMappings = typeNameToDefaultFetchMappings;
         this.serializableBasicTypes = serializableBasicTypes;
+        this.cursorCodec = cursorCodec;
+        this.legacyCursorsAllowed = legacyCursorsAllowed;
         this.pageElementObjectName = pageElementObjectName;
         this.elementCursorName = elementCursorName;
     }
@@ -832,22 +860,68 @@ public class GraphQLEntityViewSupport {
     }
 
     /**
-     * Deserializes the given Base64 encoded cursor to a {@link GraphQLCursor} object.
+     * Returns the codec that is used for encoding and decoding cursors.
      *
-     * @param beforeCursor The Base64 encoded cursor
+     * @return the cursor codec
+     * @since 1.6.21
+     */
+    public KeysetCursorCodec getCursorCodec() {
+        return cursorCodec;
+    }
+
+    /**
+     * Returns whether cursors in the legacy Java serialization format are accepted.
+     *
+     * @return whether legacy cursors are accepted
+     * @since 1.6.21
+     */
+    public boolean isLegacyCursorsAllowed() {
+        return legacyCursorsAllowed;
+    }
+
+    /**
+     * Deserializes the given cursor, encoded by the {@link #getCursorCodec() cursor codec}, to a {@link GraphQLCursor} object.
+     * Cursors in the legacy Java serialization format are only accepted if {@link #isLegacyCursorsAllowed()} is <code>true</code>.
+     *
+     * @param beforeCursor The encoded cursor
      * @return a new cursor
      */
     protected GraphQLCursor deserialize(String beforeCursor) {
-        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(Base64.getDecoder().wrap(new ByteArrayInputStream(beforeCursor.getBytes())), serializableBasicTypes)) {
-            int offset = ois.read();
-            int pageSize = ois.read();
-            Serializable[] tuple = (Serializable[]) ois.readObject();
-            return new GraphQLCursor(offset, pageSize, tuple);
+        if (legacyCursorsAllowed && beforeCursor.startsWith(LEGACY_CURSOR_PREFIX)) {
+            if (cursorCodec.isSigned()) {
+                throw new RuntimeException("Couldn't read cursor", new IllegalArgumentException("Unsigned legacy cursors are not allowed when cursors are signed"));
+            }
+            // Legacy cursors are Java serialized and encoded with the standard Base64 alphabet
+            try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(beforeCursor)), serializableBasicTypes)) {
+                int offset = ois.read();
+                int pageSize = ois.read();
+                Serializable[] tuple = (Serializable[]) ois.readObject();
+                return new GraphQLCursor(offset, pageSize, tuple);
+            } catch (Exception e) {
+                throw new RuntimeException("Couldn't read cursor", e);
+            }
+        }
+        try {
+            KeysetPage keysetPage = cursorCodec.decode(beforeCursor);
+            return new GraphQLCursor(keysetPage.getFirstResult(), keysetPage.getMaxResults(), keysetPage.getLowest() == null ? null : keysetPage.getLowest().getTuple());
         } catch (Exception e) {
             throw new RuntimeException("Couldn't read cursor", e);
         }
     }
 
+    /**
+     * Encodes the given cursor components with the {@link #getCursorCodec() cursor codec}.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param tuple The tuple
+     * @return the encoded cursor
+     * @since 1.6.21
+     */
+    protected String encodeCursor(int offset, int pageSize, Serializable[] tuple) {
+        return cursorCodec.encodeToString(offset, pageSize, tuple, null);
+    }
+
     /**
      * Serializes the given cursor components to a byte array.
      *
@@ -857,15 +931,7 @@ public class GraphQLEntityViewSupport {
      * @return the serialized form of the cursor
      */
     protected byte[] serializeCursor(int offset, int pageSize, Serializable[] tuple) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.write(offset);
-            oos.write(pageSize);
-            oos.writeObject(tuple);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+        return cursorCodec.encode(offset, pageSize, tuple, null);
     }
 
     /**
@@ -943,16 +1009,16 @@ public class GraphQLEntityViewSupport {
             int listSize = list.size();
             if (listSize != 0 && keysets.size() != listSize) {
                 int end = listSize - 1;
-                edges.add(new DefaultEdge<>(list.get(0), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest().getTuple())))));
+                edges.add(new DefaultEdge<>(list.get(0), new LazyConnectionCursor(this, data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest().getTuple())));
                 for (int i = 1; i < end; i++) {
                     T node = list.get(i);
                     edges.add(new DefaultEdge<>(node, new DefaultConnectionCursor(Integer.toString(i + 1))));
                 }
-                edges.add(new DefaultEdge<>(list.get(end), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest().getTuple())))));
+                edges.add(new DefaultEdge<>(list.get(end), new LazyConnectionCursor(this, data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest().getTuple())));
             } else {
                 for (int i = 0; i < list.size(); i++) {
                     T node = list.get(i);
-                    edges.add(new DefaultEdge<>(node, new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysets.get(i).getTuple())))));
+                    edges.add(new DefaultEdge<>(node, new LazyConnectionCursor(this, data.getFirstResult(), data.getMaxResults(), keysets.get(i).getTuple())));
                 }
             }
         }
@@ -965,4 +1031,56 @@ public class GraphQLEntityViewSupport {
         return new DefaultConnection<>(edges, pageInfo);
     }
 
+    /**
+     * A connection cursor that serializes the keyset tuple only on access, as clients often don't select the cursor.
+     *
+     * @author Christian Beikov
+     * @since 1.6.21
+     */
+    private static final class LazyConnectionCursor implements ConnectionCursor {
+
+        private final GraphQLEntityViewSupport support;
+        private final int offset;
+        private final int pageSize;
+        private final Serializable[] tuple;
+        private volatile String value;
+
+        public LazyConnectionCursor(GraphQLEntityViewSupport support, int offset, int pageSize, Serializable[] tuple) {
+            this.support = support;
+            this.offset = offset;
+            this.pageSize = pageSize;
+            this.tuple = tuple;
+        }
+
+        @Override
+        public String getValue() {
+            String value = this.value;
+            if (value == null) {
+                value = support.encodeCursor(offset, pageSize, tuple);
+                this.value = value;
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConnectionCursor)) {
+                return false;
+            }
+            return getValue().equals(((ConnectionCursor) o).getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getValue();
+        }
+    }
 }
@@ -7,6 +7,7 @@ package com.blazebit.persistence.integration.graphql;
 
 import com.blazebit.annotation.AnnotationUtils;
 import com.blazebit.lang.StringUtils;
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.impl.ExpressionUtils;
 import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.view.CreatableEntityView;
@@ -181,6 +182,8 @@ public class GraphQLEntityViewSupportFactory {
     private Map<String, GraphQLScalarType> scalarTypeMap;
     private Set<String> registeredScalarTypeNames;
     private Set<String> additionalSerializableBasicTypes;
+    private byte[] cursorHmacKey;
+    private boolean legacyCursorsAllowed;
 
     /**
      * Creates a new entity view support factory with the given configuration.
@@ -407,6 +410,48 @@ public class GraphQLEntityViewSupportFactory {
         this.additionalSerializableBasicTypes = additionalSerializableBasicTypes;
     }
 
+    /**
+     * Returns the key to use for signing cursors with a HMAC or <code>null</code> if cursors are not signed.
+     *
+     * @return the cursor HMAC key
+     * @since 1.6.21
+     */
+    public byte[] getCursorHmacKey() {
+        return cursorHmacKey;
+    }
+
+    /**
+     * Sets the key to use for signing cursors with a HMAC. Signed cursors can't be tampered with by clients.
+     *
+     * @param cursorHmacKey the cursor HMAC key or <code>null</code> if cursors should not be signed
+     * @since 1.6.21
+     */
+    public void setCursorHmacKey(byte[] cursorHmacKey) {
+        this.cursorHmacKey = cursorHmacKey;
+    }
+
+    /**
+     * Returns whether cursors in the legacy Java serialization format of older versions are accepted.
+     *
+     * @return whether legacy cursors are accepted
+     * @since 1.6.21
+     */
+    public boolean isLegacyCursorsAllowed() {
+        return legacyCursorsAllowed;
+    }
+
+    /**
+     * Sets whether cursors in the legacy Java serialization format of older versions are accepted.
+     * This is disabled by default, as it requires Java deserialization of client input. Enable it only temporarily after an upgrade,
+     * until clients no longer hold cursors of older versions. Legacy cursors are never accepted if cursors are signed.
+     *
+     * @param legacyCursorsAllowed whether legacy cursors are accepted
+     * @since 1.6.21
+     */
+    public void setLegacyCursorsAllowed(boolean legacyCursorsAllowed) {
+        this.legacyCursorsAllowed = legacyCursorsAllowed;
+    }
+
     /**
      * Returns a new {@link GraphQLEntityViewSupport} after registering the entity view types from {@link EntityViewManager}
      * on the given {@link TypeDefinitionRegistry}.
@@ -570,7 +615,7 @@ public class GraphQLEntityViewSupportFactory {
         serializableBasicTypes.add(Serializable[].class.getName());
         serializableBasicTypes.add(GraphQLCursor.class.getName());
         addSerializableBasicTypes(serializableBasicTypes);
-        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, typeNameToDefaultFetchMappings, serializableBasicTypes);
+        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, typeNameToDefaultFetchMappings, serializableBasicTypes, new KeysetCursorCodec(serializableBasicTypes, cursorHmacKey), legacyCursorsAllowed, GraphQLEntityViewSupport.PAGE_SIZE_NAME, GraphQLEntityViewSupport.OFFSET_NAME, GraphQLEntityViewSupport.BEFORE_CURSOR_NAME, GraphQLEntityViewSupport.AFTER_CURSOR_NAME, GraphQLEntityViewSupport.TOTAL_COUNT_NAME, GraphQLEntityViewSupport.EDGES_NAME, GraphQLEntityViewSupport.EDGE_NODE_NAME, GraphQLEntityViewSupport.EDGE_CURSOR_NAME);
     }
 
     protected void addSerializableBasicTypes(Set<String> serializableBasicTypes) {
@@ -830,7 +875,7 @@ public class GraphQLEntityViewSupportFactory {
                 schemaBuilder.additionalType(additionalType);
             }
         }
-        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, typeNameToDefaultFetchMappings, serializableBasicTypes);
+        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, typeNameToDefaultFetchMappings, serializableBasicTypes, new KeysetCursorCodec(serializableBasicTypes, cursorHmacKey), legacyCursorsAllowed, GraphQLEntityViewSupport.PAGE_SIZE_NAME, GraphQLEntityViewSupport.OFFSET_NAME, GraphQLEntityViewSupport.BEFORE_CURSOR_NAME, GraphQLEntityViewSupport.AFTER_CURSOR_NAME, GraphQLEntityViewSupport.TOTAL_COUNT_NAME, GraphQLEntityViewSupport.EDGES_NAME, GraphQLEntityViewSupport.EDGE_NODE_NAME, GraphQLEntityViewSupport.EDGE_CURSOR_NAME);
     }
 
     private HashMap<ManagedViewType<?>, Set<MethodAttribute<?, ?>>> determineViewsForSchema(EntityViewManager entityViewManager) {
@@ -6,11 +6,11 @@
 package com.blazebit.persistence.integration.graphql;
 
 import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.PagedList;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 
@@ -43,9 +43,20 @@ public class GraphQLRelayConnection<T> implements Serializable {
      * @param list The list
      */
     public GraphQLRelayConnection(List<T> list) {
+        this(list, null);
+    }
+
+    /**
+     * Creates a new GraphQL page from the given list, encoding cursors with the given codec.
+     *
+     * @param list The list
+     * @param cursorCodec The cursor codec or <code>null</code> to use the default codec
+     * @since 1.6.21
+     */
+    public GraphQLRelayConnection(List<T> list, KeysetCursorCodec cursorCodec) {
         if (list instanceof PagedList<?>) {
             PagedList<T> data = (PagedList<T>) list;
-            this.pageInfo = new GraphQLRelayPageInfo(data);
+            this.pageInfo = cursorCodec == null ? new GraphQLRelayPageInfo(data) : new GraphQLRelayPageInfo(data, cursorCodec);
             this.totalCount = data.getTotalSize();
         } else {
             this.pageInfo = GraphQLRelayPageInfo.EMPTY;
@@ -69,13 +80,11 @@ public class GraphQLRelayConnection<T> implements Serializable {
         List<GraphQLRelayEdge<X>> edges;
         List<Keyset> keysets;
         if (list instanceof PagedList<?> && pageInfo != null && ((PagedList<?>) list).getKeysetPage() != null && (keysets = ((PagedList<?>) list).getKeysetPage().getKeysets()).size() == list.size()) {
-            PagedList<?> pagedList = (PagedList<?>) list;
-            int offset = pagedList.getFirstResult();
-            int pageSize = pagedList.getMaxResults();
             edges = new ArrayList<>(list.size());
             for (int i = 0; i < list.size(); i++) {
                 X node = list.get(i);
-                edges.add(new GraphQLRelayEdge<>(Base64.getEncoder().encodeToString(pageInfo.serialize(offset, pageSize, keysets.get(i).getTuple())), node));
+                // The cursor is only serialized on access, as clients often don't select it
+                edges.add(new GraphQLRelayEdge<>(node, pageInfo, keysets.get(i).getTuple()));
             }
         } else {
             edges = new ArrayList<>(list.size());
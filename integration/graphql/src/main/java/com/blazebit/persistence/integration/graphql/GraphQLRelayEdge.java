@@ -5,6 +5,8 @@
 
 package com.blazebit.persistence.integration.graphql;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
@@ -16,8 +18,10 @@ import java.io.Serializable;
  */
 public class GraphQLRelayEdge<T> implements Serializable {
 
-    private final String cursor;
+    private String cursor;
     private final T node;
+    private final transient GraphQLRelayPageInfo pageInfo;
+    private final transient Serializable[] tuple;
 
     /**
      * Creates a new node.
@@ -28,6 +32,21 @@ public class GraphQLRelayEdge<T> implements Serializable {
     public GraphQLRelayEdge(String cursor, T node) {
         this.cursor = cursor;
         this.node = node;
+        this.pageInfo = null;
+        this.tuple = null;
+    }
+
+    /**
+     * Creates a new node with a cursor that is lazily encoded from the given tuple through the given page info.
+     *
+     * @param node The node
+     * @param pageInfo The page info
+     * @param tuple The keyset tuple of the node
+     */
+    GraphQLRelayEdge(T node, GraphQLRelayPageInfo pageInfo, Serializable[] tuple) {
+        this.node = node;
+        this.pageInfo = pageInfo;
+        this.tuple = tuple;
     }
 
     /**
@@ -36,6 +55,12 @@ public class GraphQLRelayEdge<T> implements Serializable {
      * @return the cursor for the node
      */
     public String getCursor() {
+        // The cursor is encoded racy, which is fine as encoding the immutable tuple always results in the same string
+        String cursor = this.cursor;
+        if (cursor == null && tuple != null) {
+            cursor = pageInfo.encodeCursor(tuple);
+            this.cursor = cursor;
+        }
         return cursor;
     }
 
@@ -47,4 +72,10 @@ public class GraphQLRelayEdge<T> implements Serializable {
     public T getNode() {
         return node;
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Compute the lazy cursor as the state it is computed from is transient
+        getCursor();
+        out.defaultWriteObject();
+    }
 }
@@ -5,14 +5,13 @@
 
 package com.blazebit.persistence.integration.graphql;
 
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedList;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.Base64;
 
 /**
  * A GraphQL Relay page info.
@@ -22,18 +21,29 @@ import java.util.Base64;
  */
 public class GraphQLRelayPageInfo implements Serializable {
 
+    private static final KeysetCursorCodec DEFAULT_CURSOR_CODEC = new KeysetCursorCodec();
     public static final transient GraphQLRelayPageInfo EMPTY = new GraphQLRelayPageInfo();
 
     private final boolean hasNextPage;
     private final boolean hasPreviousPage;
-    private final String startCursor;
-    private final String endCursor;
+    private String startCursor;
+    private String endCursor;
+    private final transient KeysetCursorCodec cursorCodec;
+    private final transient int offset;
+    private final transient int pageSize;
+    private final transient Serializable[] startTuple;
+    private final transient Serializable[] endTuple;
 
     private GraphQLRelayPageInfo() {
         this.hasNextPage = true;
         this.hasPreviousPage = true;
         this.startCursor = null;
         this.endCursor = null;
+        this.cursorCodec = DEFAULT_CURSOR_CODEC;
+        this.offset = 0;
+        this.pageSize = 0;
+        this.startTuple = null;
+        this.endTuple = null;
     }
 
     /**
@@ -42,19 +52,26 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @param data The paged list
      */
     public GraphQLRelayPageInfo(PagedList<?> data) {
+        this(data, DEFAULT_CURSOR_CODEC);
+    }
+
+    /**
+     * Creates a new page info object from the given paged list, encoding cursors with the given codec.
+     *
+     * @param data The paged list
+     * @param cursorCodec The cursor codec
+     * @since 1.6.21
+     */
+    public GraphQLRelayPageInfo(PagedList<?> data, KeysetCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
         this.hasPreviousPage = data.getFirstResult() != 0;
         this.hasNextPage = data.size() >= data.getMaxResults() && (data.getTotalSize() == -1 || data.getFirstResult() + data.getMaxResults() < data.getTotalSize());
+        this.offset = data.getFirstResult();
+        this.pageSize = data.getMaxResults();
+        // The cursors are only serialized on access, as clients often don't select them
         KeysetPage keysetPage = data.getKeysetPage();
-        if (keysetPage != null && keysetPage.getLowest() != null) {
-            this.startCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest().getTuple()));
-        } else {
-            this.startCursor = null;
-        }
-        if (keysetPage != null && keysetPage.getHighest() != null) {
-            this.endCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest().getTuple()));
-        } else {
-            this.endCursor = null;
-        }
+        this.startTuple = keysetPage == null || keysetPage.getLowest() == null ? null : keysetPage.getLowest().getTuple();
+        this.endTuple = keysetPage == null || keysetPage.getHighest() == null ? null : keysetPage.getHighest().getTuple();
     }
 
     /**
@@ -76,23 +93,53 @@ public class GraphQLRelayPageInfo implements Serializable {
     }
 
     /**
-     * Returns the start cursor encoded as Base64 or <code>null</code>.
+     * Returns the start cursor encoded as URL safe Base64 or <code>null</code>.
      *
      * @return the start cursor or <code>null</code>
      */
     public String getStartCursor() {
+        // The cursor is encoded racy, which is fine as encoding the immutable tuple always results in the same string
+        String startCursor = this.startCursor;
+        if (startCursor == null && startTuple != null) {
+            startCursor = encodeCursor(startTuple);
+            this.startCursor = startCursor;
+        }
         return startCursor;
     }
 
     /**
-     * Returns the end cursor encoded as Base64 or <code>null</code>.
+     * Returns the end cursor encoded as URL safe Base64 or <code>null</code>.
      *
      * @return the end cursor or <code>null</code>
      */
     public String getEndCursor() {
+        // The cursor is encoded racy, which is fine as encoding the immutable tuple always results in the same string
+        String endCursor = this.endCursor;
+        if (endCursor == null && endTuple != null) {
+            endCursor = encodeCursor(endTuple);
+            this.endCursor = endCursor;
+        }
         return endCursor;
     }
 
+    /**
+     * Returns the cursor for the given tuple on the page of this page info, encoded by the cursor codec.
+     *
+     * @param tuple The tuple
+     * @return the encoded cursor
+     * @since 1.6.21
+     */
+    String encodeCursor(Serializable[] tuple) {
+        return (cursorCodec == null ? DEFAULT_CURSOR_CODEC : cursorCodec).encodeToString(offset, pageSize, tuple, null);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Compute the lazy cursors as the state they are computed from is transient
+        getStartCursor();
+        getEndCursor();
+        out.defaultWriteObject();
+    }
+
     /**
      * Serializes the given cursor to a byte array.
      *
@@ -112,7 +159,7 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected byte[] serialize(int offset, int pageSize, Serializable[] tuple) {
-        return serializeCursor(offset, pageSize, tuple);
+        return (cursorCodec == null ? DEFAULT_CURSOR_CODEC : cursorCodec).encode(offset, pageSize, tuple, null);
     }
 
     /**
@@ -124,14 +171,6 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected static byte[] serializeCursor(int offset, int pageSize, Serializable[] tuple) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.write(offset);
-            oos.write(pageSize);
-            oos.writeObject(tuple);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+        return DEFAULT_CURSOR_CODEC.encode(offset, pageSize, tuple, null);
     }
 }
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.integration.graphql;
 
+import com.blazebit.persistence.KeysetCursorCodec;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -13,6 +14,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -77,4 +80,53 @@ public class GraphQLDeserializerTest {
             Assert.assertEquals("Illegal attempt to deserialize disallowed type: java.util.UUID", ex.getMessage());
         }
     }
+
+    @Test
+    public void testCodecCursor() {
+        GraphQLEntityViewSupport support = createSupport(false);
+        String cursor = support.encodeCursor(10, 5, new Serializable[]{ 1L, "a" });
+        // The cursor uses the URL safe alphabet of the codec
+        Assert.assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+
+        GraphQLCursor graphQLCursor = support.deserialize(cursor);
+        Assert.assertEquals(10, graphQLCursor.getOffset());
+        Assert.assertEquals(5, graphQLCursor.getPageSize());
+        Assert.assertArrayEquals(new Serializable[]{ 1L, "a" }, graphQLCursor.getTuple());
+    }
+
+    @Test
+    public void testLegacyCursorRequiresOptIn() throws Exception {
+        String legacyCursor = createLegacyCursor(new Serializable[]{ 1 });
+        try {
+            createSupport(false).deserialize(legacyCursor);
+            Assert.fail("Expected legacy cursors to be rejected by default");
+        } catch (RuntimeException ex) {
+            // Expected
+        }
+
+        GraphQLCursor graphQLCursor = createSupport(true).deserialize(legacyCursor);
+        Assert.assertEquals(2, graphQLCursor.getOffset());
+        Assert.assertEquals(3, graphQLCursor.getPageSize());
+        Assert.assertArrayEquals(new Serializable[]{ 1 }, graphQLCursor.getTuple());
+    }
+
+    private static GraphQLEntityViewSupport createSupport(boolean legacyCursorsAllowed) {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Integer.class.getName());
+        allowedTypes.add(Number.class.getName());
+        allowedTypes.add(Serializable[].class.getName());
+        return new GraphQLEntityViewSupport(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), allowedTypes, new KeysetCursorCodec(allowedTypes, null), legacyCursorsAllowed,
+                GraphQLEntityViewSupport.PAGE_SIZE_NAME, GraphQLEntityViewSupport.OFFSET_NAME, GraphQLEntityViewSupport.BEFORE_CURSOR_NAME, GraphQLEntityViewSupport.AFTER_CURSOR_NAME,
+                GraphQLEntityViewSupport.TOTAL_COUNT_NAME, GraphQLEntityViewSupport.EDGES_NAME, GraphQLEntityViewSupport.EDGE_NODE_NAME, GraphQLEntityViewSupport.EDGE_CURSOR_NAME);
+    }
+
+    private static String createLegacyCursor(Serializable[] tuple) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.write(2);
+            oos.write(3);
+            oos.writeObject(tuple);
+        }
+        return Base64.getEncoder().encodeToString(baos.toByteArray());
+    }
 }
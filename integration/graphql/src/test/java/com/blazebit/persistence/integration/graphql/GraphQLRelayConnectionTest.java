@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import com.blazebit.persistence.DefaultKeysetPage;
+import com.blazebit.persistence.KeysetCursorCodec;
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class GraphQLRelayConnectionTest {
+
+    @Test
+    public void testLazyCursors() {
+        GraphQLRelayConnection<String> connection = new GraphQLRelayConnection<>(createPagedList());
+
+        Assert.assertEquals(3, connection.getEdges().size());
+        assertCursor(connection.getEdges().get(1).getCursor(), 2L);
+        assertCursor(connection.getPageInfo().getStartCursor(), 1L);
+        assertCursor(connection.getPageInfo().getEndCursor(), 3L);
+    }
+
+    @Test
+    public void testSerializeLazyCursors() throws Exception {
+        GraphQLRelayConnection<String> connection = new GraphQLRelayConnection<>(createPagedList());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(connection);
+        }
+        GraphQLRelayConnection<String> deserialized;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            deserialized = (GraphQLRelayConnection<String>) ois.readObject();
+        }
+
+        assertCursor(deserialized.getEdges().get(2).getCursor(), 3L);
+        assertCursor(deserialized.getPageInfo().getStartCursor(), 1L);
+    }
+
+    private static PagedArrayList<String> createPagedList() {
+        Serializable[][] keysets = new Serializable[][]{ { 1L }, { 2L }, { 3L } };
+        KeysetPage keysetPage = new DefaultKeysetPage(0, 3, keysets[0], keysets[2], keysets);
+        return new PagedArrayList<>(Arrays.asList("a", "b", "c"), keysetPage, 10, 0, 3);
+    }
+
+    private static void assertCursor(String cursor, Serializable expectedValue) {
+        KeysetPage keysetPage = new KeysetCursorCodec().decode(cursor);
+        Assert.assertEquals(0, keysetPage.getFirstResult());
+        Assert.assertEquals(3, keysetPage.getMaxResults());
+        Assert.assertArrayEquals(new Serializable[]{ expectedValue }, keysetPage.getLowest().getTuple());
+    }
+}
@@ -14,13 +14,13 @@ import com.blazebit.persistence.spi.CteQueryWrapper;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.QueryPlanCache;
 import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
 import org.hibernate.TypeMismatchException;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
-import org.hibernate.engine.query.spi.QueryPlanCache;
 import org.hibernate.engine.spi.QueryParameters;
 import org.hibernate.engine.spi.RowSelection;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
@@ -85,6 +85,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
     private static final Logger LOG = Logger.getLogger(HibernateExtendedQuerySupport.class.getName());
     private static final String[] KNOWN_STATEMENTS = { "select ", "insert ", "update ", "delete " };
     
+    // Hibernate's own query plan cache is used per session factory unless a query plan cache is configured for the criteria builder factory
     private final ConcurrentMap<SessionFactoryImplementor, BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>> queryPlanCachesCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<FieldKey, Field> fieldCache = new ConcurrentHashMap<>();
     private final HibernateAccess hibernateAccess;
@@ -420,15 +421,17 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParamEntry queryParametersEntry = createQueryParameters(em, query, participatingQueries, queryStrings, querySpaces);
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
-        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        QueryPlanCache queryPlanCache = serviceProvider.getService(QueryPlanCache.class);
+        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sfi, finalSql, participatingQueries, queryStrings) : null;
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(queryPlanCache, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
         
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
+            recordCompilation(queryPlanCache, queryPlanEntry);
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, queryPlanCacheValue);
+                putQueryPlanIfAbsent(queryPlanCache, sfi, cacheKey, queryPlanCacheValue);
             }
         }
 
@@ -451,15 +454,17 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParamEntry queryParametersEntry = createQueryParameters(em, query, participatingQueries, queryStrings, querySpaces);
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
-        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        QueryPlanCache queryPlanCache = serviceProvider.getService(QueryPlanCache.class);
+        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sfi, finalSql, participatingQueries, queryStrings) : null;
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(queryPlanCache, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
+            recordCompilation(queryPlanCache, queryPlanEntry);
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, queryPlanCacheValue);
+                putQueryPlanIfAbsent(queryPlanCache, sfi, cacheKey, queryPlanCacheValue);
             }
         }
 
@@ -494,8 +499,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParamEntry queryParametersEntry = createQueryParameters(em, baseQuery, participatingQueries, queryStrings, querySpaces);
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
-        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings, firstResult, maxResults) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        QueryPlanCache queryPlanCache = serviceProvider.getService(QueryPlanCache.class);
+        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sfi, finalSql, participatingQueries, queryStrings, firstResult, maxResults) : null;
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(queryPlanCache, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
@@ -518,8 +524,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
 
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, baseQuery, true, dbmsDialect);
+            recordCompilation(queryPlanCache, queryPlanEntry);
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
+                putQueryPlanIfAbsent(queryPlanCache, sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
             }
         }
 
@@ -571,8 +578,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
         
         // Create plan for example query
-        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sqlOverride, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, exampleQuery, cacheKey);
+        QueryPlanCache queryPlanCache = serviceProvider.getService(QueryPlanCache.class);
+        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sfi, sqlOverride, participatingQueries, queryStrings) : null;
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(queryPlanCache, sfi, exampleQuery, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
@@ -596,8 +604,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             HibernateReturningResult<Object[]> returningResult = new HibernateReturningResult<Object[]>();
             if (!queryPlanEntry.isFromCache()) {
                 prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, modificationBaseQuery, true, dbmsDialect);
+                recordCompilation(queryPlanCache, queryPlanEntry);
                 if (queryPlanCacheEnabled) {
-                    putQueryPlanIfAbsent(sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
+                    putQueryPlanIfAbsent(queryPlanCache, sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
                 }
             }
 
@@ -1090,29 +1099,36 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return i;
     }
 
-    private CacheEntry<QueryPlanCacheValue> getQueryPlan(SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
+    private CacheEntry<QueryPlanCacheValue> getQueryPlan(QueryPlanCache queryPlanCache, SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
         QueryPlanCacheValue queryPlan;
-        boolean fromCache;
         if (cacheKey == null) {
-            fromCache = false;
-            queryPlan = createQueryPlan(sfi, query);
+            queryPlan = null;
+        } else if (queryPlanCache == null) {
+            queryPlan = getQueryPlanCache(sfi).get(cacheKey);
         } else {
-            BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = getQueryPlanCache(sfi);
-            queryPlan = queryPlanCache.get(cacheKey);
-            if (queryPlan == null) {
-                fromCache = false;
-                queryPlan = createQueryPlan(sfi, query);
-            } else {
-                fromCache = true;
-            }
+            queryPlan = (QueryPlanCacheValue) queryPlanCache.get(cacheKey);
         }
-        
-        return new CacheEntry<>(queryPlan, fromCache);
+
+        if (queryPlan != null) {
+            return new CacheEntry<>(queryPlan, true);
+        }
+        // Only the compilation of a query plan that is not cached is recorded
+        long compilationStart = System.nanoTime();
+        queryPlan = createQueryPlan(sfi, query);
+        return new CacheEntry<>(queryPlan, false, compilationStart);
     }
-    
-    private QueryPlanCacheValue putQueryPlanIfAbsent(SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, QueryPlanCacheValue queryPlan) {
-        BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = getQueryPlanCache(sfi);
-        return queryPlanCache.putIfAbsent(cacheKey, queryPlan);
+
+    private void recordCompilation(QueryPlanCache queryPlanCache, CacheEntry<QueryPlanCacheValue> queryPlanEntry) {
+        if (queryPlanCache != null) {
+            queryPlanCache.recordCompilation(System.nanoTime() - queryPlanEntry.getCompilationStart());
+        }
+    }
+
+    private QueryPlanCacheValue putQueryPlanIfAbsent(QueryPlanCache queryPlanCache, SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, QueryPlanCacheValue queryPlan) {
+        if (queryPlanCache == null) {
+            return getQueryPlanCache(sfi).putIfAbsent(cacheKey, queryPlan);
+        }
+        return (QueryPlanCacheValue) queryPlanCache.putIfAbsent(cacheKey, queryPlan);
     }
     
     private QueryPlanCacheValue createQueryPlan(SessionFactoryImplementor sfi, Query query) {
@@ -1120,32 +1136,32 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         String queryString = hibernateQuery.getQueryString();
         return new QueryPlanCacheValue(new HQLQueryPlan(queryString, false, Collections.EMPTY_MAP, sfi), null, null);
     }
-    
+
     private BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> getQueryPlanCache(SessionFactoryImplementor sfi) {
         BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = queryPlanCachesCache.get(sfi);
         if (queryPlanCache == null) {
-            queryPlanCache = new BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>(QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT, 20, BoundedConcurrentHashMap.Eviction.LIRS);
+            queryPlanCache = new BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>(org.hibernate.engine.query.spi.QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT, 20, BoundedConcurrentHashMap.Eviction.LIRS);
             BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> oldQueryPlanCache = queryPlanCachesCache.putIfAbsent(sfi, queryPlanCache);
             if (oldQueryPlanCache != null) {
                 queryPlanCache = oldQueryPlanCache;
             }
         }
-        
+
         return queryPlanCache;
     }
-
-    private QueryPlanCacheKey createCacheKey(String sql, List<Query> queries, List<String> queryStrings) {
-        return createCacheKey(sql, queries, queryStrings, null, null);
+    
+    private QueryPlanCacheKey createCacheKey(SessionFactoryImplementor sfi, String sql, List<Query> queries, List<String> queryStrings) {
+        return createCacheKey(sfi, sql, queries, queryStrings, null, null);
     }
     
-    private QueryPlanCacheKey createCacheKey(String sql, List<Query> queries, List<String> queryStrings, Integer firstResult, Integer maxResults) {
+    private QueryPlanCacheKey createCacheKey(SessionFactoryImplementor sfi, String sql, List<Query> queries, List<String> queryStrings, Integer firstResult, Integer maxResults) {
         List<QueryPlanCacheKeyComponent> cacheKeyComponents = new ArrayList<>(queries.size());
         for (int i = 0; i < queries.size(); i++) {
             Query query = queries.get(i);
             String queryString = queryStrings.get(i);
             cacheKeyComponents.add(new QueryPlanCacheKeyComponent(queryString, query.getFirstResult(), query.getMaxResults()));
         }
-        return new QueryPlanCacheKey(sql, cacheKeyComponents, firstResult, maxResults);
+        return new QueryPlanCacheKey(sfi, sql, cacheKeyComponents, firstResult, maxResults);
     }
     
     private void addAll(List<Query> queries, List<String> parts) {
@@ -1181,19 +1197,15 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
      * @since 1.5.0
      */
     private static class QueryPlanCacheKey {
+        // The query plans of different session factories must not be mixed up if a criteria builder factory is used with entity managers of different session factories
+        final SessionFactoryImplementor sfi;
         final String sql;
         final List<QueryPlanCacheKeyComponent> cacheKeyComponents;
         final Integer firstResult;
         final Integer maxResults;
 
-        public QueryPlanCacheKey(String sql, List<QueryPlanCacheKeyComponent> cacheKeyComponents) {
-            this.sql = sql;
-            this.cacheKeyComponents = cacheKeyComponents;
-            this.firstResult = null;
-            this.maxResults = null;
-        }
-
-        public QueryPlanCacheKey(String sql, List<QueryPlanCacheKeyComponent> cacheKeyComponents, Integer firstResult, Integer maxResults) {
+        public QueryPlanCacheKey(SessionFactoryImplementor sfi, String sql, List<QueryPlanCacheKeyComponent> cacheKeyComponents, Integer firstResult, Integer maxResults) {
+            this.sfi = sfi;
             this.sql = sql;
             this.cacheKeyComponents = cacheKeyComponents;
             this.firstResult = firstResult;
@@ -1209,7 +1221,8 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
                 return false;
             }
             QueryPlanCacheKey that = (QueryPlanCacheKey) o;
-            return Objects.equals(sql, that.sql) &&
+            return sfi == that.sfi &&
+                    Objects.equals(sql, that.sql) &&
                     cacheKeyComponents.equals(that.cacheKeyComponents) &&
                     Objects.equals(firstResult, that.firstResult) &&
                     Objects.equals(maxResults, that.maxResults);
@@ -1217,7 +1230,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
 
         @Override
         public int hashCode() {
-            return Objects.hash(sql, cacheKeyComponents, firstResult, maxResults);
+            return Objects.hash(System.identityHashCode(sfi), sql, cacheKeyComponents, firstResult, maxResults);
         }
     }
 
@@ -1280,10 +1293,16 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         
         private final T value;
         private final boolean fromCache;
+        private final long compilationStart;
         
         public CacheEntry(T value, boolean fromCache) {
+            this(value, fromCache, 0L);
+        }
+
+        public CacheEntry(T value, boolean fromCache, long compilationStart) {
             this.value = value;
             this.fromCache = fromCache;
+            this.compilationStart = compilationStart;
         }
 
         public T getValue() {
@@ -1293,6 +1312,10 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         public boolean isFromCache() {
             return fromCache;
         }
+
+        public long getCompilationStart() {
+            return compilationStart;
+        }
     }
 
     /**
@@ -493,6 +493,22 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             return entityViewManager.get().saveFullWith(entityManager, view);
         }
 
+        public void saveAll(EntityManager entityManager, Iterable<?> views) {
+            entityViewManager.get().saveAll(entityManager, views);
+        }
+
+        public void saveFullAll(EntityManager entityManager, Iterable<?> views) {
+            entityViewManager.get().saveFullAll(entityManager, views);
+        }
+
+        public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views) {
+            return entityViewManager.get().saveAllWith(entityManager, views);
+        }
+
+        public FlushOperationBuilder saveFullAllWith(EntityManager entityManager, Iterable<?> views) {
+            return entityViewManager.get().saveFullAllWith(entityManager, views);
+        }
+
         public FlushOperationBuilder saveWithTo(EntityManager entityManager, Object view, Object entity) {
             return entityViewManager.get().saveWithTo(entityManager, view, entity);
         }
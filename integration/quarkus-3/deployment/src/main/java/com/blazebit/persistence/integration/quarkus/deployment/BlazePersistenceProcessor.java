@@ -10,6 +10,7 @@ import com.blazebit.persistence.integration.quarkus.runtime.BlazePersistenceConf
 import com.blazebit.persistence.integration.quarkus.runtime.BlazePersistenceInstance;
 import com.blazebit.persistence.integration.quarkus.runtime.BlazePersistenceInstanceConfiguration;
 import com.blazebit.persistence.integration.quarkus.runtime.BlazePersistenceInstanceUtil;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
 import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
 import com.blazebit.persistence.view.EntityView;
 import com.blazebit.persistence.view.EntityViews;
@@ -247,6 +248,7 @@ class BlazePersistenceProcessor {
                     BuildProducer<ReflectiveClassBuildItem> reflectionProducer) {
         reflectionProducer.produce(ReflectiveClassBuildItem.builder(ValuesEntity.class).methods().fields().build());
         reflectionProducer.produce(ReflectiveClassBuildItem.builder(ConcurrentHashMapExpressionCache.class).constructors().build());
+        reflectionProducer.produce(ReflectiveClassBuildItem.builder(BoundedExpressionCache.class).constructors().build());
         // Needed by HibernateExtendedQuerySupport
         reflectionProducer.produce(ReflectiveClassBuildItem.builder(
                 "org.hibernate.query.sqm.internal.SimpleDeleteQueryPlan",
@@ -48,6 +48,8 @@ import com.blazebit.persistence.WindowFrameBuilder;
 import com.blazebit.persistence.WindowFrameExclusionBuilder;
 import com.blazebit.persistence.impl.JpaUtils;
 import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.parser.expression.ExpressionTreeJoinOnBuilder;
+import com.blazebit.persistence.parser.expression.ExpressionTreeQueryBuilder;
 import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.querydsl.core.JoinExpression;
@@ -104,6 +106,7 @@ public class BlazeCriteriaBuilderRenderer<T> {
     private final CriteriaBuilderFactory criteriaBuilderFactory;
     private final EntityManager entityManager;
     private final JPQLNextSerializer serializer;
+    private final ExpressionTreeVisitor expressionTreeVisitor;
     private final Map<Object, String> constantToLabel = new IdentityHashMap<>();
     private Map<Expression<?>, String> subQueryToLabel = new IdentityHashMap<>();
     private final List<SubqueryInitiator<?>> subqueryInitiatorStack = new ArrayList<SubqueryInitiator<?>>();
@@ -112,6 +115,7 @@ public class BlazeCriteriaBuilderRenderer<T> {
 
     public BlazeCriteriaBuilderRenderer(CriteriaBuilderFactory criteriaBuilderFactory, EntityManager entityManager, JPQLTemplates templates) {
         this.serializer = new JPQLNextExpressionSerializer(templates, entityManager);
+        this.expressionTreeVisitor = new ExpressionTreeVisitor(templates, constantToLabel);
         this.criteriaBuilderFactory = criteriaBuilderFactory;
         this.entityManager = entityManager;
     }
@@ -429,7 +433,12 @@ public class BlazeCriteriaBuilderRenderer<T> {
 
     private void renderGroupBy(QueryMetadata metadata, GroupByBuilder<?> criteriaBuilder) {
         for (Expression<?> groupByExpression : metadata.getGroupBy()) {
-            criteriaBuilder.groupBy(renderExpression(groupByExpression));
+            com.blazebit.persistence.parser.expression.Expression expressionTree;
+            if (criteriaBuilder instanceof ExpressionTreeQueryBuilder && (expressionTree = groupByExpression.accept(expressionTreeVisitor, null)) != null) {
+                ((ExpressionTreeQueryBuilder) criteriaBuilder).groupBy(expressionTree);
+            } else {
+                criteriaBuilder.groupBy(renderExpression(groupByExpression));
+            }
         }
     }
 
@@ -675,8 +684,22 @@ public class BlazeCriteriaBuilderRenderer<T> {
     }
 
     private void renderOrderSpecifier(OrderSpecifier<?> orderSpecifier, OrderByBuilder<?> criteriaBuilder) {
-        String orderExpression = renderExpression(orderSpecifier.getTarget());
         boolean ascending = orderSpecifier.isAscending();
+        com.blazebit.persistence.parser.expression.Expression expressionTree;
+        if (criteriaBuilder instanceof ExpressionTreeQueryBuilder && (expressionTree = orderSpecifier.getTarget().accept(expressionTreeVisitor, null)) != null) {
+            switch (orderSpecifier.getNullHandling()) {
+                case Default:
+                case NullsLast:
+                    ((ExpressionTreeQueryBuilder) criteriaBuilder).orderBy(expressionTree, ascending, false);
+                    return;
+                case NullsFirst:
+                    ((ExpressionTreeQueryBuilder) criteriaBuilder).orderBy(expressionTree, ascending, true);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Null handling not implemented for " + orderSpecifier.getNullHandling());
+            }
+        }
+        String orderExpression = renderExpression(orderSpecifier.getTarget());
         switch (orderSpecifier.getNullHandling()) {
             case Default:
                 criteriaBuilder.orderBy(orderExpression, ascending);
@@ -767,6 +790,16 @@ public class BlazeCriteriaBuilderRenderer<T> {
          */
         X setExpression(B builder, String expression, String alias);
 
+        /**
+         * Set a pre-built expression tree without subqueries.
+         *
+         * @param builder the builder
+         * @param expression the expression tree to set
+         * @param alias an optional alias to use
+         * @return the builder result or <code>null</code> if the builder or expression is not supported
+         */
+        X setExpressionTree(B builder, com.blazebit.persistence.parser.expression.Expression expression, String alias);
+
         /**
          * Set an expression with subqueries.
          *
@@ -794,6 +827,15 @@ public class BlazeCriteriaBuilderRenderer<T> {
             return alias != null ? builder.select(expression, alias) : builder.select(expression);
         }
 
+        @Override
+        public X setExpressionTree(SelectBuilder<X> builder, com.blazebit.persistence.parser.expression.Expression expression, String alias) {
+            if (!(builder instanceof ExpressionTreeQueryBuilder)) {
+                return null;
+            }
+            ((ExpressionTreeQueryBuilder) builder).select(expression, alias);
+            return (X) builder;
+        }
+
         @Override
         public MultipleSubqueryInitiator<? extends X> setExpressionSubqueries(SelectBuilder<X> builder, String expression, String alias) {
             return alias != null ? builder.selectSubqueries(expression, alias) : builder.selectSubqueries(expression);
@@ -816,6 +858,14 @@ public class BlazeCriteriaBuilderRenderer<T> {
             return builder.setOnExpression(expression);
         }
 
+        @Override
+        public X setExpressionTree(JoinOnBuilder<X> builder, com.blazebit.persistence.parser.expression.Expression expression, String alias) {
+            if (!(builder instanceof ExpressionTreeJoinOnBuilder<?>) || !(expression instanceof com.blazebit.persistence.parser.predicate.Predicate)) {
+                return null;
+            }
+            return ((ExpressionTreeJoinOnBuilder<X>) builder).setOnExpression((com.blazebit.persistence.parser.predicate.Predicate) expression);
+        }
+
         @Override
         public MultipleSubqueryInitiator<? extends X> setExpressionSubqueries(JoinOnBuilder<X> builder, String expression, String alias) {
             return builder.setOnExpressionSubqueries(expression);
@@ -838,6 +888,15 @@ public class BlazeCriteriaBuilderRenderer<T> {
             return builder.setHavingExpression(expression);
         }
 
+        @Override
+        public X setExpressionTree(HavingBuilder<X> builder, com.blazebit.persistence.parser.expression.Expression expression, String alias) {
+            if (!(builder instanceof ExpressionTreeQueryBuilder) || !(expression instanceof com.blazebit.persistence.parser.predicate.Predicate)) {
+                return null;
+            }
+            ((ExpressionTreeQueryBuilder) builder).setHavingExpression((com.blazebit.persistence.parser.predicate.Predicate) expression);
+            return (X) builder;
+        }
+
         @Override
         public MultipleSubqueryInitiator<? extends X> setExpressionSubqueries(HavingBuilder<X> builder, String expression, String alias) {
             return builder.setHavingExpressionSubqueries(expression);
@@ -860,6 +919,15 @@ public class BlazeCriteriaBuilderRenderer<T> {
             return builder.setWhereExpression(expression);
         }
 
+        @Override
+        public X setExpressionTree(WhereBuilder<X> builder, com.blazebit.persistence.parser.expression.Expression expression, String alias) {
+            if (!(builder instanceof ExpressionTreeQueryBuilder) || !(expression instanceof com.blazebit.persistence.parser.predicate.Predicate)) {
+                return null;
+            }
+            ((ExpressionTreeQueryBuilder) builder).setWhereExpression((com.blazebit.persistence.parser.predicate.Predicate) expression);
+            return (X) builder;
+        }
+
         @Override
         public MultipleSubqueryInitiator<? extends X> setExpressionSubqueries(WhereBuilder<X> builder, String expression, String alias) {
             return builder.setWhereExpressionSubqueries(expression);
@@ -868,6 +936,13 @@ public class BlazeCriteriaBuilderRenderer<T> {
     }
 
     private <B, X> X setExpressionSubqueries(Expression<?> expression, String alias, B builder, ExpressionSetter<B, X> expressionSetter) {
+        com.blazebit.persistence.parser.expression.Expression expressionTree = expression.accept(expressionTreeVisitor, null);
+        if (expressionTree != null) {
+            X result = expressionSetter.setExpressionTree(builder, expressionTree, alias);
+            if (result != null) {
+                return result;
+            }
+        }
         String expressionString = renderExpression(expression);
         Map<Expression<?>, String> subQueryToLabel = takeSubQueryToLabelMap();
         if (subQueryToLabel.isEmpty()) {
@@ -1075,13 +1150,7 @@ public class BlazeCriteriaBuilderRenderer<T> {
                 append("(");
             }
             append(":");
-            final Map<Object, String> constantToLabel = getConstantToLabel();
-            String label = constantToLabel.get(constant);
-            if (label == null) {
-                label = "param_" + constantToLabel.size();
-                constantToLabel.put(constant, label);
-            }
-            append(label);
+            append(expressionTreeVisitor.getConstantLabel(constant));
             if (wrap) {
                 append(")");
             }
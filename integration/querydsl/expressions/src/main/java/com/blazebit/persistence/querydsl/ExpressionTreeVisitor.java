@@ -0,0 +1,257 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.querydsl;
+
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.PathExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
+import com.blazebit.persistence.parser.predicate.BetweenPredicate;
+import com.blazebit.persistence.parser.predicate.CompoundPredicate;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
+import com.blazebit.persistence.parser.predicate.GePredicate;
+import com.blazebit.persistence.parser.predicate.GtPredicate;
+import com.blazebit.persistence.parser.predicate.InPredicate;
+import com.blazebit.persistence.parser.predicate.IsEmptyPredicate;
+import com.blazebit.persistence.parser.predicate.IsNullPredicate;
+import com.blazebit.persistence.parser.predicate.LePredicate;
+import com.blazebit.persistence.parser.predicate.LtPredicate;
+import com.blazebit.persistence.parser.predicate.Predicate;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.jpa.JPQLTemplates;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates Querydsl expressions directly to Blaze-Persistence expression trees, avoiding the serialize and parse round trip.
+ * Constants are bound as parameters by object identity, sharing the labels with the {@link JPQLNextSerializer} based rendering.
+ * A <code>null</code> result signals that an expression has no direct translation and must be rendered instead.
+ *
+ * Translation only happens for expressions that Querydsl serializes without rewriting,
+ * checks for rewrites are done before visiting arguments so that no constant label is registered for a constant that isn't rendered.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+class ExpressionTreeVisitor extends DefaultVisitorImpl<Expression, Void> {
+
+    private final JPQLTemplates templates;
+    private final Map<Object, String> constantToLabel;
+
+    public ExpressionTreeVisitor(JPQLTemplates templates, Map<Object, String> constantToLabel) {
+        this.templates = templates;
+        this.constantToLabel = constantToLabel;
+    }
+
+    public String getConstantLabel(Object constant) {
+        String label = constantToLabel.get(constant);
+        if (label == null) {
+            label = "param_" + constantToLabel.size();
+            constantToLabel.put(constant, label);
+        }
+        return label;
+    }
+
+    @Override
+    public Expression visit(Constant<?> constant, Void context) {
+        if (constant.getConstant() instanceof Collection<?>) {
+            // Collections might have to be wrapped in parenthesis depending on the templates
+            return null;
+        }
+        return new ParameterExpression(getConstantLabel(constant.getConstant()));
+    }
+
+    @Override
+    public Expression visit(ParamExpression<?> paramExpression, Void context) {
+        return new ParameterExpression(paramExpression.getName());
+    }
+
+    @Override
+    public Expression visit(Path<?> path, Void context) {
+        PathMetadata metadata = path.getMetadata();
+        switch (metadata.getPathType()) {
+            case VARIABLE:
+                PathExpression pathExpression = new PathExpression();
+                pathExpression.getExpressions().add(new PropertyExpression(metadata.getName()));
+                return pathExpression;
+            case PROPERTY:
+                Expression parent = metadata.getParent().accept(this, context);
+                if (!(parent instanceof PathExpression)) {
+                    return null;
+                }
+                ((PathExpression) parent).getExpressions().add(new PropertyExpression(metadata.getName()));
+                return parent;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Expression visit(Operation<?> operation, Void context) {
+        Operator operator = operation.getOperator();
+        if (!(operator instanceof Ops)) {
+            return null;
+        }
+        List<com.querydsl.core.types.Expression<?>> args = operation.getArgs();
+        switch ((Ops) operator) {
+            case AND:
+                return visitCompound(CompoundPredicate.BooleanOperator.AND, args, context);
+            case OR:
+                return visitCompound(CompoundPredicate.BooleanOperator.OR, args, context);
+            case NOT:
+                Predicate predicate = visitPredicate(args.get(0), context);
+                if (predicate == null) {
+                    return null;
+                }
+                if (predicate.isNegated()) {
+                    // Wrap to maintain the negation structure like the parser does
+                    predicate = new CompoundPredicate(CompoundPredicate.BooleanOperator.AND, predicate);
+                }
+                predicate.negate();
+                return predicate;
+            case IS_NULL:
+            case IS_NOT_NULL:
+                Expression expression = args.get(0).accept(this, context);
+                if (expression == null) {
+                    return null;
+                }
+                return new IsNullPredicate(expression, operator == Ops.IS_NOT_NULL);
+            case COL_IS_EMPTY:
+                Expression collection = args.get(0).accept(this, context);
+                if (!(collection instanceof PathExpression)) {
+                    return null;
+                }
+                ((PathExpression) collection).setUsedInCollectionFunction(true);
+                return new IsEmptyPredicate(collection, false);
+            case IN:
+            case NOT_IN:
+                return visitIn(operator == Ops.NOT_IN, args, context);
+            case EQ:
+            case NE:
+                List<Expression> operands = visitArguments(args, context);
+                if (operands == null) {
+                    return null;
+                }
+                return new EqPredicate(operands.get(0), operands.get(1), operator == Ops.NE);
+            case LT:
+            case LOE:
+            case GT:
+            case GOE:
+            case BETWEEN:
+                // JPQLSerializer replaces numeric constants with constants of the numeric type of the other operands
+                if (requiresNumericNormalization(args)) {
+                    return null;
+                }
+                operands = visitArguments(args, context);
+                if (operands == null) {
+                    return null;
+                }
+                switch ((Ops) operator) {
+                    case LT:
+                        return new LtPredicate(operands.get(0), operands.get(1), false);
+                    case LOE:
+                        return new LePredicate(operands.get(0), operands.get(1), false);
+                    case GT:
+                        return new GtPredicate(operands.get(0), operands.get(1), false);
+                    case GOE:
+                        return new GePredicate(operands.get(0), operands.get(1), false);
+                    default:
+                        return new BetweenPredicate(operands.get(0), operands.get(1), operands.get(2));
+                }
+            default:
+                return null;
+        }
+    }
+
+    private Expression visitCompound(CompoundPredicate.BooleanOperator operator, List<com.querydsl.core.types.Expression<?>> args, Void context) {
+        Predicate first = visitPredicate(args.get(0), context);
+        if (first == null) {
+            return null;
+        }
+        CompoundPredicate compoundPredicate;
+        // Like the parser, continue a leading compound predicate with the same operator
+        if (first instanceof CompoundPredicate && !first.isNegated() && ((CompoundPredicate) first).getOperator() == operator) {
+            compoundPredicate = (CompoundPredicate) first;
+        } else {
+            compoundPredicate = new CompoundPredicate(operator, new ArrayList<Predicate>(args.size()));
+            compoundPredicate.getChildren().add(first);
+        }
+        for (int i = 1; i < args.size(); i++) {
+            Predicate predicate = visitPredicate(args.get(i), context);
+            if (predicate == null) {
+                return null;
+            }
+            compoundPredicate.getChildren().add(predicate);
+        }
+        return compoundPredicate;
+    }
+
+    private Expression visitIn(boolean negated, List<com.querydsl.core.types.Expression<?>> args, Void context) {
+        // JPQLSerializer renders a member of predicate for paths and rewrites empty collections or entity collections
+        if (!templates.isPathInEntitiesSupported() || !(args.get(1) instanceof Constant<?>)) {
+            return null;
+        }
+        Object values = ((Constant<?>) args.get(1)).getConstant();
+        if (!(values instanceof Collection<?>) || ((Collection<?>) values).isEmpty()) {
+            return null;
+        }
+        Expression left = args.get(0).accept(this, context);
+        if (left == null) {
+            return null;
+        }
+        List<Expression> right = new ArrayList<>(1);
+        right.add(new ParameterExpression(getConstantLabel(values), null, true));
+        return new InPredicate(negated, left, right);
+    }
+
+    private Predicate visitPredicate(com.querydsl.core.types.Expression<?> expression, Void context) {
+        Expression result = expression.accept(this, context);
+        if (result instanceof Predicate) {
+            return (Predicate) result;
+        }
+        return null;
+    }
+
+    private List<Expression> visitArguments(List<com.querydsl.core.types.Expression<?>> args, Void context) {
+        List<Expression> operands = new ArrayList<>(args.size());
+        for (int i = 0; i < args.size(); i++) {
+            Expression operand = args.get(i).accept(this, context);
+            if (operand == null) {
+                return null;
+            }
+            operands.add(operand);
+        }
+        return operands;
+    }
+
+    private static boolean requiresNumericNormalization(List<com.querydsl.core.types.Expression<?>> args) {
+        Class<?> numericType = null;
+        for (int i = 0; i < args.size(); i++) {
+            com.querydsl.core.types.Expression<?> arg = args.get(i);
+            if (!(arg instanceof Constant<?>) && Number.class.isAssignableFrom(arg.getType())) {
+                numericType = arg.getType();
+            }
+        }
+        if (numericType != null) {
+            for (int i = 0; i < args.size(); i++) {
+                com.querydsl.core.types.Expression<?> arg = args.get(i);
+                if (arg instanceof Constant<?> && Number.class.isAssignableFrom(arg.getType()) && arg.getType() != numericType) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
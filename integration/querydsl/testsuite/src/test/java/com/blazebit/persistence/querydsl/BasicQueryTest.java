@@ -1188,4 +1188,30 @@ public class BasicQueryTest extends AbstractCoreTest {
         });
     }
 
+    @Test
+    public void testCommonPredicatesWithoutParsing() {
+        doInJPA(em -> {
+            String expected = cbf.create(em, Document.class)
+                    .from(Document.class, "document")
+                    .setWhereExpression("(document.name = :param_0 OR document.name IS NULL) AND document.age BETWEEN :param_1 AND :param_2 AND document.id NOT IN :param_3 AND document.people IS EMPTY")
+                    .orderByAsc("document.id")
+                    .select("document")
+                    .getQueryString();
+
+            BlazeJPAQuery<Document> query = new BlazeJPAQuery<>(em, cbf)
+                    .from(document)
+                    .where(
+                            document.name.eq("bogus 1").or(document.name.isNull()),
+                            document.age.between(0L, 100L),
+                            document.id.notIn(-1L, -2L),
+                            document.people.isEmpty()
+                    )
+                    .orderBy(document.id.asc())
+                    .select(document);
+
+            assertEquals(expected, query.getQueryString());
+            assertEquals(1, query.fetch().size());
+        });
+    }
+
 }
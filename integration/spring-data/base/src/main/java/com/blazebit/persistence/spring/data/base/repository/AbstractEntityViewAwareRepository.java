@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.spring.data.base.repository;
 
+import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.PagedList;
@@ -458,6 +459,20 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         for (ID id : idIterable) {
             idList.add(id);
         }
+        int chunkSize = Integer.parseInt(cbf.getProperty(ConfigurationProperties.IN_LIST_MAXIMUM_SIZE));
+        if (idList.size() <= chunkSize) {
+            return findAllByIdChunk(idList);
+        }
+
+        // Query the ids in chunks to stay within the IN list limits of the DBMS
+        List<V> resultList = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i += chunkSize) {
+            resultList.addAll(findAllByIdChunk(idList.subList(i, Math.min(i + chunkSize, idList.size()))));
+        }
+        return resultList;
+    }
+
+    private List<V> findAllByIdChunk(List<ID> idList) {
         CriteriaBuilder<?> cb = cbf.create(entityManager, getDomainClass())
                 .where(idAttributeName).in(idList);
 
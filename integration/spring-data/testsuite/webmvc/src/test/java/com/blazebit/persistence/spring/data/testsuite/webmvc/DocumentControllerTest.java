@@ -8,6 +8,7 @@ package com.blazebit.persistence.spring.data.testsuite.webmvc;
 import static com.blazebit.persistence.spring.data.testsuite.webmvc.controller.DocumentController.APPLICATION_VND_BLAZEBIT_UPDATE_1_JSON;
 import static com.blazebit.persistence.spring.data.testsuite.webmvc.controller.DocumentController.APPLICATION_VND_BLAZEBIT_UPDATE_2_JSON;
 import static com.blazebit.persistence.spring.data.testsuite.webmvc.controller.DocumentController.APPLICATION_VND_BLAZEBIT_UPDATE_3_JSON;
+import static com.blazebit.persistence.spring.data.testsuite.webmvc.controller.DocumentController.CURSOR_HEADER;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -15,6 +16,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.integration.view.spring.EnableEntityViews;
 import com.blazebit.persistence.spring.data.repository.config.EnableBlazeRepositories;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.entity.Document;
@@ -24,7 +26,10 @@ import com.blazebit.persistence.spring.data.testsuite.webmvc.view.DocumentCreate
 import com.blazebit.persistence.spring.data.testsuite.webmvc.view.DocumentCreateOrUpdateViewBuilder;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.view.DocumentUpdateView;
 import com.blazebit.persistence.spring.data.webmvc.impl.BlazePersistenceWebConfiguration;
+import java.io.Serializable;
 import java.util.Collections;
+import java.util.UUID;
+import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
@@ -74,6 +79,49 @@ public class DocumentControllerTest extends AbstractSpringWebMvcTest {
                 .andExpect(content().string(containsString("\"someInstant\"")));
     }
 
+    @Test
+    public void testDocumentControllerCursor() throws Exception {
+        // Given
+        Document d1 = createDocument("D1");
+        Document d2 = createDocument("D2");
+        createDocument("D3");
+
+        // When
+        String cursor = mockMvc.perform(get("/documents/cursor?size={size}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(d1.getId().intValue())))
+                .andReturn().getResponse().getHeader(CURSOR_HEADER);
+
+        // Then
+        Assert.assertNotNull(cursor);
+        mockMvc.perform(get("/documents/cursor?page={page}&size={size}&cursor={cursor}", 1, 1, cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numberOfElements", is(1)))
+                .andExpect(jsonPath("$.content[0].id", is(d2.getId().intValue())))
+                .andExpect(jsonPath("$.keysetPage.lowest.tuple[0]", is(d2.getId().intValue())));
+    }
+
+    @Test
+    public void testDocumentControllerInvalidCursor() throws Exception {
+        // Given
+        createDocument("D1");
+        UUID value = UUID.randomUUID();
+        String cursor = new KeysetCursorCodec().encodeToString(0, 1, new Serializable[]{ value }, new Serializable[]{ value });
+
+        // When / Then
+        try {
+            mockMvc.perform(get("/documents?page={page}&size={size}&cursor={cursor}", 1, 1, cursor));
+            Assert.fail("Expected the cursor to be rejected");
+        } catch (Exception ex) {
+            // The id of a document is a Long, so a UUID keyset value is invalid
+            Throwable cause = ex;
+            while (cause.getCause() != null && !(cause instanceof IllegalArgumentException)) {
+                cause = cause.getCause();
+            }
+            Assert.assertTrue(cause instanceof IllegalArgumentException);
+        }
+    }
+
     @Test
     public void testUpdateDocument1() throws Exception {
         // Given
@@ -14,6 +14,7 @@ import com.blazebit.persistence.spring.data.testsuite.webmvc.view.DocumentUpdate
 import com.blazebit.persistence.spring.data.testsuite.webmvc.view.DocumentView;
 import com.blazebit.persistence.spring.data.webmvc.EntityViewId;
 import com.blazebit.persistence.spring.data.webmvc.KeysetConfig;
+import com.blazebit.persistence.spring.data.webmvc.KeysetCursorArgumentResolver;
 import java.util.Objects;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -37,8 +38,12 @@ public class DocumentController {
     public static final String APPLICATION_VND_BLAZEBIT_UPDATE_1_JSON = "application/vnd.blazebit.update1+json";
     public static final String APPLICATION_VND_BLAZEBIT_UPDATE_2_JSON = "application/vnd.blazebit.update2+json";
     public static final String APPLICATION_VND_BLAZEBIT_UPDATE_3_JSON = "application/vnd.blazebit.update3+json";
+    public static final String CURSOR_HEADER = "X-Cursor";
     private final ReadOnlyDocumentViewRepository readOnlyDocumentViewRepository;
     private final DocumentRepository documentRepository;
+    // Not every test context contains the web configuration
+    @Autowired(required = false)
+    private KeysetCursorArgumentResolver keysetCursorArgumentResolver;
 
     @Autowired
     public DocumentController(ReadOnlyDocumentViewRepository readOnlyDocumentViewRepository, DocumentRepository documentRepository) {
@@ -51,6 +56,14 @@ public class DocumentController {
         return readOnlyDocumentViewRepository.findAll(null, keysetPageable);
     }
 
+    @GetMapping("/documents/cursor")
+    public ResponseEntity<Page<DocumentView>> getDocumentsWithCursor(@KeysetConfig(Document.class) @PageableDefault(sort = "id") KeysetPageable keysetPageable) {
+        Page<DocumentView> page = readOnlyDocumentViewRepository.findAll(null, keysetPageable);
+        return ResponseEntity.ok()
+                .header(CURSOR_HEADER, keysetCursorArgumentResolver.encodeCursor(page))
+                .body(page);
+    }
+
     @PutMapping(
             value = "/documents/{id1}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -7,7 +7,10 @@ package com.blazebit.persistence.spring.data.webflux.impl;
 
 import com.blazebit.persistence.DefaultKeyset;
 import com.blazebit.persistence.DefaultKeysetPage;
+import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.spring.data.repository.KeysetAwareSlice;
 import com.blazebit.persistence.spring.data.repository.KeysetPageRequest;
 import com.blazebit.persistence.spring.data.repository.KeysetPageable;
 import com.blazebit.persistence.spring.data.webflux.KeysetConfig;
@@ -18,6 +21,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -54,6 +58,7 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
     private static final String DEFAULT_PREVIOUS_SIZE_PARAMETER = "prevSize";
     private static final String DEFAULT_LOWEST_PARAMETER = "lowest";
     private static final String DEFAULT_HIGHEST_PARAMETER = "highest";
+    private static final String DEFAULT_CURSOR_PARAMETER = "cursor";
     private static final String INVALID_DEFAULT_PAGE_SIZE = "Invalid default page size configured for method %s! Must not be less than one!";
     private static final String INVALID_KEYSET_DOMAIN_CLASS = "Invalid keyset domain class configured for method %s! Should be an entity type!";
     private static final KeysetPageable DEFAULT_PAGE_REQUEST;
@@ -68,6 +73,8 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
     private String previousSizeParameterName = DEFAULT_PREVIOUS_SIZE_PARAMETER;
     private String lowestParameterName = DEFAULT_LOWEST_PARAMETER;
     private String highestParameterName = DEFAULT_HIGHEST_PARAMETER;
+    private String cursorParameterName = DEFAULT_CURSOR_PARAMETER;
+    private KeysetCursorCodec cursorCodec = new KeysetCursorCodec();
 
     static {
         org.springframework.data.domain.Sort unsorted = null;
@@ -195,6 +202,38 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
         this.highestParameterName = highestParameterName;
     }
 
+    public String getCursorParameterName() {
+        return cursorParameterName;
+    }
+
+    public void setCursorParameterName(String cursorParameterName) {
+        this.cursorParameterName = cursorParameterName;
+    }
+
+    public KeysetCursorCodec getCursorCodec() {
+        return cursorCodec;
+    }
+
+    public void setCursorCodec(KeysetCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
+    }
+
+    /**
+     * Encodes the keyset page of the given slice to a cursor that can be passed to the next request through the cursor parameter,
+     * using the codec that is also used for decoding cursors.
+     *
+     * @param slice the slice returned by a repository for a {@link KeysetPageable}
+     * @return the cursor or {@literal null} if the slice has no keyset page
+     * @since 1.6.21
+     */
+    public String encodeCursor(Slice<?> slice) {
+        if (!(slice instanceof KeysetAwareSlice<?>)) {
+            return null;
+        }
+        KeysetPage keysetPage = ((KeysetAwareSlice<?>) slice).getKeysetPage();
+        return keysetPage == null ? null : cursorCodec.encodeToString(keysetPage);
+    }
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return KeysetPageable.class.equals(parameter.getParameterType());
@@ -251,6 +290,12 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
                 Method annotatedMethod = methodParameter.getMethod();
                 throw new IllegalStateException(String.format(INVALID_KEYSET_DOMAIN_CLASS, annotatedMethod));
             }
+            String cursorName = getParameterName(keysetConfig.cursorName(), getParameterNameToUse(getCursorParameterName(), methodParameter));
+            String cursorString = serverWebExchange.getRequest().getQueryParams().getFirst(cursorName);
+            if (StringUtils.hasText(cursorString)) {
+                return Mono.just(new KeysetPageRequest(decodeCursor(cursorString, domainClass, sort), sort, offset, pageSize));
+            }
+
             String previousOffsetName = getParameterName(keysetConfig.previousOffsetName(), getParameterNameToUse(getPreviousOffsetParameterName(), methodParameter));
             String previousOffsetString = serverWebExchange.getRequest().getQueryParams().getFirst(previousOffsetName);
 
@@ -318,6 +363,40 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
         return Mono.just(new KeysetPageRequest(keysetPage, sort, offset, pageSize));
     }
 
+    private KeysetPage decodeCursor(String cursor, Class<?> domainClass, org.springframework.data.domain.Sort sort) {
+        List<org.springframework.data.domain.Sort.Order> orders = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            orders.add(order);
+        }
+        Class<?>[] keysetTypes = new Class<?>[orders.size()];
+        for (int i = 0; i < keysetTypes.length; i++) {
+            keysetTypes[i] = getPropertyType(domainClass, orders.get(i).getProperty());
+        }
+        KeysetPage keysetPage = cursorCodec.decode(cursor, keysetTypes);
+        validateCursorTuple(keysetPage.getLowest(), orders, keysetTypes);
+        validateCursorTuple(keysetPage.getHighest(), orders, keysetTypes);
+        return keysetPage;
+    }
+
+    private void validateCursorTuple(Keyset keyset, List<org.springframework.data.domain.Sort.Order> orders, Class<?>[] keysetTypes) {
+        if (keyset == null) {
+            return;
+        }
+        Serializable[] tuple = keyset.getTuple();
+        if (tuple.length != keysetTypes.length) {
+            throw new IllegalArgumentException("Invalid keyset cursor! Expected " + keysetTypes.length + " keyset elements but got " + tuple.length);
+        }
+        for (int i = 0; i < tuple.length; i++) {
+            org.springframework.data.domain.Sort.Order order = orders.get(i);
+            Class<?> propertyType = keysetTypes[i];
+            Class<?> wrapperType = propertyType.isPrimitive() ? ReflectionUtils.getObjectClassOfPrimitve(propertyType) : propertyType;
+            Serializable value = tuple[i];
+            if (value != null && !wrapperType.isInstance(value)) {
+                throw new IllegalArgumentException("Invalid keyset cursor! The value for '" + order.getProperty() + "' is of type '" + value.getClass().getName() + "' but should be of type '" + propertyType.getName() + "'");
+            }
+        }
+    }
+
     private static String getParameterName(String name, String defaultName) {
         if (name == null || name.isEmpty()) {
             return defaultName;
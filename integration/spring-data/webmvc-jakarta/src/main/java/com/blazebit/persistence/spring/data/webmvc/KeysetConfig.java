@@ -72,4 +72,14 @@ public @interface KeysetConfig {
      * @return The highest keyset query parameter name
      */
     String highestName() default "";
+
+    /**
+     * The query parameter name for the keyset cursor parameter.
+     * A cursor encodes the previous offset, previous page size as well as the lowest and highest keyset
+     * and takes precedence over the individual parameters.
+     *
+     * @return The keyset cursor query parameter name
+     * @since 1.6.21
+     */
+    String cursorName() default "";
 }
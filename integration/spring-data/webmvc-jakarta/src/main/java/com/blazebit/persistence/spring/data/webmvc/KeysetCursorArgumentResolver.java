@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.spring.data.webmvc;
+
+import com.blazebit.persistence.KeysetCursorCodec;
+import com.blazebit.persistence.spring.data.repository.KeysetPageable;
+import com.blazebit.persistence.spring.data.webmvc.impl.KeysetPageableHandlerMethodArgumentResolver;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A {@link KeysetPageableArgumentResolver} that also supports resolving a {@link KeysetPageable} from an opaque keyset cursor
+ * and encoding the cursor for a result.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public interface KeysetCursorArgumentResolver extends KeysetPageableArgumentResolver {
+
+    /**
+     * Configures the parameter name to be used to find the keyset cursor in the request. Defaults to {@link KeysetPageableHandlerMethodArgumentResolver#DEFAULT_CURSOR_PARAMETER}.
+     *
+     * @param cursorParameterName the parameter name to be used, must not be {@literal null} or empty.
+     */
+    void setCursorParameterName(String cursorParameterName);
+
+    /**
+     * Configures the codec to be used for encoding and decoding keyset cursors. Defaults to a codec that only supports the built-in types
+     * as well as the types of the keyset properties and doesn't verify a HMAC.
+     *
+     * @param cursorCodec the cursor codec to be used, must not be {@literal null}.
+     */
+    void setCursorCodec(KeysetCursorCodec cursorCodec);
+
+    /**
+     * Encodes the keyset page of the given slice to a cursor that can be passed to the next request through the cursor parameter,
+     * using the codec that is also used for decoding cursors.
+     *
+     * @param slice the slice returned by a repository for a {@link KeysetPageable}
+     * @return the cursor or {@literal null} if the slice has no keyset page
+     */
+    String encodeCursor(Slice<?> slice);
+}
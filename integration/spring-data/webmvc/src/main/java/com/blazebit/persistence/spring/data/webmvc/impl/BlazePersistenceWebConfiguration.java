@@ -6,6 +6,7 @@
 package com.blazebit.persistence.spring.data.webmvc.impl;
 
 import com.blazebit.persistence.integration.jackson.EntityViewIdValueAccessor;
+import com.blazebit.persistence.spring.data.webmvc.KeysetCursorArgumentResolver;
 import com.blazebit.persistence.spring.data.webmvc.KeysetPageableArgumentResolver;
 import com.blazebit.persistence.spring.data.webmvc.impl.json.EntityViewAwareMappingJackson2HttpMessageConverter;
 import com.blazebit.persistence.spring.data.webmvc.impl.json.EntityViewIdHandlerInterceptor;
@@ -50,7 +51,7 @@ public class BlazePersistenceWebConfiguration extends WebMvcConfigurerAdapter {
     }
 
     @Bean
-    public KeysetPageableArgumentResolver blazeWebmvcKeysetPageableResolver() {
+    public KeysetCursorArgumentResolver blazeWebmvcKeysetPageableResolver() {
         return new KeysetPageableHandlerMethodArgumentResolver(blazeWebmvcKeysetSortResolver(), conversionService.getObject(), objectMapper());
     }
 
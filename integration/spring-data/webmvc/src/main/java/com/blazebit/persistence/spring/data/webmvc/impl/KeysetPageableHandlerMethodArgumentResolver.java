@@ -7,11 +7,14 @@ package com.blazebit.persistence.spring.data.webmvc.impl;
 
 import com.blazebit.persistence.DefaultKeyset;
 import com.blazebit.persistence.DefaultKeysetPage;
+import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCursorCodec;
 import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.spring.data.repository.KeysetAwareSlice;
 import com.blazebit.persistence.spring.data.repository.KeysetPageRequest;
 import com.blazebit.persistence.spring.data.repository.KeysetPageable;
 import com.blazebit.persistence.spring.data.webmvc.KeysetConfig;
-import com.blazebit.persistence.spring.data.webmvc.KeysetPageableArgumentResolver;
+import com.blazebit.persistence.spring.data.webmvc.KeysetCursorArgumentResolver;
 import com.blazebit.reflection.ReflectionUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,6 +23,7 @@ import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.data.web.SortHandlerMethodArgumentResolver;
@@ -50,7 +54,7 @@ import java.util.concurrent.ConcurrentMap;
  * @author Christian Beikov
  * @since 1.2.0
  */
-public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandlerMethodArgumentResolver implements KeysetPageableArgumentResolver {
+public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandlerMethodArgumentResolver implements KeysetCursorArgumentResolver {
 
     private static final String DEFAULT_OFFSET_PARAMETER = "offset";
     private static final String DEFAULT_PREVIOUS_OFFSET_PARAMETER = "prevOffset";
@@ -58,6 +62,7 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
     private static final String DEFAULT_PREVIOUS_SIZE_PARAMETER = "prevSize";
     private static final String DEFAULT_LOWEST_PARAMETER = "lowest";
     private static final String DEFAULT_HIGHEST_PARAMETER = "highest";
+    private static final String DEFAULT_CURSOR_PARAMETER = "cursor";
     private static final String INVALID_DEFAULT_PAGE_SIZE = "Invalid default page size configured for method %s! Must not be less than one!";
     private static final String INVALID_KEYSET_DOMAIN_CLASS = "Invalid keyset domain class configured for method %s! Should be an entity type!";
     private static final KeysetPageable DEFAULT_PAGE_REQUEST;
@@ -73,6 +78,8 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
     private String previousSizeParameterName = DEFAULT_PREVIOUS_SIZE_PARAMETER;
     private String lowestParameterName = DEFAULT_LOWEST_PARAMETER;
     private String highestParameterName = DEFAULT_HIGHEST_PARAMETER;
+    private String cursorParameterName = DEFAULT_CURSOR_PARAMETER;
+    private KeysetCursorCodec cursorCodec = new KeysetCursorCodec();
 
     static {
         org.springframework.data.domain.Sort unsorted = null;
@@ -212,6 +219,33 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
         this.highestParameterName = highestParameterName;
     }
 
+    protected String getCursorParameterName() {
+        return cursorParameterName;
+    }
+
+    @Override
+    public void setCursorParameterName(String cursorParameterName) {
+        this.cursorParameterName = cursorParameterName;
+    }
+
+    public KeysetCursorCodec getCursorCodec() {
+        return cursorCodec;
+    }
+
+    @Override
+    public void setCursorCodec(KeysetCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
+    }
+
+    @Override
+    public String encodeCursor(Slice<?> slice) {
+        if (!(slice instanceof KeysetAwareSlice<?>)) {
+            return null;
+        }
+        KeysetPage keysetPage = ((KeysetAwareSlice<?>) slice).getKeysetPage();
+        return keysetPage == null ? null : cursorCodec.encodeToString(keysetPage);
+    }
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return KeysetPageable.class.equals(parameter.getParameterType());
@@ -273,6 +307,12 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
                 Method annotatedMethod = methodParameter.getMethod();
                 throw new IllegalStateException(String.format(INVALID_KEYSET_DOMAIN_CLASS, annotatedMethod));
             }
+            String cursorName = getParameterName(keysetConfig.cursorName(), getParameterNameToUse(getCursorParameterName(), methodParameter));
+            String cursorString = webRequest.getParameter(cursorName);
+            if (StringUtils.hasText(cursorString)) {
+                return new KeysetPageRequest(decodeCursor(cursorString, domainClass, sort), sort, offset, pageSize);
+            }
+
             String previousOffsetName = getParameterName(keysetConfig.previousOffsetName(), getParameterNameToUse(getPreviousOffsetParameterName(), methodParameter));
             String previousOffsetString = webRequest.getParameter(previousOffsetName);
 
@@ -340,6 +380,43 @@ public class KeysetPageableHandlerMethodArgumentResolver extends PageableHandler
         return new KeysetPageRequest(keysetPage, sort, offset, pageSize);
     }
 
+    private KeysetPage decodeCursor(String cursor, Class<?> domainClass, org.springframework.data.domain.Sort sort) {
+        List<org.springframework.data.domain.Sort.Order> orders = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            orders.add(order);
+        }
+        Class<?>[] keysetTypes = new Class<?>[orders.size()];
+        for (int i = 0; i < keysetTypes.length; i++) {
+            keysetTypes[i] = getPropertyType(domainClass, orders.get(i).getProperty());
+        }
+        KeysetPage keysetPage = cursorCodec.decode(cursor, keysetTypes);
+        validateCursorTuple(keysetPage.getLowest(), orders, keysetTypes);
+        validateCursorTuple(keysetPage.getHighest(), orders, keysetTypes);
+        return keysetPage;
+    }
+
+    private void validateCursorTuple(Keyset keyset, List<org.springframework.data.domain.Sort.Order> orders, Class<?>[] keysetTypes) {
+        if (keyset == null) {
+            return;
+        }
+        Serializable[] tuple = keyset.getTuple();
+        if (tuple.length != keysetTypes.length) {
+            throw new IllegalArgumentException("Invalid keyset cursor! Expected " + keysetTypes.length + " keyset elements but got " + tuple.length);
+        }
+        for (int i = 0; i < tuple.length; i++) {
+            org.springframework.data.domain.Sort.Order order = orders.get(i);
+            Class<?> propertyType = keysetTypes[i];
+            Class<?> wrapperType = propertyType.isPrimitive() ? ReflectionUtils.getObjectClassOfPrimitve(propertyType) : propertyType;
+            Serializable value = tuple[i];
+            if (value != null && !wrapperType.isInstance(value)) {
+                if (conversionService == null || !conversionService.canConvert(value.getClass(), propertyType)) {
+                    throw new IllegalArgumentException("Invalid keyset cursor! The value for '" + order.getProperty() + "' is of type '" + value.getClass().getName() + "' but should be of type '" + propertyType.getName() + "'");
+                }
+                tuple[i] = (Serializable) conversionService.convert(value, propertyType);
+            }
+        }
+    }
+
     private static String getParameterName(String name, String defaultName) {
         if (name == null || name.isEmpty()) {
             return defaultName;
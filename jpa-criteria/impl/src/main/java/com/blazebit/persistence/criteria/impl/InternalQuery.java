@@ -33,6 +33,8 @@ import com.blazebit.persistence.criteria.impl.path.AbstractJoin;
 import com.blazebit.persistence.criteria.impl.path.EntityJoin;
 import com.blazebit.persistence.criteria.impl.path.RootImpl;
 import com.blazebit.persistence.criteria.impl.path.TreatedPath;
+import com.blazebit.persistence.parser.expression.ExpressionTreeJoinOnBuilder;
+import com.blazebit.persistence.parser.expression.ExpressionTreeQueryBuilder;
 
 import javax.persistence.Tuple;
 import javax.persistence.criteria.Expression;
@@ -396,39 +398,48 @@ public class InternalQuery<T> implements Serializable {
 
             ((SubqueryExpression<?>) s).renderSubquery(context);
             context.popSubqueryInitiator();
+            return;
+        }
+        if (!(s instanceof TreatedPath<?>) && cb instanceof ExpressionTreeQueryBuilder) {
+            com.blazebit.persistence.parser.expression.Expression expression = context.tryToExpressionTree(s);
+            if (expression != null) {
+                String alias = s.getAlias() != null && !(s instanceof AbstractFrom<?, ?>) ? s.getAlias() : null;
+                ((ExpressionTreeQueryBuilder) cb).select(expression, alias);
+                return;
+            }
+        }
+
+        if (s instanceof TreatedPath<?>) {
+            TreatedPath<?> treatedPath = (TreatedPath<?>) s;
+            treatedSelections.add(treatedPath);
+            treatedPath.getTreatedPath().render(context);
         } else {
-            if (s instanceof TreatedPath<?>) {
-                TreatedPath<?> treatedPath = (TreatedPath<?>) s;
-                treatedSelections.add(treatedPath);
-                treatedPath.getTreatedPath().render(context);
+            ((AbstractSelection<?>) s).render(context);
+        }
+        String expr = context.takeBuffer();
+        Map<String, InternalQuery<?>> aliasToSubqueries = context.takeAliasToSubqueryMap();
+
+        if (aliasToSubqueries.isEmpty()) {
+            if (s.getAlias() != null && !(s instanceof AbstractFrom<?, ?>)) {
+                cb.select(expr, s.getAlias());
             } else {
-                ((AbstractSelection<?>) s).render(context);
+                cb.select(expr);
             }
-            String expr = context.takeBuffer();
-            Map<String, InternalQuery<?>> aliasToSubqueries = context.takeAliasToSubqueryMap();
-
-            if (aliasToSubqueries.isEmpty()) {
-                if (s.getAlias() != null && !(s instanceof AbstractFrom<?, ?>)) {
-                    cb.select(expr, s.getAlias());
-                } else {
-                    cb.select(expr);
-                }
+        } else {
+            MultipleSubqueryInitiator<?> initiator;
+            if (s.getAlias() != null) {
+                initiator = cb.selectSubqueries(expr, s.getAlias());
             } else {
-                MultipleSubqueryInitiator<?> initiator;
-                if (s.getAlias() != null) {
-                    initiator = cb.selectSubqueries(expr, s.getAlias());
-                } else {
-                    initiator = cb.selectSubqueries(expr);
-                }
-
-                for (Map.Entry<String, InternalQuery<?>> subqueryEntry : aliasToSubqueries.entrySet()) {
-                    context.pushSubqueryInitiator(initiator.with(subqueryEntry.getKey()));
-                    subqueryEntry.getValue().renderSubquery(context);
-                    context.popSubqueryInitiator();
-                }
+                initiator = cb.selectSubqueries(expr);
+            }
 
-                initiator.end();
+            for (Map.Entry<String, InternalQuery<?>> subqueryEntry : aliasToSubqueries.entrySet()) {
+                context.pushSubqueryInitiator(initiator.with(subqueryEntry.getKey()));
+                subqueryEntry.getValue().renderSubquery(context);
+                context.popSubqueryInitiator();
             }
+
+            initiator.end();
         }
     }
 
@@ -558,7 +569,14 @@ public class InternalQuery<T> implements Serializable {
                 }
             }
 
-            if (onBuilder != null) {
+            com.blazebit.persistence.parser.predicate.Predicate onPredicate = null;
+            if (onBuilder instanceof ExpressionTreeJoinOnBuilder) {
+                context.setClauseType(ClauseType.ON);
+                onPredicate = (com.blazebit.persistence.parser.predicate.Predicate) context.tryToExpressionTree(j.getOn());
+            }
+            if (onPredicate != null) {
+                ((ExpressionTreeJoinOnBuilder<?>) onBuilder).setOnExpression(onPredicate);
+            } else if (onBuilder != null) {
                 context.setClauseType(ClauseType.ON);
                 context.getBuffer().setLength(0);
                 ((AbstractSelection<?>) j.getOn()).render(context);
@@ -639,6 +657,13 @@ public class InternalQuery<T> implements Serializable {
         }
 
         context.setClauseType(ClauseType.WHERE);
+        if (treatedSelections.isEmpty() && wb instanceof ExpressionTreeQueryBuilder) {
+            com.blazebit.persistence.parser.predicate.Predicate predicate = (com.blazebit.persistence.parser.predicate.Predicate) context.tryToExpressionTree(restriction);
+            if (predicate != null) {
+                ((ExpressionTreeQueryBuilder) wb).setWhereExpression(predicate);
+                return;
+            }
+        }
         context.getBuffer().setLength(0);
         ((AbstractSelection<?>) restriction).render(context);
         renderTreatTypeRestrictions(context, treatedSelections);
@@ -685,6 +710,13 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.GROUP_BY);
         for (Expression<?> expr : groupList) {
+            if (gb instanceof ExpressionTreeQueryBuilder) {
+                com.blazebit.persistence.parser.expression.Expression expression = context.tryToExpressionTree(expr);
+                if (expression != null) {
+                    ((ExpressionTreeQueryBuilder) gb).groupBy(expression);
+                    continue;
+                }
+            }
             context.getBuffer().setLength(0);
             ((AbstractSelection<?>) expr).render(context);
             String expression = context.takeBuffer();
@@ -713,6 +745,13 @@ public class InternalQuery<T> implements Serializable {
         }
 
         context.setClauseType(ClauseType.HAVING);
+        if (hb instanceof ExpressionTreeQueryBuilder) {
+            com.blazebit.persistence.parser.predicate.Predicate predicate = (com.blazebit.persistence.parser.predicate.Predicate) context.tryToExpressionTree(having);
+            if (predicate != null) {
+                ((ExpressionTreeQueryBuilder) hb).setHavingExpression(predicate);
+                return;
+            }
+        }
         context.getBuffer().setLength(0);
         ((AbstractSelection<?>) having).render(context);
         String expression = context.takeBuffer();
@@ -740,18 +779,25 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.ORDER_BY);
         for (Order order : orderList) {
+            boolean nullsFirst = false;
+
+            if (order instanceof BlazeOrder) {
+                nullsFirst = ((BlazeOrder) order).isNullsFirst();
+            }
+
+            if (ob instanceof ExpressionTreeQueryBuilder) {
+                com.blazebit.persistence.parser.expression.Expression expression = context.tryToExpressionTree(order.getExpression());
+                if (expression != null) {
+                    ((ExpressionTreeQueryBuilder) ob).orderBy(expression, order.isAscending(), nullsFirst);
+                    continue;
+                }
+            }
             context.getBuffer().setLength(0);
             ((AbstractSelection<?>) order.getExpression()).render(context);
             String expression = context.takeBuffer();
             Map<String, InternalQuery<?>> aliasToSubqueries = context.takeAliasToSubqueryMap();
 
             if (aliasToSubqueries.isEmpty()) {
-                boolean nullsFirst = false;
-
-                if (order instanceof BlazeOrder) {
-                    nullsFirst = ((BlazeOrder) order).isNullsFirst();
-                }
-
                 ob.orderBy(expression, order.isAscending(), nullsFirst);
             } else {
                 throw new IllegalArgumentException("Subqueries are not supported in the order by clause!");
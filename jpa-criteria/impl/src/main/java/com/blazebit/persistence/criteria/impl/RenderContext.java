@@ -6,6 +6,7 @@
 package com.blazebit.persistence.criteria.impl;
 
 import com.blazebit.persistence.SubqueryInitiator;
+import com.blazebit.persistence.parser.expression.Expression;
 
 import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Selection;
@@ -24,6 +25,16 @@ public interface RenderContext {
 
     public void apply(Selection<?> selection);
 
+    /**
+     * Translates the given selection to an expression tree, registering parameters just like {@link #apply(Selection)}.
+     * Returns <code>null</code> if the selection has no expression tree translation, in which case it has to be rendered via {@link #apply(Selection)}.
+     *
+     * @param selection The selection
+     * @return The expression tree or <code>null</code>
+     * @since 1.6.21
+     */
+    public Expression toExpressionTree(Selection<?> selection);
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -8,6 +8,7 @@ package com.blazebit.persistence.criteria.impl;
 import com.blazebit.persistence.CommonQueryBuilder;
 import com.blazebit.persistence.SubqueryInitiator;
 import com.blazebit.persistence.criteria.impl.expression.AbstractSelection;
+import com.blazebit.persistence.parser.expression.Expression;
 
 import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Selection;
@@ -15,6 +16,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,7 +27,7 @@ import java.util.Map;
  */
 public class RenderContextImpl implements RenderContext {
 
-    private final Map<ParameterExpression<?>, String> explicitParameterMapping = new HashMap<>();
+    private final Map<ParameterExpression<?>, String> explicitParameterMapping = new LinkedHashMap<>();
     private final List<ImplicitParameterBinding> implicitParameterBindings = new ArrayList<>();
 
     private final StringBuilder buffer;
@@ -81,6 +84,42 @@ public class RenderContextImpl implements RenderContext {
         ((AbstractSelection<?>) selection).render(this);
     }
 
+    @Override
+    public Expression toExpressionTree(Selection<?> selection) {
+        return ((AbstractSelection<?>) selection).toExpressionTree(this);
+    }
+
+    /**
+     * Translates the given selection to an expression tree like {@link #toExpressionTree(Selection)}.
+     * If the selection has no expression tree translation, the parameters registered during the attempt are discarded,
+     * so that the selection can be rendered instead.
+     *
+     * @param selection The selection
+     * @return The expression tree or <code>null</code>
+     * @since 1.6.21
+     */
+    public Expression tryToExpressionTree(Selection<?> selection) {
+        int explicitParameterMappingSize = explicitParameterMapping.size();
+        int implicitParameterBindingsSize = implicitParameterBindings.size();
+        int parameterCount = explicitParameterCount;
+        Expression expression = ((AbstractSelection<?>) selection).toExpressionTree(this);
+        if (expression == null) {
+            if (explicitParameterMapping.size() != explicitParameterMappingSize) {
+                Iterator<ParameterExpression<?>> iterator = explicitParameterMapping.keySet().iterator();
+                for (int i = 0; i < explicitParameterMappingSize; i++) {
+                    iterator.next();
+                }
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            implicitParameterBindings.subList(implicitParameterBindingsSize, implicitParameterBindings.size()).clear();
+            explicitParameterCount = parameterCount;
+        }
+        return expression;
+    }
+
     @Override
     public String resolveAlias(Object aliasedObject, Class<?> entityClass) {
         return resolveAlias(aliasedObject, entityClass.getSimpleName());
@@ -6,6 +6,9 @@
 package com.blazebit.persistence.criteria.impl.expression;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
+import com.blazebit.persistence.parser.expression.NumericLiteral;
+import com.blazebit.persistence.parser.expression.NumericType;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
 
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Selection;
@@ -37,6 +40,17 @@ public abstract class AbstractPredicate extends AbstractExpression<Boolean> impl
 
     public abstract AbstractPredicate copyNegated();
 
+    /**
+     * Returns the expression tree for the rendered constant predicates <code>1=1</code> and <code>1=0</code>.
+     *
+     * @param value The value of the constant predicate
+     * @return The expression tree
+     * @since 1.6.21
+     */
+    protected static com.blazebit.persistence.parser.predicate.Predicate constantExpressionTree(boolean value) {
+        return new EqPredicate(new NumericLiteral("1", NumericType.INTEGER), new NumericLiteral(value ? "1" : "0", NumericType.INTEGER));
+    }
+
     @Override
     public final boolean isCompoundSelection() {
         return false;
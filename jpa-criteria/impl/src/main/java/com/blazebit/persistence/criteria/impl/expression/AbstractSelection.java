@@ -45,4 +45,16 @@ public abstract class AbstractSelection<X> extends AbstractTupleElement<X> imple
 
     public abstract void render(RenderContext context);
 
+    /**
+     * Builds the expression tree for this selection which must be equivalent to parsing the output of {@link #render(RenderContext)}.
+     * Returns <code>null</code> if this selection or one of its operands has no expression tree translation, in which case it must be rendered.
+     *
+     * @param context The render context
+     * @return The expression tree or <code>null</code>
+     * @since 1.6.21
+     */
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        return null;
+    }
+
 }
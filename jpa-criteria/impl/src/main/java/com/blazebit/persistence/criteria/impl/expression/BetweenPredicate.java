@@ -56,4 +56,21 @@ public class BetweenPredicate<Y> extends AbstractSimplePredicate {
         context.apply(upperBound);
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression left = context.toExpressionTree(expression);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression start = context.toExpressionTree(lowerBound);
+        if (start == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression end = context.toExpressionTree(upperBound);
+        if (end == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.BetweenPredicate(left, start, end, isNegated());
+    }
+
 }
@@ -43,4 +43,9 @@ public class BooleanLiteralPredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        return constantExpressionTree(value ^ isNegated());
+    }
+
 }
@@ -8,6 +8,11 @@ package com.blazebit.persistence.criteria.impl.expression;
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
+import com.blazebit.persistence.parser.predicate.GePredicate;
+import com.blazebit.persistence.parser.predicate.GtPredicate;
+import com.blazebit.persistence.parser.predicate.LePredicate;
+import com.blazebit.persistence.parser.predicate.LtPredicate;
 
 import javax.persistence.criteria.Expression;
 
@@ -113,4 +118,32 @@ public class ComparisonPredicate extends AbstractSimplePredicate {
         context.apply(rightHandSide);
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression left = context.toExpressionTree(leftHandSide);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression right = context.toExpressionTree(rightHandSide);
+        if (right == null) {
+            return null;
+        }
+        switch (comparisonOperator) {
+            case EQUAL:
+                return new EqPredicate(left, right, false);
+            case NOT_EQUAL:
+                return new EqPredicate(left, right, true);
+            case LESS_THAN:
+                return new LtPredicate(left, right, false);
+            case LESS_THAN_OR_EQUAL:
+                return new LePredicate(left, right, false);
+            case GREATER_THAN:
+                return new GtPredicate(left, right, false);
+            case GREATER_THAN_OR_EQUAL:
+                return new GePredicate(left, right, false);
+            default:
+                throw new IllegalStateException("Unsupported comparison operator: " + comparisonOperator);
+        }
+    }
+
 }
@@ -100,6 +100,43 @@ public class CompoundPredicate extends AbstractPredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        List<Expression<Boolean>> exprs = expressions;
+        int size = exprs.size();
+        switch (size) {
+            case 0:
+                return constantExpressionTree(operator == BooleanOperator.AND ^ isNegated());
+            case 1:
+                return context.toExpressionTree(exprs.get(0));
+            default:
+                com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator treeOperator = operator == BooleanOperator.AND
+                        ? com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND
+                        : com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.OR;
+                com.blazebit.persistence.parser.predicate.Predicate first = (com.blazebit.persistence.parser.predicate.Predicate) context.toExpressionTree(exprs.get(0));
+                if (first == null) {
+                    return null;
+                }
+                com.blazebit.persistence.parser.predicate.CompoundPredicate compoundPredicate;
+                // Like the parser, continue a leading compound predicate with the same operator
+                if (first instanceof com.blazebit.persistence.parser.predicate.CompoundPredicate && !first.isNegated()
+                        && ((com.blazebit.persistence.parser.predicate.CompoundPredicate) first).getOperator() == treeOperator) {
+                    compoundPredicate = (com.blazebit.persistence.parser.predicate.CompoundPredicate) first;
+                } else {
+                    compoundPredicate = new com.blazebit.persistence.parser.predicate.CompoundPredicate(treeOperator, new ArrayList<com.blazebit.persistence.parser.predicate.Predicate>(size));
+                    compoundPredicate.getChildren().add(first);
+                }
+                for (int i = 1; i < size; i++) {
+                    com.blazebit.persistence.parser.predicate.Predicate child = (com.blazebit.persistence.parser.predicate.Predicate) context.toExpressionTree(exprs.get(i));
+                    if (child == null) {
+                        return null;
+                    }
+                    compoundPredicate.getChildren().add(child);
+                }
+                return compoundPredicate;
+        }
+    }
+
     @Override
     public AbstractPredicate copyNegated() {
         return new CompoundPredicate(this);
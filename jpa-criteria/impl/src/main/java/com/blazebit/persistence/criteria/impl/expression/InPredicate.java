@@ -158,4 +158,43 @@ public class InPredicate<T> extends AbstractSimplePredicate implements BlazeCrit
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        List<Expression<? extends T>> values = this.values;
+        int size = values.size();
+        if (size == 0) {
+            return constantExpressionTree(isNegated());
+        }
+
+        com.blazebit.persistence.parser.expression.Expression left = context.toExpressionTree(expression);
+        if (left == null) {
+            return null;
+        }
+        List<com.blazebit.persistence.parser.expression.Expression> right = new ArrayList<>(allValues ? 1 : size);
+        if (allValues) {
+            List<Object> literalValues = new ArrayList<>(size);
+            for (ParameterExpressionImpl<T> value : (Collection<ParameterExpressionImpl<T>>) (Collection<?>) values) {
+                literalValues.add(value.getRealValue());
+            }
+
+            String paramName = context.registerLiteralParameterBinding(literalValues, Collection.class);
+            right.add(new com.blazebit.persistence.parser.expression.ParameterExpression(paramName, null, true));
+        } else {
+            Expression<? extends T> first = values.get(0);
+            boolean collectionValued = size == 1 && first instanceof ParameterExpressionImpl<?> && Collection.class.isAssignableFrom(((ParameterExpressionImpl<?>) first).getParameterType());
+            for (int i = 0; i < size; i++) {
+                com.blazebit.persistence.parser.expression.Expression value = context.toExpressionTree(values.get(i));
+                if (value == null) {
+                    return null;
+                }
+                right.add(value);
+            }
+            if (collectionValued) {
+                ((com.blazebit.persistence.parser.expression.ParameterExpression) right.get(0)).setCollectionValued(true);
+            }
+        }
+        return new com.blazebit.persistence.parser.predicate.InPredicate(isNegated(), left, right);
+    }
+
 }
@@ -9,6 +9,8 @@ import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.path.PluralAttributePath;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.PathExpression;
 
 /**
  * @author Christian Beikov
@@ -46,4 +48,14 @@ public class IsEmptyPredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public Expression toExpressionTree(RenderContext context) {
+        PathExpression path = (PathExpression) context.toExpressionTree(collectionPath);
+        if (path == null) {
+            return null;
+        }
+        path.setUsedInCollectionFunction(true);
+        return new com.blazebit.persistence.parser.predicate.IsEmptyPredicate(path, isNegated());
+    }
+
 }
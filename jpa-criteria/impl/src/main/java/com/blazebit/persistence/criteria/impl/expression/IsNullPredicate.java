@@ -47,4 +47,13 @@ public class IsNullPredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        com.blazebit.persistence.parser.expression.Expression expression = context.toExpressionTree(operand);
+        if (expression == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.IsNullPredicate(expression, isNegated());
+    }
+
 }
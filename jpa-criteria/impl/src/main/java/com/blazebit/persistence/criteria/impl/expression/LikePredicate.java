@@ -67,4 +67,26 @@ public class LikePredicate extends AbstractSimplePredicate {
         }
     }
 
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        if (escapeCharacter != null && !(escapeCharacter instanceof ParameterExpressionImpl<?>)) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression left = context.toExpressionTree(matchExpression);
+        if (left == null) {
+            return null;
+        }
+        com.blazebit.persistence.parser.expression.Expression right = context.toExpressionTree(pattern);
+        if (right == null) {
+            return null;
+        }
+        return new com.blazebit.persistence.parser.predicate.LikePredicate(
+                left,
+                right,
+                true,
+                escapeCharacter == null ? null : context.toExpressionTree(escapeCharacter),
+                isNegated()
+        );
+    }
+
 }
@@ -8,6 +8,12 @@ package com.blazebit.persistence.criteria.impl.expression;
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.NumericLiteral;
+import com.blazebit.persistence.parser.expression.NumericType;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.StringLiteral;
+import com.blazebit.persistence.parser.predicate.BooleanLiteral;
 import com.blazebit.persistence.parser.util.TypeConverter;
 import com.blazebit.persistence.parser.util.TypeUtils;
 
@@ -58,6 +64,23 @@ public class LiteralExpression<T> extends AbstractExpression<T> {
         }
     }
 
+    @Override
+    public Expression toExpressionTree(RenderContext context) {
+        if (literal instanceof String) {
+            return new StringLiteral((String) literal);
+        } else if (literal instanceof Integer) {
+            return new NumericLiteral(literal.toString(), NumericType.INTEGER);
+        } else if (literal instanceof Long) {
+            return new NumericLiteral(literal.toString() + 'L', NumericType.LONG);
+        } else if (literal instanceof Boolean) {
+            return new BooleanLiteral((Boolean) literal);
+        } else if (TypeUtils.getConverter(literal.getClass(), criteriaBuilder.getEntityMetamodel().getEnumTypes().keySet()) != null) {
+            // Other literals that are rendered as JPQL literals are left to the parser
+            return null;
+        }
+        return new ParameterExpression(context.registerLiteralParameterBinding(getLiteral(), getJavaType()));
+    }
+
     @Override
     @SuppressWarnings({ "unchecked", "rawtypes" })
     protected void setJavaType(Class targetType) {
@@ -7,6 +7,8 @@ package com.blazebit.persistence.criteria.impl.expression;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.predicate.Predicate;
 
 /**
  * @author Christian Beikov
@@ -39,4 +41,18 @@ public class NotPredicate extends AbstractSimplePredicate {
             context.apply(predicate);
         }
     }
+
+    @Override
+    public Expression toExpressionTree(RenderContext context) {
+        Predicate treePredicate = (Predicate) context.toExpressionTree(predicate);
+        if (treePredicate == null) {
+            return null;
+        }
+        if (treePredicate.isNegated()) {
+            // Wrap to maintain the negation structure like the parser does
+            treePredicate = new com.blazebit.persistence.parser.predicate.CompoundPredicate(com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND, treePredicate);
+        }
+        treePredicate.negate();
+        return treePredicate;
+    }
 }
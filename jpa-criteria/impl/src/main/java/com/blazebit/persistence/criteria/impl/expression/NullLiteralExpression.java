@@ -8,6 +8,8 @@ package com.blazebit.persistence.criteria.impl.expression;
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.NullExpression;
 
 /**
  * @author Christian Beikov
@@ -31,4 +33,9 @@ public class NullLiteralExpression<T> extends AbstractExpression<T> {
         context.getBuffer().append("NULL");
     }
 
+    @Override
+    public Expression toExpressionTree(RenderContext context) {
+        return NullExpression.INSTANCE;
+    }
+
 }
@@ -75,15 +75,22 @@ public class ParameterExpressionImpl<T> extends AbstractExpression<T> implements
 
     @Override
     public void render(RenderContext context) {
-        final String paramName;
+        context.getBuffer().append(':').append(registerParameter(context));
+    }
+
+    @Override
+    public com.blazebit.persistence.parser.expression.Expression toExpressionTree(RenderContext context) {
+        return new com.blazebit.persistence.parser.expression.ParameterExpression(registerParameter(context));
+    }
+
+    private String registerParameter(RenderContext context) {
         if (value == null) {
-            paramName = context.registerExplicitParameter(this);
+            return context.registerExplicitParameter(this);
         } else if (value == NULL_VALUE) {
-            paramName = context.registerLiteralParameterBinding(null, getJavaType());
+            return context.registerLiteralParameterBinding(null, getJavaType());
         } else {
-            paramName = context.registerLiteralParameterBinding(value, getJavaType());
+            return context.registerLiteralParameterBinding(value, getJavaType());
         }
-        context.getBuffer().append(':').append(paramName);
     }
 
     @Override
@@ -17,6 +17,8 @@ import com.blazebit.persistence.criteria.impl.ParameterVisitor;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.expression.FromSelection;
 import com.blazebit.persistence.criteria.impl.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
 
 import javax.persistence.criteria.Fetch;
 import javax.persistence.criteria.Join;
@@ -33,10 +35,12 @@ import javax.persistence.metamodel.SetAttribute;
 import javax.persistence.metamodel.SingularAttribute;
 import javax.persistence.metamodel.Type;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -115,6 +119,27 @@ public abstract class AbstractFrom<Z, X> extends AbstractPath<X> implements Blaz
         context.getBuffer().append(resolveAlias(context));
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        if (this instanceof TreatedPath<?>) {
+            return false;
+        }
+        if (getAttribute() != null && getAttribute().getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED
+                && !getBasePath().appendPathElements(context, new ArrayList<PathElementExpression>())) {
+            // The alias of an embeddable join is based on the path of the parent
+            return false;
+        }
+        String alias = resolveAlias(context);
+        int start = 0;
+        int dotIndex;
+        while ((dotIndex = alias.indexOf('.', start)) != -1) {
+            pathElements.add(new PropertyExpression(alias.substring(start, dotIndex)));
+            start = dotIndex + 1;
+        }
+        pathElements.add(new PropertyExpression(alias.substring(start)));
+        return true;
+    }
+
     @Override
     public Attribute<?, ?> getAttribute() {
         return null;
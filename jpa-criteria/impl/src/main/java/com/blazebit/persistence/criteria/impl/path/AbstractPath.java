@@ -11,6 +11,10 @@ import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
 import com.blazebit.persistence.criteria.impl.expression.AbstractExpression;
 import com.blazebit.persistence.criteria.impl.expression.PathTypeExpression;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
+import com.blazebit.persistence.parser.expression.PathExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
@@ -18,8 +22,10 @@ import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.MapAttribute;
 import javax.persistence.metamodel.PluralAttribute;
 import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -187,6 +193,35 @@ public abstract class AbstractPath<X> extends AbstractExpression<X> implements B
         }
     }
 
+    @Override
+    public Expression toExpressionTree(RenderContext context) {
+        List<PathElementExpression> pathElements = new ArrayList<>();
+        if (!appendPathElements(context, pathElements)) {
+            return null;
+        }
+        return new PathExpression(pathElements);
+    }
+
+    /**
+     * Appends the path elements of this path to the given list.
+     *
+     * @param context The render context
+     * @param pathElements The path elements
+     * @return <code>false</code> if the path has no expression tree translation and must be rendered
+     * @since 1.6.21
+     */
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        if (this instanceof TreatedPath<?>) {
+            return false;
+        }
+        AbstractPath<?> base = getBasePath();
+        if (base != null && !base.appendPathElements(context, pathElements)) {
+            return false;
+        }
+        pathElements.add(new PropertyExpression(getAttribute().getName()));
+        return true;
+    }
+
     private void checkDereferenceAllowed() {
         if (!isDereferencable()) {
             throw new IllegalArgumentException("Dereferencing attributes in '" + getPathExpression() + "' is not allowed!");
@@ -7,11 +7,13 @@ package com.blazebit.persistence.criteria.impl.path;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Bindable;
 import javax.persistence.metamodel.MapAttribute;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -69,6 +71,11 @@ public class MapKeyBasePath<K, V> extends AbstractPath<Map<K, V>> implements Pat
         return false;
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        return false;
+    }
+
     @Override
     protected Attribute<?, ?> findAttribute(String attributeName) {
         throw new IllegalArgumentException("Map [" + mapJoin.getPathExpression() + "] cannot be dereferenced");
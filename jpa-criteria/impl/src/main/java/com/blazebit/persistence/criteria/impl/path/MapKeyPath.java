@@ -7,11 +7,13 @@ package com.blazebit.persistence.criteria.impl.path;
 
 import com.blazebit.persistence.criteria.impl.BlazeCriteriaBuilderImpl;
 import com.blazebit.persistence.criteria.impl.RenderContext;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
 
 import javax.persistence.criteria.Path;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Bindable;
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * @author Christian Beikov
@@ -78,6 +80,11 @@ public class MapKeyPath<K> extends AbstractPath<K> implements Path<K>, Serializa
         buffer.append(')');
     }
 
+    @Override
+    protected boolean appendPathElements(RenderContext context, List<PathElementExpression> pathElements) {
+        return false;
+    }
+
     @Override
     protected Attribute<?, ?> findAttribute(String attributeName) {
         if (!isDereferencable()) {
@@ -0,0 +1,260 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.criteria;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.AbstractCoreTest;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Document_;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.Person_;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBase;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBaseContainer;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub1;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub1_;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub2;
+import org.junit.Test;
+
+import javax.persistence.Parameter;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the queries built from expression trees with the queries built by parsing the equivalent JPQL.
+ * Expressions without an expression tree translation must fall back to rendering without leaving parameters behind.
+ *
+ * @author Christian Beikov
+ * @since 1.6.21
+ */
+public class ExpressionTreeTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return concat(super.getEntityClasses(), new Class<?>[] {
+                PolymorphicBase.class,
+                PolymorphicSub1.class,
+                PolymorphicSub2.class,
+                PolymorphicBaseContainer.class
+        });
+    }
+
+    @Test
+    public void selectWithFunctionAndSubqueryFallback() {
+        BlazeCriteriaQuery<Tuple> cq = BlazeCriteria.get(cbf, Tuple.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        BlazeSubquery<Long> subquery = cq.subquery(Long.class);
+        BlazeRoot<Person> person = subquery.from(Person.class, "person");
+        subquery.select(cb.count(person.get(Person_.id)));
+        subquery.where(cb.equal(person.get(Person_.age), root.get(Document_.age)));
+
+        cq.multiselect(
+                root.get(Document_.id),
+                root.get(Document_.owner).get(Person_.name),
+                cb.upper(root.get(Document_.name)),
+                subquery
+        );
+
+        CriteriaBuilder<Tuple> expected = cbf.create(em, Tuple.class)
+                .from(Document.class, "document")
+                .select("document.id")
+                .select("document.owner.name")
+                .select("UPPER(document.name)")
+                .selectSubquery()
+                    .from(Person.class, "person")
+                    .select("COUNT(person.id)")
+                    .where("person.age").eqExpression("document.age")
+                .end();
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void selectTreatFallback() {
+        BlazeCriteriaQuery<Integer> cq = BlazeCriteria.get(cbf, Integer.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<PolymorphicBase> root = cq.from(PolymorphicBase.class, "base");
+        cq.select(cb.treat(root, PolymorphicSub1.class).get(PolymorphicSub1_.sub1Value));
+
+        CriteriaBuilder<Integer> expected = cbf.create(em, Integer.class)
+                .from(PolymorphicBase.class, "base")
+                .select("TREAT(base AS PolymorphicSub1).sub1Value");
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void onWithPartialFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        BlazeJoin<Document, Person> owner = root.join(Document_.owner, "owner");
+        BlazeJoin<Document, Person> partner = root.join(Document_.partners, "partner", JoinType.LEFT);
+        // The first operand is translated before the function forces rendering the whole predicate
+        owner.on(cb.and(
+                cb.equal(owner.get(Person_.age), 1L),
+                cb.equal(cb.upper(owner.get(Person_.name)), "OWNER")
+        ));
+        partner.on(cb.isNotNull(partner.get(Person_.name)));
+        cq.select(root.get(Document_.id));
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .innerJoinOn("document.owner", "owner")
+                    .setOnExpression("owner.age = :generated_param_0 AND UPPER(owner.name) = :generated_param_1")
+                .leftJoinOn("document.partners", "partner")
+                    .on("partner.name").isNotNull()
+                .end()
+                .select("document.id")
+                .setParameter("generated_param_0", 1L)
+                .setParameter("generated_param_1", "OWNER");
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void whereTreatFallback() {
+        BlazeCriteriaQuery<PolymorphicBase> cq = BlazeCriteria.get(cbf, PolymorphicBase.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<PolymorphicBase> root = cq.from(PolymorphicBase.class, "base");
+        cq.select(root);
+        cq.where(cb.equal(cb.treat(root, PolymorphicSub1.class).get(PolymorphicSub1_.sub1Value), 1));
+
+        CriteriaBuilder<PolymorphicBase> expected = cbf.create(em, PolymorphicBase.class)
+                .from(PolymorphicBase.class, "base")
+                .select("base")
+                .setWhereExpression("TREAT(base AS PolymorphicSub1).sub1Value = :generated_param_0")
+                .setParameter("generated_param_0", 1);
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void whereSubqueryFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        ParameterExpression<String> nameParam = cb.parameter(String.class, "name");
+        BlazeSubquery<Person> subquery = cq.subquery(Person.class);
+        BlazeRoot<Person> person = subquery.from(Person.class, "person");
+        subquery.where(cb.equal(person.get(Person_.age), root.get(Document_.age)));
+
+        cq.select(root.get(Document_.id));
+        cq.where(cb.and(
+                cb.equal(root.get(Document_.name), nameParam),
+                cb.exists(subquery)
+        ));
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .select("document.id")
+                .where("document.name").eqExpression(":name")
+                .whereExists()
+                    .from(Person.class, "person")
+                    .select("person")
+                    .where("person.age").eqExpression("document.age")
+                .end();
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void groupByWithFunctionFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        cq.select(cb.count(root.get(Document_.id)));
+        cq.groupBy(root.get(Document_.age), cb.upper(root.get(Document_.name)));
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .select("COUNT(document.id)")
+                .groupBy("document.age")
+                .groupBy("UPPER(document.name)");
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void havingWithPartialFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        ParameterExpression<Long> ageParam = cb.parameter(Long.class, "age");
+        ParameterExpression<Long> countParam = cb.parameter(Long.class, "minCount");
+        cq.select(root.get(Document_.age));
+        cq.groupBy(root.get(Document_.age));
+        cq.having(cb.and(
+                cb.equal(root.get(Document_.age), ageParam),
+                cb.gt(cb.count(root.get(Document_.id)), countParam)
+        ));
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .select("document.age")
+                .groupBy("document.age")
+                .setHavingExpression("document.age = :age AND COUNT(document.id) > :minCount");
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void havingWithoutFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        cq.select(root.get(Document_.age));
+        cq.groupBy(root.get(Document_.age));
+        cq.having(cb.or(
+                cb.equal(root.get(Document_.age), 1L),
+                root.get(Document_.age).in(2L, 3L)
+        ));
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .select("document.age")
+                .groupBy("document.age")
+                .setHavingExpression("document.age = :generated_param_0 OR document.age IN (:generated_param_1)")
+                .setParameter("generated_param_0", 1L)
+                .setParameter("generated_param_1", Arrays.asList(2L, 3L));
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    @Test
+    public void orderByWithFunctionFallback() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<Document> root = cq.from(Document.class, "document");
+        cq.select(root.get(Document_.id));
+        cq.orderBy(
+                cb.desc(cb.upper(root.get(Document_.name))),
+                cb.asc(root.get(Document_.id))
+        );
+
+        CriteriaBuilder<Long> expected = cbf.create(em, Long.class)
+                .from(Document.class, "document")
+                .select("document.id")
+                .orderByDesc("UPPER(document.name)")
+                .orderByAsc("document.id");
+        assertSameQuery(expected, cq.createCriteriaBuilder(em));
+    }
+
+    private static void assertSameQuery(CriteriaBuilder<?> expected, CriteriaBuilder<?> actual) {
+        assertEquals(expected.getQueryString(), actual.getQueryString());
+        Set<String> parameterNames = getParameterNames(expected);
+        assertEquals(parameterNames, getParameterNames(actual));
+        for (String parameterName : parameterNames) {
+            assertEquals(expected.getParameterValue(parameterName), actual.getParameterValue(parameterName));
+        }
+    }
+
+    private static Set<String> getParameterNames(CriteriaBuilder<?> criteriaBuilder) {
+        Set<String> parameterNames = new TreeSet<>();
+        for (Parameter<?> parameter : criteriaBuilder.getParameters()) {
+            parameterNames.add(parameter.getName());
+        }
+        return parameterNames;
+    }
+}
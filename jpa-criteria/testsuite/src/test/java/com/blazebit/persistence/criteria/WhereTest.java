@@ -530,4 +530,33 @@ public class WhereTest extends AbstractCoreTest {
         assertEquals("abc\\_%", criteriaBuilder.getParameterValue("generated_param_0"));
         assertEquals('\\', criteriaBuilder.getParameterValue("generated_param_1"));
     }
+
+    @Test
+    public void commonPredicatesWithoutParsing() {
+        BlazeCriteriaQuery<Long> cq = BlazeCriteria.get(cbf, Long.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        Root<Document> root = cq.from(Document.class, "document");
+        ParameterExpression<String> nameParam = cb.parameter(String.class, "name");
+
+        cq.select(root.get(Document_.id));
+        cq.where(cb.and(
+                cb.or(
+                        cb.like(root.get(Document_.name), nameParam),
+                        cb.isNull(root.get(Document_.name))
+                ),
+                cb.not(cb.equal(root.get(Document_.age), 1L)),
+                cb.between(root.get(Document_.idx), cb.literal(1), cb.literal(10)),
+                root.get(Document_.age).in(1L, 2L),
+                cb.isNotEmpty(root.get(Document_.partners)),
+                cb.and()
+        ));
+        cq.groupBy(root.get(Document_.id));
+        cq.orderBy(cb.desc(root.get(Document_.id)));
+
+        CriteriaBuilder<?> criteriaBuilder = cq.createCriteriaBuilder(em);
+        assertEquals("SELECT document.id FROM Document document WHERE (document.name LIKE :name OR document.name IS NULL) AND document.age <> :generated_param_0 " +
+                "AND document.idx BETWEEN 1 AND 10 AND document.age IN (:generated_param_1) AND document.partners IS NOT EMPTY AND 1 = 1 " +
+                "GROUP BY document.id ORDER BY document.id DESC", criteriaBuilder.getQueryString());
+        assertEquals(Arrays.asList(1L, 2L), criteriaBuilder.getParameterValue("generated_param_1"));
+    }
 }